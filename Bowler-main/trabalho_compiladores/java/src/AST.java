@@ -1,48 +1,19 @@
 import java.util.*;
 
 public class AST {
-    public static class InterpolatedString implements Expr {
+    public static final class InterpolatedString implements Expr {
         public final java.util.List<Object> parts; // String ou Expr
 
         public InterpolatedString(java.util.List<Object> parts) {
             this.parts = parts;
         }
 
-        public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("InterpolatedString [");
-            for (Object p : parts) {
-                if (p instanceof String) {
-                    indent(i + 1);
-                    System.out.println("str: '" + p + "'");
-                } else if (p instanceof Expr) {
-                    indent(i + 1);
-                    System.out.println("expr:");
-                    ((Expr) p).prettyPrint(i + 2);
-                }
-            }
-            indent(i);
-            System.out.println("]");
-        }
-
-        public String toDetailedString() {
-            StringBuilder sb = new StringBuilder();
-            sb.append("InterpolatedString[");
-            for (Object p : parts) {
-                if (p instanceof String) {
-                    sb.append("str:'").append(p).append("', ");
-                } else if (p instanceof Expr) {
-                    sb.append("expr:").append(((Expr) p).toDetailedString()).append(", ");
-                }
-            }
-            if (!parts.isEmpty())
-                sb.setLength(sb.length() - 2); // remove última vírgula
-            sb.append("]");
-            return sb.toString();
+        public <R> R accept(Visitor<R> v) {
+            return v.visitInterpolatedString(this);
         }
     }
 
-    public static class Ternary implements Expr {
+    public static final class Ternary implements Expr {
         public final Expr cond;
         public final Expr thenExpr;
         public final Expr elseExpr;
@@ -53,90 +24,54 @@ public class AST {
             this.elseExpr = elseExpr;
         }
 
-        public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("Ternary");
-            indent(i + 1);
-            System.out.println("cond:");
-            cond.prettyPrint(i + 2);
-            indent(i + 1);
-            System.out.println("then:");
-            thenExpr.prettyPrint(i + 2);
-            indent(i + 1);
-            System.out.println("else:");
-            elseExpr.prettyPrint(i + 2);
-        }
-
-        public String toDetailedString() {
-            return "Ternary(cond:" + cond.toDetailedString() + ", then:" + thenExpr.toDetailedString() + ", else:"
-                    + elseExpr.toDetailedString() + ")";
+        public <R> R accept(Visitor<R> v) {
+            return v.visitTernary(this);
         }
     }
 
-    public static class Print implements Statement {
+    public static final class Print implements Statement {
         public final Expr value;
 
         public Print(Expr value) {
             this.value = value;
         }
 
-        public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("Print");
-            value.prettyPrint(i + 1);
-        }
-
-        public String toDetailedString() {
-            return "Print(" + value.toDetailedString() + ")";
+        public <R> R accept(Visitor<R> v) {
+            return v.visitPrint(this);
         }
     }
 
-    public static class Input implements Expr {
+    public static final class Input implements Expr {
         public final String prompt;
 
         public Input(String prompt) {
             this.prompt = prompt;
         }
 
-        public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("Input(prompt='" + prompt + "')");
-        }
-
-        public String toDetailedString() {
-            return "Input(prompt='" + prompt + "')";
+        public <R> R accept(Visitor<R> v) {
+            return v.visitInput(this);
         }
     }
 
-    public static class Break implements Statement {
+    public static final class Break implements Statement {
         public Break() {
         }
 
-        public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("Break");
-        }
-
-        public String toDetailedString() {
-            return "Break";
+        public <R> R accept(Visitor<R> v) {
+            return v.visitBreak(this);
         }
     }
 
-    public static class Continue implements Statement {
+    public static final class Continue implements Statement {
         public Continue() {
         }
 
-        public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("Continue");
-        }
-
-        public String toDetailedString() {
-            return "Continue";
+        public <R> R accept(Visitor<R> v) {
+            return v.visitContinue(this);
         }
     }
 
-    public static class Switch implements Statement {
+    public static final class Switch implements Statement {
         public final Expr expr;
         public final java.util.List<Case> cases;
         public final Block defaultBlock;
@@ -147,37 +82,12 @@ public class AST {
             this.defaultBlock = defaultBlock;
         }
 
-        public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("Switch");
-            indent(i + 1);
-            System.out.println("expr:");
-            expr.prettyPrint(i + 2);
-            for (Case c : cases)
-                c.prettyPrint(i + 1);
-            if (defaultBlock != null) {
-                indent(i + 1);
-                System.out.println("default:");
-                defaultBlock.prettyPrint(i + 2);
-            }
-        }
-
-        public String toDetailedString() {
-            StringBuilder sb = new StringBuilder();
-            sb.append("Switch(expr:").append(expr.toDetailedString()).append(", cases:[");
-            for (Case c : cases)
-                sb.append(c.toDetailedString()).append(", ");
-            if (!cases.isEmpty())
-                sb.setLength(sb.length() - 2);
-            sb.append("]");
-            if (defaultBlock != null)
-                sb.append(", default:").append(defaultBlock.toDetailedString());
-            sb.append(")");
-            return sb.toString();
+        public <R> R accept(Visitor<R> v) {
+            return v.visitSwitch(this);
         }
     }
 
-    public static class Case {
+    public static final class Case {
         public final Expr value;
         public final Block block;
 
@@ -187,18 +97,15 @@ public class AST {
         }
 
         public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("case:");
-            value.prettyPrint(i + 1);
-            block.prettyPrint(i + 1);
+            AstPrinter.pretty(this, i, System.out);
         }
 
         public String toDetailedString() {
-            return "Case(value:" + value.toDetailedString() + ", block:" + block.toDetailedString() + ")";
+            return AstPrinter.detailed(this);
         }
     }
 
-    public static class For implements Statement {
+    public static final class For implements Statement {
         public final Statement init;
         public final Expr cond;
         public final Expr inc;
@@ -211,66 +118,25 @@ public class AST {
             this.body = body;
         }
 
-        public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("For");
-            if (init != null) {
-                indent(i + 1);
-                System.out.println("init:");
-                init.prettyPrint(i + 2);
-            }
-            if (cond != null) {
-                indent(i + 1);
-                System.out.println("cond:");
-                cond.prettyPrint(i + 2);
-            }
-            if (inc != null) {
-                indent(i + 1);
-                System.out.println("inc:");
-                inc.prettyPrint(i + 2);
-            }
-            indent(i + 1);
-            System.out.println("body:");
-            body.prettyPrint(i + 2);
-        }
-
-        public String toDetailedString() {
-            return "For(init:" + (init != null ? init.toDetailedString() : "null") + ", cond:"
-                    + (cond != null ? cond.toDetailedString() : "null") + ", inc:"
-                    + (inc != null ? inc.toDetailedString() : "null") + ", body:" + body.toDetailedString() + ")";
+        public <R> R accept(Visitor<R> v) {
+            return v.visitFor(this);
         }
     }
 
     // ...existing code...
-    public static class ArrayLiteral implements Expr {
+    public static final class ArrayLiteral implements Expr {
         public final java.util.List<Expr> elements;
 
         public ArrayLiteral(java.util.List<Expr> elements) {
             this.elements = elements;
         }
 
-        public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("ArrayLiteral [");
-            for (Expr e : elements)
-                e.prettyPrint(i + 1);
-            indent(i);
-            System.out.println("]");
-        }
-
-        public String toDetailedString() {
-            StringBuilder sb = new StringBuilder();
-            sb.append("ArrayLiteral[");
-            for (Expr e : elements)
-                sb.append(e.toDetailedString()).append(", ");
-            if (!elements.isEmpty())
-                sb.setLength(sb.length() - 2);
-            sb.append("]");
-            return sb.toString();
+        public <R> R accept(Visitor<R> v) {
+            return v.visitArrayLiteral(this);
         }
     }
 
-    public static class ArrayAccess implements Expr {
+    public static final class ArrayAccess implements Expr {
         public final Expr array;
         public final Expr index;
 
@@ -279,20 +145,13 @@ public class AST {
             this.index = index;
         }
 
-        public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("ArrayAccess");
-            array.prettyPrint(i + 1);
-            index.prettyPrint(i + 1);
-        }
-
-        public String toDetailedString() {
-            return "ArrayAccess(array:" + array.toDetailedString() + ", index:" + index.toDetailedString() + ")";
+        public <R> R accept(Visitor<R> v) {
+            return v.visitArrayAccess(this);
         }
     }
 
     // --- Nó de Tipo ---
-    public static class TypeNode {
+    public static final class TypeNode {
         public final String name;
 
         public TypeNode(String n) {
@@ -300,13 +159,12 @@ public class AST {
         }
 
         public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("Type(" + name + ")");
+            AstPrinter.pretty(this, i, System.out);
         }
     }
 
     // --- Programa ---
-    public static class Program {
+    public static final class Program {
         public final Block mainBlock;
 
         public Program(Block b) {
@@ -314,54 +172,91 @@ public class AST {
         }
 
         public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("Program");
-            indent(i + 1);
-            System.out.println("main:");
-            mainBlock.prettyPrint(i + 2);
+            AstPrinter.pretty(this, i, System.out);
         }
 
         public String toDetailedString() {
-            return "Program(main:" + mainBlock.toDetailedString() + ")";
+            return AstPrinter.detailed(this);
         }
     }
 
+    // --- Visitante ---
+    // Statement e Expr são selados: todo nó é uma das classes deste arquivo, e
+    // accept() despacha para o visit correspondente (impressões em AstPrinter)
+    public interface Visitor<R> {
+        R visitBlock(Block s);
+
+        R visitVarDecl(VarDecl s);
+
+        R visitIf(If s);
+
+        R visitWhile(While s);
+
+        R visitDoWhile(DoWhile s);
+
+        R visitFor(For s);
+
+        R visitSwitch(Switch s);
+
+        R visitReturn(Return s);
+
+        R visitPrint(Print s);
+
+        R visitBreak(Break s);
+
+        R visitContinue(Continue s);
+
+        R visitExprStmt(ExprStmt s);
+
+        R visitLiteral(Literal e);
+
+        R visitVariable(Variable e);
+
+        R visitGrouping(Grouping e);
+
+        R visitUnary(Unary e);
+
+        R visitBinary(Binary e);
+
+        R visitAssign(Assign e);
+
+        R visitTernary(Ternary e);
+
+        R visitInput(Input e);
+
+        R visitArrayLiteral(ArrayLiteral e);
+
+        R visitArrayAccess(ArrayAccess e);
+
+        R visitInterpolatedString(InterpolatedString e);
+    }
+
     // --- Bloco e Statements ---
-    public interface Statement {
-        void prettyPrint(int i);
+    public sealed interface Statement {
+        <R> R accept(Visitor<R> v);
+
+        default void prettyPrint(int i) {
+            AstPrinter.pretty(this, i, System.out);
+        }
 
-        String toDetailedString();
+        default String toDetailedString() {
+            return AstPrinter.detailed(this);
+        }
     }
 
-    public static class Block implements Statement {
+    public static final class Block implements Statement {
         public final List<Statement> statements;
 
         public Block(List<Statement> stmts) {
             this.statements = stmts;
         }
 
-        public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("Block {");
-            for (Statement s : statements)
-                s.prettyPrint(i + 1);
-            indent(i);
-            System.out.println("}");
-        }
-
-        public String toDetailedString() {
-            StringBuilder sb = new StringBuilder();
-            sb.append("Block[");
-            for (Statement s : statements)
-                sb.append(s.toDetailedString()).append(", ");
-            if (!statements.isEmpty())
-                sb.setLength(sb.length() - 2);
-            sb.append("]");
-            return sb.toString();
+        public <R> R accept(Visitor<R> v) {
+            return v.visitBlock(this);
         }
     }
 
-    public static class VarDecl implements Statement {
+    public static final class VarDecl implements Statement {
         public final Token name;
         public final TypeNode type;
         public final Expr initializer;
@@ -372,24 +267,12 @@ public class AST {
             initializer = init;
         }
 
-        public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("VarDecl " + name.lexeme + ":");
-            type.prettyPrint(i + 1);
-            if (initializer != null) {
-                indent(i + 1);
-                System.out.println("init:");
-                initializer.prettyPrint(i + 2);
-            }
-        }
-
-        public String toDetailedString() {
-            return "VarDecl(name:" + name.lexeme + ", type:" + type.name
-                    + (initializer != null ? ", init:" + initializer.toDetailedString() : "") + ")";
+        public <R> R accept(Visitor<R> v) {
+            return v.visitVarDecl(this);
         }
     }
 
-    public static class If implements Statement {
+    public static final class If implements Statement {
         public final Expr cond;
         public final Block thenB;
         public final Block elseB;
@@ -400,29 +283,12 @@ public class AST {
             elseB = e;
         }
 
-        public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("If");
-            indent(i + 1);
-            System.out.println("cond:");
-            cond.prettyPrint(i + 2);
-            indent(i + 1);
-            System.out.println("then:");
-            thenB.prettyPrint(i + 2);
-            if (elseB != null) {
-                indent(i + 1);
-                System.out.println("else:");
-                elseB.prettyPrint(i + 2);
-            }
-        }
-
-        public String toDetailedString() {
-            return "If(cond:" + cond.toDetailedString() + ", then:" + thenB.toDetailedString()
-                    + (elseB != null ? ", else:" + elseB.toDetailedString() : "") + ")";
+        public <R> R accept(Visitor<R> v) {
+            return v.visitIf(this);
         }
     }
 
-    public static class While implements Statement {
+    public static final class While implements Statement {
         public final Expr cond;
         public final Block body;
 
@@ -431,23 +297,12 @@ public class AST {
             body = b;
         }
 
-        public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("While");
-            indent(i + 1);
-            System.out.println("cond:");
-            cond.prettyPrint(i + 2);
-            indent(i + 1);
-            System.out.println("body:");
-            body.prettyPrint(i + 2);
-        }
-
-        public String toDetailedString() {
-            return "While(cond:" + cond.toDetailedString() + ", body:" + body.toDetailedString() + ")";
+        public <R> R accept(Visitor<R> v) {
+            return v.visitWhile(this);
         }
     }
 
-    public static class DoWhile implements Statement {
+    public static final class DoWhile implements Statement {
         public final Block body;
         public final Expr cond;
 
@@ -456,121 +311,85 @@ public class AST {
             cond = c;
         }
 
-        public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("DoWhile");
-            indent(i + 1);
-            System.out.println("body:");
-            body.prettyPrint(i + 2);
-            indent(i + 1);
-            System.out.println("cond:");
-            cond.prettyPrint(i + 2);
-        }
-
-        public String toDetailedString() {
-            return "DoWhile(body:" + body.toDetailedString() + ", cond:" + cond.toDetailedString() + ")";
+        public <R> R accept(Visitor<R> v) {
+            return v.visitDoWhile(this);
         }
     }
 
-    public static class Return implements Statement {
+    public static final class Return implements Statement {
         public final Expr value;
 
         public Return(Expr v) {
             value = v;
         }
 
-        public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("Return");
-            if (value != null)
-                value.prettyPrint(i + 1);
-        }
-
-        public String toDetailedString() {
-            return "Return(" + (value != null ? value.toDetailedString() : "") + ")";
+        public <R> R accept(Visitor<R> v) {
+            return v.visitReturn(this);
         }
     }
 
-    public static class ExprStmt implements Statement {
+    public static final class ExprStmt implements Statement {
         public final Expr expr;
 
         public ExprStmt(Expr e) {
             expr = e;
         }
 
-        public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("ExprStmt");
-            expr.prettyPrint(i + 1);
-        }
-
-        public String toDetailedString() {
-            return "ExprStmt(" + expr.toDetailedString() + ")";
+        public <R> R accept(Visitor<R> v) {
+            return v.visitExprStmt(this);
         }
     }
 
     // --- Expressões ---
-    public interface Expr {
-        void prettyPrint(int i);
+    public sealed interface Expr {
+        <R> R accept(Visitor<R> v);
+
+        default void prettyPrint(int i) {
+            AstPrinter.pretty(this, i, System.out);
+        }
 
-        String toDetailedString();
+        default String toDetailedString() {
+            return AstPrinter.detailed(this);
+        }
     }
 
-    public static class Literal implements Expr {
+    public static final class Literal implements Expr {
         public final Object value;
 
         public Literal(Object v) {
             value = v;
         }
 
-        public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("Literal(" + value + ")");
-        }
-
-        public String toDetailedString() {
-            return "Literal(" + value + ")";
+        public <R> R accept(Visitor<R> v) {
+            return v.visitLiteral(this);
         }
     }
 
-    public static class Variable implements Expr {
+    public static final class Variable implements Expr {
         public final Token name;
 
         public Variable(Token n) {
             name = n;
         }
 
-        public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("Var(" + name.lexeme + ")");
-        }
-
-        public String toDetailedString() {
-            return "Var(" + name.lexeme + ")";
+        public <R> R accept(Visitor<R> v) {
+            return v.visitVariable(this);
         }
     }
 
-    public static class Grouping implements Expr {
+    public static final class Grouping implements Expr {
         public final Expr expr;
 
         public Grouping(Expr e) {
             expr = e;
         }
 
-        public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("Group(");
-            expr.prettyPrint(i + 1);
-            indent(i);
-            System.out.println(")");
-        }
-
-        public String toDetailedString() {
-            return "Group(" + expr.toDetailedString() + ")";
+        public <R> R accept(Visitor<R> v) {
+            return v.visitGrouping(this);
         }
     }
 
-    public static class Unary implements Expr {
+    public static final class Unary implements Expr {
         public final Token op;
         public final Expr right;
 
@@ -579,18 +398,12 @@ public class AST {
             right = r;
         }
 
-        public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("Unary " + op.type);
-            right.prettyPrint(i + 1);
-        }
-
-        public String toDetailedString() {
-            return "Unary(" + op.type + ", " + right.toDetailedString() + ")";
+        public <R> R accept(Visitor<R> v) {
+            return v.visitUnary(this);
         }
     }
 
-    public static class Binary implements Expr {
+    public static final class Binary implements Expr {
         public final Expr left;
         public final Token op;
         public final Expr right;
@@ -601,19 +414,12 @@ public class AST {
             right = r;
         }
 
-        public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("Binary " + op.type);
-            left.prettyPrint(i + 1);
-            right.prettyPrint(i + 1);
-        }
-
-        public String toDetailedString() {
-            return "Binary(" + left.toDetailedString() + ", " + op.type + ", " + right.toDetailedString() + ")";
+        public <R> R accept(Visitor<R> v) {
+            return v.visitBinary(this);
         }
     }
 
-    public static class Assign implements Expr {
+    public static final class Assign implements Expr {
         public final Token name;
         public final Expr value;
         public final Token equals;
@@ -624,14 +430,8 @@ public class AST {
             equals = e;
         }
 
-        public void prettyPrint(int i) {
-            indent(i);
-            System.out.println("Assign " + name.lexeme);
-            value.prettyPrint(i + 1);
-        }
-
-        public String toDetailedString() {
-            return "Assign(" + name.lexeme + ", " + value.toDetailedString() + ")";
+        public <R> R accept(Visitor<R> v) {
+            return v.visitAssign(this);
         }
     }
 
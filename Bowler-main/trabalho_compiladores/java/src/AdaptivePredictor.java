@@ -0,0 +1,374 @@
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AdaptivePredictor - Predição adaptativa (estilo ALL(*)) para as células
+ * M[A, a] em conflito da tabela LL(1)
+ *
+ * Quando uma célula tem mais de uma produção candidata, o parser não escolhe
+ * arbitrariamente: cada alternativa é simulada sobre os próximos tokens até
+ * que reste apenas uma viável.
+ *
+ * 1. Modo SLL (cacheado): as alternativas são simuladas só com os símbolos da
+ * própria produção. Se a produção termina, a configuração continua viva
+ * apenas se o próximo terminal estiver em FOLLOW(A) (curinga). Cada conjunto
+ * de configurações vira um estado de um DFA por decisão, e as transições
+ * (por terminal) ficam memorizadas: a mesma sequência de lookahead é
+ * decidida depois sem nova simulação.
+ * 2. Contexto completo (fallback, não cacheado): se o SLL não distingue as
+ * alternativas, a simulação é refeita sobre a pilha real do parser.
+ *
+ * Células sem conflito nunca passam por aqui: continuam uma consulta simples
+ * à tabela.
+ *
+ * Uma instância pode ser compartilhada por parsers em threads diferentes
+ * (ver CompiledGrammar): os DFAs crescem em mapas concorrentes e, se duas
+ * threads criam a mesma transição, fica a primeira publicada.
+ */
+public class AdaptivePredictor {
+
+    private static final int UNDECIDED = -1;
+    private static final int SLL_CONFLICT = -2; // SLL não decide: usar contexto completo
+    private static final int NO_ALT = -3; // nenhuma alternativa viável (erro de sintaxe adiante)
+    private static final int MAX_LOOKAHEAD = 10000;
+    private static final int MAX_STACK = 10000;
+
+    private final Map<String, Map<String, List<String>>> parsingTable;
+    private final Map<String, Map<String, List<List<String>>>> conflictAlternatives;
+    private final Set<String> nonTerminals;
+    private final Map<String, Set<String>> follow;
+
+    // Cache de DFAs: decisão (A, a) → DFA
+    private final Map<String, Map<String, Decision>> decisions = new ConcurrentHashMap<>();
+
+    // Estatísticas
+    private final LongAdder predictions = new LongAdder();
+    private final LongAdder cachedTransitions = new LongAdder();
+    private final LongAdder fullContextPredictions = new LongAdder();
+    private final AtomicInteger dfaStates = new AtomicInteger();
+
+    public AdaptivePredictor(LL1GrammarAnalyzer analyzer) {
+        this(analyzer.getParsingTable(), analyzer.getConflictAlternatives(), analyzer.getNonTerminals(),
+                analyzer.getFollow());
+    }
+
+    public AdaptivePredictor(Map<String, Map<String, List<String>>> parsingTable,
+            Map<String, Map<String, List<List<String>>>> conflictAlternatives,
+            Set<String> nonTerminals,
+            Map<String, Set<String>> follow) {
+        this.parsingTable = parsingTable;
+        this.conflictAlternatives = conflictAlternatives;
+        this.nonTerminals = nonTerminals;
+        this.follow = follow;
+    }
+
+    /**
+     * Configuração da simulação: alternativa de origem e pilha local (topo no
+     * fim). "wildcard" indica que a pilha se esgotou e qualquer continuação é
+     * compatível.
+     */
+    private static final class Config {
+        final int alt;
+        final List<String> stack;
+        final boolean wildcard;
+
+        Config(int alt, List<String> stack, boolean wildcard) {
+            this.alt = alt;
+            this.stack = stack;
+            this.wildcard = wildcard;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Config)) {
+                return false;
+            }
+            Config c = (Config) o;
+            return alt == c.alt && wildcard == c.wildcard && stack.equals(c.stack);
+        }
+
+        @Override
+        public int hashCode() {
+            return (alt * 31 + (wildcard ? 1 : 0)) * 31 + stack.hashCode();
+        }
+    }
+
+    /**
+     * Estado do DFA de lookahead de uma decisão
+     */
+    private static final class DfaState {
+        final Set<Config> configs;
+        final int prediction;
+        final Map<String, DfaState> edges = new ConcurrentHashMap<>();
+
+        DfaState(Set<Config> configs, int prediction) {
+            this.configs = configs;
+            this.prediction = prediction;
+        }
+    }
+
+    /**
+     * Uma célula M[A, a] em conflito e seu DFA
+     */
+    private final class Decision {
+        final String nonTerminal;
+        final List<List<String>> alts;
+        final int defaultAlt;
+        final Map<Set<Config>, DfaState> states = new ConcurrentHashMap<>();
+        final DfaState start;
+
+        Decision(String nonTerminal, String terminal, List<List<String>> alts) {
+            this.nonTerminal = nonTerminal;
+            this.alts = alts;
+            // Escolha da tabela LL(1), usada quando nem o contexto completo decide
+            List<String> tableChoice = parsingTable.getOrDefault(nonTerminal, Collections.emptyMap()).get(terminal);
+            this.defaultAlt = Math.max(0, alts.indexOf(tableChoice));
+
+            Set<Config> initial = new LinkedHashSet<>();
+            for (int i = 0; i < alts.size(); i++) {
+                initial.add(new Config(i, pushProduction(Collections.emptyList(), alts.get(i)), false));
+            }
+            this.start = new DfaState(initial, UNDECIDED);
+            states.put(initial, start);
+            dfaStates.incrementAndGet();
+        }
+
+        DfaState stateFor(Set<Config> configs) {
+            return states.computeIfAbsent(configs, c -> {
+                dfaStates.incrementAndGet();
+                return new DfaState(c, classify(c));
+            });
+        }
+    }
+
+    /**
+     * Indica se M[A, a] é uma decisão adaptativa (célula em conflito)
+     */
+    public boolean isDecision(String nonTerminal, String terminal) {
+        Map<String, List<List<String>>> row = conflictAlternatives.get(nonTerminal);
+        return row != null && row.containsKey(terminal);
+    }
+
+    /**
+     * Escolhe a produção para M[A, a] olhando tokens a partir de "current".
+     * parserStack é a pilha do parser abaixo de A (fundo no índice 0), usada
+     * apenas no fallback de contexto completo.
+     */
+    public List<String> predict(String nonTerminal, String terminal, List<Token> tokens, int current,
+            List<String> parserStack) {
+        Decision d = decision(nonTerminal, terminal);
+        predictions.increment();
+        int alt = sllPredict(d, tokens, current);
+        if (alt == SLL_CONFLICT) {
+            fullContextPredictions.increment();
+            alt = fullContextPredict(d, tokens, current, parserStack);
+        } else if (alt == NO_ALT) {
+            alt = d.defaultAlt;
+        }
+        return d.alts.get(alt);
+    }
+
+    /**
+     * Predição apenas SLL (sem pilha do parser), para parsers recursivos como o
+     * gerado por ParserGenerator. Retorna o índice da alternativa na ordem da
+     * gramática; se o SLL não decidir, usa a escolha da tabela.
+     */
+    public int predictAlternative(String nonTerminal, String terminal, List<Token> tokens, int current) {
+        Decision d = decision(nonTerminal, terminal);
+        predictions.increment();
+        int alt = sllPredict(d, tokens, current);
+        return alt >= 0 ? alt : d.defaultAlt;
+    }
+
+    public List<List<String>> alternatives(String nonTerminal, String terminal) {
+        return decision(nonTerminal, terminal).alts;
+    }
+
+    private Decision decision(String nonTerminal, String terminal) {
+        Map<String, Decision> row = decisions.computeIfAbsent(nonTerminal, k -> new ConcurrentHashMap<>());
+        Decision d = row.get(terminal);
+        if (d == null) {
+            d = row.computeIfAbsent(terminal,
+                    t -> new Decision(nonTerminal, t, conflictAlternatives.get(nonTerminal).get(t)));
+        }
+        return d;
+    }
+
+    // ------------------ SLL com DFA ------------------
+
+    private int sllPredict(Decision d, List<Token> tokens, int current) {
+        DfaState state = d.start;
+        int i = current;
+        for (int k = 0; k < MAX_LOOKAHEAD; k++) {
+            if (state.prediction != UNDECIDED) {
+                return state.prediction;
+            }
+            String t = terminalAt(tokens, i);
+            DfaState next = state.edges.get(t);
+            if (next == null) {
+                DfaState created = d.stateFor(move(state.configs, t, d.nonTerminal, true));
+                next = state.edges.putIfAbsent(t, created);
+                if (next == null) {
+                    next = created;
+                }
+            } else {
+                cachedTransitions.increment();
+            }
+            if (next == state) {
+                return SLL_CONFLICT; // sem progresso (ex.: EOF repetido)
+            }
+            state = next;
+            i++;
+        }
+        return SLL_CONFLICT;
+    }
+
+    private int classify(Set<Config> configs) {
+        if (configs.isEmpty()) {
+            return NO_ALT;
+        }
+        int alt = -1;
+        boolean single = true;
+        boolean allWildcard = true;
+        for (Config c : configs) {
+            if (alt == -1) {
+                alt = c.alt;
+            } else if (c.alt != alt) {
+                single = false;
+            }
+            allWildcard &= c.wildcard;
+        }
+        if (single) {
+            return alt;
+        }
+        return allWildcard ? SLL_CONFLICT : UNDECIDED;
+    }
+
+    // ------------------ Contexto completo ------------------
+
+    private int fullContextPredict(Decision d, List<Token> tokens, int current, List<String> parserStack) {
+        Set<Config> configs = new LinkedHashSet<>();
+        for (int i = 0; i < d.alts.size(); i++) {
+            configs.add(new Config(i, pushProduction(parserStack, d.alts.get(i)), false));
+        }
+        int i = current;
+        for (int k = 0; k < MAX_LOOKAHEAD; k++) {
+            Set<Config> next = move(configs, terminalAt(tokens, i), d.nonTerminal, false);
+            int result = classify(next);
+            if (result >= 0) {
+                return result;
+            }
+            if (result == NO_ALT || result == SLL_CONFLICT || next.equals(configs)) {
+                // Entrada inválida ou ambiguidade real: mantém a escolha da tabela
+                return d.defaultAlt;
+            }
+            configs = next;
+            i++;
+        }
+        return d.defaultAlt;
+    }
+
+    // ------------------ Simulação ------------------
+
+    /**
+     * Avança todas as configurações consumindo o terminal t
+     */
+    private Set<Config> move(Set<Config> configs, String t, String decisionNt, boolean sll) {
+        Set<Config> out = new LinkedHashSet<>();
+        for (Config c : configs) {
+            if (c.wildcard) {
+                out.add(c);
+            } else {
+                closure(c.alt, c.stack, t, decisionNt, sll, out);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Expande não-terminais no topo (guiado pelo terminal t) até encontrar um
+     * terminal; se ele casa com t, a configuração sobrevive
+     */
+    private void closure(int alt, List<String> stack, String t, String decisionNt, boolean sll, Set<Config> out) {
+        if (stack.isEmpty()) {
+            // SLL: a produção da decisão terminou; t precisa poder seguir A
+            if (!sll || follow.getOrDefault(decisionNt, Collections.emptySet()).contains(t)) {
+                out.add(new Config(alt, Collections.emptyList(), true));
+            }
+            return;
+        }
+        if (stack.size() > MAX_STACK) {
+            return;
+        }
+        String top = stack.get(stack.size() - 1);
+        List<String> rest = stack.subList(0, stack.size() - 1);
+        if (nonTerminals.contains(top)) {
+            for (List<String> production : candidates(top, t)) {
+                closure(alt, pushProduction(rest, production), t, decisionNt, sll, out);
+            }
+        } else if (top.equals(t) || (top.equals("$") && t.equals("EOF"))) {
+            out.add(new Config(alt, new ArrayList<>(rest), false));
+        }
+    }
+
+    private List<List<String>> candidates(String nonTerminal, String terminal) {
+        Map<String, List<List<String>>> conflictRow = conflictAlternatives.get(nonTerminal);
+        if (conflictRow != null && conflictRow.containsKey(terminal)) {
+            return conflictRow.get(terminal);
+        }
+        List<String> production = parsingTable.getOrDefault(nonTerminal, Collections.emptyMap()).get(terminal);
+        return production == null ? Collections.emptyList() : Collections.singletonList(production);
+    }
+
+    private static List<String> pushProduction(List<String> stack, List<String> production) {
+        List<String> result = new ArrayList<>(stack.size() + production.size());
+        result.addAll(stack);
+        if (!(production.size() == 1 && production.get(0).equals("ε"))) {
+            for (int i = production.size() - 1; i >= 0; i--) {
+                result.add(production.get(i));
+            }
+        }
+        return result;
+    }
+
+    private static String terminalAt(List<Token> tokens, int i) {
+        return i < tokens.size() ? LL1StackParser.terminalOf(tokens.get(i).type) : "EOF";
+    }
+
+    public int getDecisionCount() {
+        int count = 0;
+        for (Map<String, Decision> row : decisions.values()) {
+            count += row.size();
+        }
+        return count;
+    }
+
+    public int getDfaStateCount() {
+        return dfaStates.get();
+    }
+
+    public long getPredictionCount() {
+        return predictions.sum();
+    }
+
+    public long getCachedTransitionCount() {
+        return cachedTransitions.sum();
+    }
+
+    public long getFullContextPredictionCount() {
+        return fullContextPredictions.sum();
+    }
+
+    /**
+     * Exibe estatísticas da predição adaptativa
+     */
+    public void printStats() {
+        System.out.println("\n=== Predição adaptativa (ALL(*)) ===");
+        System.out.println("Decisões usadas: " + getDecisionCount() + ", estados de DFA: " + getDfaStateCount());
+        System.out.println("Predições: " + getPredictionCount() + ", transições reaproveitadas do cache: "
+                + getCachedTransitionCount() + ", fallbacks de contexto completo: "
+                + getFullContextPredictionCount());
+    }
+}
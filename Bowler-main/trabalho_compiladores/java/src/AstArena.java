@@ -0,0 +1,727 @@
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * AstArena - AST em arena: nós em vetores primitivos paralelos
+ *
+ * Cada nó AST.* é um objeto no heap (mais ArrayLists nos blocos e literais
+ * como Object). Aqui um nó é um índice int e seus campos ficam em vetores:
+ * kind (tipos de BinaryAst), firstChild, nextSibling, token (linha da
+ * tabela de tokens, também em colunas: tipo, lexema, linha, coluna) e slot
+ * (literal, string ou segundo token, conforme o tipo). Literais ficam sem
+ * boxing em literalTypes/literalBits. reset() esvazia a arena mantendo a
+ * capacidade, então um lote de arquivos reusa os mesmos vetores e quase
+ * não gera lixo; uma arena também pode guardar vários programas (cada
+ * load() devolve a raiz do programa carregado).
+ *
+ * Filhos seguem a mesma ordem de BinaryAst (filho ausente = nó NONE).
+ * slot por tipo: LITERAL → literal; VAR_DECL → string do tipo (-1 = sem
+ * tipo); INPUT e STRING_PART → string; ASSIGN → token do '='.
+ *
+ * Consumidores de AST.* podem continuar usando a árvore via toProgram(),
+ * que materializa os objetos a partir da arena.
+ *
+ * Uso (conferência e memória retida contra a AST de objetos):
+ * java -cp bin AstArena [dir | arquivo.bw ...] [cópias]
+ */
+public final class AstArena {
+
+    public static final int NONE = BinaryAst.NONE;
+
+    // Tipos de literal
+    public static final byte LIT_NULL = 0, LIT_BOOL = 1, LIT_INT = 2, LIT_DOUBLE = 3, LIT_CHAR = 4, LIT_STRING = 5;
+
+    // Nós
+    private byte[] kind = new byte[256];
+    private int[] firstChild = new int[256];
+    private int[] nextSibling = new int[256];
+    private int[] lastChild = new int[256]; // só para anexar filhos em O(1)
+    private int[] token = new int[256];
+    private int[] slot = new int[256];
+    private int nodeCount;
+
+    // Literais
+    private byte[] literalTypes = new byte[64];
+    private long[] literalBits = new long[64];
+    private int literalCount;
+
+    // Tokens
+    private byte[] tokenTypes = new byte[128];
+    private int[] tokenLexemes = new int[128]; // índice em strings
+    private int[] tokenLines = new int[128];
+    private int[] tokenColumns = new int[128];
+    private int tokenCount;
+
+    // Strings (lexemas, literais string, nomes de tipo, prompts)
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+
+    // Tokens já copiados durante um load(AST.Program) (o mesmo token em vários nós)
+    private final Map<Token, Integer> tokenIds = new IdentityHashMap<>();
+    private static final TokenType[] TOKEN_TYPES = TokenType.values();
+
+    private int root = -1;
+
+    /**
+     * Esvazia a arena (a capacidade dos vetores é mantida)
+     */
+    public void reset() {
+        nodeCount = 0;
+        literalCount = 0;
+        tokenCount = 0;
+        strings.clear();
+        stringIds.clear();
+        root = -1;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Nó PROGRAM do último programa carregado (-1 se vazia)
+     */
+    public int root() {
+        return root;
+    }
+
+    // ------------------ Construção ------------------
+
+    /**
+     * Cria um nó e o anexa como último filho de parent (-1 = sem pai)
+     */
+    public int add(int nodeKind, int parent) {
+        if (nodeCount == kind.length) {
+            int n = Math.max(16, kind.length * 2);
+            kind = Arrays.copyOf(kind, n);
+            firstChild = Arrays.copyOf(firstChild, n);
+            nextSibling = Arrays.copyOf(nextSibling, n);
+            lastChild = Arrays.copyOf(lastChild, n);
+            token = Arrays.copyOf(token, n);
+            slot = Arrays.copyOf(slot, n);
+        }
+        int node = nodeCount++;
+        kind[node] = (byte) nodeKind;
+        firstChild[node] = -1;
+        nextSibling[node] = -1;
+        lastChild[node] = -1;
+        token[node] = -1;
+        slot[node] = -1;
+        if (parent >= 0) {
+            if (lastChild[parent] < 0) {
+                firstChild[parent] = node;
+            } else {
+                nextSibling[lastChild[parent]] = node;
+            }
+            lastChild[parent] = node;
+        }
+        return node;
+    }
+
+    public void setToken(int node, Token t) {
+        token[node] = tokenId(t);
+    }
+
+    public void setSlot(int node, int value) {
+        slot[node] = value;
+    }
+
+    /**
+     * Acrescenta um token à tabela; devolve sua linha
+     */
+    public int addToken(TokenType type, String lexeme, int line, int column) {
+        if (tokenCount == tokenTypes.length) {
+            int n = Math.max(16, tokenCount * 2);
+            tokenTypes = Arrays.copyOf(tokenTypes, n);
+            tokenLexemes = Arrays.copyOf(tokenLexemes, n);
+            tokenLines = Arrays.copyOf(tokenLines, n);
+            tokenColumns = Arrays.copyOf(tokenColumns, n);
+        }
+        int id = tokenCount++;
+        tokenTypes[id] = (byte) type.ordinal();
+        tokenLexemes[id] = stringId(lexeme);
+        tokenLines[id] = line;
+        tokenColumns[id] = column;
+        return id;
+    }
+
+    private int tokenId(Token t) {
+        if (t == null) {
+            return -1;
+        }
+        Integer id = tokenIds.get(t);
+        if (id == null) {
+            id = addToken(t.type, t.lexeme, t.line, t.column);
+            tokenIds.put(t, id);
+        }
+        return id;
+    }
+
+    public int stringId(String s) {
+        Integer id = stringIds.get(s);
+        if (id == null) {
+            id = strings.size();
+            strings.add(s);
+            stringIds.put(s, id);
+        }
+        return id;
+    }
+
+    /**
+     * Guarda um literal sem boxing; devolve o slot
+     */
+    public int literal(Object value) {
+        if (literalCount == literalTypes.length) {
+            literalTypes = Arrays.copyOf(literalTypes, Math.max(16, literalCount * 2));
+            literalBits = Arrays.copyOf(literalBits, Math.max(16, literalCount * 2));
+        }
+        int id = literalCount++;
+        if (value == null) {
+            literalTypes[id] = LIT_NULL;
+        } else if (value instanceof Boolean) {
+            literalTypes[id] = LIT_BOOL;
+            literalBits[id] = (Boolean) value ? 1 : 0;
+        } else if (value instanceof Integer) {
+            literalTypes[id] = LIT_INT;
+            literalBits[id] = (Integer) value;
+        } else if (value instanceof Double) {
+            literalTypes[id] = LIT_DOUBLE;
+            literalBits[id] = Double.doubleToRawLongBits((Double) value);
+        } else if (value instanceof Character) {
+            literalTypes[id] = LIT_CHAR;
+            literalBits[id] = (Character) value;
+        } else if (value instanceof String) {
+            literalTypes[id] = LIT_STRING;
+            literalBits[id] = stringId((String) value);
+        } else {
+            throw new IllegalArgumentException("Literal não suportado: " + value.getClass().getName());
+        }
+        return id;
+    }
+
+    /**
+     * Copia uma AST de objetos para a arena; devolve a raiz
+     */
+    public int load(AST.Program program) {
+        root = add(BinaryAst.PROGRAM, -1);
+        from(program.mainBlock, root);
+        tokenIds.clear();
+        return root;
+    }
+
+    private void from(Object n, int parent) {
+        if (n == null) {
+            add(NONE, parent);
+        } else if (n instanceof AST.Block) {
+            int node = add(BinaryAst.BLOCK, parent);
+            for (AST.Statement s : ((AST.Block) n).statements) {
+                from(s, node);
+            }
+        } else if (n instanceof AST.VarDecl) {
+            AST.VarDecl v = (AST.VarDecl) n;
+            int node = add(BinaryAst.VAR_DECL, parent);
+            setToken(node, v.name);
+            slot[node] = v.type == null ? -1 : stringId(v.type.name);
+            from(v.initializer, node);
+        } else if (n instanceof AST.If) {
+            AST.If v = (AST.If) n;
+            int node = add(BinaryAst.IF, parent);
+            from(v.cond, node);
+            from(v.thenB, node);
+            from(v.elseB, node);
+        } else if (n instanceof AST.While) {
+            AST.While v = (AST.While) n;
+            int node = add(BinaryAst.WHILE, parent);
+            from(v.cond, node);
+            from(v.body, node);
+        } else if (n instanceof AST.DoWhile) {
+            AST.DoWhile v = (AST.DoWhile) n;
+            int node = add(BinaryAst.DO_WHILE, parent);
+            from(v.body, node);
+            from(v.cond, node);
+        } else if (n instanceof AST.For) {
+            AST.For v = (AST.For) n;
+            int node = add(BinaryAst.FOR, parent);
+            from(v.init, node);
+            from(v.cond, node);
+            from(v.inc, node);
+            from(v.body, node);
+        } else if (n instanceof AST.Switch) {
+            AST.Switch v = (AST.Switch) n;
+            int node = add(BinaryAst.SWITCH, parent);
+            from(v.expr, node);
+            for (AST.Case c : v.cases) {
+                int caseNode = add(BinaryAst.CASE, node);
+                from(c.value, caseNode);
+                from(c.block, caseNode);
+            }
+            from(v.defaultBlock, node);
+        } else if (n instanceof AST.Return) {
+            from(((AST.Return) n).value, add(BinaryAst.RETURN, parent));
+        } else if (n instanceof AST.Print) {
+            from(((AST.Print) n).value, add(BinaryAst.PRINT, parent));
+        } else if (n instanceof AST.Break) {
+            add(BinaryAst.BREAK, parent);
+        } else if (n instanceof AST.Continue) {
+            add(BinaryAst.CONTINUE, parent);
+        } else if (n instanceof AST.ExprStmt) {
+            from(((AST.ExprStmt) n).expr, add(BinaryAst.EXPR_STMT, parent));
+        } else if (n instanceof AST.Literal) {
+            int node = add(BinaryAst.LITERAL, parent);
+            slot[node] = literal(((AST.Literal) n).value);
+        } else if (n instanceof AST.Variable) {
+            setToken(add(BinaryAst.VARIABLE, parent), ((AST.Variable) n).name);
+        } else if (n instanceof AST.Grouping) {
+            from(((AST.Grouping) n).expr, add(BinaryAst.GROUPING, parent));
+        } else if (n instanceof AST.Unary) {
+            AST.Unary v = (AST.Unary) n;
+            int node = add(BinaryAst.UNARY, parent);
+            setToken(node, v.op);
+            from(v.right, node);
+        } else if (n instanceof AST.Binary) {
+            AST.Binary v = (AST.Binary) n;
+            int node = add(BinaryAst.BINARY, parent);
+            setToken(node, v.op);
+            from(v.left, node);
+            from(v.right, node);
+        } else if (n instanceof AST.Assign) {
+            AST.Assign v = (AST.Assign) n;
+            int node = add(BinaryAst.ASSIGN, parent);
+            setToken(node, v.name);
+            slot[node] = tokenId(v.equals);
+            from(v.value, node);
+        } else if (n instanceof AST.Ternary) {
+            AST.Ternary v = (AST.Ternary) n;
+            int node = add(BinaryAst.TERNARY, parent);
+            from(v.cond, node);
+            from(v.thenExpr, node);
+            from(v.elseExpr, node);
+        } else if (n instanceof AST.Input) {
+            int node = add(BinaryAst.INPUT, parent);
+            slot[node] = stringId(((AST.Input) n).prompt);
+        } else if (n instanceof AST.ArrayLiteral) {
+            int node = add(BinaryAst.ARRAY_LITERAL, parent);
+            for (AST.Expr e : ((AST.ArrayLiteral) n).elements) {
+                from(e, node);
+            }
+        } else if (n instanceof AST.ArrayAccess) {
+            AST.ArrayAccess v = (AST.ArrayAccess) n;
+            int node = add(BinaryAst.ARRAY_ACCESS, parent);
+            from(v.array, node);
+            from(v.index, node);
+        } else if (n instanceof AST.InterpolatedString) {
+            int node = add(BinaryAst.INTERPOLATED, parent);
+            for (Object part : ((AST.InterpolatedString) n).parts) {
+                if (part instanceof String) {
+                    slot[add(BinaryAst.STRING_PART, node)] = stringId((String) part);
+                } else {
+                    from(part, node);
+                }
+            }
+        } else {
+            throw new IllegalArgumentException("Nó não suportado: " + n.getClass().getName());
+        }
+    }
+
+    /**
+     * Carrega um programa de um arquivo .bast direto para a arena, sem
+     * criar objetos AST.*
+     */
+    public int load(BinaryAst.Reader reader, int program) {
+        root = add(BinaryAst.PROGRAM, -1);
+        from(reader, reader.child(reader.program(program), 0), root);
+        return root;
+    }
+
+    private void from(BinaryAst.Reader r, int b, int parent) {
+        int k = b < 0 ? NONE : r.kind(b);
+        int node = add(k, parent);
+        switch (k) {
+            case NONE:
+                return;
+            case BinaryAst.VAR_DECL: {
+                token[node] = readToken(r, b, 0);
+                String type = r.typeName(b);
+                slot[node] = type == null ? -1 : stringId(type);
+                break;
+            }
+            case BinaryAst.VARIABLE:
+            case BinaryAst.UNARY:
+            case BinaryAst.BINARY:
+                token[node] = readToken(r, b, 0);
+                break;
+            case BinaryAst.ASSIGN:
+                token[node] = readToken(r, b, 0);
+                slot[node] = readToken(r, b, 1);
+                break;
+            case BinaryAst.LITERAL:
+                slot[node] = literal(r.value(b));
+                break;
+            case BinaryAst.INPUT:
+            case BinaryAst.STRING_PART:
+                slot[node] = stringId((String) r.value(b));
+                break;
+            default:
+                break;
+        }
+        for (int c = r.firstChild(b), n = r.childCount(b); n > 0; c = r.end(c), n--) {
+            from(r, r.kind(c) == NONE ? -1 : c, node);
+        }
+    }
+
+    private int readToken(BinaryAst.Reader r, int node, int which) {
+        Token t = r.token(node, which);
+        return t == null ? -1 : addToken(t.type, t.lexeme, t.line, t.column);
+    }
+
+    // ------------------ Navegação ------------------
+
+    public int kind(int node) {
+        return kind[node];
+    }
+
+    public int firstChild(int node) {
+        return firstChild[node];
+    }
+
+    public int nextSibling(int node) {
+        return nextSibling[node];
+    }
+
+    /**
+     * i-ésimo filho, ou -1 se ausente (nó NONE)
+     */
+    public int child(int node, int i) {
+        int c = firstChild[node];
+        for (int k = 0; k < i && c >= 0; k++) {
+            c = nextSibling[c];
+        }
+        return c < 0 || kind[c] == NONE ? -1 : c;
+    }
+
+    public int childCount(int node) {
+        int n = 0;
+        for (int c = firstChild[node]; c >= 0; c = nextSibling[c]) {
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Linha da tabela de tokens de um nó (-1 se não tem token)
+     */
+    public int tokenOf(int node) {
+        return token[node];
+    }
+
+    public TokenType tokenType(int tokenId) {
+        return TOKEN_TYPES[tokenTypes[tokenId] & 0xFF];
+    }
+
+    public String tokenLexeme(int tokenId) {
+        return strings.get(tokenLexemes[tokenId]);
+    }
+
+    public int tokenLine(int tokenId) {
+        return tokenLines[tokenId];
+    }
+
+    /**
+     * Token de um nó como objeto (criado a cada chamada)
+     */
+    public Token token(int node) {
+        return tokenAt(token[node]);
+    }
+
+    /**
+     * Token do '=' de um ASSIGN
+     */
+    public Token equalsToken(int node) {
+        return tokenAt(slot[node]);
+    }
+
+    private Token tokenAt(int id) {
+        if (id < 0) {
+            return null;
+        }
+        return new Token(tokenType(id), tokenLexeme(id), null, tokenLines[id], tokenColumns[id]);
+    }
+
+    public String string(int id) {
+        return id < 0 ? null : strings.get(id);
+    }
+
+    /**
+     * Texto de STRING_PART / INPUT, ou nome do tipo de VAR_DECL
+     */
+    public String text(int node) {
+        return string(slot[node]);
+    }
+
+    public byte literalType(int node) {
+        return literalTypes[slot[node]];
+    }
+
+    public long literalBits(int node) {
+        return literalBits[slot[node]];
+    }
+
+    public int intValue(int node) {
+        return (int) literalBits[slot[node]];
+    }
+
+    public double doubleValue(int node) {
+        return Double.longBitsToDouble(literalBits[slot[node]]);
+    }
+
+    /**
+     * Valor de um LITERAL como objeto (boxing só aqui)
+     */
+    public Object literalValue(int node) {
+        long bits = literalBits[slot[node]];
+        switch (literalTypes[slot[node]]) {
+            case LIT_BOOL:
+                return bits != 0;
+            case LIT_INT:
+                return (int) bits;
+            case LIT_DOUBLE:
+                return Double.longBitsToDouble(bits);
+            case LIT_CHAR:
+                return (char) bits;
+            case LIT_STRING:
+                return strings.get((int) bits);
+            default:
+                return null;
+        }
+    }
+
+    // ------------------ Adaptadores para consumidores de AST.* ------------------
+
+    /**
+     * Materializa em objetos AST.* o último programa carregado
+     */
+    public AST.Program toProgram() {
+        return toProgram(root);
+    }
+
+    /**
+     * Materializa o programa de raiz programRoot
+     */
+    public AST.Program toProgram(int programRoot) {
+        return new AST.Program((AST.Block) statement(child(programRoot, 0)));
+    }
+
+    private AST.Block block(int node) {
+        return (AST.Block) statement(node);
+    }
+
+    private AST.Statement statement(int node) {
+        if (node < 0) {
+            return null;
+        }
+        switch (kind[node]) {
+            case BinaryAst.BLOCK: {
+                List<AST.Statement> statements = new ArrayList<>();
+                for (int c = firstChild[node]; c >= 0; c = nextSibling[c]) {
+                    statements.add(statement(kind[c] == NONE ? -1 : c));
+                }
+                return new AST.Block(statements);
+            }
+            case BinaryAst.VAR_DECL:
+                return new AST.VarDecl(token(node), slot[node] < 0 ? null : new AST.TypeNode(text(node)),
+                        expr(child(node, 0)));
+            case BinaryAst.IF:
+                return new AST.If(expr(child(node, 0)), block(child(node, 1)), block(child(node, 2)));
+            case BinaryAst.WHILE:
+                return new AST.While(expr(child(node, 0)), block(child(node, 1)));
+            case BinaryAst.DO_WHILE:
+                return new AST.DoWhile(block(child(node, 0)), expr(child(node, 1)));
+            case BinaryAst.FOR:
+                return new AST.For(statement(child(node, 0)), expr(child(node, 1)), expr(child(node, 2)),
+                        block(child(node, 3)));
+            case BinaryAst.SWITCH: {
+                List<AST.Case> cases = new ArrayList<>();
+                int c = nextSibling[firstChild[node]];
+                for (; kind[c] == BinaryAst.CASE; c = nextSibling[c]) {
+                    cases.add(new AST.Case(expr(child(c, 0)), block(child(c, 1))));
+                }
+                return new AST.Switch(expr(child(node, 0)), cases, block(kind[c] == NONE ? -1 : c));
+            }
+            case BinaryAst.RETURN:
+                return new AST.Return(expr(child(node, 0)));
+            case BinaryAst.PRINT:
+                return new AST.Print(expr(child(node, 0)));
+            case BinaryAst.BREAK:
+                return new AST.Break();
+            case BinaryAst.CONTINUE:
+                return new AST.Continue();
+            case BinaryAst.EXPR_STMT:
+                return new AST.ExprStmt(expr(child(node, 0)));
+            default:
+                throw new IllegalStateException("Comando esperado, encontrado " + BinaryAst.kindName(kind[node]));
+        }
+    }
+
+    private AST.Expr expr(int node) {
+        if (node < 0) {
+            return null;
+        }
+        switch (kind[node]) {
+            case BinaryAst.LITERAL:
+                return new AST.Literal(literalValue(node));
+            case BinaryAst.VARIABLE:
+                return new AST.Variable(token(node));
+            case BinaryAst.GROUPING:
+                return new AST.Grouping(expr(child(node, 0)));
+            case BinaryAst.UNARY:
+                return new AST.Unary(token(node), expr(child(node, 0)));
+            case BinaryAst.BINARY:
+                return new AST.Binary(expr(child(node, 0)), token(node), expr(child(node, 1)));
+            case BinaryAst.ASSIGN:
+                return new AST.Assign(token(node), expr(child(node, 0)), equalsToken(node));
+            case BinaryAst.TERNARY:
+                return new AST.Ternary(expr(child(node, 0)), expr(child(node, 1)), expr(child(node, 2)));
+            case BinaryAst.INPUT:
+                return new AST.Input(text(node));
+            case BinaryAst.ARRAY_LITERAL: {
+                List<AST.Expr> elements = new ArrayList<>();
+                for (int c = firstChild[node]; c >= 0; c = nextSibling[c]) {
+                    elements.add(expr(kind[c] == NONE ? -1 : c));
+                }
+                return new AST.ArrayLiteral(elements);
+            }
+            case BinaryAst.ARRAY_ACCESS:
+                return new AST.ArrayAccess(expr(child(node, 0)), expr(child(node, 1)));
+            case BinaryAst.INTERPOLATED: {
+                List<Object> parts = new ArrayList<>();
+                for (int c = firstChild[node]; c >= 0; c = nextSibling[c]) {
+                    parts.add(kind[c] == BinaryAst.STRING_PART ? text(c) : expr(c));
+                }
+                return new AST.InterpolatedString(parts);
+            }
+            default:
+                throw new IllegalStateException("Expressão esperada, encontrada " + BinaryAst.kindName(kind[node]));
+        }
+    }
+
+    /**
+     * Reduz os vetores ao tamanho usado, para arenas que ficam retidas (não
+     * se anexam mais filhos aos nós existentes; reset() volta a permitir)
+     */
+    public void trim() {
+        kind = Arrays.copyOf(kind, nodeCount);
+        firstChild = Arrays.copyOf(firstChild, nodeCount);
+        nextSibling = Arrays.copyOf(nextSibling, nodeCount);
+        lastChild = new int[0];
+        token = Arrays.copyOf(token, nodeCount);
+        slot = Arrays.copyOf(slot, nodeCount);
+        literalTypes = Arrays.copyOf(literalTypes, literalCount);
+        literalBits = Arrays.copyOf(literalBits, literalCount);
+        tokenTypes = Arrays.copyOf(tokenTypes, tokenCount);
+        tokenLexemes = Arrays.copyOf(tokenLexemes, tokenCount);
+        tokenLines = Arrays.copyOf(tokenLines, tokenCount);
+        tokenColumns = Arrays.copyOf(tokenColumns, tokenCount);
+    }
+
+    // ------------------ Conferência e memória ------------------
+
+    private static long usedMemory() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> inputs = new ArrayList<>();
+        int copies = 2000;
+        for (String arg : args) {
+            if (arg.matches("\\d+")) {
+                copies = Integer.parseInt(arg);
+            } else {
+                inputs.add(arg);
+            }
+        }
+        if (inputs.isEmpty()) {
+            inputs.add("src");
+        }
+        List<Path> files = BatchValidator.collect(inputs);
+        BowlerSession session = BowlerSession.forThread();
+        List<String> sources = new ArrayList<>();
+        for (Path f : files) {
+            sources.add(Files.readString(f));
+        }
+
+        // Conferência: arena (de objetos e de .bast) gera a mesma AST
+        AstArena arena = new AstArena();
+        BinaryAst.Writer writer = new BinaryAst.Writer();
+        List<String> expected = new ArrayList<>();
+        int same = 0;
+        for (String source : sources) {
+            BowlerSession.Result r = session.compile(source);
+            if (r.program == null) {
+                continue;
+            }
+            String text = r.program.toDetailedString();
+            expected.add(text);
+            writer.add(r.program);
+            arena.reset();
+            arena.load(r.program);
+            if (arena.toProgram().toDetailedString().equals(text)) {
+                same++;
+            }
+        }
+        Path bast = Files.createTempFile("arena", ".bast");
+        writer.write(bast);
+        BinaryAst.Reader reader = BinaryAst.Reader.open(bast);
+        for (int i = 0; i < reader.programCount(); i++) {
+            arena.reset();
+            arena.load(reader, i);
+            if (arena.toProgram().toDetailedString().equals(expected.get(i))) {
+                same++;
+            }
+        }
+        Files.delete(bast);
+        System.out.printf("Conferência: %d/%d programas idênticos (de objetos e de .bast)%n",
+                same, 2 * expected.size());
+
+        // Memória retida: cópias das ASTs como objetos vs. uma arena por cópia
+        long before = usedMemory();
+        List<AST.Program> objects = new ArrayList<>();
+        for (int c = 0; c < copies; c++) {
+            for (int i = 0; i < reader.programCount(); i++) {
+                objects.add(reader.toProgram(i));
+            }
+        }
+        long objectBytes = usedMemory() - before;
+        objects = null;
+
+        before = usedMemory();
+        AstArena all = new AstArena();
+        int[] roots = new int[copies * reader.programCount()];
+        for (int c = 0, k = 0; c < copies; c++) {
+            for (int i = 0; i < reader.programCount(); i++) {
+                roots[k++] = all.load(reader, i);
+            }
+        }
+        all.trim();
+        long arenaBytes = usedMemory() - before;
+        long nodes = all.nodeCount();
+        System.out.printf("%d programas, %d nós: AST de objetos %.1f MB, arena %.1f MB (%.0f vs %.0f bytes/nó)%n",
+                roots.length, nodes, objectBytes / 1e6, arenaBytes / 1e6,
+                (double) objectBytes / nodes, (double) arenaBytes / nodes);
+
+        // Reuso: uma arena com reset() entre arquivos
+        AstArena reused = new AstArena();
+        long t0 = System.nanoTime();
+        for (int c = 0; c < copies; c++) {
+            for (int i = 0; i < reader.programCount(); i++) {
+                reused.reset();
+                reused.load(reader, i);
+            }
+        }
+        System.out.printf("Arena reutilizada: %.2f µs por programa carregado de .bast%n",
+                (System.nanoTime() - t0) / 1e3 / roots.length);
+    }
+}
@@ -0,0 +1,719 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * AstPrinter - Impressões da AST como visitantes que escrevem em um Appendable
+ *
+ * As versões anteriores montavam toDetailedString() concatenando as strings
+ * completas dos filhos (custo quadrático na profundidade) e prettyPrint()
+ * escrevia direto em System.out. Aqui cada nó escreve só o seu próprio texto
+ * no destino (StringBuilder, Writer, PrintStream...), então a impressão é
+ * linear no tamanho da árvore. O texto produzido é o mesmo de antes; os
+ * métodos prettyPrint/toDetailedString da AST delegam para esta classe.
+ *
+ * Uso (tempo de impressão de ASTs sintéticas de tamanho crescente):
+ * java -cp bin AstPrinter [profundidade]
+ */
+public final class AstPrinter {
+
+    private AstPrinter() {
+    }
+
+    // ------------------ API ------------------
+
+    public static String detailed(AST.Program program) {
+        StringBuilder sb = new StringBuilder();
+        detailed(program, sb);
+        return sb.toString();
+    }
+
+    public static String detailed(AST.Statement s) {
+        StringBuilder sb = new StringBuilder();
+        s.accept(new Detailed(sb));
+        return sb.toString();
+    }
+
+    public static String detailed(AST.Expr e) {
+        StringBuilder sb = new StringBuilder();
+        e.accept(new Detailed(sb));
+        return sb.toString();
+    }
+
+    public static String detailed(AST.Case c) {
+        StringBuilder sb = new StringBuilder();
+        new Detailed(sb).caseOf(c);
+        return sb.toString();
+    }
+
+    public static void detailed(AST.Program program, Appendable out) {
+        Detailed d = new Detailed(out);
+        d.write("Program(main:");
+        program.mainBlock.accept(d);
+        d.write(")");
+    }
+
+    public static void pretty(AST.Program program, int indent, Appendable out) {
+        Pretty p = new Pretty(out, indent);
+        p.line("Program");
+        p.label("main:", program.mainBlock);
+    }
+
+    public static void pretty(AST.Statement s, int indent, Appendable out) {
+        s.accept(new Pretty(out, indent));
+    }
+
+    public static void pretty(AST.Expr e, int indent, Appendable out) {
+        e.accept(new Pretty(out, indent));
+    }
+
+    public static void pretty(AST.Case c, int indent, Appendable out) {
+        new Pretty(out, indent).caseOf(c);
+    }
+
+    public static void pretty(AST.TypeNode t, int indent, Appendable out) {
+        new Pretty(out, indent).line("Type(" + t.name + ")");
+    }
+
+    // ------------------ Detalhada (uma linha) ------------------
+
+    private static final class Detailed implements AST.Visitor<Void> {
+        private final Appendable out;
+
+        Detailed(Appendable out) {
+            this.out = out;
+        }
+
+        void write(String s) {
+            try {
+                out.append(s);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void node(String s) {
+            write(s == null ? "null" : s);
+        }
+
+        private void stmt(AST.Statement s) {
+            if (s == null) {
+                write("null");
+            } else {
+                s.accept(this);
+            }
+        }
+
+        private void expr(AST.Expr e) {
+            if (e == null) {
+                write("null");
+            } else {
+                e.accept(this);
+            }
+        }
+
+        /**
+         * Itens separados por ", " (o separador antes de cada item, exceto o primeiro)
+         */
+        private void list(List<? extends AST.Expr> items) {
+            boolean first = true;
+            for (AST.Expr e : items) {
+                if (!first) {
+                    write(", ");
+                }
+                expr(e);
+                first = false;
+            }
+        }
+
+        void caseOf(AST.Case c) {
+            write("Case(value:");
+            expr(c.value);
+            write(", block:");
+            stmt(c.block);
+            write(")");
+        }
+
+        @Override
+        public Void visitBlock(AST.Block s) {
+            write("Block[");
+            boolean first = true;
+            for (AST.Statement st : s.statements) {
+                if (!first) {
+                    write(", ");
+                }
+                stmt(st);
+                first = false;
+            }
+            write("]");
+            return null;
+        }
+
+        @Override
+        public Void visitVarDecl(AST.VarDecl s) {
+            write("VarDecl(name:");
+            write(s.name.lexeme);
+            write(", type:");
+            node(s.type.name);
+            if (s.initializer != null) {
+                write(", init:");
+                expr(s.initializer);
+            }
+            write(")");
+            return null;
+        }
+
+        @Override
+        public Void visitIf(AST.If s) {
+            write("If(cond:");
+            expr(s.cond);
+            write(", then:");
+            stmt(s.thenB);
+            if (s.elseB != null) {
+                write(", else:");
+                stmt(s.elseB);
+            }
+            write(")");
+            return null;
+        }
+
+        @Override
+        public Void visitWhile(AST.While s) {
+            write("While(cond:");
+            expr(s.cond);
+            write(", body:");
+            stmt(s.body);
+            write(")");
+            return null;
+        }
+
+        @Override
+        public Void visitDoWhile(AST.DoWhile s) {
+            write("DoWhile(body:");
+            stmt(s.body);
+            write(", cond:");
+            expr(s.cond);
+            write(")");
+            return null;
+        }
+
+        @Override
+        public Void visitFor(AST.For s) {
+            write("For(init:");
+            stmt(s.init);
+            write(", cond:");
+            expr(s.cond);
+            write(", inc:");
+            expr(s.inc);
+            write(", body:");
+            stmt(s.body);
+            write(")");
+            return null;
+        }
+
+        @Override
+        public Void visitSwitch(AST.Switch s) {
+            write("Switch(expr:");
+            expr(s.expr);
+            write(", cases:[");
+            boolean first = true;
+            for (AST.Case c : s.cases) {
+                if (!first) {
+                    write(", ");
+                }
+                caseOf(c);
+                first = false;
+            }
+            write("]");
+            if (s.defaultBlock != null) {
+                write(", default:");
+                stmt(s.defaultBlock);
+            }
+            write(")");
+            return null;
+        }
+
+        @Override
+        public Void visitReturn(AST.Return s) {
+            write("Return(");
+            if (s.value != null) {
+                expr(s.value);
+            }
+            write(")");
+            return null;
+        }
+
+        @Override
+        public Void visitPrint(AST.Print s) {
+            write("Print(");
+            expr(s.value);
+            write(")");
+            return null;
+        }
+
+        @Override
+        public Void visitBreak(AST.Break s) {
+            write("Break");
+            return null;
+        }
+
+        @Override
+        public Void visitContinue(AST.Continue s) {
+            write("Continue");
+            return null;
+        }
+
+        @Override
+        public Void visitExprStmt(AST.ExprStmt s) {
+            write("ExprStmt(");
+            expr(s.expr);
+            write(")");
+            return null;
+        }
+
+        @Override
+        public Void visitLiteral(AST.Literal e) {
+            write("Literal(");
+            write(String.valueOf(e.value));
+            write(")");
+            return null;
+        }
+
+        @Override
+        public Void visitVariable(AST.Variable e) {
+            write("Var(");
+            write(e.name.lexeme);
+            write(")");
+            return null;
+        }
+
+        @Override
+        public Void visitGrouping(AST.Grouping e) {
+            write("Group(");
+            expr(e.expr);
+            write(")");
+            return null;
+        }
+
+        @Override
+        public Void visitUnary(AST.Unary e) {
+            write("Unary(");
+            write(String.valueOf(e.op.type));
+            write(", ");
+            expr(e.right);
+            write(")");
+            return null;
+        }
+
+        @Override
+        public Void visitBinary(AST.Binary e) {
+            write("Binary(");
+            expr(e.left);
+            write(", ");
+            write(String.valueOf(e.op.type));
+            write(", ");
+            expr(e.right);
+            write(")");
+            return null;
+        }
+
+        @Override
+        public Void visitAssign(AST.Assign e) {
+            write("Assign(");
+            write(e.name.lexeme);
+            write(", ");
+            expr(e.value);
+            write(")");
+            return null;
+        }
+
+        @Override
+        public Void visitTernary(AST.Ternary e) {
+            write("Ternary(cond:");
+            expr(e.cond);
+            write(", then:");
+            expr(e.thenExpr);
+            write(", else:");
+            expr(e.elseExpr);
+            write(")");
+            return null;
+        }
+
+        @Override
+        public Void visitInput(AST.Input e) {
+            write("Input(prompt='");
+            write(e.prompt);
+            write("')");
+            return null;
+        }
+
+        @Override
+        public Void visitArrayLiteral(AST.ArrayLiteral e) {
+            write("ArrayLiteral[");
+            list(e.elements);
+            write("]");
+            return null;
+        }
+
+        @Override
+        public Void visitArrayAccess(AST.ArrayAccess e) {
+            write("ArrayAccess(array:");
+            expr(e.array);
+            write(", index:");
+            expr(e.index);
+            write(")");
+            return null;
+        }
+
+        @Override
+        public Void visitInterpolatedString(AST.InterpolatedString e) {
+            write("InterpolatedString[");
+            boolean first = true;
+            for (Object p : e.parts) {
+                if (!first) {
+                    write(", ");
+                }
+                if (p instanceof String) {
+                    write("str:'");
+                    write((String) p);
+                    write("'");
+                } else {
+                    write("expr:");
+                    expr((AST.Expr) p);
+                }
+                first = false;
+            }
+            write("]");
+            return null;
+        }
+    }
+
+    // ------------------ Indentada (uma linha por nó) ------------------
+
+    private static final class Pretty implements AST.Visitor<Void> {
+        private static final String NEWLINE = System.lineSeparator();
+
+        private final Appendable out;
+        private int depth;
+
+        Pretty(Appendable out, int depth) {
+            this.out = out;
+            this.depth = depth;
+        }
+
+        void line(String text) {
+            try {
+                for (int k = 0; k < depth; k++) {
+                    out.append("  ");
+                }
+                out.append(text).append(NEWLINE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Imprime um filho um nível abaixo
+         */
+        private void child(Object node) {
+            depth++;
+            if (node instanceof AST.Statement) {
+                ((AST.Statement) node).accept(this);
+            } else if (node instanceof AST.Expr) {
+                ((AST.Expr) node).accept(this);
+            } else if (node instanceof AST.Case) {
+                caseOf((AST.Case) node);
+            } else if (node instanceof AST.TypeNode) {
+                line("Type(" + ((AST.TypeNode) node).name + ")");
+            }
+            depth--;
+        }
+
+        /**
+         * Rótulo um nível abaixo e o filho dois níveis abaixo
+         */
+        void label(String label, Object node) {
+            depth++;
+            line(label);
+            child(node);
+            depth--;
+        }
+
+        void caseOf(AST.Case c) {
+            line("case:");
+            child(c.value);
+            child(c.block);
+        }
+
+        @Override
+        public Void visitBlock(AST.Block s) {
+            line("Block {");
+            for (AST.Statement st : s.statements) {
+                child(st);
+            }
+            line("}");
+            return null;
+        }
+
+        @Override
+        public Void visitVarDecl(AST.VarDecl s) {
+            line("VarDecl " + s.name.lexeme + ":");
+            child(s.type);
+            if (s.initializer != null) {
+                label("init:", s.initializer);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitIf(AST.If s) {
+            line("If");
+            label("cond:", s.cond);
+            label("then:", s.thenB);
+            if (s.elseB != null) {
+                label("else:", s.elseB);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitWhile(AST.While s) {
+            line("While");
+            label("cond:", s.cond);
+            label("body:", s.body);
+            return null;
+        }
+
+        @Override
+        public Void visitDoWhile(AST.DoWhile s) {
+            line("DoWhile");
+            label("body:", s.body);
+            label("cond:", s.cond);
+            return null;
+        }
+
+        @Override
+        public Void visitFor(AST.For s) {
+            line("For");
+            if (s.init != null) {
+                label("init:", s.init);
+            }
+            if (s.cond != null) {
+                label("cond:", s.cond);
+            }
+            if (s.inc != null) {
+                label("inc:", s.inc);
+            }
+            label("body:", s.body);
+            return null;
+        }
+
+        @Override
+        public Void visitSwitch(AST.Switch s) {
+            line("Switch");
+            label("expr:", s.expr);
+            for (AST.Case c : s.cases) {
+                child(c);
+            }
+            if (s.defaultBlock != null) {
+                label("default:", s.defaultBlock);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitReturn(AST.Return s) {
+            line("Return");
+            if (s.value != null) {
+                child(s.value);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitPrint(AST.Print s) {
+            line("Print");
+            child(s.value);
+            return null;
+        }
+
+        @Override
+        public Void visitBreak(AST.Break s) {
+            line("Break");
+            return null;
+        }
+
+        @Override
+        public Void visitContinue(AST.Continue s) {
+            line("Continue");
+            return null;
+        }
+
+        @Override
+        public Void visitExprStmt(AST.ExprStmt s) {
+            line("ExprStmt");
+            child(s.expr);
+            return null;
+        }
+
+        @Override
+        public Void visitLiteral(AST.Literal e) {
+            line("Literal(" + e.value + ")");
+            return null;
+        }
+
+        @Override
+        public Void visitVariable(AST.Variable e) {
+            line("Var(" + e.name.lexeme + ")");
+            return null;
+        }
+
+        @Override
+        public Void visitGrouping(AST.Grouping e) {
+            line("Group(");
+            child(e.expr);
+            line(")");
+            return null;
+        }
+
+        @Override
+        public Void visitUnary(AST.Unary e) {
+            line("Unary " + e.op.type);
+            child(e.right);
+            return null;
+        }
+
+        @Override
+        public Void visitBinary(AST.Binary e) {
+            line("Binary " + e.op.type);
+            child(e.left);
+            child(e.right);
+            return null;
+        }
+
+        @Override
+        public Void visitAssign(AST.Assign e) {
+            line("Assign " + e.name.lexeme);
+            child(e.value);
+            return null;
+        }
+
+        @Override
+        public Void visitTernary(AST.Ternary e) {
+            line("Ternary");
+            label("cond:", e.cond);
+            label("then:", e.thenExpr);
+            label("else:", e.elseExpr);
+            return null;
+        }
+
+        @Override
+        public Void visitInput(AST.Input e) {
+            line("Input(prompt='" + e.prompt + "')");
+            return null;
+        }
+
+        @Override
+        public Void visitArrayLiteral(AST.ArrayLiteral e) {
+            line("ArrayLiteral [");
+            for (AST.Expr el : e.elements) {
+                child(el);
+            }
+            line("]");
+            return null;
+        }
+
+        @Override
+        public Void visitArrayAccess(AST.ArrayAccess e) {
+            line("ArrayAccess");
+            child(e.array);
+            child(e.index);
+            return null;
+        }
+
+        @Override
+        public Void visitInterpolatedString(AST.InterpolatedString e) {
+            line("InterpolatedString [");
+            for (Object p : e.parts) {
+                if (p instanceof String) {
+                    depth++;
+                    line("str: '" + p + "'");
+                    depth--;
+                } else if (p instanceof AST.Expr) {
+                    label("expr:", p);
+                }
+            }
+            line("]");
+            return null;
+        }
+    }
+
+    // ------------------ Medição ------------------
+
+    /**
+     * Programa sintético: n comandos "x = (((x + 1) + 1) ... + 1)" com a
+     * expressão aninhada até a profundidade dada
+     */
+    private static AST.Program synthetic(int statements, int depth) {
+        Token x = new Token(TokenType.IDENTIFIER, "x", null, 1, 1);
+        Token plus = new Token(TokenType.PLUS, "+", null, 1, 1);
+        Token eq = new Token(TokenType.EQUAL, "=", null, 1, 1);
+        List<AST.Statement> list = new ArrayList<>(statements);
+        for (int i = 0; i < statements; i++) {
+            AST.Expr e = new AST.Variable(x);
+            for (int d = 0; d < depth; d++) {
+                e = new AST.Grouping(new AST.Binary(e, plus, new AST.Literal(1)));
+            }
+            list.add(new AST.ExprStmt(new AST.Assign(x, e, eq)));
+        }
+        return new AST.Program(new AST.Block(list));
+    }
+
+    /**
+     * Destino que só conta caracteres
+     */
+    private static final class Counter implements Appendable {
+        long chars;
+
+        @Override
+        public Appendable append(CharSequence csq) {
+            chars += csq.length();
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            chars += end - start;
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            chars++;
+            return this;
+        }
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        for (int round = 0; round < 2; round++) {
+            for (int n = 250; n <= 4000; n *= 2) {
+                AST.Program program = synthetic(n, depth);
+                Counter detailed = new Counter();
+                long t0 = System.nanoTime();
+                detailed(program, detailed);
+                long detailedNanos = System.nanoTime() - t0;
+                Counter pretty = new Counter();
+                t0 = System.nanoTime();
+                pretty(program, 0, pretty);
+                long prettyNanos = System.nanoTime() - t0;
+                if (round == 1) {
+                    System.out.printf("%5d comandos × profundidade %d: detalhada %.1f ms (%.1f ns/caractere), "
+                            + "indentada %.1f ms (%.1f ns/caractere)%n", n, depth,
+                            detailedNanos / 1e6, (double) detailedNanos / detailed.chars,
+                            prettyNanos / 1e6, (double) prettyNanos / pretty.chars);
+                }
+            }
+        }
+    }
+}
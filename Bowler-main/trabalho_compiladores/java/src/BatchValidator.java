@@ -0,0 +1,224 @@
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+/**
+ * BatchValidator - Validação em lote de programas Bowler
+ *
+ * Recebe diretórios (percorridos recursivamente), globs e arquivos .bw. Cada
+ * arquivo passa por léxico → parser recursivo → validação LL(1) com pilha
+ * (com recuperação de erros) em um pool work-stealing; a gramática é
+ * analisada e compilada uma única vez (CompiledGrammar) e compartilhada por
+ * todas as threads.
+ *
+ * A saída é determinística: os resultados são impressos na ordem dos
+ * arquivos (caminhos ordenados), à medida que ficam prontos, seguidos de um
+ * resumo (arquivos/s, tokens/s, falhas).
+ *
+ * Com --compile-cache[=dir], arquivos sem alterações desde uma execução
+ * anterior são respondidos pelo CompileCache (hash + leitura).
+ *
+ * Uso:
+ * java -cp bin BatchValidator [--threads=N] [--no-cache] [--compile-cache[=dir]] dir | glob | arquivo.bw ...
+ * java -cp bin Bowler --batch ... (equivalente)
+ * Código de saída 1 se algum arquivo falhar.
+ */
+public class BatchValidator {
+
+    /**
+     * Resultado da validação de um arquivo
+     */
+    static final class FileResult {
+        final Path path;
+        int tokens;
+        boolean recursiveOk;
+        boolean stackOk;
+        final List<String> errors = new ArrayList<>();
+
+        FileResult(Path path) {
+            this.path = path;
+        }
+
+        boolean ok() {
+            return recursiveOk && stackOk;
+        }
+
+        boolean divergent() {
+            return recursiveOk != stackOk;
+        }
+    }
+
+    // Uma sessão (Lexer/Parser/LL1StackParser reutilizáveis) por thread do pool
+    private final ThreadLocal<BowlerSession> sessions;
+
+    public BatchValidator(CompiledGrammar grammar) {
+        this(grammar, null);
+    }
+
+    /**
+     * Validador que consulta um cache de compilações compartilhado (null = sem cache)
+     */
+    public BatchValidator(CompiledGrammar grammar, CompileCache cache) {
+        this.sessions = ThreadLocal.withInitial(() -> new BowlerSession(grammar).useCache(cache));
+    }
+
+    /**
+     * Léxico, parser recursivo e validação LL(1) de um arquivo
+     */
+    FileResult validate(Path path) {
+        String source;
+        try {
+            source = Files.readString(path);
+        } catch (IOException e) {
+            FileResult r = new FileResult(path);
+            r.errors.add("Erro de leitura: " + e.getMessage());
+            return r;
+        }
+        return validate(path, source);
+    }
+
+    /**
+     * Validação de um código-fonte já lido (path só identifica o resultado)
+     */
+    FileResult validate(Path path, String source) {
+        BowlerSession.Result result = sessions.get().validate(source);
+        FileResult r = new FileResult(path);
+        r.tokens = result.tokenCount;
+        r.recursiveOk = result.recursiveAccepted;
+        r.stackOk = Boolean.TRUE.equals(result.ll1Accepted);
+        r.errors.addAll(result.errors);
+        return r;
+    }
+
+    /**
+     * Expande diretórios, globs e arquivos em uma lista ordenada e sem
+     * repetições de arquivos .bw
+     */
+    static List<Path> collect(List<String> inputs) throws IOException {
+        SortedSet<Path> files = new TreeSet<>();
+        for (String input : inputs) {
+            if (input.indexOf('*') >= 0 || input.indexOf('?') >= 0 || input.indexOf('{') >= 0
+                    || input.indexOf('[') >= 0) {
+                // Glob: percorre a partir da parte fixa do caminho
+                Path root = globRoot(input);
+                PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + input);
+                if (Files.isDirectory(root)) {
+                    try (Stream<Path> walk = Files.walk(root)) {
+                        walk.filter(p -> Files.isRegularFile(p) && matcher.matches(p))
+                                .forEach(p -> files.add(p.normalize()));
+                    }
+                }
+            } else {
+                Path path = Path.of(input);
+                if (Files.isDirectory(path)) {
+                    try (Stream<Path> walk = Files.walk(path)) {
+                        walk.filter(p -> Files.isRegularFile(p) && p.toString().endsWith(".bw"))
+                                .forEach(p -> files.add(p.normalize()));
+                    }
+                } else if (Files.isRegularFile(path)) {
+                    files.add(path.normalize());
+                } else {
+                    System.err.println("⚠️ Ignorado (não encontrado): " + input);
+                }
+            }
+        }
+        return new ArrayList<>(files);
+    }
+
+    private static Path globRoot(String glob) {
+        Path root = Path.of("");
+        for (Path part : Path.of(glob.startsWith("/") ? glob.substring(1) : glob)) {
+            String s = part.toString();
+            if (s.indexOf('*') >= 0 || s.indexOf('?') >= 0 || s.indexOf('{') >= 0 || s.indexOf('[') >= 0) {
+                break;
+            }
+            root = root.resolve(s);
+        }
+        if (glob.startsWith("/")) {
+            root = Path.of("/").resolve(root);
+        }
+        return root.toString().isEmpty() ? Path.of(".") : root;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean useCache = true;
+        CompileCache compileCache = null;
+        List<String> inputs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.equals("--no-cache")) {
+                useCache = false;
+            } else if (arg.equals("--compile-cache")) {
+                compileCache = CompileCache.defaultCache();
+            } else if (arg.startsWith("--compile-cache=")) {
+                compileCache = new CompileCache(Path.of(arg.substring("--compile-cache=".length())),
+                        CompileCache.defaultCache().getMaxBytes());
+            } else if (!arg.equals("--batch")) {
+                inputs.add(arg);
+            }
+        }
+        if (inputs.isEmpty()) {
+            System.err.println("Uso: java -cp bin BatchValidator [--threads=N] [--no-cache] [--compile-cache[=dir]] dir | glob | arquivo.bw ...");
+            System.exit(2);
+        }
+
+        List<Path> files = collect(inputs);
+        if (files.isEmpty()) {
+            System.err.println("Nenhum arquivo .bw encontrado.");
+            System.exit(2);
+        }
+
+        long start = System.nanoTime();
+        LL1GrammarAnalyzer analyzer = Bowler.createBowlerLL1Analyzer();
+        Bowler.analyze(analyzer, useCache);
+        BatchValidator validator = new BatchValidator(CompiledGrammar.compile(analyzer), compileCache);
+
+        ExecutorService pool = Executors.newWorkStealingPool(threads);
+        List<Future<FileResult>> results = new ArrayList<>(files.size());
+        for (Path file : files) {
+            results.add(pool.submit(() -> validator.validate(file)));
+        }
+
+        // Impressão na ordem dos arquivos, conforme os resultados ficam prontos
+        int failures = 0;
+        int divergences = 0;
+        long tokens = 0;
+        for (Future<FileResult> future : results) {
+            FileResult r = future.get();
+            tokens += r.tokens;
+            if (r.ok()) {
+                System.out.println("✅ " + r.path + " (" + r.tokens + " tokens)");
+            } else {
+                failures++;
+                System.out.println("❌ " + r.path + " (" + r.tokens + " tokens)");
+                for (String e : r.errors) {
+                    System.out.println("    " + e);
+                }
+            }
+            if (r.divergent()) {
+                divergences++;
+                System.out.println("    ⚠️ Divergência: Parser Recursivo " + (r.recursiveOk ? "aceita" : "rejeita")
+                        + ", LL(1) " + (r.stackOk ? "aceita" : "rejeita"));
+            }
+        }
+        pool.shutdown();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("\n=== Resumo da validação em lote ===");
+        System.out.printf("Arquivos: %d (%d ok, %d com falha, %d divergência(s)) em %d thread(s)%n",
+                files.size(), files.size() - failures, failures, divergences, threads);
+        System.out.printf("Tempo: %.2f s — %.1f arquivos/s, %.0f tokens/s%n",
+                seconds, files.size() / seconds, tokens / seconds);
+        if (compileCache != null) {
+            System.out.printf("Cache de compilação: %d acerto(s), %d falta(s) (%s)%n",
+                    compileCache.getHits(), compileCache.getMisses(), compileCache.getDirectory());
+        }
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+}
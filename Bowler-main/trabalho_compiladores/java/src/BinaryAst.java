@@ -0,0 +1,852 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * BinaryAst - Formato binário compacto de ASTs, lido sem materialização
+ *
+ * Um arquivo .bast guarda vários AST.Program. O Writer codifica as árvores;
+ * o Reader navega nos bytes (memory mapped) por deslocamentos, sem criar
+ * objetos AST.*: ferramentas podem consultar ou percorrer milhões de
+ * programas guardados lendo só o que precisam. toProgram() materializa
+ * uma árvore quando for necessário.
+ *
+ * Formato (big-endian):
+ * magic "BAST", versão, nº de programas, nº de constantes (int)
+ * deslocamento de cada programa (int, absoluto)
+ * constantes: [tag, dado]... (strings internadas e valores de literais)
+ * nós: [tipo (1 byte), tamanho, tamanho dos atributos, atributos, nº de filhos, filhos...]
+ * O tamanho conta os bytes após ele até o fim do nó, então um filho é
+ * pulado sem ser lido. Filho ausente = byte 0. Tokens dos atributos são
+ * [tipo do token (255 = null), lexema (constante), linha, coluna]. Exceto
+ * os campos int do cabeçalho, os inteiros são varints.
+ *
+ * Filhos por tipo: PROGRAM bloco; BLOCK comandos; VAR_DECL inicializador;
+ * IF cond, então, senão; WHILE cond, corpo; DO_WHILE corpo, cond; FOR init,
+ * cond, inc, corpo; SWITCH expr, CASE (valor, bloco)..., default; RETURN,
+ * PRINT, EXPR_STMT, GROUPING, UNARY 1; BINARY esq, dir; ASSIGN valor;
+ * TERNARY 3; ARRAY_LITERAL elementos; ARRAY_ACCESS array, índice;
+ * INTERPOLATED STRING_PART | expr...
+ *
+ * Uso:
+ * java -cp bin BinaryAst write saida.bast dir | glob | arquivo.bw ...
+ * java -cp bin BinaryAst stats saida.bast
+ * java -cp bin BinaryAst find saida.bast identificador
+ * java -cp bin BinaryAst dump saida.bast [programa]
+ */
+public final class BinaryAst {
+
+    private static final int MAGIC = 0x42415354; // "BAST"
+    private static final int VERSION = 1;
+
+    // Tipos de nó
+    public static final int NONE = 0, PROGRAM = 1, BLOCK = 2, VAR_DECL = 3, IF = 4, WHILE = 5, DO_WHILE = 6,
+            FOR = 7, SWITCH = 8, CASE = 9, RETURN = 10, PRINT = 11, BREAK = 12, CONTINUE = 13, EXPR_STMT = 14;
+    public static final int LITERAL = 20, VARIABLE = 21, GROUPING = 22, UNARY = 23, BINARY = 24, ASSIGN = 25,
+            TERNARY = 26, INPUT = 27, ARRAY_LITERAL = 28, ARRAY_ACCESS = 29, INTERPOLATED = 30, STRING_PART = 31;
+
+    private static final String[] KIND_NAMES = new String[32];
+
+    static {
+        String[] names = { "Program", "Block", "VarDecl", "If", "While", "DoWhile", "For", "Switch", "Case",
+                "Return", "Print", "Break", "Continue", "ExprStmt" };
+        System.arraycopy(names, 0, KIND_NAMES, PROGRAM, names.length);
+        names = new String[] { "Literal", "Variable", "Grouping", "Unary", "Binary", "Assign", "Ternary", "Input",
+                "ArrayLiteral", "ArrayAccess", "InterpolatedString", "StringPart" };
+        System.arraycopy(names, 0, KIND_NAMES, LITERAL, names.length);
+    }
+
+    // Tags das constantes
+    private static final int C_STRING = 1, C_INT = 2, C_DOUBLE = 3, C_CHAR = 4, C_TRUE = 5, C_FALSE = 6,
+            C_NULL = 7;
+
+    private static final int NO_TOKEN = 0xFF;
+    private static final TokenType[] TOKEN_TYPES = TokenType.values();
+
+    private BinaryAst() {
+    }
+
+    public static String kindName(int kind) {
+        return kind > 0 && kind < KIND_NAMES.length && KIND_NAMES[kind] != null ? KIND_NAMES[kind] : "?" + kind;
+    }
+
+    // ------------------ Escrita ------------------
+
+    /**
+     * Acumula programas e grava um arquivo .bast
+     */
+    public static final class Writer {
+        private final Bytes nodes = new Bytes();
+        private final Bytes attrs = new Bytes();
+        private final List<Integer> programs = new ArrayList<>();
+        private final Map<Object, Integer> constantIds = new HashMap<>();
+        private final List<Object> constants = new ArrayList<>();
+
+        public int size() {
+            return programs.size();
+        }
+
+        /**
+         * Acrescenta um programa; devolve seu índice no arquivo
+         */
+        public int add(AST.Program program) {
+            programs.add(nodes.length);
+            node(PROGRAM, null, Collections.singletonList(program.mainBlock));
+            return programs.size() - 1;
+        }
+
+        public void write(Path file) throws IOException {
+            Bytes pool = new Bytes();
+            for (Object c : constants) {
+                if (c instanceof String) {
+                    pool.writeByte(C_STRING);
+                    pool.writeString((String) c);
+                } else if (c instanceof Integer) {
+                    pool.writeByte(C_INT);
+                    pool.writeInt((Integer) c);
+                } else if (c instanceof Double) {
+                    long bits = Double.doubleToRawLongBits((Double) c);
+                    pool.writeByte(C_DOUBLE);
+                    pool.writeInt((int) (bits >>> 32));
+                    pool.writeInt((int) bits);
+                } else if (c instanceof Character) {
+                    pool.writeByte(C_CHAR);
+                    pool.writeVarint((Character) c);
+                } else if (c instanceof Boolean) {
+                    pool.writeByte((Boolean) c ? C_TRUE : C_FALSE);
+                } else {
+                    pool.writeByte(C_NULL);
+                }
+            }
+
+            int header = 16 + 4 * programs.size();
+            long nodesStart = (long) header + pool.length;
+            if (nodesStart + nodes.length > Integer.MAX_VALUE) {
+                throw new IOException("Arquivo .bast maior que 2 GB");
+            }
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, "bast", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(programs.size());
+                out.writeInt(constants.size());
+                for (int offset : programs) {
+                    out.writeInt((int) nodesStart + offset);
+                }
+                out.write(pool.buf, 0, pool.length);
+                out.write(nodes.buf, 0, nodes.length);
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        private int constant(Object value) {
+            // Chave com o tipo: 1, 1.0 e '1' são constantes diferentes
+            Object key = value == null ? Writer.class : Arrays.asList(value.getClass(), value);
+            Integer id = constantIds.get(key);
+            if (id == null) {
+                id = constants.size();
+                constants.add(value);
+                constantIds.put(key, id);
+            }
+            return id;
+        }
+
+        private void token(Token t) {
+            if (t == null) {
+                attrs.writeByte(NO_TOKEN);
+                return;
+            }
+            attrs.writeByte(t.type.ordinal());
+            attrs.writeVarint(constant(t.lexeme));
+            attrs.writeVarint(Math.max(0, t.line));
+            attrs.writeVarint(Math.max(0, t.column));
+        }
+
+        /**
+         * Grava um nó: atributos já escritos em attrs, depois os filhos. O
+         * tamanho só é conhecido no fim e é inserido antes do conteúdo.
+         */
+        private void node(int kind, Bytes nodeAttrs, List<?> children) {
+            nodes.writeByte(kind);
+            int start = nodes.length;
+            if (nodeAttrs == null) {
+                nodes.writeVarint(0);
+            } else {
+                nodes.writeVarint(nodeAttrs.length);
+                nodes.write(nodeAttrs.buf, 0, nodeAttrs.length);
+            }
+            nodes.writeVarint(children.size());
+            for (Object child : children) {
+                child(child);
+            }
+            nodes.insertVarint(start, nodes.length - start);
+        }
+
+        private Bytes attrs() {
+            attrs.length = 0;
+            return attrs;
+        }
+
+        /**
+         * Cópia dos atributos (o buffer attrs é reutilizado pelos filhos)
+         */
+        private Bytes detach(Bytes b) {
+            Bytes copy = new Bytes(b.length);
+            copy.write(b.buf, 0, b.length);
+            return copy;
+        }
+
+        private void child(Object n) {
+            if (n == null) {
+                nodes.writeByte(NONE);
+            } else if (n instanceof AST.Block) {
+                node(BLOCK, null, ((AST.Block) n).statements);
+            } else if (n instanceof AST.VarDecl) {
+                AST.VarDecl v = (AST.VarDecl) n;
+                Bytes a = attrs();
+                token(v.name);
+                a.writeVarint(v.type == null ? 0 : constant(v.type.name) + 1);
+                node(VAR_DECL, detach(a), Collections.singletonList(v.initializer));
+            } else if (n instanceof AST.If) {
+                AST.If v = (AST.If) n;
+                node(IF, null, Arrays.asList(v.cond, v.thenB, v.elseB));
+            } else if (n instanceof AST.While) {
+                AST.While v = (AST.While) n;
+                node(WHILE, null, Arrays.asList(v.cond, v.body));
+            } else if (n instanceof AST.DoWhile) {
+                AST.DoWhile v = (AST.DoWhile) n;
+                node(DO_WHILE, null, Arrays.asList(v.body, v.cond));
+            } else if (n instanceof AST.For) {
+                AST.For v = (AST.For) n;
+                node(FOR, null, Arrays.asList(v.init, v.cond, v.inc, v.body));
+            } else if (n instanceof AST.Switch) {
+                AST.Switch v = (AST.Switch) n;
+                List<Object> children = new ArrayList<>(v.cases.size() + 2);
+                children.add(v.expr);
+                children.addAll(v.cases);
+                children.add(v.defaultBlock);
+                node(SWITCH, null, children);
+            } else if (n instanceof AST.Case) {
+                AST.Case v = (AST.Case) n;
+                node(CASE, null, Arrays.asList(v.value, v.block));
+            } else if (n instanceof AST.Return) {
+                node(RETURN, null, Collections.singletonList(((AST.Return) n).value));
+            } else if (n instanceof AST.Print) {
+                node(PRINT, null, Collections.singletonList(((AST.Print) n).value));
+            } else if (n instanceof AST.Break) {
+                node(BREAK, null, Collections.emptyList());
+            } else if (n instanceof AST.Continue) {
+                node(CONTINUE, null, Collections.emptyList());
+            } else if (n instanceof AST.ExprStmt) {
+                node(EXPR_STMT, null, Collections.singletonList(((AST.ExprStmt) n).expr));
+            } else if (n instanceof AST.Literal) {
+                Bytes a = attrs();
+                a.writeVarint(constant(((AST.Literal) n).value));
+                node(LITERAL, detach(a), Collections.emptyList());
+            } else if (n instanceof AST.Variable) {
+                attrs();
+                token(((AST.Variable) n).name);
+                node(VARIABLE, detach(attrs), Collections.emptyList());
+            } else if (n instanceof AST.Grouping) {
+                node(GROUPING, null, Collections.singletonList(((AST.Grouping) n).expr));
+            } else if (n instanceof AST.Unary) {
+                AST.Unary v = (AST.Unary) n;
+                attrs();
+                token(v.op);
+                node(UNARY, detach(attrs), Collections.singletonList(v.right));
+            } else if (n instanceof AST.Binary) {
+                AST.Binary v = (AST.Binary) n;
+                attrs();
+                token(v.op);
+                node(BINARY, detach(attrs), Arrays.asList(v.left, v.right));
+            } else if (n instanceof AST.Assign) {
+                AST.Assign v = (AST.Assign) n;
+                attrs();
+                token(v.name);
+                token(v.equals);
+                node(ASSIGN, detach(attrs), Collections.singletonList(v.value));
+            } else if (n instanceof AST.Ternary) {
+                AST.Ternary v = (AST.Ternary) n;
+                node(TERNARY, null, Arrays.asList(v.cond, v.thenExpr, v.elseExpr));
+            } else if (n instanceof AST.Input) {
+                Bytes a = attrs();
+                a.writeVarint(constant(((AST.Input) n).prompt));
+                node(INPUT, detach(a), Collections.emptyList());
+            } else if (n instanceof AST.ArrayLiteral) {
+                node(ARRAY_LITERAL, null, ((AST.ArrayLiteral) n).elements);
+            } else if (n instanceof AST.ArrayAccess) {
+                AST.ArrayAccess v = (AST.ArrayAccess) n;
+                node(ARRAY_ACCESS, null, Arrays.asList(v.array, v.index));
+            } else if (n instanceof AST.InterpolatedString) {
+                node(INTERPOLATED, null, ((AST.InterpolatedString) n).parts);
+            } else if (n instanceof String) {
+                // Trecho literal de uma InterpolatedString
+                Bytes a = attrs();
+                a.writeVarint(constant(n));
+                node(STRING_PART, detach(a), Collections.emptyList());
+            } else {
+                throw new IllegalArgumentException("Nó não suportado: " + n.getClass().getName());
+            }
+        }
+    }
+
+    /**
+     * byte[] que cresce, com escrita de varints e inserção no meio
+     */
+    private static final class Bytes {
+        byte[] buf;
+        int length;
+
+        Bytes() {
+            this(1 << 12);
+        }
+
+        Bytes(int capacity) {
+            buf = new byte[Math.max(16, capacity)];
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, length + extra));
+            }
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[length++] = (byte) b;
+        }
+
+        void write(byte[] bytes, int off, int len) {
+            ensure(len);
+            System.arraycopy(bytes, off, buf, length, len);
+            length += len;
+        }
+
+        void writeInt(int v) {
+            writeByte(v >>> 24);
+            writeByte(v >>> 16);
+            writeByte(v >>> 8);
+            writeByte(v);
+        }
+
+        void writeVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte(value);
+        }
+
+        void writeString(String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+
+        /**
+         * Insere um varint na posição at, deslocando o que vem depois
+         */
+        void insertVarint(int at, int value) {
+            int n = 1;
+            for (int v = value >>> 7; v != 0; v >>>= 7) {
+                n++;
+            }
+            ensure(n);
+            System.arraycopy(buf, at, buf, at + n, length - at);
+            length += n;
+            for (int i = 0; i < n - 1; i++) {
+                buf[at + i] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[at + n - 1] = (byte) value;
+        }
+    }
+
+    // ------------------ Leitura ------------------
+
+    /**
+     * Navegação em um arquivo .bast mapeado em memória. Um nó é identificado
+     * pelo seu deslocamento no arquivo; nada é copiado além do índice das
+     * constantes. Não guarda estado de leitura: pode ser usado por várias
+     * threads.
+     */
+    public static final class Reader {
+        private final ByteBuffer buf;
+        private final int programCount;
+        private final int[] constantOffsets;
+
+        public Reader(ByteBuffer buf) throws IOException {
+            this.buf = buf;
+            if (buf.limit() < 16 || buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION) {
+                throw new IOException("Arquivo .bast inválido ou de outra versão");
+            }
+            this.programCount = buf.getInt(8);
+            this.constantOffsets = new int[buf.getInt(12)];
+            int pos = 16 + 4 * programCount;
+            for (int i = 0; i < constantOffsets.length; i++) {
+                constantOffsets[i] = pos;
+                pos = skipConstant(pos);
+            }
+        }
+
+        public static Reader open(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                return new Reader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+
+        public int programCount() {
+            return programCount;
+        }
+
+        /**
+         * Nó PROGRAM do i-ésimo programa
+         */
+        public int program(int i) {
+            return buf.getInt(16 + 4 * i);
+        }
+
+        // --- Estrutura ---
+
+        public int kind(int node) {
+            return buf.get(node) & 0xFF;
+        }
+
+        /**
+         * Deslocamento logo após o nó (próximo irmão)
+         */
+        public int end(int node) {
+            if (kind(node) == NONE) {
+                return node + 1;
+            }
+            return node + 1 + varintSize(node + 1) + varint(node + 1);
+        }
+
+        private int attrsStart(int node) {
+            int p = node + 1;
+            p += varintSize(p);
+            return p + varintSize(p);
+        }
+
+        private int childrenHeader(int node) {
+            int p = node + 1;
+            p += varintSize(p);
+            int attrLength = varint(p);
+            return p + varintSize(p) + attrLength;
+        }
+
+        public int childCount(int node) {
+            return kind(node) == NONE ? 0 : varint(childrenHeader(node));
+        }
+
+        /**
+         * Primeiro filho (pode ser um nó NONE); use end() para os irmãos
+         */
+        public int firstChild(int node) {
+            int p = childrenHeader(node);
+            return p + varintSize(p);
+        }
+
+        /**
+         * i-ésimo filho, ou -1 se ausente
+         */
+        public int child(int node, int i) {
+            int c = firstChild(node);
+            for (int k = 0; k < i; k++) {
+                c = end(c);
+            }
+            return kind(c) == NONE ? -1 : c;
+        }
+
+        // --- Atributos ---
+
+        /**
+         * Token de VARIABLE, UNARY/BINARY (operador), VAR_DECL e ASSIGN (nome);
+         * which = 1 dá o '=' de ASSIGN
+         */
+        public String tokenLexeme(int node, int which) {
+            int p = skipTokens(attrsStart(node), which);
+            return (buf.get(p) & 0xFF) == NO_TOKEN ? null : string(varint(p + 1));
+        }
+
+        public int tokenLine(int node, int which) {
+            int p = skipTokens(attrsStart(node), which);
+            if ((buf.get(p) & 0xFF) == NO_TOKEN) {
+                return -1;
+            }
+            p += 1 + varintSize(p + 1);
+            return varint(p);
+        }
+
+        public Token token(int node, int which) {
+            int p = skipTokens(attrsStart(node), which);
+            int type = buf.get(p) & 0xFF;
+            if (type == NO_TOKEN) {
+                return null;
+            }
+            p++;
+            String lexeme = string(varint(p));
+            p += varintSize(p);
+            int line = varint(p);
+            p += varintSize(p);
+            return new Token(TOKEN_TYPES[type], lexeme, null, line, varint(p));
+        }
+
+        /**
+         * Nome do tipo de um VAR_DECL (null se omitido)
+         */
+        public String typeName(int node) {
+            int p = skipTokens(attrsStart(node), 1);
+            int id = varint(p);
+            return id == 0 ? null : string(id - 1);
+        }
+
+        /**
+         * Valor de LITERAL, texto de STRING_PART ou prompt de INPUT
+         */
+        public Object value(int node) {
+            return constant(varint(attrsStart(node)));
+        }
+
+        private int skipTokens(int p, int count) {
+            for (int i = 0; i < count; i++) {
+                if ((buf.get(p) & 0xFF) == NO_TOKEN) {
+                    p++;
+                } else {
+                    p++;
+                    for (int k = 0; k < 3; k++) {
+                        p += varintSize(p);
+                    }
+                }
+            }
+            return p;
+        }
+
+        // --- Constantes ---
+
+        public Object constant(int id) {
+            int p = constantOffsets[id];
+            switch (buf.get(p)) {
+                case C_STRING:
+                    return string(id);
+                case C_INT:
+                    return buf.getInt(p + 1);
+                case C_DOUBLE:
+                    return buf.getDouble(p + 1);
+                case C_CHAR:
+                    return (char) varint(p + 1);
+                case C_TRUE:
+                    return Boolean.TRUE;
+                case C_FALSE:
+                    return Boolean.FALSE;
+                default:
+                    return null;
+            }
+        }
+
+        public String string(int id) {
+            int p = constantOffsets[id] + 1;
+            int n = varint(p);
+            p += varintSize(p);
+            byte[] bytes = new byte[n];
+            buf.get(p, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Compara uma constante string com um texto sem decodificá-la
+         */
+        public boolean stringEquals(int id, byte[] utf8) {
+            int p = constantOffsets[id] + 1;
+            int n = varint(p);
+            if (n != utf8.length) {
+                return false;
+            }
+            p += varintSize(p);
+            for (int i = 0; i < n; i++) {
+                if (buf.get(p + i) != utf8[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Índice da constante com o lexema de um token (-1 se null)
+         */
+        public int tokenLexemeId(int node, int which) {
+            int p = skipTokens(attrsStart(node), which);
+            return (buf.get(p) & 0xFF) == NO_TOKEN ? -1 : varint(p + 1);
+        }
+
+        private int skipConstant(int p) {
+            switch (buf.get(p)) {
+                case C_STRING: {
+                    int n = varint(p + 1);
+                    return p + 1 + varintSize(p + 1) + n;
+                }
+                case C_INT:
+                    return p + 5;
+                case C_DOUBLE:
+                    return p + 9;
+                case C_CHAR:
+                    return p + 1 + varintSize(p + 1);
+                default:
+                    return p + 1;
+            }
+        }
+
+        private int varint(int p) {
+            int value = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = buf.get(p++);
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        private int varintSize(int p) {
+            int n = 1;
+            while ((buf.get(p++) & 0x80) != 0) {
+                n++;
+            }
+            return n;
+        }
+
+        // --- Materialização ---
+
+        /**
+         * Reconstrói o AST.Program do i-ésimo programa
+         */
+        public AST.Program toProgram(int i) {
+            return new AST.Program((AST.Block) statement(child(program(i), 0)));
+        }
+
+        private AST.Block block(int node) {
+            return (AST.Block) statement(node);
+        }
+
+        private AST.Statement statement(int node) {
+            if (node < 0) {
+                return null;
+            }
+            switch (kind(node)) {
+                case BLOCK: {
+                    List<AST.Statement> statements = new ArrayList<>(childCount(node));
+                    for (int c = firstChild(node), k = childCount(node); k > 0; c = end(c), k--) {
+                        statements.add(statement(kind(c) == NONE ? -1 : c));
+                    }
+                    return new AST.Block(statements);
+                }
+                case VAR_DECL: {
+                    String type = typeName(node);
+                    return new AST.VarDecl(token(node, 0), type == null ? null : new AST.TypeNode(type),
+                            expr(child(node, 0)));
+                }
+                case IF:
+                    return new AST.If(expr(child(node, 0)), block(child(node, 1)), block(child(node, 2)));
+                case WHILE:
+                    return new AST.While(expr(child(node, 0)), block(child(node, 1)));
+                case DO_WHILE:
+                    return new AST.DoWhile(block(child(node, 0)), expr(child(node, 1)));
+                case FOR:
+                    return new AST.For(statement(child(node, 0)), expr(child(node, 1)), expr(child(node, 2)),
+                            block(child(node, 3)));
+                case SWITCH: {
+                    int n = childCount(node);
+                    List<AST.Case> cases = new ArrayList<>(n - 2);
+                    int c = end(firstChild(node));
+                    for (int k = 1; k < n - 1; k++, c = end(c)) {
+                        cases.add(new AST.Case(expr(child(c, 0)), block(child(c, 1))));
+                    }
+                    return new AST.Switch(expr(child(node, 0)), cases, block(kind(c) == NONE ? -1 : c));
+                }
+                case RETURN:
+                    return new AST.Return(expr(child(node, 0)));
+                case PRINT:
+                    return new AST.Print(expr(child(node, 0)));
+                case BREAK:
+                    return new AST.Break();
+                case CONTINUE:
+                    return new AST.Continue();
+                case EXPR_STMT:
+                    return new AST.ExprStmt(expr(child(node, 0)));
+                default:
+                    throw new IllegalStateException("Comando esperado, encontrado " + kindName(kind(node)));
+            }
+        }
+
+        private AST.Expr expr(int node) {
+            if (node < 0) {
+                return null;
+            }
+            switch (kind(node)) {
+                case LITERAL:
+                    return new AST.Literal(value(node));
+                case VARIABLE:
+                    return new AST.Variable(token(node, 0));
+                case GROUPING:
+                    return new AST.Grouping(expr(child(node, 0)));
+                case UNARY:
+                    return new AST.Unary(token(node, 0), expr(child(node, 0)));
+                case BINARY:
+                    return new AST.Binary(expr(child(node, 0)), token(node, 0), expr(child(node, 1)));
+                case ASSIGN:
+                    return new AST.Assign(token(node, 0), expr(child(node, 0)), token(node, 1));
+                case TERNARY:
+                    return new AST.Ternary(expr(child(node, 0)), expr(child(node, 1)), expr(child(node, 2)));
+                case INPUT:
+                    return new AST.Input((String) value(node));
+                case ARRAY_LITERAL: {
+                    List<AST.Expr> elements = new ArrayList<>(childCount(node));
+                    for (int c = firstChild(node), k = childCount(node); k > 0; c = end(c), k--) {
+                        elements.add(expr(kind(c) == NONE ? -1 : c));
+                    }
+                    return new AST.ArrayLiteral(elements);
+                }
+                case ARRAY_ACCESS:
+                    return new AST.ArrayAccess(expr(child(node, 0)), expr(child(node, 1)));
+                case INTERPOLATED: {
+                    List<Object> parts = new ArrayList<>(childCount(node));
+                    for (int c = firstChild(node), k = childCount(node); k > 0; c = end(c), k--) {
+                        parts.add(kind(c) == STRING_PART ? value(c) : expr(c));
+                    }
+                    return new AST.InterpolatedString(parts);
+                }
+                default:
+                    throw new IllegalStateException("Expressão esperada, encontrada " + kindName(kind(node)));
+            }
+        }
+    }
+
+    // ------------------ Ferramenta ------------------
+
+    /**
+     * Percorre a subárvore em pré-ordem, contando nós por tipo
+     */
+    private static void count(Reader r, int node, long[] counts) {
+        counts[r.kind(node)]++;
+        for (int c = r.firstChild(node), k = r.childCount(node); k > 0; c = r.end(c), k--) {
+            if (r.kind(c) != NONE) {
+                count(r, c, counts);
+            }
+        }
+    }
+
+    /**
+     * Usos (VARIABLE, VAR_DECL, ASSIGN) de um identificador na subárvore
+     */
+    private static void find(Reader r, int node, int nameId, int program, List<String> hits) {
+        int kind = r.kind(node);
+        if ((kind == VARIABLE || kind == VAR_DECL || kind == ASSIGN) && r.tokenLexemeId(node, 0) == nameId) {
+            hits.add(String.format("programa %d, linha %d: %s", program, r.tokenLine(node, 0), kindName(kind)));
+        }
+        for (int c = r.firstChild(node), k = r.childCount(node); k > 0; c = r.end(c), k--) {
+            if (r.kind(c) != NONE) {
+                find(r, c, nameId, program, hits);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: java -cp bin BinaryAst write saida.bast dir | glob | arquivo.bw ...");
+            System.err.println("     java -cp bin BinaryAst stats saida.bast | find saida.bast nome | dump saida.bast [programa]");
+            System.exit(1);
+        }
+        Path file = Path.of(args[1]);
+        switch (args[0]) {
+            case "write": {
+                List<Path> sources = BatchValidator.collect(Arrays.asList(args).subList(2, args.length));
+                Writer writer = new Writer();
+                List<String> expected = new ArrayList<>();
+                for (Path source : sources) {
+                    BowlerSession.Result r = BowlerSession.forThread().compile(Files.readString(source));
+                    if (r.program == null) {
+                        System.out.println("⚠️ Ignorado (não compila): " + source);
+                        continue;
+                    }
+                    writer.add(r.program);
+                    expected.add(r.program.toDetailedString());
+                }
+                writer.write(file);
+
+                // Conferência: cada programa lido de volta gera a mesma AST
+                Reader reader = Reader.open(file);
+                int same = 0;
+                for (int i = 0; i < reader.programCount(); i++) {
+                    if (reader.toProgram(i).toDetailedString().equals(expected.get(i))) {
+                        same++;
+                    }
+                }
+                System.out.printf("%d programa(s) gravados em %s (%d bytes); %d/%d idênticos na releitura%n",
+                        writer.size(), file, Files.size(file), same, reader.programCount());
+                break;
+            }
+            case "stats": {
+                long t0 = System.nanoTime();
+                Reader reader = Reader.open(file);
+                long[] counts = new long[KIND_NAMES.length];
+                for (int i = 0; i < reader.programCount(); i++) {
+                    count(reader, reader.program(i), counts);
+                }
+                long nodes = 0;
+                for (int k = 1; k < counts.length; k++) {
+                    if (counts[k] > 0) {
+                        System.out.printf("  %-20s %d%n", kindName(k), counts[k]);
+                        nodes += counts[k];
+                    }
+                }
+                System.out.printf("%d programa(s), %d nó(s) percorridos em %.1f ms sem materializar a AST%n",
+                        reader.programCount(), nodes, (System.nanoTime() - t0) / 1e6);
+                break;
+            }
+            case "find": {
+                Reader reader = Reader.open(file);
+                byte[] name = (args.length > 2 ? args[2] : "").getBytes(StandardCharsets.UTF_8);
+                int nameId = -1;
+                for (int id = 0; id < reader.constantOffsets.length && nameId < 0; id++) {
+                    if (reader.constant(id) instanceof String && reader.stringEquals(id, name)) {
+                        nameId = id;
+                    }
+                }
+                List<String> hits = new ArrayList<>();
+                if (nameId >= 0) {
+                    for (int i = 0; i < reader.programCount(); i++) {
+                        find(reader, reader.program(i), nameId, i, hits);
+                    }
+                }
+                for (String h : hits) {
+                    System.out.println(h);
+                }
+                System.out.println(hits.size() + " ocorrência(s) de " + new String(name, StandardCharsets.UTF_8));
+                break;
+            }
+            case "dump": {
+                Reader reader = Reader.open(file);
+                int first = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+                int last = args.length > 2 ? first + 1 : reader.programCount();
+                for (int i = first; i < last; i++) {
+                    System.out.println("Programa " + i + ": " + reader.toProgram(i).toDetailedString());
+                }
+                break;
+            }
+            default:
+                System.err.println("Comando desconhecido: " + args[0]);
+                System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * BinaryDriverOutput - Saída do driver Bowler em registros binários
+ *
+ * Formato (DataOutputStream, big-endian): magic "BOUT", versão, e uma
+ * sequência de registros [tipo (1 byte), dados]:
+ * TOKENS n, [tipo do token (1 byte), linha, coluna, lexema]... (lexemas só com TOKENS)
+ * RECURSIVE aceito, (erro | AST detalhada ou "")
+ * GRAMMAR em cache, não-terminais, terminais, células em conflito
+ * LL1 aceito, n, [erro]..., AST igual (-1 = não comparada, 0, 1)
+ * FAILURE mensagem
+ * CONCURRENT conciliado, mensagem, µs do recursivo, µs do LL(1), µs do total (--concurrent)
+ * END
+ * Inteiros são varints; strings são varint do tamanho + bytes UTF-8.
+ *
+ * Uso (leitura de um arquivo gravado):
+ * java -cp bin BinaryDriverOutput saida.bout
+ */
+public class BinaryDriverOutput implements DriverOutput {
+
+    private static final int MAGIC = 0x424F5554; // "BOUT"
+    private static final int VERSION = 2;
+
+    private static final int END = 0;
+    private static final int TOKENS = 1;
+    private static final int RECURSIVE = 2;
+    private static final int GRAMMAR = 3;
+    private static final int LL1 = 4;
+    private static final int FAILURE = 5;
+    private static final int CONCURRENT = 6;
+
+    private final Set<Phase> phases;
+    private final DataOutputStream out;
+
+    public BinaryDriverOutput(Set<Phase> phases, OutputStream stream) {
+        this.phases = phases;
+        this.out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+    }
+
+    @Override
+    public boolean shows(Phase phase) {
+        return phases.contains(phase);
+    }
+
+    @Override
+    public void begin(String sourcePath) {
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void tokens(List<Token> tokens) {
+        boolean lexemes = shows(Phase.TOKENS);
+        try {
+            out.writeByte(TOKENS);
+            writeVarint(tokens.size());
+            out.writeBoolean(lexemes);
+            for (Token t : tokens) {
+                out.writeByte(t.type.ordinal());
+                writeVarint(Math.max(0, t.line));
+                writeVarint(Math.max(0, t.column));
+                if (lexemes) {
+                    writeString(t.lexeme);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void regex() {
+    }
+
+    @Override
+    public void recursive(AST.Program program, ParseError error) {
+        try {
+            out.writeByte(RECURSIVE);
+            out.writeBoolean(program != null);
+            if (program == null) {
+                writeString(error.getMessage());
+            } else {
+                writeString(shows(Phase.AST) ? program.toDetailedString() : "");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void grammar(LL1GrammarAnalyzer analyzer, CompressedParsingTable table, boolean fromCache) {
+        try {
+            out.writeByte(GRAMMAR);
+            out.writeBoolean(fromCache);
+            writeVarint(analyzer.getNonTerminals().size());
+            writeVarint(analyzer.getTerminals().size());
+            writeVarint(analyzer.getConflictCellCount());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void stackStart(List<Token> tokens) {
+    }
+
+    @Override
+    public void stackStats(AdaptivePredictor predictor, String traceNote) {
+    }
+
+    @Override
+    public void stackResult(boolean accepted, List<ParseError> errors, AST.Program stackProgram, Boolean sameAst) {
+        try {
+            out.writeByte(LL1);
+            out.writeBoolean(accepted);
+            writeVarint(errors.size());
+            for (ParseError e : errors) {
+                writeString(e.getMessage());
+            }
+            out.writeByte(sameAst == null ? -1 : sameAst ? 1 : 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void failure(String message) {
+        try {
+            out.writeByte(FAILURE);
+            writeString(message);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void reconciliation(boolean agree, String message, long recursiveNanos, long stackNanos,
+            long totalNanos) {
+        try {
+            out.writeByte(CONCURRENT);
+            out.writeBoolean(agree);
+            writeString(message);
+            writeVarint((int) (recursiveNanos / 1000));
+            writeVarint((int) (stackNanos / 1000));
+            writeVarint((int) (totalNanos / 1000));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            out.writeByte(END);
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeVarint(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private void writeString(String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        out.write(bytes);
+    }
+
+    // ------------------ Leitura ------------------
+
+    private static int readVarint(DataInputStream in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readVarint(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lê um arquivo gravado e imprime os registros em texto
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Uso: java -cp bin BinaryDriverOutput saida.bout");
+            System.exit(1);
+        }
+        TokenType[] types = TokenType.values();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(Path.of(args[0]))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Arquivo de saída inválido ou de outra versão");
+            }
+            int record;
+            while ((record = in.readUnsignedByte()) != END) {
+                switch (record) {
+                    case TOKENS: {
+                        int n = readVarint(in);
+                        boolean lexemes = in.readBoolean();
+                        System.out.println("Tokens: " + n);
+                        for (int i = 0; i < n; i++) {
+                            TokenType type = types[in.readUnsignedByte()];
+                            int line = readVarint(in);
+                            int col = readVarint(in);
+                            String lexeme = lexemes ? readString(in) : "";
+                            if (lexemes) {
+                                System.out.printf("  %-15s %-18s %-6d %-6d%n", lexeme, type, line, col);
+                            }
+                        }
+                        break;
+                    }
+                    case RECURSIVE: {
+                        boolean accepted = in.readBoolean();
+                        String text = readString(in);
+                        System.out.println("Parser Recursivo: " + (accepted ? "aceita" : "rejeita")
+                                + (text.isEmpty() ? "" : " — " + text));
+                        break;
+                    }
+                    case GRAMMAR:
+                        System.out.println("Gramática: " + (in.readBoolean() ? "do cache, " : "")
+                                + readVarint(in) + " não-terminais, " + readVarint(in) + " terminais, "
+                                + readVarint(in) + " conflitos");
+                        break;
+                    case LL1: {
+                        boolean accepted = in.readBoolean();
+                        int n = readVarint(in);
+                        System.out.println("LL(1) com Pilha: " + (accepted ? "aceita" : "rejeita (" + n + " erro(s))"));
+                        for (int i = 0; i < n; i++) {
+                            System.out.println("  - " + readString(in));
+                        }
+                        int same = in.readByte();
+                        if (same >= 0) {
+                            System.out.println("AST " + (same == 1 ? "idêntica" : "diferente") + " à do Parser Recursivo");
+                        }
+                        break;
+                    }
+                    case FAILURE:
+                        System.out.println("Falha: " + readString(in));
+                        break;
+                    case CONCURRENT: {
+                        boolean agree = in.readBoolean();
+                        String message = readString(in);
+                        System.out.println((agree ? "Veredictos conciliados: " : "Divergência: ") + message
+                                + " (recursivo " + readVarint(in) + " µs, LL(1) " + readVarint(in) + " µs, total "
+                                + readVarint(in) + " µs)");
+                        break;
+                    }
+                    default:
+                        throw new IOException("Registro desconhecido: " + record);
+                }
+            }
+        }
+    }
+}
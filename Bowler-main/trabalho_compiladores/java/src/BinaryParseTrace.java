@@ -0,0 +1,345 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * BinaryParseTrace - Log binário compacto dos passos do LL1StackParser
+ *
+ * Em vez de imprimir a pilha inteira a cada passo (saída quadrática), grava
+ * só o evento de cada passo:
+ * MATCH → 1 byte (o terminal é o topo da pilha)
+ * EXPAND A, p → 1 byte + ids de A e da produção (varint)
+ * PREDICTED A, p → igual, quando a célula foi decidida adaptativamente
+ * FINISH ok → 2 bytes
+ * ERROR msg → 1 byte + id da mensagem (varint)
+ * SKIP, INSERT, POP → 1 byte (reparos da recuperação de erros)
+ *
+ * A pilha e o lookahead de cada passo são reconstruídos depois por replay(),
+ * a partir dos tokens, gerando exatamente o trace em texto.
+ *
+ * Uso (renderização de um log gravado):
+ * java -cp bin BinaryParseTrace trace.bin programa.bw
+ */
+public class BinaryParseTrace implements ParseTrace {
+
+    private static final int MAGIC = 0x42545243; // "BTRC"
+    private static final int VERSION = 2;
+
+    private static final byte MATCH = 1;
+    private static final byte EXPAND = 2;
+    private static final byte PREDICTED = 3;
+    private static final byte FINISH = 4;
+    private static final byte ERROR = 5;
+    private static final byte SKIP = 6;
+    private static final byte INSERT = 7;
+    private static final byte POP = 8;
+
+    // Símbolos e produções internados
+    private final Map<String, Integer> symbolIds = new HashMap<>();
+    private final List<String> symbols = new ArrayList<>();
+    private final Map<List<String>, Integer> productionIds = new HashMap<>();
+    private final List<List<String>> productions = new ArrayList<>();
+
+    private int startSymbol = -1;
+    private byte[] events = new byte[1024];
+    private int size = 0;
+    private int steps = 0;
+
+    @Override
+    public Level level() {
+        return Level.STEPS;
+    }
+
+    @Override
+    public void start(String startSymbol, List<String> stack, String lookahead) {
+        this.startSymbol = symbolId(startSymbol);
+    }
+
+    @Override
+    public void step(int step, List<String> stack, String lookahead, Token token) {
+        // Pilha e lookahead são reconstruídos no replay
+        steps = step;
+    }
+
+    @Override
+    public void match(String terminal) {
+        ensure(1);
+        events[size++] = MATCH;
+    }
+
+    @Override
+    public void predicted(String nonTerminal, String terminal, List<String> production) {
+        ensure(11);
+        events[size++] = PREDICTED;
+        writeVarint(symbolId(nonTerminal));
+        writeVarint(productionId(production));
+    }
+
+    @Override
+    public void expand(String nonTerminal, List<String> production) {
+        ensure(11);
+        events[size++] = EXPAND;
+        writeVarint(symbolId(nonTerminal));
+        writeVarint(productionId(production));
+    }
+
+    @Override
+    public void syntaxError(String message) {
+        ensure(6);
+        events[size++] = ERROR;
+        writeVarint(symbolId(message));
+    }
+
+    @Override
+    public void skip(Token token) {
+        ensure(1);
+        events[size++] = SKIP;
+    }
+
+    @Override
+    public void insert(String terminal) {
+        ensure(1);
+        events[size++] = INSERT;
+    }
+
+    @Override
+    public void pop(String nonTerminal) {
+        ensure(1);
+        events[size++] = POP;
+    }
+
+    @Override
+    public void finish(boolean accepted, int steps) {
+        ensure(2);
+        events[size++] = FINISH;
+        events[size++] = (byte) (accepted ? 1 : 0);
+        this.steps = steps;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    public int steps() {
+        return steps;
+    }
+
+    /**
+     * Tamanho dos eventos gravados, em bytes
+     */
+    public int eventBytes() {
+        return size;
+    }
+
+    // ------------------ Replay ------------------
+
+    /**
+     * Reproduz o log em outro trace (ex.: TextParseTrace), reconstruindo pilha
+     * e lookahead a partir dos tokens da mesma entrada
+     */
+    public void replay(ParseTrace target, List<Token> tokens) {
+        List<String> stack = new ArrayList<>();
+        stack.add("$");
+        stack.add(symbols.get(startSymbol));
+        int current = 0;
+        int step = 0;
+        boolean stepOpen = false;
+        boolean traceSteps = target.level() == Level.STEPS;
+
+        target.start(symbols.get(startSymbol), stack, lookahead(tokens, current));
+        int[] pos = { 0 };
+        while (pos[0] < size) {
+            byte op = events[pos[0]++];
+            if (op == FINISH) {
+                boolean accepted = events[pos[0]++] != 0;
+                if (!stepOpen) {
+                    step++;
+                    if (traceSteps) {
+                        target.step(step, stack, lookahead(tokens, current), token(tokens, current));
+                    }
+                }
+                target.finish(accepted, step);
+                break;
+            }
+            if (!stepOpen) {
+                step++;
+                if (traceSteps) {
+                    target.step(step, stack, lookahead(tokens, current), token(tokens, current));
+                }
+            }
+            stepOpen = false;
+            if (op == MATCH) {
+                String terminal = stack.remove(stack.size() - 1);
+                if (traceSteps) {
+                    target.match(terminal);
+                }
+                current++;
+            } else if (op == ERROR) {
+                target.syntaxError(symbols.get(readVarint(pos)));
+                stepOpen = true; // o reparo vem no mesmo passo
+            } else if (op == SKIP) {
+                if (traceSteps) {
+                    target.skip(token(tokens, current));
+                }
+                current++;
+            } else if (op == INSERT) {
+                String terminal = stack.remove(stack.size() - 1);
+                if (traceSteps) {
+                    target.insert(terminal);
+                }
+            } else if (op == POP) {
+                String nt = stack.remove(stack.size() - 1);
+                if (traceSteps) {
+                    target.pop(nt);
+                }
+            } else {
+                String nt = symbols.get(readVarint(pos));
+                List<String> production = productions.get(readVarint(pos));
+                if (op == PREDICTED) {
+                    if (traceSteps) {
+                        target.predicted(nt, lookahead(tokens, current), production);
+                    }
+                    stepOpen = true; // a expansão vem no mesmo passo
+                } else {
+                    if (traceSteps) {
+                        target.expand(nt, production);
+                    }
+                    stack.remove(stack.size() - 1);
+                    if (!production.get(0).equals("ε")) {
+                        for (int i = production.size() - 1; i >= 0; i--) {
+                            stack.add(production.get(i));
+                        }
+                    }
+                }
+            }
+        }
+        target.flush();
+    }
+
+    private static String lookahead(List<Token> tokens, int current) {
+        return LL1StackParser.terminalOf(token(tokens, current).type);
+    }
+
+    private static Token token(List<Token> tokens, int current) {
+        if (current < tokens.size()) {
+            return tokens.get(current);
+        }
+        return new Token(TokenType.EOF, "<EOF>", null, -1, -1);
+    }
+
+    // ------------------ Persistência ------------------
+
+    public void writeTo(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(symbols.size());
+        for (String s : symbols) {
+            out.writeUTF(s);
+        }
+        out.writeInt(productions.size());
+        for (List<String> production : productions) {
+            out.writeInt(production.size());
+            for (String s : production) {
+                out.writeInt(symbolIds.get(s));
+            }
+        }
+        out.writeInt(startSymbol);
+        out.writeInt(steps);
+        out.writeInt(size);
+        out.write(events, 0, size);
+        out.flush();
+    }
+
+    public static BinaryParseTrace readFrom(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Arquivo de trace inválido ou de outra versão");
+        }
+        BinaryParseTrace trace = new BinaryParseTrace();
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            trace.symbolId(in.readUTF());
+        }
+        int p = in.readInt();
+        for (int i = 0; i < p; i++) {
+            List<String> production = new ArrayList<>();
+            int k = in.readInt();
+            for (int j = 0; j < k; j++) {
+                production.add(trace.symbols.get(in.readInt()));
+            }
+            trace.productionId(production);
+        }
+        trace.startSymbol = in.readInt();
+        trace.steps = in.readInt();
+        trace.size = in.readInt();
+        trace.events = new byte[Math.max(1, trace.size)];
+        in.readFully(trace.events, 0, trace.size);
+        return trace;
+    }
+
+    // ------------------ Codificação ------------------
+
+    private int symbolId(String symbol) {
+        Integer id = symbolIds.get(symbol);
+        if (id == null) {
+            id = symbols.size();
+            symbols.add(symbol);
+            symbolIds.put(symbol, id);
+        }
+        return id;
+    }
+
+    private int productionId(List<String> production) {
+        Integer id = productionIds.get(production);
+        if (id == null) {
+            for (String s : production) {
+                symbolId(s);
+            }
+            id = productions.size();
+            List<String> copy = Collections.unmodifiableList(new ArrayList<>(production));
+            productions.add(copy);
+            productionIds.put(copy, id);
+        }
+        return id;
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > events.length) {
+            events = Arrays.copyOf(events, Math.max(events.length * 2, size + extra));
+        }
+    }
+
+    private void writeVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            events[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        events[size++] = (byte) value;
+    }
+
+    private int readVarint(int[] pos) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = events[pos[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: java -cp bin BinaryParseTrace trace.bin programa.bw");
+            System.exit(1);
+        }
+        BinaryParseTrace trace;
+        try (InputStream in = Files.newInputStream(Path.of(args[0]))) {
+            trace = readFrom(in);
+        }
+        List<Token> tokens = new Lexer(Files.readString(Path.of(args[1]))).scanTokens();
+        trace.replay(TextParseTrace.stdout(Level.STEPS), tokens);
+    }
+}
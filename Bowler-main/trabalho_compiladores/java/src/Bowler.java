@@ -1,5 +1,8 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * Projeto AV1 – Implementação em Java (puro) separada em classes:
@@ -19,8 +22,88 @@ import java.util.*;
  */
 public class Bowler {
     public static void main(String[] args) throws Exception {
+        // Opções: --grammar=arquivo.ll1 (gramática externa), --transform (remove recursão à
+        // esquerda e fatora a gramática), --no-cache (ignora cache da tabela),
+        // --trace=off|summary|steps|binary:arquivo (trace do parser com pilha),
+        // --concurrent (parser recursivo e validação LL(1) ao mesmo tempo),
+        // --batch dir|glob|arquivo... (validação em lote, ver BatchValidator),
+        // --output=text|quiet|jsonl|binary:arquivo e --phases=tokens,regex,ast,grammar,stats
+        if (Arrays.asList(args).contains("--batch")) {
+            BatchValidator.main(args);
+            return;
+        }
+        String sourcePath = null;
+        String grammarPath = null;
+        boolean transform = false;
+        boolean useCache = true;
+        String traceMode = "steps";
+        boolean concurrent = false;
+        boolean explicitTrace = false;
+        String outputMode = "text";
+        String phases = null;
+        for (String arg : args) {
+            if (arg.startsWith("--grammar=")) {
+                grammarPath = arg.substring("--grammar=".length());
+            } else if (arg.equals("--transform")) {
+                transform = true;
+            } else if (arg.equals("--no-cache")) {
+                useCache = false;
+            } else if (arg.startsWith("--trace=")) {
+                traceMode = arg.substring("--trace=".length());
+                explicitTrace = true;
+            } else if (arg.equals("--concurrent")) {
+                concurrent = true;
+            } else if (arg.startsWith("--output=")) {
+                outputMode = arg.substring("--output=".length());
+            } else if (arg.startsWith("--phases=")) {
+                phases = arg.substring("--phases=".length());
+            } else {
+                sourcePath = arg;
+            }
+        }
+
+        // Toda a saída passa por um único stream com buffer (descarregado no fim)
+        PrintStream stdout = System.out;
+        System.setOut(new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16),
+                false, StandardCharsets.UTF_8));
+        DriverOutput out = createOutput(outputMode, phases);
+        if ((concurrent || !outputMode.equals("text")) && !explicitTrace) {
+            // O trace em texto só faz sentido na saída padrão; no modo concorrente só se pedido
+            traceMode = "off";
+        }
+        try {
+            run(sourcePath, grammarPath, transform, useCache, traceMode, concurrent, out);
+        } finally {
+            out.close();
+            System.out.flush();
+            System.setOut(stdout);
+        }
+    }
+
+    /**
+     * Saída do driver: text (padrão), quiet (só veredictos), jsonl ou
+     * binary:arquivo; phases é a lista de --phases (null = padrão do modo)
+     */
+    private static DriverOutput createOutput(String outputMode, String phases) throws IOException {
+        if (outputMode.equals("text")) {
+            return new TextDriverOutput(DriverOutput.parsePhases(phases == null ? "all" : phases));
+        }
+        Set<DriverOutput.Phase> selected = DriverOutput.parsePhases(phases == null ? "none" : phases);
+        if (outputMode.equals("quiet")) {
+            return new TextDriverOutput(selected);
+        } else if (outputMode.equals("jsonl")) {
+            return new JsonLinesDriverOutput(selected);
+        } else if (outputMode.startsWith("binary:")) {
+            return new BinaryDriverOutput(selected,
+                    Files.newOutputStream(Path.of(outputMode.substring("binary:".length()))));
+        }
+        throw new IllegalArgumentException("Modo de saída desconhecido: " + outputMode);
+    }
+
+    private static void run(String sourcePath, String grammarPath, boolean transform, boolean useCache,
+            String traceMode, boolean concurrent, DriverOutput out) throws Exception {
         String source;
-        if (args.length == 0) {
+        if (sourcePath == null) {
             source = String.join("",
                 "main {",
                 "  var x: int = 10;",
@@ -37,274 +120,436 @@ public class Bowler {
                 "  return x;",
                 "}"
             );
-            System.out.println("[Sem arquivo] Usando o exemplo embutido.");
         } else {
-            source = Files.readString(Path.of(args[0]));
+            source = Files.readString(Path.of(sourcePath));
         }
+        out.begin(sourcePath);
 
         // 1) LÉXICO
         Lexer lexer = new Lexer(source);
         List<Token> tokens = lexer.scanTokens();
+        out.tokens(tokens);
+        out.regex();
 
-        // Imprimir Tabela de Tokens
-        System.out.println("=== Tabela de Tokens ===");
-        System.out.printf("%-15s %-18s %-6s %-6s\n", "Lexema", "Classe", "Linha", "Col");
-        System.out.println("-------------------------------------------------------------");
-        for (Token t : tokens) {
-            System.out.printf("%-15s %-18s %-6d %-6d\n",
-                t.lexeme,
-                t.type,
-                t.line,
-                t.column);
-        }
-
-        // Imprimir Cadeia de Tokens
-        System.out.println("=== Cadeia de Tokens ===");
-        int count = 0;
-        for (Token t : tokens) {
-            System.out.printf("%-12s ", t.type);
-            count++;
-            if (count % 8 == 0) System.out.println();
+        if (concurrent) {
+            runConcurrent(tokens, grammarPath, transform, useCache, traceMode, out);
+            return;
         }
-        if (count % 8 != 0) System.out.println();
-
-        // Imprimir Expressões Regulares Utilizadas (Opção A - Conformidade)
-        System.out.println("\n=== Expressões Regulares Utilizadas (Lexer) ===");
-        System.out.println("IDENTIFIER: [a-zA-Z_][a-zA-Z0-9_]*");
-        System.out.println("NUMBER:     [0-9]+ | [0-9]+\\.[0-9]+ | [0-9]+\\.[0-9]+[dD]");
-        System.out.println("STRING:     \"[^\"]*\"");
-        System.out.println("CHAR:       '[a-zA-Z0-9]'");
-        System.out.println("OPERATORS:  +, -, *, /, %, ==, !=, <, >, <=, >=, =, +=, -=, *=, /=, %=");
-        System.out.println("LOGICAL:    &&, ||, !");
-        System.out.println("KEYWORDS:   var, int, float, double, char, bool, string, true, false,");
-        System.out.println("            if, else, while, do, for, switch, case, default, break,");
-        System.out.println("            continue, print, input, return, main");
-        System.out.println("DELIMITERS: { } [ ] ( ) , . ; : ?");
-        System.out.println("COMMENTS:   // ... (linha)  e  /* ... */ (bloco)");
 
         // 2) SINTÁTICO - Parser Recursivo Descendente
         Parser parser = new Parser(tokens);
+        AST.Program recursiveProgram = null;
         try {
-            AST.Program program = parser.parse();
-            System.out.println("\n✅ Parser Recursivo: Programa reconhecido sem erros.");
-            System.out.println("=== Árvore (impressão simplificada) ===");
-            program.prettyPrint(0);
-            System.out.println("=== Árvore (detalhada) ===");
-            System.out.println(program.toDetailedString());
+            recursiveProgram = parser.parse();
+            out.recursive(recursiveProgram, null);
         } catch (ParseError e) {
-            System.err.println("❌ Erro sintático: " + e.getMessage());
+            out.recursive(null, e);
         }
-        
+
         // 3) ANÁLISE LL(1) - Validação com Pilha
-        System.out.println("\n" + "=".repeat(60));
-        System.out.println("ANÁLISE LL(1) COM PILHA - GRAMÁTICA SIMPLIFICADA");
-        System.out.println("=".repeat(60));
-        System.out.println("\nNota: A gramática LL(1) simplificada foi definida para");
-        System.out.println("validar a estrutura básica do programa Bowler.");
-        System.out.println("O Parser Recursivo acima reconheceu o programa com sucesso.");
-        
         try {
-            // Criar analisador de gramática LL(1) simplificada
-            LL1GrammarAnalyzer analyzer = createBowlerLL1Analyzer();
-            analyzer.calculateFirst();
-            analyzer.calculateFollow();
-            analyzer.buildParsingTable();
-            
-            // Exibir FIRST, FOLLOW e Tabela
-            analyzer.printFirst();
-            analyzer.printFollow();
-            analyzer.printParsingTable();
-            
+            // Criar analisador da gramática LL(1) (embutida ou de arquivo)
+            LL1GrammarAnalyzer analyzer = loadGrammar(grammarPath, transform);
+            boolean fromCache = analyze(analyzer, useCache);
+
+            // Tabela comprimida usada pelo parser com pilha
+            CompressedParsingTable compressed = CompressedParsingTable.fromAnalyzer(analyzer);
+            out.grammar(analyzer, compressed, fromCache);
+
             // Executar análise com pilha usando os tokens gerados pelo Lexer (entrada real)
-            System.out.println("\n" + "=".repeat(60));
-            System.out.println("TESTE COM TOKENS DO LEXER");
-            System.out.println("=".repeat(60));
-
-            System.out.println("Entrada (tokens do arquivo lido):");
-            System.out.println("Tokens: ");
-            for (Token t : tokens) {
-                System.out.print(t.type + " ");
-            }
-            System.out.println();
+            out.stackStart(tokens);
 
             LL1StackParser stackParser = new LL1StackParser(
                 tokens,
-                analyzer.getParsingTable(),
+                compressed,
                 analyzer.getNonTerminals(),
                 analyzer.getTerminals()
             );
 
-            boolean accepted = stackParser.parse("Program");
-            if (accepted) {
-                System.out.println("\n✅ Análise LL(1) com Pilha: ACEITA entrada lida");
+            BinaryParseTrace binaryTrace = null;
+            if (traceMode.startsWith("binary:")) {
+                binaryTrace = new BinaryParseTrace();
+                stackParser.setTrace(binaryTrace);
             } else {
-                System.out.println("\n❌ Análise LL(1) com Pilha: REJEITA entrada lida");
+                stackParser.setTrace(traceMode.equals("off") ? ParseTrace.OFF
+                        : TextParseTrace.stdout(ParseTrace.Level.valueOf(traceMode.toUpperCase())));
+            }
+
+            // Ações semânticas: a AST é construída na mesma passada (só para a gramática embutida)
+            boolean buildAst = grammarPath == null && !transform;
+            if (buildAst) {
+                stackParser.setSemanticActions(new BowlerAstActions());
             }
+
+            // Recuperação de erros: todos os erros sintáticos são reportados numa só passada
+            stackParser.enableErrorRecovery(analyzer.getFollow());
+
+            AdaptivePredictor predictor = null;
+            if (!analyzer.getConflictAlternatives().isEmpty()) {
+                predictor = new AdaptivePredictor(analyzer);
+                stackParser.enableAdaptivePrediction(predictor);
+            }
+
+            boolean accepted = stackParser.parse(analyzer.getStartSymbol());
+            String traceNote = null;
+            if (binaryTrace != null) {
+                Path tracePath = Path.of(traceMode.substring("binary:".length()));
+                try (OutputStream traceOut = Files.newOutputStream(tracePath)) {
+                    binaryTrace.writeTo(traceOut);
+                }
+                traceNote = "Trace binário: " + binaryTrace.steps() + " passos, "
+                        + binaryTrace.eventBytes() + " bytes de eventos em " + tracePath
+                        + " (renderizar com: java -cp bin BinaryParseTrace " + tracePath + " <arquivo.bw>)";
+            }
+            out.stackStats(predictor, traceNote);
+
+            AST.Program stackProgram = null;
+            Boolean sameAst = null;
+            if (accepted && buildAst && stackParser.getResult() instanceof AST.Program) {
+                stackProgram = (AST.Program) stackParser.getResult();
+                if (recursiveProgram != null) {
+                    sameAst = stackProgram.toDetailedString().equals(recursiveProgram.toDetailedString());
+                }
+            }
+            out.stackResult(accepted, stackParser.getErrors(), stackProgram, sameAst);
         } catch (Exception e) {
-            System.err.println("\n⚠️ Análise LL(1): " + e.getMessage());
+            out.failure(e.getMessage());
         }
     }
     
     /**
-     * Cria um analisador LL(1) configurado para a gramática Bowler SIMPLIFICADA
-     * 
-     * Gramática para validar a estrutura:
-     * Program → main Block EOF
-     * Block → { StmtList }
-     * StmtList → ε | Statement StmtList
-     * Statement → var IDENTIFIER : Type ; | Expr ;
-     * Type → int | float
-     * Expr → IDENTIFIER | NUMBER
+     * Gramática LL(1) embutida ou de arquivo (--grammar), opcionalmente
+     * transformada (--transform)
+     */
+    static LL1GrammarAnalyzer loadGrammar(String grammarPath, boolean transform) throws IOException {
+        LL1GrammarAnalyzer analyzer = grammarPath != null
+                ? GrammarLoader.load(Path.of(grammarPath))
+                : createBowlerLL1Analyzer();
+        return transform ? GrammarTransformer.transform(analyzer) : analyzer;
+    }
+
+    /**
+     * Calcula FIRST/FOLLOW/tabela; com cache, eles vêm do disco quando a
+     * gramática não mudou. Retorna true se o cache foi usado.
+     */
+    static boolean analyze(LL1GrammarAnalyzer analyzer, boolean useCache) {
+        if (useCache) {
+            return ParseTableCache.defaultCache().analyze(analyzer);
+        }
+        analyzer.calculateFirst();
+        analyzer.calculateFollow();
+        analyzer.buildParsingTable();
+        return false;
+    }
+
+    /**
+     * Resultado de um dos validadores no modo --concurrent
+     */
+    private static final class Verdict {
+        boolean accepted;
+        AST.Program program;
+        final List<ParseError> errors = new ArrayList<>();
+        String failure; // a análise LL(1) não pôde rodar
+        String trace = "";
+        String traceNote;
+        long nanos;
+    }
+
+    /**
+     * Modo --concurrent: o parser recursivo e o parser LL(1) com pilha rodam
+     * ao mesmo tempo sobre a mesma lista de tokens, só de leitura. A
+     * gramática (análise e CompiledGrammar) é preparada antes, fora da
+     * medição; o trace fica desligado salvo --trace explícito. Os resultados
+     * vão para o DriverOutput depois, na mesma ordem do modo sequencial,
+     * seguidos da conciliação dos veredictos (aceitação, primeiro erro, AST).
+     */
+    private static void runConcurrent(List<Token> tokens, String grammarPath, boolean transform,
+            boolean useCache, String traceMode, DriverOutput out) throws InterruptedException, ExecutionException {
+        List<Token> shared = Collections.unmodifiableList(tokens);
+        boolean buildAst = grammarPath == null && !transform;
+
+        LL1GrammarAnalyzer analyzer = null;
+        boolean fromCache = false;
+        CompiledGrammar grammar = null;
+        String grammarError = null;
+        try {
+            analyzer = loadGrammar(grammarPath, transform);
+            fromCache = analyze(analyzer, useCache);
+            grammar = CompiledGrammar.compile(analyzer);
+        } catch (Exception e) {
+            grammarError = e.getMessage();
+        }
+        CompiledGrammar compiled = grammar;
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        long start = System.nanoTime();
+        Future<Verdict> recursiveTask = pool.submit(() -> {
+            Verdict v = new Verdict();
+            long t0 = System.nanoTime();
+            try {
+                v.program = new Parser(shared).parse();
+                v.accepted = true;
+            } catch (Exception e) {
+                // Qualquer falha do parser conta como rejeição, sem interromper a conciliação
+                v.errors.add(e instanceof ParseError ? (ParseError) e : new ParseError("⚠️ " + e));
+            }
+            v.nanos = System.nanoTime() - t0;
+            return v;
+        });
+        Future<Verdict> stackTask = pool.submit(() -> {
+            Verdict v = new Verdict();
+            if (compiled == null) {
+                return v;
+            }
+            long t0 = System.nanoTime();
+            try {
+                LL1StackParser parser = compiled.newParser(shared);
+                StringWriter text = new StringWriter();
+                BinaryParseTrace binaryTrace = null;
+                if (traceMode.startsWith("binary:")) {
+                    binaryTrace = new BinaryParseTrace();
+                    parser.setTrace(binaryTrace);
+                } else if (!traceMode.equals("off")) {
+                    parser.setTrace(new TextParseTrace(ParseTrace.Level.valueOf(traceMode.toUpperCase()), text));
+                }
+                if (buildAst) {
+                    parser.setSemanticActions(new BowlerAstActions());
+                }
+                v.accepted = parser.parse(compiled.getStartSymbol());
+                if (v.accepted && parser.getResult() instanceof AST.Program) {
+                    v.program = (AST.Program) parser.getResult();
+                }
+                v.errors.addAll(parser.getErrors());
+                if (binaryTrace != null) {
+                    Path tracePath = Path.of(traceMode.substring("binary:".length()));
+                    try (OutputStream traceOut = Files.newOutputStream(tracePath)) {
+                        binaryTrace.writeTo(traceOut);
+                    }
+                    v.traceNote = "Trace binário: " + binaryTrace.steps() + " passos, "
+                            + binaryTrace.eventBytes() + " bytes de eventos em " + tracePath;
+                }
+                v.trace = text.toString();
+            } catch (Exception e) {
+                v.failure = e.getMessage();
+            }
+            v.nanos = System.nanoTime() - t0;
+            return v;
+        });
+        Verdict recursive = recursiveTask.get();
+        Verdict stack = stackTask.get();
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        out.recursive(recursive.program, recursive.accepted ? null : recursive.errors.get(0));
+        if (compiled == null || stack.failure != null) {
+            String message = compiled == null ? grammarError : stack.failure;
+            out.failure(message);
+            out.reconciliation(false, "a análise LL(1) não pôde ser feita (" + message + ")",
+                    recursive.nanos, stack.nanos, elapsed);
+            return;
+        }
+        out.grammar(analyzer, compiled.getTable(), fromCache);
+        out.stackStart(tokens);
+        System.out.print(stack.trace); // só com --trace explícito
+        out.stackStats(compiled.getPredictor(), stack.traceNote);
+        Boolean sameAst = null;
+        if (recursive.program != null && stack.program != null) {
+            sameAst = recursive.program.toDetailedString().equals(stack.program.toDetailedString());
+        }
+        out.stackResult(stack.accepted, stack.errors, stack.program, sameAst);
+
+        boolean agree;
+        String message;
+        if (recursive.accepted != stack.accepted) {
+            agree = false;
+            message = "o Parser Recursivo " + (recursive.accepted ? "aceita" : "rejeita")
+                    + " e a análise LL(1) " + (stack.accepted ? "aceita" : "rejeita") + " a entrada";
+        } else if (Boolean.FALSE.equals(sameAst)) {
+            agree = false;
+            message = "ambos aceitam, mas as ASTs diferem";
+        } else if (!stack.accepted && !stack.errors.isEmpty() && errorLine(recursive.errors.get(0).getMessage())
+                != errorLine(stack.errors.get(0).getMessage())) {
+            agree = false;
+            message = "ambos rejeitam, mas o primeiro erro está em linhas diferentes ("
+                    + errorLine(recursive.errors.get(0).getMessage()) + " e "
+                    + errorLine(stack.errors.get(0).getMessage()) + ")";
+        } else {
+            agree = true;
+            message = "ambos " + (stack.accepted ? "aceitam" : "rejeitam") + " a entrada"
+                    + (sameAst != null ? " e as ASTs são idênticas" : "")
+                    + (stack.accepted ? "" : ", primeiro erro na mesma linha");
+        }
+        out.reconciliation(agree, message, recursive.nanos, stack.nanos, elapsed);
+    }
+
+    /**
+     * Linha de uma mensagem "[Linha N...] ..." (-1 se não houver)
+     */
+    private static int errorLine(String message) {
+        if (!message.startsWith("[Linha ")) {
+            return -1;
+        }
+        int end = 7;
+        while (end < message.length() && Character.isDigit(message.charAt(end))) {
+            end++;
+        }
+        return end > 7 ? Integer.parseInt(message.substring(7, end)) : -1;
+    }
+
+    /**
+     * Cria um analisador LL(1) para a gramática Bowler completa
+     *
+     * A gramática segue a estrutura do parser recursivo (Parser). Algumas
+     * regras foram mantidas na forma "natural", sem fatoração à esquerda, e
+     * geram células em conflito na tabela; essas decisões são resolvidas
+     * pelo AdaptivePredictor olhando mais de um token adiante:
+     * Statement → var IDENTIFIER : Type ; | var IDENTIFIER : Type = Expr ;
+     * Type → BaseType [ ] | BaseType
+     * Primary → IDENTIFIER Index | IDENTIFIER AssignOp Expr
      */
-    private static LL1GrammarAnalyzer createBowlerLL1Analyzer() {
+    static LL1GrammarAnalyzer createBowlerLL1Analyzer() {
         Map<String, List<List<String>>> productions = new HashMap<>();
-        
+
         // Program → main Block EOF
-        productions.put("Program", new ArrayList<>());
-        productions.get("Program").add(Arrays.asList("main", "Block", "EOF"));
-        
+        addProduction(productions, "Program", "main", "Block", "EOF");
+
         // Block → { StmtList }
-        productions.put("Block", new ArrayList<>());
-        productions.get("Block").add(Arrays.asList("{", "StmtList", "}"));
-        
         // StmtList → Statement StmtList | ε
-        productions.put("StmtList", new ArrayList<>());
-        productions.get("StmtList").add(Arrays.asList("Statement", "StmtList"));
-        productions.get("StmtList").add(Arrays.asList("ε"));
-        
-        // Statement → var IDENTIFIER : Type VarInit | if Condition Block | while Condition Block | print Expr ;
-        // VarInit → = Expr ; | ;
-        productions.put("Statement", new ArrayList<>());
-        productions.get("Statement").add(Arrays.asList("var", "IDENTIFIER", ":", "Type", "VarInit"));
-        // if e while: if/while Condition Block
-        productions.get("Statement").add(Arrays.asList("if", "Condition", "Block"));
-        productions.get("Statement").add(Arrays.asList("while", "Condition", "Block"));
-        // print: print Expr ;
-        productions.get("Statement").add(Arrays.asList("print", "Expr", ";"));
-        // Statement pode começar com IDENTIFIER — diferenciar atribuição ou expressão
-        productions.get("Statement").add(Arrays.asList("IDENTIFIER", "IdentRest"));
-        // Expressões iniciadas por número: NUMBER TermP ExprP ;
-        productions.get("Statement").add(Arrays.asList("NUMBER", "TermP", "ExprP", ";"));
-        // Expressões iniciadas por parêntese: ( Expr ) TermP ExprP ;
-        productions.get("Statement").add(Arrays.asList("(", "Expr", ")", "TermP", "ExprP", ";"));
-
-        // VarInit → = Expr ; | ;
-        productions.put("VarInit", new ArrayList<>());
-        productions.get("VarInit").add(Arrays.asList("=", "Expr", ";"));
-        productions.get("VarInit").add(Arrays.asList(";"));
-        
-        // Type → int | float | string
-        productions.put("Type", new ArrayList<>());
-        productions.get("Type").add(Arrays.asList("int"));
-        productions.get("Type").add(Arrays.asList("float"));
-        productions.get("Type").add(Arrays.asList("string"));
-        
-        // Expressões com precedência e comparadores (LL(1) com left-recursion removal)
-        // Expr → Term ExprP
-        // ExprP → CompOp Term ExprP | ε
-        // Term → Factor TermP
-        // TermP → * Factor TermP | / Factor TermP | ε
-        // Factor → ( Expr ) | NUMBER | IDENTIFIER
-        // CompOp → == | != | < | > | <= | >=
-        productions.put("Expr", new ArrayList<>());
-        productions.get("Expr").add(Arrays.asList("Term", "ExprP"));
-
-        productions.put("ExprP", new ArrayList<>());
-        productions.get("ExprP").add(Arrays.asList("CompOp", "Term", "ExprP"));
-        productions.get("ExprP").add(Arrays.asList("+", "Term", "ExprP"));
-        productions.get("ExprP").add(Arrays.asList("-", "Term", "ExprP"));
-        productions.get("ExprP").add(Arrays.asList("ε"));
-
-        productions.put("CompOp", new ArrayList<>());
-        productions.get("CompOp").add(Arrays.asList("=="));
-        productions.get("CompOp").add(Arrays.asList("!="));
-        productions.get("CompOp").add(Arrays.asList("<"));
-        productions.get("CompOp").add(Arrays.asList(">"));
-        productions.get("CompOp").add(Arrays.asList("<="));
-        productions.get("CompOp").add(Arrays.asList(">="));
-
-        productions.put("Term", new ArrayList<>());
-        productions.get("Term").add(Arrays.asList("Factor", "TermP"));
-
-        productions.put("TermP", new ArrayList<>());
-        productions.get("TermP").add(Arrays.asList("*", "Factor", "TermP"));
-        productions.get("TermP").add(Arrays.asList("/", "Factor", "TermP"));
-        productions.get("TermP").add(Arrays.asList("ε"));
-
-        productions.put("Factor", new ArrayList<>());
-        productions.get("Factor").add(Arrays.asList("(", "Expr", ")"));
-        productions.get("Factor").add(Arrays.asList("NUMBER"));
-        productions.get("Factor").add(Arrays.asList("STRING"));
-        productions.get("Factor").add(Arrays.asList("IDENTIFIER"));
-
-        // IdentRest -> = Expr ; | TermP ExprP ;
-        productions.put("IdentRest", new ArrayList<>());
-        productions.get("IdentRest").add(Arrays.asList("=", "Expr", ";"));
-        productions.get("IdentRest").add(Arrays.asList("TermP", "ExprP", ";"));
-
-        // Condition → ( LogicalExpr )
-        // LogicalExpr → Expr LogicalOp LogicalExpr | Expr
-        // LogicalOp → && | ||
-        productions.put("Condition", new ArrayList<>());
-        productions.get("Condition").add(Arrays.asList("(", "LogicalExpr", ")"));
-
-        productions.put("LogicalExpr", new ArrayList<>());
-        productions.get("LogicalExpr").add(Arrays.asList("Expr", "LogicalOpTail"));
-
-        productions.put("LogicalOpTail", new ArrayList<>());
-        productions.get("LogicalOpTail").add(Arrays.asList("LogicalOp", "Expr", "LogicalOpTail"));
-        productions.get("LogicalOpTail").add(Arrays.asList("ε"));
-
-        productions.put("LogicalOp", new ArrayList<>());
-        productions.get("LogicalOp").add(Arrays.asList("&&"));
-        productions.get("LogicalOp").add(Arrays.asList("||"));
-
-        // Statement agora com else, return, do/while e for
-        // Statement → var ... | if Condition Block ElseOpt | while Condition Block | do Block while Condition ;
-        //           | for ForInit ForCond ForStep Block | print Expr ; | return Expr ; | ...
-        productions.put("Statement", new ArrayList<>());
-        productions.get("Statement").add(Arrays.asList("var", "IDENTIFIER", ":", "Type", "VarInit"));
-        productions.get("Statement").add(Arrays.asList("if", "Condition", "Block", "ElseOpt"));
-        productions.get("Statement").add(Arrays.asList("while", "Condition", "Block"));
-        productions.get("Statement").add(Arrays.asList("do", "Block", "while", "Condition", ";"));
-        productions.get("Statement").add(Arrays.asList("for", "(", "ForInit", "ForCond", "ForStep", ")", "Block"));
-        productions.get("Statement").add(Arrays.asList("print", "Expr", ";"));
-        productions.get("Statement").add(Arrays.asList("return", "Expr", ";"));
-        productions.get("Statement").add(Arrays.asList("IDENTIFIER", "IdentRest"));
-        productions.get("Statement").add(Arrays.asList("NUMBER", "TermP", "ExprP", ";"));
-        productions.get("Statement").add(Arrays.asList("(", "Expr", ")", "TermP", "ExprP", ";"));
+        addProduction(productions, "Block", "{", "StmtList", "}");
+        addProduction(productions, "StmtList", "Statement", "StmtList");
+        addProduction(productions, "StmtList", "ε");
+
+        // Comandos
+        addProduction(productions, "Statement", "var", "IDENTIFIER", ":", "Type", ";");
+        addProduction(productions, "Statement", "var", "IDENTIFIER", ":", "Type", "=", "Expr", ";");
+        addProduction(productions, "Statement", "if", "(", "Expr", ")", "Block", "ElseOpt");
+        addProduction(productions, "Statement", "while", "(", "Expr", ")", "Block");
+        addProduction(productions, "Statement", "do", "Block", "while", "(", "Expr", ")", ";");
+        addProduction(productions, "Statement", "for", "(", "ForInit", "ForCond", ";", "ForStep", ")", "Block");
+        addProduction(productions, "Statement", "switch", "(", "Expr", ")", "{", "CaseList", "}");
+        addProduction(productions, "Statement", "break", ";");
+        addProduction(productions, "Statement", "continue", ";");
+        addProduction(productions, "Statement", "print", "(", "Expr", ")", ";");
+        addProduction(productions, "Statement", "return", "ReturnValue", ";");
+        addProduction(productions, "Statement", "Expr", ";");
 
         // ElseOpt → else Block | ε
-        productions.put("ElseOpt", new ArrayList<>());
-        productions.get("ElseOpt").add(Arrays.asList("else", "Block"));
-        productions.get("ElseOpt").add(Arrays.asList("ε"));
-        
-        // ForInit → VarInit | Expr ; | ε
-        productions.put("ForInit", new ArrayList<>());
-        productions.get("ForInit").add(Arrays.asList("var", "IDENTIFIER", ":", "Type", "VarInit"));
-        productions.get("ForInit").add(Arrays.asList("IDENTIFIER", "IdentRest"));
-        productions.get("ForInit").add(Arrays.asList("ε"));
-        
-        // ForCond → Condition ; | ε
-        productions.put("ForCond", new ArrayList<>());
-        productions.get("ForCond").add(Arrays.asList("Condition", ";"));
-        productions.get("ForCond").add(Arrays.asList("ε"));
-        
-        // ForStep → Expr | ε
-        productions.put("ForStep", new ArrayList<>());
-        productions.get("ForStep").add(Arrays.asList("Expr"));
-        productions.get("ForStep").add(Arrays.asList("ε"));
-        
+        addProduction(productions, "ElseOpt", "else", "Block");
+        addProduction(productions, "ElseOpt", "ε");
+
+        // for ( ForInit ForCond ; ForStep ) Block
+        addProduction(productions, "ForInit", "Statement");
+        addProduction(productions, "ForInit", ";");
+        addProduction(productions, "ForCond", "Expr");
+        addProduction(productions, "ForCond", "ε");
+        addProduction(productions, "ForStep", "Expr");
+        addProduction(productions, "ForStep", "ε");
+
+        // CaseList → case Expr : Block CaseList | default : Block CaseList | ε
+        addProduction(productions, "CaseList", "case", "Expr", ":", "Block", "CaseList");
+        addProduction(productions, "CaseList", "default", ":", "Block", "CaseList");
+        addProduction(productions, "CaseList", "ε");
+
+        // ReturnValue → Expr | ε
+        addProduction(productions, "ReturnValue", "Expr");
+        addProduction(productions, "ReturnValue", "ε");
+
+        // Type → BaseType [ ] | BaseType
+        addProduction(productions, "Type", "BaseType", "[", "]");
+        addProduction(productions, "Type", "BaseType");
+        for (String base : Arrays.asList("int", "float", "double", "char", "bool", "string")) {
+            addProduction(productions, "BaseType", base);
+        }
+
+        // Expressões (precedência crescente, recursão à esquerda já removida)
+        // Expr → Or TernaryTail
+        // TernaryTail → ? Expr : Expr | ε
+        addProduction(productions, "Expr", "Or", "TernaryTail");
+        addProduction(productions, "TernaryTail", "?", "Expr", ":", "Expr");
+        addProduction(productions, "TernaryTail", "ε");
+
+        addBinaryLevel(productions, "Or", "And", "||");
+        addBinaryLevel(productions, "And", "Equality", "&&");
+        addBinaryLevel(productions, "Equality", "Relational", "==", "!=");
+        addBinaryLevel(productions, "Relational", "Additive", "<", "<=", ">", ">=");
+        addBinaryLevel(productions, "Additive", "Term", "+", "-");
+        addBinaryLevel(productions, "Term", "Unary", "*", "/", "%");
+
+        // Unary → ! Unary | - Unary | Primary
+        addProduction(productions, "Unary", "!", "Unary");
+        addProduction(productions, "Unary", "-", "Unary");
+        addProduction(productions, "Unary", "Primary");
+
+        // Primary
+        for (String literal : Arrays.asList("NUMBER", "FLOAT", "DOUBLE", "CHAR", "STRING", "true", "false")) {
+            addProduction(productions, "Primary", literal);
+        }
+        addProduction(productions, "Primary", "INTERPOLATED_STRING", "InterpParts");
+        addProduction(productions, "Primary", "input", "(", "InputArg", ")");
+        addProduction(productions, "Primary", "[", "ArgList", "]");
+        addProduction(productions, "Primary", "(", "Expr", ")");
+        addProduction(productions, "Primary", "IDENTIFIER", "Index");
+        addProduction(productions, "Primary", "IDENTIFIER", "AssignOp", "Expr");
+
+        // Index → [ Expr ] Index | ε
+        addProduction(productions, "Index", "[", "Expr", "]", "Index");
+        addProduction(productions, "Index", "ε");
+
+        // AssignOp → = | += | -= | *= | /= | %=
+        for (String op : Arrays.asList("=", "+=", "-=", "*=", "/=", "%=")) {
+            addProduction(productions, "AssignOp", op);
+        }
+
+        // String interpolada: "a {x} b" → INTERPOLATED_STRING { Expr } STRING
+        addProduction(productions, "InterpParts", "InterpPart", "InterpParts");
+        addProduction(productions, "InterpParts", "ε");
+        addProduction(productions, "InterpPart", "INTERPOLATED_STRING");
+        addProduction(productions, "InterpPart", "{", "Expr", "}");
+        addProduction(productions, "InterpPart", "STRING");
+
+        // InputArg → STRING | ε
+        addProduction(productions, "InputArg", "STRING");
+        addProduction(productions, "InputArg", "ε");
+
+        // ArgList → Expr ArgTail | ε
+        // ArgTail → , Expr ArgTail | ε
+        addProduction(productions, "ArgList", "Expr", "ArgTail");
+        addProduction(productions, "ArgList", "ε");
+        addProduction(productions, "ArgTail", ",", "Expr", "ArgTail");
+        addProduction(productions, "ArgTail", "ε");
+
         // Terminais (não incluir o símbolo ε aqui)
         Set<String> terminals = new HashSet<>(Arrays.asList(
-            "main", "var", "int", "float", "string", "if", "else", "while", "do", "for", "print", "return",
-            "{", "}", ";", ":", "=",
-            "+", "-", "*", "/", "(", ")",
+            "main", "var", "int", "float", "double", "char", "bool", "string",
+            "if", "else", "while", "do", "for", "switch", "case", "default",
+            "break", "continue", "print", "return", "input", "true", "false",
+            "{", "}", "[", "]", "(", ")", ";", ":", ",", "?",
+            "=", "+=", "-=", "*=", "/=", "%=",
+            "+", "-", "*", "/", "%", "!",
             "==", "!=", "<", ">", "<=", ">=",
             "&&", "||",
-            "IDENTIFIER", "NUMBER", "STRING", "EOF"
+            "IDENTIFIER", "NUMBER", "FLOAT", "DOUBLE", "CHAR", "STRING", "INTERPOLATED_STRING", "EOF"
         ));
-        
+
         return new LL1GrammarAnalyzer(productions, terminals, "Program");
     }
+
+    private static void addProduction(Map<String, List<List<String>>> productions, String lhs, String... rhs) {
+        productions.computeIfAbsent(lhs, k -> new ArrayList<>()).add(Arrays.asList(rhs));
+    }
+
+    /**
+     * Nível de operador binário associativo à esquerda, sem recursão à esquerda:
+     * Level → Operand LevelTail
+     * LevelTail → op Operand LevelTail | ε
+     */
+    private static void addBinaryLevel(Map<String, List<List<String>>> productions, String level,
+            String operand, String... operators) {
+        String tail = level + "Tail";
+        addProduction(productions, level, operand, tail);
+        for (String op : operators) {
+            addProduction(productions, tail, op, operand, tail);
+        }
+        addProduction(productions, tail, "ε");
+    }
 }
@@ -0,0 +1,235 @@
+import java.util.*;
+
+/**
+ * BowlerAstActions - Ações semânticas que constroem a AST (mesmos nós do
+ * Parser recursivo) a partir da gramática embutida em
+ * Bowler.createBowlerLL1Analyzer
+ *
+ * Listas recursivas à direita (StmtList, caudas de operadores, Index, ...)
+ * são acumuladas de trás para frente (append em O(1)) e invertidas por quem
+ * as consome; caudas de operadores viram árvores associativas à esquerda.
+ */
+public class BowlerAstActions implements SemanticActions {
+
+    /**
+     * Valor parcial de CaseList: casos (em ordem reversa) e bloco default
+     */
+    private static final class Cases {
+        final List<AST.Case> reversed = new ArrayList<>();
+        AST.Block defaultBlock;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object reduce(String nt, List<String> p, Object[] v) {
+        boolean epsilon = v.length == 0;
+        switch (nt) {
+            case "Program":
+                return new AST.Program((AST.Block) v[1]);
+            case "Block": {
+                List<AST.Statement> stmts = new ArrayList<>((List<AST.Statement>) v[1]);
+                Collections.reverse(stmts);
+                return new AST.Block(stmts);
+            }
+            case "StmtList":
+            case "InterpParts":
+                return epsilon ? new ArrayList<>() : prepend((List<Object>) v[1], v[0]);
+            case "Index":
+                return epsilon ? new ArrayList<>() : prepend((List<Object>) v[3], v[1]);
+            case "Statement":
+                return statement(p, v);
+            case "ElseOpt":
+                return epsilon ? null : v[1];
+            case "ForInit":
+                return p.get(0).equals(";") ? null : v[0];
+            case "ForCond":
+            case "ForStep":
+            case "ReturnValue":
+                return epsilon ? null : v[0];
+            case "CaseList": {
+                if (epsilon) {
+                    return new Cases();
+                }
+                if (p.get(0).equals("case")) {
+                    Cases rest = (Cases) v[4];
+                    rest.reversed.add(new AST.Case((AST.Expr) v[1], (AST.Block) v[3]));
+                    return rest;
+                }
+                // default : Block CaseList — vale o último default, como no Parser
+                Cases rest = (Cases) v[3];
+                if (rest.defaultBlock == null) {
+                    rest.defaultBlock = (AST.Block) v[2];
+                }
+                return rest;
+            }
+            case "Type":
+                return new AST.TypeNode(p.size() == 3 ? v[0] + "[]" : (String) v[0]);
+            case "BaseType":
+                return p.get(0);
+            case "Expr": {
+                AST.Expr[] tail = (AST.Expr[]) v[1];
+                return tail == null ? v[0] : new AST.Ternary((AST.Expr) v[0], tail[0], tail[1]);
+            }
+            case "TernaryTail":
+                return epsilon ? null : new AST.Expr[] { (AST.Expr) v[1], (AST.Expr) v[3] };
+            case "Or":
+            case "And":
+            case "Equality":
+            case "Relational":
+            case "Additive":
+            case "Term":
+                return foldLeft((AST.Expr) v[0], (List<Object[]>) v[1]);
+            case "OrTail":
+            case "AndTail":
+            case "EqualityTail":
+            case "RelationalTail":
+            case "AdditiveTail":
+            case "TermTail":
+                return epsilon ? new ArrayList<>() : prepend((List<Object>) v[2], new Object[] { v[0], v[1] });
+            case "Unary":
+                return p.size() == 2 ? new AST.Unary((Token) v[0], (AST.Expr) v[1]) : v[0];
+            case "Primary":
+                return primary(p, v);
+            case "AssignOp":
+                return v[0];
+            case "InterpPart":
+                return p.get(0).equals("{") ? v[1] : ((Token) v[0]).literal;
+            case "InputArg":
+                return epsilon ? "" : ((Token) v[0]).literal;
+            case "ArgList":
+            case "ArgTail": {
+                if (epsilon) {
+                    return new ArrayList<>();
+                }
+                boolean comma = p.get(0).equals(",");
+                return prepend((List<Object>) v[comma ? 2 : 1], v[comma ? 1 : 0]);
+            }
+            default:
+                throw new IllegalStateException("Sem ação semântica para " + nt + " → " + p);
+        }
+    }
+
+    private Object statement(List<String> p, Object[] v) {
+        switch (p.get(0)) {
+            case "var":
+                return new AST.VarDecl((Token) v[1], (AST.TypeNode) v[3], p.size() == 5 ? null : (AST.Expr) v[5]);
+            case "if":
+                return new AST.If((AST.Expr) v[2], (AST.Block) v[4], (AST.Block) v[5]);
+            case "while":
+                return new AST.While((AST.Expr) v[2], (AST.Block) v[4]);
+            case "do":
+                return new AST.DoWhile((AST.Block) v[1], (AST.Expr) v[4]);
+            case "for":
+                return new AST.For((AST.Statement) v[2], (AST.Expr) v[3], (AST.Expr) v[5], (AST.Block) v[7]);
+            case "switch": {
+                Cases cases = (Cases) v[5];
+                List<AST.Case> ordered = new ArrayList<>(cases.reversed);
+                Collections.reverse(ordered);
+                return new AST.Switch((AST.Expr) v[2], ordered, cases.defaultBlock);
+            }
+            case "break":
+                return new AST.Break();
+            case "continue":
+                return new AST.Continue();
+            case "print":
+                return new AST.Print((AST.Expr) v[2]);
+            case "return":
+                return new AST.Return((AST.Expr) v[1]);
+            default:
+                return new AST.ExprStmt((AST.Expr) v[0]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object primary(List<String> p, Object[] v) {
+        switch (p.get(0)) {
+            case "true":
+                return new AST.Literal(true);
+            case "false":
+                return new AST.Literal(false);
+            case "NUMBER":
+            case "FLOAT":
+            case "DOUBLE":
+            case "CHAR":
+            case "STRING":
+                return new AST.Literal(((Token) v[0]).literal);
+            case "INTERPOLATED_STRING": {
+                List<Object> parts = new ArrayList<>();
+                parts.add(((Token) v[0]).literal);
+                List<Object> rest = new ArrayList<>((List<Object>) v[1]);
+                Collections.reverse(rest);
+                parts.addAll(rest);
+                return new AST.InterpolatedString(parts);
+            }
+            case "input":
+                return new AST.Input((String) v[2]);
+            case "[": {
+                List<AST.Expr> elements = new ArrayList<>((List<AST.Expr>) v[1]);
+                Collections.reverse(elements);
+                return new AST.ArrayLiteral(elements);
+            }
+            case "(":
+                return new AST.Grouping((AST.Expr) v[1]);
+            default:
+                break;
+        }
+
+        Token name = (Token) v[0];
+        if (p.get(1).equals("Index")) {
+            // IDENTIFIER Index: a[i][j] → ArrayAccess(ArrayAccess(a, i), j)
+            AST.Expr expr = new AST.Variable(name);
+            List<AST.Expr> indexes = (List<AST.Expr>) v[1];
+            for (int i = indexes.size() - 1; i >= 0; i--) {
+                expr = new AST.ArrayAccess(expr, indexes.get(i));
+            }
+            return expr;
+        }
+
+        // IDENTIFIER AssignOp Expr (x op= y vira x = x op y, como no Parser)
+        Token op = (Token) v[1];
+        AST.Expr value = (AST.Expr) v[2];
+        if (op.type == TokenType.EQUAL) {
+            return new AST.Assign(name, value, op);
+        }
+        TokenType binOp;
+        switch (op.type) {
+            case PLUS_EQUAL:
+                binOp = TokenType.PLUS;
+                break;
+            case MINUS_EQUAL:
+                binOp = TokenType.MINUS;
+                break;
+            case STAR_EQUAL:
+                binOp = TokenType.STAR;
+                break;
+            case SLASH_EQUAL:
+                binOp = TokenType.SLASH;
+                break;
+            default:
+                binOp = TokenType.PERCENT;
+                break;
+        }
+        Token fakeOp = new Token(binOp, op.lexeme.substring(0, 1), null, op.line, op.column);
+        return new AST.Assign(name, new AST.Binary(new AST.Variable(name), fakeOp, value), op);
+    }
+
+    /**
+     * Aplica os pares (operador, operando) da cauda, em ordem, à esquerda
+     */
+    private static AST.Expr foldLeft(AST.Expr left, List<Object[]> reversedTail) {
+        AST.Expr expr = left;
+        for (int i = reversedTail.size() - 1; i >= 0; i--) {
+            Object[] pair = reversedTail.get(i);
+            expr = new AST.Binary(expr, (Token) pair[0], (AST.Expr) pair[1]);
+        }
+        return expr;
+    }
+
+    /**
+     * "Prepend" em lista acumulada de trás para frente: append em O(1)
+     */
+    private static List<Object> prepend(List<Object> reversed, Object item) {
+        reversed.add(item);
+        return reversed;
+    }
+}
@@ -0,0 +1,120 @@
+import java.io.*;
+import java.net.*;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * BowlerClient - Cliente do BowlerServer
+ *
+ * Envia um pedido por arquivo numa única conexão e imprime as respostas
+ * (com as quebras de linha escapadas pelo servidor já restauradas).
+ * Os caminhos são enviados absolutos, pois o servidor pode ter outro
+ * diretório de trabalho.
+ *
+ * Uso:
+ * java -cp bin BowlerClient [--port=7345 | --socket=/tmp/bowler.sock] validate|compile arquivo.bw ...
+ * java -cp bin BowlerClient [...] ping|stats|shutdown
+ * Código de saída 1 se algum pedido responder ERRO.
+ */
+public class BowlerClient implements Closeable {
+
+    private final SocketChannel channel;
+    private final BufferedReader in;
+    private final BufferedWriter out;
+
+    public BowlerClient(String socketPath, int port) throws IOException {
+        if (socketPath != null) {
+            channel = SocketChannel.open(UnixDomainSocketAddress.of(Path.of(socketPath)));
+        } else {
+            channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        }
+        in = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+        out = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Envia um pedido e lê a resposta completa (status + n linhas)
+     */
+    public List<String> request(String line) throws IOException {
+        out.write(line);
+        out.write('\n');
+        out.flush();
+        String status = in.readLine();
+        if (status == null) {
+            throw new EOFException("Conexão encerrada pelo servidor");
+        }
+        int n = Integer.parseInt(status.substring(status.indexOf(' ') + 1));
+        List<String> response = new ArrayList<>(n + 1);
+        response.add(status);
+        for (int i = 0; i < n; i++) {
+            String body = in.readLine();
+            if (body == null) {
+                throw new EOFException("Resposta incompleta do servidor");
+            }
+            response.add(BowlerServer.unescape(body));
+        }
+        return response;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = BowlerServer.DEFAULT_PORT;
+        String socketPath = null;
+        List<String> rest = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--port=")) {
+                port = Integer.parseInt(arg.substring("--port=".length()));
+            } else if (arg.startsWith("--socket=")) {
+                socketPath = arg.substring("--socket=".length());
+            } else {
+                rest.add(arg);
+            }
+        }
+        if (rest.isEmpty()) {
+            System.err.println("Uso: java -cp bin BowlerClient [--port=N | --socket=caminho] "
+                    + "validate|compile arquivo.bw ... | ping | stats | shutdown");
+            System.exit(2);
+        }
+
+        String command = rest.get(0).toUpperCase();
+        List<String> requests = new ArrayList<>();
+        if (command.equals("VALIDATE") || command.equals("COMPILE")) {
+            for (String file : rest.subList(1, rest.size())) {
+                requests.add(command + " " + Path.of(file).toAbsolutePath().normalize());
+            }
+        } else {
+            requests.add(command);
+        }
+
+        boolean failed = false;
+        try (BowlerClient client = new BowlerClient(socketPath, port)) {
+            for (String request : requests) {
+                long t0 = System.nanoTime();
+                List<String> response = client.request(request);
+                long elapsed = System.nanoTime() - t0;
+                boolean ok = response.get(0).startsWith("OK");
+                failed |= !ok;
+                if (requests.size() > 1 || request.indexOf(' ') > 0) {
+                    System.out.printf("%s %s (%.2f ms)%n", ok ? "✅" : "❌",
+                            request.substring(request.indexOf(' ') + 1), elapsed / 1e6);
+                }
+                for (String line : response.subList(1, response.size())) {
+                    System.out.println("    " + line);
+                }
+            }
+        } catch (ConnectException e) {
+            System.err.println("❌ Servidor Bowler não está rodando ("
+                    + (socketPath != null ? socketPath : "localhost:" + port) + ")");
+            System.exit(2);
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+}
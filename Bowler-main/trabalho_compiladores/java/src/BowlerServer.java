@@ -0,0 +1,307 @@
+import java.io.*;
+import java.net.*;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BowlerServer - Daemon de compilação/validação com JVM aquecida
+ *
+ * Cada "java Bowler arquivo.bw" paga a partida da JVM, o carregamento de
+ * classes, o aquecimento do JIT e a análise da gramática LL(1). O servidor
+ * faz tudo isso uma vez: compila a gramática (CompiledGrammar), aquece o
+ * Lexer/Parser/LL1StackParser e passa a atender pedidos por um socket local
+ * (TCP em localhost ou Unix domain socket). Cada conexão é atendida em sua
+ * própria thread, com uma BowlerSession reutilizada, e pode enviar vários
+ * pedidos.
+ *
+ * Protocolo (texto UTF-8, uma linha por pedido):
+ * VALIDATE caminho → léxico + parser recursivo + LL(1) com pilha
+ * COMPILE caminho → léxico + parser recursivo; devolve a AST detalhada
+ * PING | STATS | SHUTDOWN
+ * Resposta: "OK n" ou "ERRO n", seguida de exatamente n linhas. Quebras
+ * de linha dentro de uma linha da resposta (um diagnóstico que cita uma
+ * string de várias linhas, por exemplo) vão escapadas como \n e \r, e a
+ * própria barra como \\ (escape/unescape).
+ *
+ * Uso:
+ * java -cp bin BowlerServer [--port=7345 | --socket=/tmp/bowler.sock]
+ * (cliente: BowlerClient)
+ */
+public class BowlerServer {
+
+    static final int DEFAULT_PORT = 7345;
+    private static final int WARMUP_ROUNDS = 2000;
+
+    private static final String WARMUP_SOURCE = String.join("\n",
+            "main {",
+            "  var x: int = 10;",
+            "  var v: int[] = [1, 2, 3];",
+            "  var msg: string = \"x = ${x}\";",
+            "  if (x > 2 && x != 0) { x = x + v[1] * 3; } else { x -= 1; }",
+            "  while (x > 0) { x = x - 1; }",
+            "  for (var i: int = 0; i < 3; i += 1) { print(msg); }",
+            "  return x;",
+            "}");
+
+    private final BatchValidator validator;
+    private final ThreadLocal<BowlerSession> sessions = ThreadLocal.withInitial(BowlerSession::new);
+    private final long startedAt = System.nanoTime();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    private volatile boolean running = true;
+
+    public BowlerServer(CompiledGrammar grammar) {
+        this.validator = new BatchValidator(grammar);
+    }
+
+    /**
+     * Executa os caminhos quentes para que o JIT os compile antes do
+     * primeiro pedido
+     */
+    void warmUp() {
+        Path path = Path.of("<aquecimento>");
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            validator.validate(path, WARMUP_SOURCE);
+            sessions.get().compile(WARMUP_SOURCE).program.toDetailedString();
+        }
+    }
+
+    /**
+     * Atende um pedido; devolve as linhas da resposta (a primeira é o status)
+     */
+    List<String> handle(String request) {
+        long t0 = System.nanoTime();
+        List<String> body = new ArrayList<>();
+        boolean ok;
+        int space = request.indexOf(' ');
+        String command = (space < 0 ? request : request.substring(0, space)).toUpperCase();
+        String argument = space < 0 ? "" : request.substring(space + 1).trim();
+
+        switch (command) {
+            case "PING":
+                ok = true;
+                body.add("PONG");
+                break;
+            case "STATS":
+                ok = true;
+                long n = requests.sum();
+                body.add("Pedidos atendidos: " + n);
+                body.add(String.format("Tempo médio por pedido: %.1f µs", n == 0 ? 0.0 : busyNanos.sum() / 1e3 / n));
+                body.add(String.format("No ar há %.1f s", (System.nanoTime() - startedAt) / 1e9));
+                break;
+            case "SHUTDOWN":
+                ok = true;
+                running = false;
+                body.add("Servidor encerrando");
+                break;
+            case "VALIDATE": {
+                BatchValidator.FileResult r = validator.validate(Path.of(argument));
+                ok = r.ok();
+                body.add(r.tokens + " tokens");
+                body.addAll(r.errors);
+                break;
+            }
+            case "COMPILE": {
+                try {
+                    BowlerSession.Result r = sessions.get().compile(Files.readString(Path.of(argument)));
+                    ok = r.accepted;
+                    if (ok) {
+                        body.addAll(Arrays.asList(r.program.toDetailedString().split("\n", -1)));
+                    } else {
+                        body.addAll(r.errors);
+                    }
+                } catch (IOException e) {
+                    ok = false;
+                    body.add("Erro de leitura: " + e.getMessage());
+                }
+                break;
+            }
+            default:
+                ok = false;
+                body.add("Comando desconhecido: " + command);
+        }
+
+        List<String> response = new ArrayList<>(body.size() + 1);
+        response.add((ok ? "OK " : "ERRO ") + body.size());
+        response.addAll(body);
+        requests.increment();
+        busyNanos.add(System.nanoTime() - t0);
+        return response;
+    }
+
+    /**
+     * Linha da resposta sem quebras: \ → \\, '\n' → \n, '\r' → \r
+     */
+    static String escape(String line) {
+        if (line.indexOf('\\') < 0 && line.indexOf('\n') < 0 && line.indexOf('\r') < 0) {
+            return line;
+        }
+        StringBuilder sb = new StringBuilder(line.length() + 8);
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\') {
+                sb.append("\\\\");
+            } else if (c == '\n') {
+                sb.append("\\n");
+            } else if (c == '\r') {
+                sb.append("\\r");
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Inverso de escape (usado pelo BowlerClient)
+     */
+    static String unescape(String line) {
+        if (line.indexOf('\\') < 0) {
+            return line;
+        }
+        StringBuilder sb = new StringBuilder(line.length());
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length()) {
+                char next = line.charAt(++i);
+                sb.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Conversa com um cliente até ele fechar a conexão
+     */
+    private void serve(SocketChannel channel, ServerSocketChannel server) {
+        try (SocketChannel c = channel;
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(Channels.newInputStream(c), StandardCharsets.UTF_8));
+                BufferedWriter out = new BufferedWriter(
+                        new OutputStreamWriter(Channels.newOutputStream(c), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                for (String s : handle(line.trim())) {
+                    out.write(escape(s));
+                    out.write('\n');
+                }
+                out.flush();
+                if (!running) {
+                    server.close(); // desbloqueia o accept()
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // Cliente desconectou no meio de um pedido
+        }
+    }
+
+    /**
+     * Laço de aceitação: uma thread por conexão
+     */
+    public void run(ServerSocketChannel server) throws IOException {
+        ExecutorService connections = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "bowler-conexao");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            while (running) {
+                SocketChannel channel;
+                try {
+                    channel = server.accept();
+                } catch (ClosedChannelException e) {
+                    break;
+                }
+                connections.execute(() -> serve(channel, server));
+            }
+        } finally {
+            connections.shutdown();
+        }
+    }
+
+    /**
+     * Canal do servidor: Unix domain socket (--socket=) ou TCP em localhost.
+     * Um socket que já existe no caminho só é removido se for de um servidor
+     * que não está mais rodando; arquivos comuns, diretórios e links nunca
+     * são apagados.
+     */
+    static ServerSocketChannel open(String socketPath, int port) throws IOException {
+        if (socketPath != null) {
+            Path path = Path.of(socketPath);
+            removeStaleSocket(path);
+            ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            server.bind(UnixDomainSocketAddress.of(path));
+            return server;
+        }
+        ServerSocketChannel server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        return server;
+    }
+
+    private static void removeStaleSocket(Path path) throws IOException {
+        if (!Files.exists(path, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        if (Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS) || Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)
+                || Files.isSymbolicLink(path)) {
+            throw new FileAlreadyExistsException(path.toString(), null, "não é um socket; escolha outro caminho");
+        }
+        try {
+            SocketChannel.open(UnixDomainSocketAddress.of(path)).close();
+        } catch (ConnectException e) {
+            Files.delete(path); // socket de um servidor que já encerrou
+            return;
+        }
+        throw new FileAlreadyExistsException(path.toString(), null, "outro servidor já atende neste socket");
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        String socketPath = null;
+        for (String arg : args) {
+            if (arg.startsWith("--port=")) {
+                port = Integer.parseInt(arg.substring("--port=".length()));
+            } else if (arg.startsWith("--socket=")) {
+                socketPath = arg.substring("--socket=".length());
+            }
+        }
+
+        long t0 = System.nanoTime();
+        LL1GrammarAnalyzer analyzer = Bowler.createBowlerLL1Analyzer();
+        Bowler.analyze(analyzer, true);
+        BowlerServer server = new BowlerServer(CompiledGrammar.compile(analyzer));
+        server.warmUp();
+        server.requests.reset();
+        server.busyNanos.reset();
+
+        ServerSocketChannel channel;
+        try {
+            channel = open(socketPath, port);
+        } catch (IOException e) {
+            System.err.println("❌ Não foi possível abrir " + (socketPath != null ? socketPath : "localhost:" + port)
+                    + ": " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        try (channel) {
+            System.out.printf("Servidor Bowler pronto em %s (gramática e JIT aquecidos em %.0f ms)%n",
+                    socketPath != null ? socketPath : "localhost:" + port, (System.nanoTime() - t0) / 1e6);
+            server.run(channel);
+        } finally {
+            if (socketPath != null) {
+                Files.deleteIfExists(Path.of(socketPath)); // o socket que este servidor criou
+            }
+        }
+        System.out.println("Servidor Bowler encerrado");
+    }
+}
@@ -0,0 +1,218 @@
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * BowlerSession - API de compilação embutível e reutilizável
+ *
+ * Uma sessão guarda um Lexer, um Parser e (com gramática) um LL1StackParser
+ * e os reaproveita entre entradas: cada chamada faz reset() em vez de criar
+ * objetos novos, e as listas e pilhas internas mantêm a capacidade já
+ * alocada. Nada é impresso: o resultado vem em um objeto Result.
+ *
+ * A gramática embutida é analisada em memória, sem imprimir os conflitos
+ * LL(1) e sem gravar nada em disco. O cache da análise (ParseTableCache)
+ * só é usado se pedido com -Dbowler.cache.dir=diretório.
+ *
+ * Uma sessão não é thread-safe; use uma por thread (forThread() mantém uma
+ * sessão por thread para a gramática Bowler embutida). A CompiledGrammar,
+ * essa sim, é compartilhada por todas as sessões, assim como um
+ * CompileCache opcional (useCache), que responde entradas já vistas sem
+ * léxico nem análise.
+ *
+ * Exemplo:
+ * BowlerSession.Result r = BowlerSession.forThread().validate(codigo);
+ * if (r.accepted) { ... r.program ... } else { r.errors ... }
+ *
+ * Uso (comparação com Lexer/Parser novos a cada chamada):
+ * java -cp bin BowlerSession arquivo.bw [iterações]
+ */
+public final class BowlerSession {
+
+    /**
+     * Resultado de uma compilação ou validação
+     */
+    public static final class Result {
+        public final boolean accepted;
+        public final AST.Program program; // AST do parser recursivo (null se houve erro)
+        public final boolean recursiveAccepted;
+        public final Boolean ll1Accepted; // null quando a validação LL(1) não foi feita
+        public final List<String> errors;
+        public final int tokenCount;
+
+        Result(boolean accepted, AST.Program program, boolean recursiveAccepted, Boolean ll1Accepted,
+                List<String> errors, int tokenCount) {
+            this.accepted = accepted;
+            this.program = program;
+            this.recursiveAccepted = recursiveAccepted;
+            this.ll1Accepted = ll1Accepted;
+            this.errors = errors;
+            this.tokenCount = tokenCount;
+        }
+    }
+
+    private static final ThreadLocal<BowlerSession> PER_THREAD =
+            ThreadLocal.withInitial(() -> new BowlerSession(DefaultGrammar.INSTANCE));
+
+    /**
+     * Gramática Bowler embutida, compilada uma vez na primeira sessão
+     */
+    private static final class DefaultGrammar {
+        static final CompiledGrammar INSTANCE = compile();
+
+        private static CompiledGrammar compile() {
+            LL1GrammarAnalyzer analyzer = Bowler.createBowlerLL1Analyzer();
+            analyzer.setReportConflicts(false);
+            String cacheDir = System.getProperty("bowler.cache.dir");
+            if (cacheDir != null) {
+                new ParseTableCache(Path.of(cacheDir)).analyze(analyzer);
+            } else {
+                analyzer.calculateFirst();
+                analyzer.calculateFollow();
+                analyzer.buildParsingTable();
+            }
+            return CompiledGrammar.compile(analyzer);
+        }
+    }
+
+    private final CompiledGrammar grammar;
+    private final Lexer lexer = new Lexer();
+    private final Parser parser = new Parser();
+    private final LL1StackParser stackParser;
+    private CompileCache cache;
+    private List<Token> tokens = Collections.emptyList();
+
+    /**
+     * Sessão só com léxico e parser recursivo (validate() = compile())
+     */
+    public BowlerSession() {
+        this(null);
+    }
+
+    /**
+     * Sessão que também valida com o parser LL(1) com pilha da gramática
+     */
+    public BowlerSession(CompiledGrammar grammar) {
+        this.grammar = grammar;
+        this.stackParser = grammar == null ? null : grammar.newParser(Collections.emptyList());
+    }
+
+    /**
+     * Sessão da thread atual para a gramática Bowler embutida
+     */
+    public static BowlerSession forThread() {
+        return PER_THREAD.get();
+    }
+
+    /**
+     * Passa a consultar (e alimentar) um cache de compilações; null desliga
+     */
+    public BowlerSession useCache(CompileCache cache) {
+        this.cache = cache;
+        return this;
+    }
+
+    /**
+     * Léxico + parser recursivo
+     */
+    public Result compile(String source) {
+        return run(source, false);
+    }
+
+    /**
+     * Léxico + parser recursivo + validação LL(1) (todos os erros)
+     */
+    public Result validate(String source) {
+        return run(source, stackParser != null);
+    }
+
+    /**
+     * Tokens da última entrada (válidos até a próxima chamada)
+     */
+    public List<Token> tokens() {
+        return tokens;
+    }
+
+    private Result run(String source, boolean ll1) {
+        if (cache == null) {
+            return analyze(source, ll1);
+        }
+        byte[] key = cache.key(ll1 ? "validate:" + grammar.getFingerprint() : "compile", source);
+        CompileCache.Entry entry = cache.get(key);
+        if (entry != null) {
+            tokens = entry.tokens;
+            return new Result(entry.recursiveAccepted && (entry.ll1Accepted == null || entry.ll1Accepted),
+                    entry.program, entry.recursiveAccepted, entry.ll1Accepted,
+                    Collections.unmodifiableList(entry.errors), entry.tokens.size());
+        }
+        Result result = analyze(source, ll1);
+        cache.put(key, new CompileCache.Entry(tokens, result.program, result.recursiveAccepted,
+                result.ll1Accepted, result.errors));
+        return result;
+    }
+
+    private Result analyze(String source, boolean ll1) {
+        List<String> errors = new ArrayList<>();
+        lexer.reset(source);
+        try {
+            tokens = lexer.scanTokens();
+        } catch (RuntimeException e) {
+            tokens = Collections.emptyList();
+            errors.add("Erro léxico: " + e.getMessage());
+            return new Result(false, null, false, ll1 ? Boolean.FALSE : null, errors, 0);
+        }
+
+        AST.Program program = null;
+        parser.reset(tokens);
+        try {
+            program = parser.parse();
+        } catch (ParseError e) {
+            errors.add("Parser Recursivo: " + e.getMessage());
+        }
+
+        Boolean ll1Accepted = null;
+        if (ll1) {
+            stackParser.reset(tokens);
+            ll1Accepted = stackParser.parse(grammar.getStartSymbol());
+            for (ParseError e : stackParser.getErrors()) {
+                errors.add("LL(1): " + e.getMessage());
+            }
+        }
+        boolean accepted = program != null && (ll1Accepted == null || ll1Accepted);
+        return new Result(accepted, program, program != null, ll1Accepted,
+                Collections.unmodifiableList(errors), tokens.size());
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Uso: java -cp bin BowlerSession arquivo.bw [iterações]");
+            System.exit(1);
+        }
+        String source = Files.readString(Path.of(args[0]));
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        CompiledGrammar grammar = DefaultGrammar.INSTANCE;
+
+        for (int round = 0; round < 3; round++) {
+            long t0 = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                List<Token> tokens = new Lexer(source).scanTokens();
+                new Parser(tokens).parse();
+                grammar.newParser(tokens).parse(grammar.getStartSymbol());
+            }
+            long fresh = System.nanoTime() - t0;
+
+            BowlerSession session = forThread();
+            t0 = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                session.validate(source);
+            }
+            long reused = System.nanoTime() - t0;
+            System.out.printf("Rodada %d: objetos novos %.2f µs/chamada, sessão reutilizada %.2f µs/chamada%n",
+                    round + 1, fresh / 1e3 / iterations, reused / 1e3 / iterations);
+        }
+        Result r = forThread().validate(source);
+        System.out.println((r.accepted ? "✅ aceito" : "❌ rejeitado") + " (" + r.tokenCount + " tokens)");
+        for (String e : r.errors) {
+            System.out.println("  - " + e);
+        }
+    }
+}
@@ -0,0 +1,1079 @@
+import java.io.*;
+import java.lang.invoke.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * BytecodeCompiler - compila um AST.Program para uma classe da JVM
+ *
+ * O bloco main vira o método estático run(PrintStream, BufferedReader) de
+ * uma classe gerada com o ClassFileWriter; daí em diante quem otimiza é o
+ * JIT da JVM, sem nenhuma camada de interpretação no meio.
+ *
+ * - Variáveis: cada slot do SlotResolver vira um local da JVM com o tipo
+ *   declarado (int, bool e char em locais int; float e double em locais
+ *   double; string e arrays em locais de referência). Só variáveis sem
+ *   tipo guardam valores com boxing.
+ * - Aritmética tipada: o tipo estático de cada expressão (StaticTypes) vem
+ *   dos tipos declarados e dos literais; int com int vira iadd/imul..., com
+ *   algum double vira dadd/dmul..., comparações numéricas viram saltos
+ *   (if_icmplt...) e '+' com string vira um único StringBuilder para a
+ *   cadeia inteira ("Nota " + i + ": " + x).
+ * - Condições (if, laços, &&, ||, !, ?:) compilam direto para saltos, sem
+ *   materializar bool.
+ * - switch com valor int/char e casos literais vira tableswitch (casos
+ *   densos) ou lookupswitch; os demais comparam caso a caso com
+ *   Values.equal.
+ * - Combinações que só se resolvem em execução (variável sem tipo, ?: com
+ *   ramos de tipos diferentes, erros de tipo) chamam os métodos estáticos
+ *   públicos desta classe, que delegam a Values: a saída e as mensagens de
+ *   erro são as mesmas do Interpreter.
+ *
+ * A classe é carregada no próprio processo como classe oculta
+ * (Lookup.defineHiddenClass, descartada quando não é mais usada) ou gravada
+ * em um .class com main, para rodar com java -cp bin:dir.
+ *
+ * Uso:
+ * BytecodeCompiler.load(program).run(System.out, in);
+ * java -cp bin BytecodeCompiler arquivo.bw                       (executa)
+ * java -cp bin BytecodeCompiler --emit=dir [dir | arquivo.bw ...] (grava .class)
+ * java -cp bin BytecodeCompiler --check [dir | arquivo.bw ...] [iterações]
+ */
+public final class BytecodeCompiler {
+
+    // Tipo estático de uma expressão
+    static final byte INT = StaticTypes.INT, CHAR = StaticTypes.CHAR, BOOL = StaticTypes.BOOL,
+            DOUBLE = StaticTypes.DOUBLE, STRING = StaticTypes.STRING, ARRAY = StaticTypes.ARRAY,
+            OBJECT = StaticTypes.OBJECT;
+
+    private static final String SELF = "BytecodeCompiler";
+    private static final String OBJ = "Ljava/lang/Object;";
+    private static final String RUN = "(Ljava/io/PrintStream;Ljava/io/BufferedReader;)" + OBJ;
+
+    private BytecodeCompiler() {
+    }
+
+    /**
+     * Classe compilada e carregada, pronta para rodar quantas vezes quiser
+     */
+    public static final class Compiled {
+        private final byte[] bytes;
+        private final MethodHandle run;
+
+        Compiled(byte[] bytes, MethodHandle run) {
+            this.bytes = bytes;
+            this.run = run;
+        }
+
+        public byte[] bytes() {
+            return bytes.clone();
+        }
+
+        public Object run(PrintStream out, BufferedReader in) {
+            try {
+                Object returned = (Object) run.invokeExact(out, in);
+                out.flush();
+                return returned;
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+    }
+
+    /**
+     * Compila e carrega como classe oculta
+     */
+    public static Compiled load(AST.Program program) {
+        byte[] bytes = compile(program, "BowlerProgram");
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            MethodHandle run = lookup.findStatic(lookup.lookupClass(), "run",
+                    MethodType.methodType(Object.class, PrintStream.class, BufferedReader.class));
+            return new Compiled(bytes, run);
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Bytes da classe className (pacote padrão) com run e main
+     */
+    public static byte[] compile(AST.Program program, String className) {
+        ClassFileWriter cw = new ClassFileWriter(className);
+        Generator g = new Generator(cw, cw.method(ClassFileWriter.ACC_PUBLIC | ClassFileWriter.ACC_STATIC, "run", RUN));
+        g.body(program.mainBlock);
+
+        ClassFileWriter.Code main = cw.method(ClassFileWriter.ACC_PUBLIC | ClassFileWriter.ACC_STATIC, "main",
+                "([Ljava/lang/String;)V");
+        main.ldcClass(className);
+        main.local(ClassFileWriter.ALOAD, 0);
+        main.invokestatic(SELF, "launch", "(Ljava/lang/Class;[Ljava/lang/String;)V");
+        main.op(ClassFileWriter.RETURN);
+        return cw.toBytes();
+    }
+
+    // ------------------ Geração de código ------------------
+
+    private static final class Generator {
+        final ClassFileWriter cw;
+        final ClassFileWriter.Code code;
+        final SlotResolver slots = new SlotResolver();
+        final StaticTypes types = new StaticTypes(slots);
+        final List<Integer> locals = new ArrayList<>(); // slot → local da JVM
+        int nextLocal = 2; // 0 = out, 1 = in
+        final Deque<ClassFileWriter.Label[]> targets = new ArrayDeque<>(); // {break, continue}
+        final ClassFileWriter.Label exit = new ClassFileWriter.Label();
+
+        Generator(ClassFileWriter cw, ClassFileWriter.Code code) {
+            this.cw = cw;
+            this.code = code;
+            code.maxLocals(2);
+        }
+
+        void body(AST.Block main) {
+            block(main);
+            code.mark(exit);
+            code.op(ClassFileWriter.ACONST_NULL);
+            code.op(ClassFileWriter.ARETURN);
+        }
+
+        int allocate(byte type) {
+            int local = nextLocal;
+            nextLocal += type == DOUBLE ? 2 : 1;
+            code.maxLocals(nextLocal);
+            return local;
+        }
+
+        // ---------- Statements ----------
+
+        void block(AST.Block b) {
+            slots.beginScope();
+            for (AST.Statement s : b.statements) {
+                statement(s);
+            }
+            slots.endScope();
+        }
+
+        void statement(AST.Statement s) {
+            if (s instanceof AST.Block) {
+                block((AST.Block) s);
+            } else if (s instanceof AST.VarDecl) {
+                AST.VarDecl v = (AST.VarDecl) s;
+                String type = v.type == null ? null : v.type.name;
+                byte target = StaticTypes.typeOfName(type);
+                // O inicializador vem antes da declaração: em "var x: int = x;" o x da direita é outro
+                if (v.initializer == null) {
+                    defaultValue(target);
+                } else {
+                    coerce(expr(v.initializer), type, v.name);
+                }
+                int slot = slots.declare(v.name, v.type);
+                locals.add(allocate(target));
+                store(slot);
+            } else if (s instanceof AST.If) {
+                AST.If v = (AST.If) s;
+                ClassFileWriter.Label otherwise = new ClassFileWriter.Label();
+                jump(v.cond, otherwise, false, Interpreter.firstToken(v.cond));
+                block(v.thenB);
+                if (v.elseB == null) {
+                    code.mark(otherwise);
+                } else {
+                    ClassFileWriter.Label end = new ClassFileWriter.Label();
+                    code.jump(ClassFileWriter.GOTO, end);
+                    code.mark(otherwise);
+                    block(v.elseB);
+                    code.mark(end);
+                }
+            } else if (s instanceof AST.While) {
+                AST.While v = (AST.While) s;
+                ClassFileWriter.Label start = new ClassFileWriter.Label(), end = new ClassFileWriter.Label();
+                code.mark(start);
+                jump(v.cond, end, false, Interpreter.firstToken(v.cond));
+                loopBody(v.body, end, start);
+                code.jump(ClassFileWriter.GOTO, start);
+                code.mark(end);
+            } else if (s instanceof AST.DoWhile) {
+                AST.DoWhile v = (AST.DoWhile) s;
+                ClassFileWriter.Label start = new ClassFileWriter.Label(), test = new ClassFileWriter.Label(),
+                        end = new ClassFileWriter.Label();
+                code.mark(start);
+                loopBody(v.body, end, test);
+                code.mark(test);
+                jump(v.cond, start, true, Interpreter.firstToken(v.cond));
+                code.mark(end);
+            } else if (s instanceof AST.For) {
+                AST.For v = (AST.For) s;
+                slots.beginScope(); // variável do init visível só no for
+                if (v.init != null) {
+                    statement(v.init);
+                }
+                ClassFileWriter.Label test = new ClassFileWriter.Label(), next = new ClassFileWriter.Label(),
+                        end = new ClassFileWriter.Label();
+                code.mark(test);
+                if (v.cond != null) {
+                    jump(v.cond, end, false, Interpreter.firstToken(v.cond));
+                }
+                loopBody(v.body, end, next);
+                code.mark(next);
+                if (v.inc != null) {
+                    discard(v.inc);
+                }
+                code.jump(ClassFileWriter.GOTO, test);
+                code.mark(end);
+                slots.endScope();
+            } else if (s instanceof AST.Switch) {
+                switchStmt((AST.Switch) s);
+            } else if (s instanceof AST.Return) {
+                AST.Expr value = ((AST.Return) s).value;
+                if (value == null) {
+                    code.op(ClassFileWriter.ACONST_NULL);
+                } else {
+                    box(expr(value));
+                }
+                code.op(ClassFileWriter.ARETURN);
+            } else if (s instanceof AST.Print) {
+                code.local(ClassFileWriter.ALOAD, 0);
+                byte t = expr(((AST.Print) s).value);
+                code.invokevirtual("java/io/PrintStream", "println", "(" + printable(t) + ")V");
+            } else if (s instanceof AST.Break) {
+                code.jump(ClassFileWriter.GOTO, targets.isEmpty() ? exit : targets.peek()[0]);
+            } else if (s instanceof AST.Continue) {
+                code.jump(ClassFileWriter.GOTO, targets.isEmpty() ? exit : targets.peek()[1]);
+            } else if (s instanceof AST.ExprStmt) {
+                discard(((AST.ExprStmt) s).expr);
+            } else {
+                throw new IllegalArgumentException("Statement não suportado: " + s.getClass().getName());
+            }
+        }
+
+        // break e continue fora de qualquer laço terminam o programa, como no Interpreter
+        void loopBody(AST.Block body, ClassFileWriter.Label breakTo, ClassFileWriter.Label continueTo) {
+            targets.push(new ClassFileWriter.Label[] { breakTo, continueTo });
+            block(body);
+            targets.pop();
+        }
+
+        void discard(AST.Expr e) {
+            if (e instanceof AST.Assign) {
+                assign((AST.Assign) e, false);
+            } else {
+                code.op(expr(e) == DOUBLE ? ClassFileWriter.POP2 : ClassFileWriter.POP);
+            }
+        }
+
+        void switchStmt(AST.Switch v) {
+            byte t = expr(v.expr);
+            int n = v.cases.size();
+            ClassFileWriter.Label end = new ClassFileWriter.Label();
+            ClassFileWriter.Label dflt = v.defaultBlock == null ? end : new ClassFileWriter.Label();
+            ClassFileWriter.Label[] bodies = new ClassFileWriter.Label[n];
+            for (int i = 0; i < n; i++) {
+                bodies[i] = new ClassFileWriter.Label();
+            }
+            int[] keys = literalKeys(v, t);
+            if (keys != null) {
+                // Casos repetidos: vale o primeiro, como na busca em ordem do Interpreter
+                TreeMap<Integer, ClassFileWriter.Label> byKey = new TreeMap<>();
+                for (int i = 0; i < n; i++) {
+                    byKey.putIfAbsent(keys[i], bodies[i]);
+                }
+                if (byKey.isEmpty()) {
+                    code.op(ClassFileWriter.POP);
+                    code.jump(ClassFileWriter.GOTO, dflt);
+                } else {
+                    int low = byKey.firstKey(), high = byKey.lastKey();
+                    long range = (long) high - low + 1;
+                    if (range <= 2L * byKey.size() + 4) {
+                        ClassFileWriter.Label[] table = new ClassFileWriter.Label[(int) range];
+                        for (int k = 0; k < table.length; k++) {
+                            table[k] = byKey.getOrDefault(low + k, dflt);
+                        }
+                        code.tableswitch(low, dflt, table);
+                    } else {
+                        int[] sorted = new int[byKey.size()];
+                        ClassFileWriter.Label[] labels = new ClassFileWriter.Label[sorted.length];
+                        int k = 0;
+                        for (Map.Entry<Integer, ClassFileWriter.Label> entry : byKey.entrySet()) {
+                            sorted[k] = entry.getKey();
+                            labels[k++] = entry.getValue();
+                        }
+                        code.lookupswitch(dflt, sorted, labels);
+                    }
+                }
+            } else {
+                box(t);
+                int temp = allocate(OBJECT);
+                code.local(ClassFileWriter.ASTORE, temp);
+                for (int i = 0; i < n; i++) {
+                    code.local(ClassFileWriter.ALOAD, temp);
+                    box(expr(v.cases.get(i).value));
+                    code.invokestatic("Values", "equal", "(" + OBJ + OBJ + ")Z");
+                    code.jump(ClassFileWriter.IFNE, bodies[i]);
+                }
+                code.jump(ClassFileWriter.GOTO, dflt);
+            }
+            // Sem fall-through; break sai do switch, continue vai para o laço de fora
+            ClassFileWriter.Label continueTo = targets.isEmpty() ? exit : targets.peek()[1];
+            for (int i = 0; i < n; i++) {
+                code.mark(bodies[i]);
+                loopBody(v.cases.get(i).block, end, continueTo);
+                code.jump(ClassFileWriter.GOTO, end);
+            }
+            if (v.defaultBlock != null) {
+                code.mark(dflt);
+                loopBody(v.defaultBlock, end, continueTo);
+            }
+            code.mark(end);
+        }
+
+        // Chaves int dos casos se o valor é int/char e todos os casos são literais int/char
+        int[] literalKeys(AST.Switch v, byte t) {
+            if (t != INT && t != CHAR) {
+                return null;
+            }
+            int[] keys = new int[v.cases.size()];
+            for (int i = 0; i < keys.length; i++) {
+                AST.Expr value = v.cases.get(i).value;
+                Object literal = value instanceof AST.Literal ? ((AST.Literal) value).value : null;
+                if (literal instanceof Integer) {
+                    keys[i] = (Integer) literal;
+                } else if (literal instanceof Character) {
+                    keys[i] = (Character) literal;
+                } else {
+                    return null;
+                }
+            }
+            return keys;
+        }
+
+        // ---------- Variáveis ----------
+
+        byte slotType(int slot) {
+            return types.slotType(slot);
+        }
+
+        void load(int slot) {
+            byte t = slotType(slot);
+            code.local(t == DOUBLE ? ClassFileWriter.DLOAD : StaticTypes.isReference(t) ? ClassFileWriter.ALOAD
+                    : ClassFileWriter.ILOAD, locals.get(slot));
+        }
+
+        void store(int slot) {
+            byte t = slotType(slot);
+            code.local(t == DOUBLE ? ClassFileWriter.DSTORE : StaticTypes.isReference(t) ? ClassFileWriter.ASTORE
+                    : ClassFileWriter.ISTORE, locals.get(slot));
+        }
+
+        byte assign(AST.Assign v, boolean keep) {
+            byte t = expr(v.value);
+            int slot = slots.resolve(v.name);
+            byte target = slotType(slot);
+            coerce(t, slots.typeOf(slot), v.name);
+            if (keep) {
+                code.op(target == DOUBLE ? ClassFileWriter.DUP2 : ClassFileWriter.DUP);
+            }
+            store(slot);
+            return target;
+        }
+
+        void defaultValue(byte t) {
+            switch (t) {
+                case DOUBLE:
+                    code.dconst(0.0);
+                    break;
+                case STRING:
+                    code.ldc("");
+                    break;
+                case ARRAY:
+                    code.iconst(0);
+                    code.typeOp(ClassFileWriter.ANEWARRAY, "java/lang/Object");
+                    break;
+                case OBJECT:
+                    code.op(ClassFileWriter.ACONST_NULL);
+                    break;
+                default:
+                    code.iconst(0);
+            }
+        }
+
+        /**
+         * Converte o valor no topo da pilha para o tipo declarado (Values.coerce)
+         */
+        void coerce(byte from, String type, Token where) {
+            byte to = StaticTypes.typeOfName(type);
+            if (to == OBJECT) {
+                box(from);
+                return;
+            }
+            if (to != ARRAY && (from == to || to == INT && from == CHAR)) {
+                return;
+            }
+            if (to == DOUBLE && (from == INT || from == CHAR)) {
+                code.op(ClassFileWriter.I2D);
+                return;
+            }
+            // Arrays sempre passam por Values.coerce (elementos convertidos)
+            box(from);
+            code.ldc(type);
+            code.iconst(line(where));
+            code.invokestatic(SELF, "coerce", "(" + OBJ + "Ljava/lang/String;I)" + OBJ);
+            unbox(to);
+        }
+
+        // ---------- Expressões ----------
+
+        byte typeOf(AST.Expr e) {
+            return types.typeOf(e);
+        }
+
+        byte elementType(AST.Expr array) {
+            return types.elementType(array);
+        }
+
+        /**
+         * Gera o valor da expressão na pilha e devolve seu tipo (o de typeOf)
+         */
+        byte expr(AST.Expr e) {
+            if (e instanceof AST.Literal) {
+                Object value = ((AST.Literal) e).value;
+                if (value instanceof Integer) {
+                    code.iconst((Integer) value);
+                } else if (value instanceof Double) {
+                    code.dconst((Double) value);
+                } else if (value instanceof Character) {
+                    code.iconst((Character) value);
+                } else if (value instanceof Boolean) {
+                    code.iconst((Boolean) value ? 1 : 0);
+                } else if (value instanceof String) {
+                    code.ldc(Values.unescape((String) value));
+                } else {
+                    code.op(ClassFileWriter.ACONST_NULL);
+                }
+                return typeOf(e);
+            } else if (e instanceof AST.Variable) {
+                int slot = slots.resolve(((AST.Variable) e).name);
+                load(slot);
+                return slotType(slot);
+            } else if (e instanceof AST.Grouping) {
+                return expr(((AST.Grouping) e).expr);
+            } else if (e instanceof AST.Unary) {
+                AST.Unary v = (AST.Unary) e;
+                if (v.op.type == TokenType.BANG) {
+                    return condition(e);
+                }
+                byte t = expr(v.right);
+                if (t == INT || t == CHAR) {
+                    code.op(ClassFileWriter.INEG);
+                    return INT;
+                } else if (t == DOUBLE) {
+                    code.op(ClassFileWriter.DNEG);
+                    return DOUBLE;
+                }
+                box(t);
+                code.iconst(v.op.line);
+                code.invokestatic(SELF, "negate", "(" + OBJ + "I)" + OBJ);
+                return OBJECT;
+            } else if (e instanceof AST.Binary) {
+                return binary((AST.Binary) e);
+            } else if (e instanceof AST.Assign) {
+                return assign((AST.Assign) e, true);
+            } else if (e instanceof AST.Ternary) {
+                AST.Ternary v = (AST.Ternary) e;
+                byte t = typeOf(e);
+                ClassFileWriter.Label otherwise = new ClassFileWriter.Label(), end = new ClassFileWriter.Label();
+                jump(v.cond, otherwise, false, Interpreter.firstToken(v.cond));
+                convert(expr(v.thenExpr), t);
+                code.jump(ClassFileWriter.GOTO, end);
+                code.mark(otherwise);
+                convert(expr(v.elseExpr), t);
+                code.mark(end);
+                return t;
+            } else if (e instanceof AST.Input) {
+                code.local(ClassFileWriter.ALOAD, 0);
+                code.local(ClassFileWriter.ALOAD, 1);
+                code.ldc(Values.unescape(((AST.Input) e).prompt));
+                code.invokestatic(SELF, "input",
+                        "(Ljava/io/PrintStream;Ljava/io/BufferedReader;Ljava/lang/String;)Ljava/lang/String;");
+                return STRING;
+            } else if (e instanceof AST.ArrayLiteral) {
+                List<AST.Expr> elements = ((AST.ArrayLiteral) e).elements;
+                code.iconst(elements.size());
+                code.typeOp(ClassFileWriter.ANEWARRAY, "java/lang/Object");
+                for (int i = 0; i < elements.size(); i++) {
+                    code.op(ClassFileWriter.DUP);
+                    code.iconst(i);
+                    box(expr(elements.get(i)));
+                    code.op(ClassFileWriter.AASTORE);
+                }
+                return ARRAY;
+            } else if (e instanceof AST.ArrayAccess) {
+                return index((AST.ArrayAccess) e);
+            } else if (e instanceof AST.InterpolatedString) {
+                List<Object> parts = ((AST.InterpolatedString) e).parts;
+                newBuilder();
+                for (int i = 0; i < parts.size(); i++) {
+                    Object part = parts.get(i);
+                    if (part instanceof String) {
+                        String text = Values.interpolationText(parts, i);
+                        if (!text.isEmpty()) {
+                            code.ldc(text);
+                            append(STRING);
+                        }
+                    } else {
+                        append(expr((AST.Expr) part));
+                    }
+                }
+                code.invokevirtual("java/lang/StringBuilder", "toString", "()Ljava/lang/String;");
+                return STRING;
+            }
+            throw new IllegalArgumentException("Expressão não suportada: " + e.getClass().getName());
+        }
+
+        byte binary(AST.Binary v) {
+            if (StaticTypes.isCondition(v.op.type)) {
+                return condition(v);
+            }
+            byte t = typeOf(v);
+            if (t == STRING) {
+                // Cadeia de '+' com string: um só StringBuilder, na ordem de avaliação
+                newBuilder();
+                concatParts(v);
+                code.invokevirtual("java/lang/StringBuilder", "toString", "()Ljava/lang/String;");
+                return STRING;
+            }
+            if (t == OBJECT) {
+                box(expr(v.left));
+                box(expr(v.right));
+                code.iconst(v.op.type.ordinal());
+                code.ldc(v.op.lexeme);
+                code.iconst(v.op.line);
+                code.invokestatic(SELF, "binary", "(" + OBJ + OBJ + "ILjava/lang/String;I)" + OBJ);
+                return OBJECT;
+            }
+            convert(expr(v.left), t);
+            convert(expr(v.right), t);
+            boolean d = t == DOUBLE;
+            switch (v.op.type) {
+                case PLUS:
+                    code.op(d ? ClassFileWriter.DADD : ClassFileWriter.IADD);
+                    break;
+                case MINUS:
+                    code.op(d ? ClassFileWriter.DSUB : ClassFileWriter.ISUB);
+                    break;
+                case STAR:
+                    code.op(d ? ClassFileWriter.DMUL : ClassFileWriter.IMUL);
+                    break;
+                case SLASH:
+                case PERCENT:
+                    boolean div = v.op.type == TokenType.SLASH;
+                    if (d) {
+                        code.op(div ? ClassFileWriter.DDIV : ClassFileWriter.DREM);
+                    } else {
+                        // Divisão inteira por zero é erro de Bowler, não ArithmeticException
+                        code.iconst(v.op.line);
+                        code.invokestatic(SELF, div ? "divide" : "remainder", "(III)I");
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Operador aritmético inválido: " + v.op.lexeme);
+            }
+            return t;
+        }
+
+        void concatParts(AST.Expr e) {
+            while (e instanceof AST.Grouping) {
+                e = ((AST.Grouping) e).expr;
+            }
+            if (e instanceof AST.Binary && ((AST.Binary) e).op.type == TokenType.PLUS && typeOf(e) == STRING) {
+                AST.Binary v = (AST.Binary) e;
+                if (typeOf(v.left) == STRING) {
+                    concatParts(v.left);
+                } else {
+                    append(expr(v.left));
+                }
+                concatParts(v.right);
+            } else {
+                append(expr(e));
+            }
+        }
+
+        byte index(AST.ArrayAccess v) {
+            byte t = typeOf(v);
+            int where = line(Interpreter.firstToken(v.array));
+            if (t != OBJECT && elementType(v.array) >= 0) {
+                expr(v.array);
+                expr(v.index);
+                code.iconst(where);
+                code.invokestatic(SELF, "element", "([Ljava/lang/Object;II)" + OBJ);
+                unbox(t);
+            } else if (t == CHAR) {
+                expr(v.array);
+                expr(v.index);
+                code.iconst(where);
+                code.invokestatic(SELF, "charAt", "(Ljava/lang/String;II)C");
+            } else {
+                box(expr(v.array));
+                box(expr(v.index));
+                code.iconst(where);
+                code.invokestatic(SELF, "index", "(" + OBJ + OBJ + "I)" + OBJ);
+            }
+            return t;
+        }
+
+        // ---------- Condições ----------
+
+        /**
+         * Valor bool de uma condição (0/1 na pilha)
+         */
+        byte condition(AST.Expr e) {
+            ClassFileWriter.Label no = new ClassFileWriter.Label(), end = new ClassFileWriter.Label();
+            jump(e, no, false, null);
+            code.iconst(1);
+            code.jump(ClassFileWriter.GOTO, end);
+            code.mark(no);
+            code.iconst(0);
+            code.mark(end);
+            return BOOL;
+        }
+
+        /**
+         * Salta para target se a condição for igual a when; senão segue.
+         * where é o token das mensagens de erro (Values.condition)
+         */
+        void jump(AST.Expr e, ClassFileWriter.Label target, boolean when, Token where) {
+            while (e instanceof AST.Grouping) {
+                e = ((AST.Grouping) e).expr;
+            }
+            if (e instanceof AST.Unary && ((AST.Unary) e).op.type == TokenType.BANG) {
+                AST.Unary v = (AST.Unary) e;
+                jump(v.right, target, !when, v.op);
+                return;
+            }
+            if (e instanceof AST.Binary && StaticTypes.isCondition(((AST.Binary) e).op.type)) {
+                AST.Binary v = (AST.Binary) e;
+                TokenType op = v.op.type;
+                if (op == TokenType.AND_AND || op == TokenType.OR_OR) {
+                    // && salta cedo quando o lado esquerdo é falso; || quando é verdadeiro
+                    boolean shortCircuit = op == TokenType.OR_OR;
+                    if (when == shortCircuit) {
+                        jump(v.left, target, when, v.op);
+                        jump(v.right, target, when, v.op);
+                    } else {
+                        ClassFileWriter.Label skip = new ClassFileWriter.Label();
+                        jump(v.left, skip, shortCircuit, v.op);
+                        jump(v.right, target, when, v.op);
+                        code.mark(skip);
+                    }
+                    return;
+                }
+                compare(v, target, when);
+                return;
+            }
+            byte t = expr(e);
+            if (t == DOUBLE) {
+                code.dconst(0.0);
+                code.op(ClassFileWriter.DCMPL); // NaN != 0.0: verdadeiro, como em Values.condition
+            } else if (StaticTypes.isReference(t)) {
+                code.iconst(line(where));
+                code.invokestatic(SELF, "condition", "(" + OBJ + "I)Z");
+            }
+            code.jump(when ? ClassFileWriter.IFNE : ClassFileWriter.IFEQ, target);
+        }
+
+        void compare(AST.Binary v, ClassFileWriter.Label target, boolean when) {
+            TokenType op = v.op.type;
+            boolean equality = op == TokenType.EQUAL_EQUAL || op == TokenType.BANG_EQUAL;
+            byte l = typeOf(v.left), r = typeOf(v.right);
+            int ifOp = ifOpcode(op);
+            if (!when) {
+                ifOp = negate(ifOp);
+            }
+            if ((l == INT || l == CHAR) && (r == INT || r == CHAR) || equality && l == BOOL && r == BOOL) {
+                expr(v.left);
+                expr(v.right);
+                code.jump(ifOp + (ClassFileWriter.IF_ICMPEQ - ClassFileWriter.IFEQ), target);
+                return;
+            }
+            if (StaticTypes.isNumeric(l) && StaticTypes.isNumeric(r)) {
+                convert(expr(v.left), DOUBLE);
+                convert(expr(v.right), DOUBLE);
+                if (equality) {
+                    code.op(ClassFileWriter.DCMPL);
+                } else {
+                    // Como Values.compare: com NaN, dcmpg (1) torna < e <= falsos, dcmpl (-1) > e >=
+                    code.op(op == TokenType.LESS || op == TokenType.LESS_EQUAL ? ClassFileWriter.DCMPG
+                            : ClassFileWriter.DCMPL);
+                }
+            } else if (!equality && l == STRING && r == STRING) {
+                expr(v.left);
+                expr(v.right);
+                code.invokevirtual("java/lang/String", "compareTo", "(Ljava/lang/String;)I");
+            } else if (equality) {
+                box(expr(v.left));
+                box(expr(v.right));
+                code.invokestatic("Values", "equal", "(" + OBJ + OBJ + ")Z");
+                ifOp = op == TokenType.EQUAL_EQUAL == when ? ClassFileWriter.IFNE : ClassFileWriter.IFEQ;
+            } else {
+                box(expr(v.left));
+                box(expr(v.right));
+                code.iconst(v.op.type.ordinal());
+                code.ldc(v.op.lexeme);
+                code.iconst(v.op.line);
+                code.invokestatic(SELF, "compare", "(" + OBJ + OBJ + "ILjava/lang/String;I)I");
+            }
+            code.jump(ifOp, target);
+        }
+
+        // ---------- Conversões na pilha ----------
+
+        void convert(byte from, byte to) {
+            if (to == OBJECT) {
+                box(from);
+            } else if (to == DOUBLE && from != DOUBLE) {
+                code.op(ClassFileWriter.I2D);
+            }
+        }
+
+        void box(byte t) {
+            switch (t) {
+                case INT:
+                    code.invokestatic("java/lang/Integer", "valueOf", "(I)Ljava/lang/Integer;");
+                    break;
+                case CHAR:
+                    code.invokestatic("java/lang/Character", "valueOf", "(C)Ljava/lang/Character;");
+                    break;
+                case BOOL:
+                    code.invokestatic("java/lang/Boolean", "valueOf", "(Z)Ljava/lang/Boolean;");
+                    break;
+                case DOUBLE:
+                    code.invokestatic("java/lang/Double", "valueOf", "(D)Ljava/lang/Double;");
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        void unbox(byte t) {
+            switch (t) {
+                case INT:
+                    code.typeOp(ClassFileWriter.CHECKCAST, "java/lang/Integer");
+                    code.invokevirtual("java/lang/Integer", "intValue", "()I");
+                    break;
+                case CHAR:
+                    code.typeOp(ClassFileWriter.CHECKCAST, "java/lang/Character");
+                    code.invokevirtual("java/lang/Character", "charValue", "()C");
+                    break;
+                case BOOL:
+                    code.typeOp(ClassFileWriter.CHECKCAST, "java/lang/Boolean");
+                    code.invokevirtual("java/lang/Boolean", "booleanValue", "()Z");
+                    break;
+                case DOUBLE:
+                    code.typeOp(ClassFileWriter.CHECKCAST, "java/lang/Double");
+                    code.invokevirtual("java/lang/Double", "doubleValue", "()D");
+                    break;
+                case STRING:
+                    code.typeOp(ClassFileWriter.CHECKCAST, "java/lang/String");
+                    break;
+                case ARRAY:
+                    code.typeOp(ClassFileWriter.CHECKCAST, "[Ljava/lang/Object;");
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        void newBuilder() {
+            code.typeOp(ClassFileWriter.NEW, "java/lang/StringBuilder");
+            code.op(ClassFileWriter.DUP);
+            code.invokespecial("java/lang/StringBuilder", "<init>", "()V");
+        }
+
+        /**
+         * StringBuilder.append com o texto de Values.toText
+         */
+        void append(byte t) {
+            code.invokevirtual("java/lang/StringBuilder", "append", "(" + printable(t) + ")Ljava/lang/StringBuilder;");
+        }
+
+        /**
+         * Descritor do argumento de println/append; arrays e valores sem
+         * tipo passam antes por Values.toText
+         */
+        String printable(byte t) {
+            switch (t) {
+                case INT:
+                    return "I";
+                case CHAR:
+                    return "C";
+                case BOOL:
+                    return "Z";
+                case DOUBLE:
+                    return "D";
+                case STRING:
+                    return "Ljava/lang/String;";
+                default:
+                    code.invokestatic("Values", "toText", "(" + OBJ + ")Ljava/lang/String;");
+                    return "Ljava/lang/String;";
+            }
+        }
+    }
+
+    // if<cond> que salta quando a comparação com zero é verdadeira
+    static int ifOpcode(TokenType op) {
+        switch (op) {
+            case EQUAL_EQUAL:
+                return ClassFileWriter.IFEQ;
+            case BANG_EQUAL:
+                return ClassFileWriter.IFNE;
+            case LESS:
+                return ClassFileWriter.IFLT;
+            case LESS_EQUAL:
+                return ClassFileWriter.IFLE;
+            case GREATER:
+                return ClassFileWriter.IFGT;
+            default:
+                return ClassFileWriter.IFGE;
+        }
+    }
+
+    // Pares IFEQ/IFNE, IFLT/IFGE, IFGT/IFLE são opcodes vizinhos
+    static int negate(int ifOpcode) {
+        return ((ifOpcode - ClassFileWriter.IFEQ) ^ 1) + ClassFileWriter.IFEQ;
+    }
+
+    static int line(Token t) {
+        return t == null ? -1 : t.line;
+    }
+
+    // ------------------ Chamadas do código gerado ------------------
+    // Públicas porque a classe gerada as chama; delegam a Values para manter
+    // as mensagens do Interpreter. line = -1: linha desconhecida.
+
+    private static Token at(TokenType type, String lexeme, int line) {
+        return line < 0 ? null : new Token(type, lexeme, null, line, 0);
+    }
+
+    public static int divide(int a, int b, int line) {
+        if (b == 0) {
+            throw Values.error(at(TokenType.SLASH, "/", line), "Divisão por zero.");
+        }
+        return a / b;
+    }
+
+    public static int remainder(int a, int b, int line) {
+        if (b == 0) {
+            throw Values.error(at(TokenType.PERCENT, "%", line), "Resto de divisão por zero.");
+        }
+        return a % b;
+    }
+
+    public static Object binary(Object a, Object b, int op, String lexeme, int line) {
+        return Values.binary(new Token(TokenType.values()[op], lexeme, null, line, 0), a, b);
+    }
+
+    public static int compare(Object a, Object b, int op, String lexeme, int line) {
+        return Values.compare(new Token(TokenType.values()[op], lexeme, null, line, 0), a, b);
+    }
+
+    public static Object negate(Object v, int line) {
+        return Values.negate(at(TokenType.MINUS, "-", line), v);
+    }
+
+    public static boolean condition(Object v, int line) {
+        return Values.condition(at(TokenType.IDENTIFIER, "", line), v);
+    }
+
+    public static Object element(Object[] array, int i, int line) {
+        if (i >= 0 && i < array.length) {
+            return array[i];
+        }
+        return Values.index(at(TokenType.IDENTIFIER, "", line), array, i);
+    }
+
+    public static char charAt(String s, int i, int line) {
+        if (i >= 0 && i < s.length()) {
+            return s.charAt(i);
+        }
+        return (Character) Values.index(at(TokenType.IDENTIFIER, "", line), s, i);
+    }
+
+    public static Object index(Object v, Object i, int line) {
+        return Values.index(at(TokenType.IDENTIFIER, "", line), v, i);
+    }
+
+    public static Object coerce(Object v, String type, int line) {
+        return Values.coerce(at(TokenType.IDENTIFIER, "", line), v, type);
+    }
+
+    public static String input(PrintStream out, BufferedReader in, String prompt) {
+        out.print(prompt);
+        out.flush();
+        try {
+            String line = in.readLine();
+            return line == null ? "" : line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * main das classes gravadas em .class: roda com a entrada e a saída
+     * padrão e reporta erros como o Interpreter
+     */
+    public static void launch(Class<?> program, String[] args) throws Throwable {
+        MethodHandle run = MethodHandles.publicLookup().findStatic(program, "run",
+                MethodType.methodType(Object.class, PrintStream.class, BufferedReader.class));
+        Compiled compiled = new Compiled(new byte[0], run);
+        try {
+            Object returned = compiled.run(System.out,
+                    new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)));
+            if (returned != null) {
+                System.err.println("Programa terminou com return " + Values.toText(returned));
+            }
+        } catch (RuntimeError e) {
+            System.out.flush();
+            System.err.println("❌ " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // ------------------ Linha de comando ------------------
+
+    public static void main(String[] args) throws Exception {
+        List<String> inputs = new ArrayList<>();
+        String emitDir = null;
+        boolean check = false;
+        int iterations = 2_000_000;
+        for (String arg : args) {
+            if (arg.startsWith("--emit=")) {
+                emitDir = arg.substring("--emit=".length());
+            } else if (arg.equals("--check")) {
+                check = true;
+            } else if (arg.matches("\\d+")) {
+                iterations = Integer.parseInt(arg);
+            } else {
+                inputs.add(arg);
+            }
+        }
+        if (!check && emitDir == null) {
+            if (inputs.size() != 1) {
+                System.err.println("Uso: java -cp bin BytecodeCompiler arquivo.bw");
+                System.err.println("     java -cp bin BytecodeCompiler --emit=dir [dir | arquivo.bw ...]");
+                System.err.println("     java -cp bin BytecodeCompiler --check [dir | arquivo.bw ...] [iterações]");
+                System.exit(1);
+            }
+            runFile(Path.of(inputs.get(0)));
+            return;
+        }
+        if (inputs.isEmpty()) {
+            inputs.add("src");
+        }
+        if (emitDir != null) {
+            emit(BatchValidator.collect(inputs), Path.of(emitDir));
+        }
+        if (check) {
+            check(BatchValidator.collect(inputs), iterations);
+        }
+    }
+
+    private static void runFile(Path file) throws IOException {
+        List<Token> tokens;
+        try {
+            tokens = new Lexer(Files.readString(file)).scanTokens();
+        } catch (RuntimeException e) {
+            System.err.println("❌ Erro léxico: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        try {
+            Object returned = load(new Parser(tokens).parse()).run(System.out,
+                    new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)));
+            if (returned != null) {
+                System.err.println("Programa terminou com return " + Values.toText(returned));
+            }
+        } catch (ParseError | SemanticError | RuntimeError e) {
+            System.out.flush();
+            System.err.println("❌ " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void emit(List<Path> files, Path dir) throws IOException {
+        Files.createDirectories(dir);
+        for (Path file : files) {
+            String name = file.getFileName().toString().replaceFirst("\\.bw$", "");
+            String className = "Bowler_" + name.replaceAll("[^A-Za-z0-9_]", "_");
+            try {
+                AST.Program program = new Parser(new Lexer(Files.readString(file)).scanTokens()).parse();
+                byte[] bytes = compile(program, className);
+                Files.write(dir.resolve(className + ".class"), bytes);
+                System.out.printf("%s → %s (%d bytes)%n", file, dir.resolve(className + ".class"), bytes.length);
+            } catch (RuntimeException e) {
+                System.out.printf("%s: ❌ %s%n", file, e.getMessage());
+            }
+        }
+        System.out.println("Para rodar: java -cp bin" + File.pathSeparator + dir + " Bowler_<nome>");
+    }
+
+    private static void check(List<Path> files, int iterations) throws IOException {
+        // Conferência: mesma saída (ou mesmo erro) que o Interpreter
+        int same = 0, total = 0;
+        for (Path file : files) {
+            AST.Program program;
+            try {
+                program = new Parser(new Lexer(Files.readString(file)).scanTokens()).parse();
+            } catch (RuntimeException e) {
+                continue;
+            }
+            total++;
+            if (runCapturing(program, false).equals(runCapturing(program, true))) {
+                same++;
+            } else {
+                System.out.println("  saída diferente: " + file);
+            }
+        }
+        System.out.printf("Conferência: %d/%d programas com a mesma saída do Interpreter%n", same, total);
+
+        // Desempenho no mesmo laço quente do SpecializingInterpreter
+        AST.Program hot = new Parser(new Lexer(String.format(SpecializingInterpreter.HOT_LOOP, iterations))
+                .scanTokens()).parse();
+        PrintStream sink = new PrintStream(OutputStream.nullOutputStream());
+        BufferedReader noInput = new BufferedReader(new StringReader(""));
+        Interpreter generic = new Interpreter(sink, noInput);
+        SpecializingInterpreter specializing = new SpecializingInterpreter(sink, noInput);
+        for (int round = 1; round <= 5; round++) {
+            long t0 = System.nanoTime();
+            generic.run(hot);
+            long tGeneric = System.nanoTime() - t0;
+            t0 = System.nanoTime();
+            specializing.run(hot);
+            long tSpecial = System.nanoTime() - t0;
+            t0 = System.nanoTime();
+            Compiled compiled = load(hot);
+            long tLoad = System.nanoTime() - t0;
+            compiled.run(sink, noInput);
+            long tCompiled = System.nanoTime() - t0;
+            System.out.printf("Rodada %d (%d iterações): genérico %.1f ms, especializado %.1f ms, "
+                    + "compilado %.1f ms (%.1f ms de compilação; %.1fx o genérico)%n", round, iterations,
+                    tGeneric / 1e6, tSpecial / 1e6, tCompiled / 1e6, tLoad / 1e6, (double) tGeneric / tCompiled);
+        }
+        System.out.println("Mesma saída no laço quente: " + runCapturing(hot, false).equals(runCapturing(hot, true)));
+        System.out.println("Tamanho da classe do laço quente: " + compile(hot, "BowlerProgram").length + " bytes");
+    }
+
+    private static String runCapturing(AST.Program program, boolean compiled) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        BufferedReader noInput = new BufferedReader(new StringReader(""));
+        try {
+            Object returned = compiled ? load(program).run(out, noInput) : new Interpreter(out, noInput).run(program);
+            out.print("return " + Values.toText(returned));
+        } catch (SemanticError | RuntimeError e) {
+            out.print(e.getMessage());
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+}
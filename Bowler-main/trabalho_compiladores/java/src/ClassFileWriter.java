@@ -0,0 +1,554 @@
+import java.io.*;
+import java.util.*;
+
+/**
+ * ClassFileWriter - escritor mínimo de arquivos .class
+ *
+ * Só o necessário para o BytecodeCompiler: pool de constantes (Utf8,
+ * Integer, Double, String, Class, NameAndType, Fieldref, Methodref),
+ * métodos com atributo Code e rótulos com saltos de 16 bits. A versão é a
+ * 49 (Java 5), que não exige StackMapTable: o verificador infere os tipos
+ * sozinho, então não é preciso calcular frames. max_stack é acompanhado a
+ * cada instrução emitida (Code.stack) e max_locals vem de quem gera o
+ * código.
+ *
+ * Exemplo:
+ * ClassFileWriter cw = new ClassFileWriter("Ola");
+ * ClassFileWriter.Code c = cw.method(ACC_PUBLIC | ACC_STATIC, "main", "([Ljava/lang/String;)V");
+ * c.getstatic("java/lang/System", "out", "Ljava/io/PrintStream;");
+ * c.ldc("olá");
+ * c.invokevirtual("java/io/PrintStream", "println", "(Ljava/lang/String;)V");
+ * c.op(RETURN);
+ * c.maxLocals(1);
+ * byte[] bytes = cw.toBytes();
+ */
+public final class ClassFileWriter {
+
+    public static final int ACC_PUBLIC = 0x0001, ACC_STATIC = 0x0008, ACC_FINAL = 0x0010, ACC_SUPER = 0x0020;
+
+    // Opcodes usados pelo BytecodeCompiler
+    public static final int ACONST_NULL = 0x01, ICONST_0 = 0x03, DCONST_0 = 0x0e, DCONST_1 = 0x0f, BIPUSH = 0x10,
+            SIPUSH = 0x11, LDC = 0x12, LDC_W = 0x13, LDC2_W = 0x14, ILOAD = 0x15, DLOAD = 0x18, ALOAD = 0x19,
+            ISTORE = 0x36, DSTORE = 0x39, ASTORE = 0x3a, AASTORE = 0x53, POP = 0x57, POP2 = 0x58, DUP = 0x59,
+            DUP2 = 0x5c, IADD = 0x60, DADD = 0x63, ISUB = 0x64, DSUB = 0x67, IMUL = 0x68, DMUL = 0x6b,
+            DDIV = 0x6f, DREM = 0x73, INEG = 0x74, DNEG = 0x77, I2D = 0x87, DCMPL = 0x97, DCMPG = 0x98,
+            IFEQ = 0x99, IFNE = 0x9a, IFLT = 0x9b, IFGE = 0x9c, IFGT = 0x9d, IFLE = 0x9e, IF_ICMPEQ = 0x9f,
+            IF_ICMPNE = 0xa0, IF_ICMPLT = 0xa1, IF_ICMPGE = 0xa2, IF_ICMPGT = 0xa3, IF_ICMPLE = 0xa4, GOTO = 0xa7,
+            TABLESWITCH = 0xaa, LOOKUPSWITCH = 0xab, ARETURN = 0xb0, RETURN = 0xb1, GETSTATIC = 0xb2,
+            INVOKEVIRTUAL = 0xb6, INVOKESPECIAL = 0xb7, INVOKESTATIC = 0xb8, NEW = 0xbb, ANEWARRAY = 0xbd,
+            CHECKCAST = 0xc0;
+
+    private final String name;
+    private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+    private final DataOutputStream poolOut = new DataOutputStream(pool);
+    private final Map<String, Integer> constants = new HashMap<>();
+    private int poolCount = 1;
+    private final List<Code> methods = new ArrayList<>();
+    private final int thisClass;
+    private final int superClass;
+
+    public ClassFileWriter(String name) {
+        this.name = name;
+        this.thisClass = classRef(name);
+        this.superClass = classRef("java/lang/Object");
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // ------------------ Pool de constantes ------------------
+
+    private int constant(String key, int slots, ConstantBody body) {
+        Integer index = constants.get(key);
+        if (index != null) {
+            return index;
+        }
+        try {
+            body.write(poolOut);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int i = poolCount;
+        poolCount += slots; // Long e Double ocupam duas entradas
+        constants.put(key, i);
+        return i;
+    }
+
+    private interface ConstantBody {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    public int utf8(String s) {
+        return constant("U" + s, 1, out -> {
+            out.writeByte(1);
+            out.writeUTF(s);
+        });
+    }
+
+    public int integer(int v) {
+        return constant("I" + v, 1, out -> {
+            out.writeByte(3);
+            out.writeInt(v);
+        });
+    }
+
+    public int doubleConst(double v) {
+        return constant("D" + Double.doubleToRawLongBits(v), 2, out -> {
+            out.writeByte(6);
+            out.writeDouble(v);
+        });
+    }
+
+    public int classRef(String internalName) {
+        int n = utf8(internalName);
+        return constant("C" + internalName, 1, out -> {
+            out.writeByte(7);
+            out.writeShort(n);
+        });
+    }
+
+    public int string(String s) {
+        int n = utf8(s);
+        return constant("S" + s, 1, out -> {
+            out.writeByte(8);
+            out.writeShort(n);
+        });
+    }
+
+    private int nameAndType(String member, String descriptor) {
+        int n = utf8(member);
+        int d = utf8(descriptor);
+        return constant("N" + member + " " + descriptor, 1, out -> {
+            out.writeByte(12);
+            out.writeShort(n);
+            out.writeShort(d);
+        });
+    }
+
+    public int fieldRef(String owner, String member, String descriptor) {
+        int c = classRef(owner);
+        int nt = nameAndType(member, descriptor);
+        return constant("F" + owner + "." + member + descriptor, 1, out -> {
+            out.writeByte(9);
+            out.writeShort(c);
+            out.writeShort(nt);
+        });
+    }
+
+    public int methodRef(String owner, String member, String descriptor) {
+        int c = classRef(owner);
+        int nt = nameAndType(member, descriptor);
+        return constant("M" + owner + "." + member + descriptor, 1, out -> {
+            out.writeByte(10);
+            out.writeShort(c);
+            out.writeShort(nt);
+        });
+    }
+
+    // ------------------ Métodos ------------------
+
+    public Code method(int access, String methodName, String descriptor) {
+        Code code = new Code(access, utf8(methodName), utf8(descriptor));
+        methods.add(code);
+        return code;
+    }
+
+    /**
+     * Posição no código; saltos emitidos antes de mark() são corrigidos
+     * quando o rótulo é marcado
+     */
+    public static final class Label {
+        int position = -1;
+        int stack = -1; // profundidade da pilha no rótulo (para retomar a contagem)
+        final List<int[]> fixups = new ArrayList<>(); // {posição do opcode, posição do offset, largura}
+    }
+
+    public final class Code {
+        final int access;
+        final int nameIndex;
+        final int descriptorIndex;
+        private byte[] code = new byte[256];
+        private int length;
+        private int stack;
+        private int maxStack;
+        private int maxLocals;
+
+        Code(int access, int nameIndex, int descriptorIndex) {
+            this.access = access;
+            this.nameIndex = nameIndex;
+            this.descriptorIndex = descriptorIndex;
+        }
+
+        public int length() {
+            return length;
+        }
+
+        public void maxLocals(int n) {
+            maxLocals = Math.max(maxLocals, n);
+        }
+
+        /**
+         * Profundidade atual da pilha de operandos
+         */
+        public int stack() {
+            return stack;
+        }
+
+        /**
+         * Redefine a profundidade (código depois de um goto incondicional)
+         */
+        public void stack(int depth) {
+            stack = depth;
+        }
+
+        private void adjust(int delta) {
+            stack += delta;
+            if (stack < 0) {
+                throw new IllegalStateException("Pilha de operandos negativa em " + length);
+            }
+            maxStack = Math.max(maxStack, stack);
+        }
+
+        private void u1(int b) {
+            if (length == code.length) {
+                code = Arrays.copyOf(code, length * 2);
+            }
+            code[length++] = (byte) b;
+        }
+
+        private void u2(int v) {
+            u1(v >> 8);
+            u1(v);
+        }
+
+        private void u4(int v) {
+            u2(v >>> 16);
+            u2(v);
+        }
+
+        /**
+         * Instrução sem operandos; delta = efeito na pilha
+         */
+        public void op(int opcode, int delta) {
+            u1(opcode);
+            adjust(delta);
+        }
+
+        /**
+         * Instrução sem operandos com efeito conhecido na pilha
+         */
+        public void op(int opcode) {
+            op(opcode, delta(opcode));
+        }
+
+        public void iconst(int v) {
+            if (v >= -1 && v <= 5) {
+                op(ICONST_0 + v, 1);
+            } else if (v >= Byte.MIN_VALUE && v <= Byte.MAX_VALUE) {
+                u1(BIPUSH);
+                u1(v);
+                adjust(1);
+            } else if (v >= Short.MIN_VALUE && v <= Short.MAX_VALUE) {
+                u1(SIPUSH);
+                u2(v);
+                adjust(1);
+            } else {
+                ldcIndex(integer(v));
+            }
+        }
+
+        public void dconst(double v) {
+            if (Double.doubleToRawLongBits(v) == 0L) {
+                op(DCONST_0, 2);
+            } else if (v == 1.0) {
+                op(DCONST_1, 2);
+            } else {
+                u1(LDC2_W);
+                u2(doubleConst(v));
+                adjust(2);
+            }
+        }
+
+        public void ldc(String s) {
+            ldcIndex(string(s));
+        }
+
+        /**
+         * Empilha o objeto Class (ldc de CONSTANT_Class, válido desde a versão 49)
+         */
+        public void ldcClass(String internalName) {
+            ldcIndex(classRef(internalName));
+        }
+
+        private void ldcIndex(int index) {
+            if (index < 256) {
+                u1(LDC);
+                u1(index);
+            } else {
+                u1(LDC_W);
+                u2(index);
+            }
+            adjust(1);
+        }
+
+        // Locais: opcode base (ILOAD, DLOAD, ALOAD, ISTORE...) e índice
+        public void local(int opcode, int index) {
+            if (index <= 3) {
+                // iload_0..aload_3 e istore_0..astore_3
+                u1(opcode < ISTORE ? 0x1a + (opcode - ILOAD) * 4 + index : 0x3b + (opcode - ISTORE) * 4 + index);
+            } else if (index > 255) {
+                u1(0xc4); // wide
+                u1(opcode);
+                u2(index);
+            } else {
+                u1(opcode);
+                u1(index);
+            }
+            adjust(delta(opcode));
+            boolean wide = opcode == DLOAD || opcode == DSTORE;
+            maxLocals(index + (wide ? 2 : 1));
+        }
+
+        public void getstatic(String owner, String member, String descriptor) {
+            u1(GETSTATIC);
+            u2(fieldRef(owner, member, descriptor));
+            adjust(size(descriptor));
+        }
+
+        public void invokestatic(String owner, String member, String descriptor) {
+            invoke(INVOKESTATIC, owner, member, descriptor, 0);
+        }
+
+        public void invokevirtual(String owner, String member, String descriptor) {
+            invoke(INVOKEVIRTUAL, owner, member, descriptor, 1);
+        }
+
+        public void invokespecial(String owner, String member, String descriptor) {
+            invoke(INVOKESPECIAL, owner, member, descriptor, 1);
+        }
+
+        private void invoke(int opcode, String owner, String member, String descriptor, int receiver) {
+            u1(opcode);
+            u2(methodRef(owner, member, descriptor));
+            int close = descriptor.indexOf(')');
+            adjust(-argumentSlots(descriptor.substring(1, close)) - receiver);
+            adjust(size(descriptor.substring(close + 1)));
+        }
+
+        public void typeOp(int opcode, String internalName) {
+            u1(opcode);
+            u2(classRef(internalName));
+            adjust(opcode == NEW ? 1 : 0); // CHECKCAST e ANEWARRAY não mudam a profundidade
+        }
+
+        public void mark(Label label) {
+            label.position = length;
+            if (label.stack >= 0) {
+                stack = label.stack;
+            }
+            for (int[] f : label.fixups) {
+                patch(f, label);
+            }
+            label.fixups.clear();
+        }
+
+        public void jump(int opcode, Label target) {
+            adjust(delta(opcode));
+            int at = length;
+            u1(opcode);
+            target.stack = stack;
+            if (target.position >= 0) {
+                u2(target.position - at);
+            } else {
+                target.fixups.add(new int[] { at, length, 2 });
+                u2(0);
+            }
+        }
+
+        /**
+         * tableswitch (low..low+targets.length-1) ou lookupswitch (keys em
+         * ordem crescente)
+         */
+        public void tableswitch(int low, Label dflt, Label[] targets) {
+            int at = length;
+            adjust(-1);
+            u1(TABLESWITCH);
+            while (length % 4 != 0) {
+                u1(0);
+            }
+            switchTarget(at, dflt);
+            u4(low);
+            u4(low + targets.length - 1);
+            for (Label l : targets) {
+                switchTarget(at, l);
+            }
+        }
+
+        public void lookupswitch(Label dflt, int[] keys, Label[] targets) {
+            int at = length;
+            adjust(-1);
+            u1(LOOKUPSWITCH);
+            while (length % 4 != 0) {
+                u1(0);
+            }
+            switchTarget(at, dflt);
+            u4(keys.length);
+            for (int i = 0; i < keys.length; i++) {
+                u4(keys[i]);
+                switchTarget(at, targets[i]);
+            }
+        }
+
+        private void switchTarget(int at, Label target) {
+            target.stack = stack;
+            if (target.position >= 0) {
+                u4(target.position - at);
+            } else {
+                target.fixups.add(new int[] { at, length, 4 });
+                u4(0);
+            }
+        }
+
+        private void patch(int[] fixup, Label label) {
+            int offset = label.position - fixup[0];
+            int p = fixup[1];
+            if (fixup[2] == 2) {
+                if (offset < Short.MIN_VALUE || offset > Short.MAX_VALUE) {
+                    throw new IllegalStateException("Salto longo demais (" + offset + " bytes)");
+                }
+                code[p] = (byte) (offset >> 8);
+                code[p + 1] = (byte) offset;
+            } else {
+                code[p] = (byte) (offset >>> 24);
+                code[p + 1] = (byte) (offset >>> 16);
+                code[p + 2] = (byte) (offset >>> 8);
+                code[p + 3] = (byte) offset;
+            }
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeShort(access);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+            out.writeShort(1); // atributos: só Code
+            out.writeShort(utf8("Code"));
+            out.writeInt(12 + length);
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(length);
+            out.write(code, 0, length);
+            out.writeShort(0); // exceções
+            out.writeShort(0); // atributos do Code
+        }
+    }
+
+    // Efeito na pilha das instruções sem operandos e dos saltos
+    static int delta(int opcode) {
+        switch (opcode) {
+            case ACONST_NULL:
+            case ILOAD:
+            case ALOAD:
+            case DUP:
+                return 1;
+            case DLOAD:
+            case DUP2:
+                return 2;
+            case ISTORE:
+            case ASTORE:
+            case POP:
+            case IADD:
+            case ISUB:
+            case IMUL:
+            case IFEQ:
+            case IFNE:
+            case IFLT:
+            case IFGE:
+            case IFGT:
+            case IFLE:
+            case ARETURN:
+                return -1;
+            case DSTORE:
+            case POP2:
+            case DADD:
+            case DSUB:
+            case DMUL:
+            case DDIV:
+            case DREM:
+            case IF_ICMPEQ:
+            case IF_ICMPNE:
+            case IF_ICMPLT:
+            case IF_ICMPGE:
+            case IF_ICMPGT:
+            case IF_ICMPLE:
+                return -2;
+            case AASTORE:
+            case DCMPL:
+            case DCMPG:
+                return -3;
+            case I2D:
+                return 1;
+            case INEG:
+            case DNEG:
+            case GOTO:
+            case RETURN:
+            case CHECKCAST:
+                return 0;
+            default:
+                throw new IllegalArgumentException("Efeito na pilha desconhecido para o opcode " + opcode);
+        }
+    }
+
+    static int size(String descriptor) {
+        char c = descriptor.charAt(0);
+        return c == 'V' ? 0 : c == 'D' || c == 'J' ? 2 : 1;
+    }
+
+    static int argumentSlots(String arguments) {
+        int slots = 0;
+        for (int i = 0; i < arguments.length(); i++) {
+            char c = arguments.charAt(i);
+            if (c == 'D' || c == 'J') {
+                slots += 2;
+            } else {
+                slots++;
+                while (arguments.charAt(i) == '[') {
+                    i++;
+                }
+                if (arguments.charAt(i) == 'L') {
+                    i = arguments.indexOf(';', i);
+                }
+            }
+        }
+        return slots;
+    }
+
+    public byte[] toBytes() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            // Métodos primeiro: registram "Code" no pool
+            ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+            DataOutputStream methodOut = new DataOutputStream(methodBytes);
+            for (Code m : methods) {
+                m.write(methodOut);
+            }
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0); // minor
+            out.writeShort(49); // Java 5: sem StackMapTable
+            out.writeShort(poolCount);
+            pool.writeTo(out);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0); // interfaces
+            out.writeShort(0); // campos
+            out.writeShort(methods.size());
+            methodBytes.writeTo(out);
+            out.writeShort(0); // atributos da classe
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
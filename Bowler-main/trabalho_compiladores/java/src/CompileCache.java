@@ -0,0 +1,808 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * CompileCache - Cache em disco de compilações, endereçado pelo conteúdo
+ *
+ * A chave é o SHA-256 de (versão do cache, modo, código-fonte); o modo
+ * identifica o que foi feito com a entrada ("compile" ou "validate:" + a
+ * impressão digital da gramática, ver CompiledGrammar.getFingerprint()).
+ * Um arquivo sem alterações é respondido com um hash e uma leitura, sem
+ * léxico nem análise sintática.
+ *
+ * Cada entrada guarda os tokens, a AST (AST.Program), os veredictos e os
+ * diagnósticos. Os arquivos ficam em <dir>/<2 primeiros hex>/<hash>.bwc:
+ * magic "BCC1", versão, hash (32 bytes) e a entrada em formato binário
+ * próprio (ver "Formato"); os tokens da AST apontam para a lista de tokens.
+ *
+ * O tamanho total é limitado: quando passa de maxBytes, as entradas usadas
+ * há mais tempo são removidas (LRU pela data de modificação, atualizada a
+ * cada acerto) até sobrar 90% do limite. Escritas vão para um arquivo
+ * temporário movido atomicamente, então threads e processos paralelos
+ * podem usar o mesmo diretório; uma entrada ilegível (parcial, removida,
+ * de outra versão) conta como falta.
+ *
+ * Uso (estatísticas / limpeza do diretório):
+ * java -cp bin CompileCache [--clear] [diretório]
+ */
+public final class CompileCache {
+
+    private static final int MAGIC = 0x42434331; // "BCC1"
+    private static final int VERSION = 2;
+    private static final long DEFAULT_MAX_BYTES = 64L << 20;
+
+    /**
+     * Resultado armazenado de uma compilação
+     */
+    public static final class Entry {
+        public final List<Token> tokens;
+        public final AST.Program program; // null se o parser recursivo falhou
+        public final boolean recursiveAccepted;
+        public final Boolean ll1Accepted; // null quando a validação LL(1) não foi feita
+        public final List<String> errors;
+
+        public Entry(List<Token> tokens, AST.Program program, boolean recursiveAccepted, Boolean ll1Accepted,
+                List<String> errors) {
+            this.tokens = tokens;
+            this.program = program;
+            this.recursiveAccepted = recursiveAccepted;
+            this.ll1Accepted = ll1Accepted;
+            this.errors = errors;
+        }
+    }
+
+    private final Path directory;
+    private final long maxBytes;
+    private final AtomicLong size = new AtomicLong(-1); // -1 = ainda não medido
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Set<Path> touched = ConcurrentHashMap.newKeySet();
+
+    public CompileCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Diretório padrão: -Dbowler.compile.cache.dir ou <tmp>/bowler-compile-cache;
+     * limite: -Dbowler.compile.cache.max (bytes, padrão 64 MB)
+     */
+    public static CompileCache defaultCache() {
+        String dir = System.getProperty("bowler.compile.cache.dir",
+                Path.of(System.getProperty("java.io.tmpdir"), "bowler-compile-cache").toString());
+        return new CompileCache(Path.of(dir), Long.getLong("bowler.compile.cache.max", DEFAULT_MAX_BYTES));
+    }
+
+    /**
+     * Chave de uma entrada (hash do modo e do código-fonte)
+     */
+    public byte[] key(String mode, String source) {
+        MessageDigest md = sha256();
+        md.update(("bowler-compile-cache-v" + VERSION + "\n" + mode + "\n").getBytes(StandardCharsets.UTF_8));
+        return md.digest(source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Entrada da chave, ou null se não estiver no cache
+     */
+    public Entry get(byte[] key) {
+        Path file = file(key);
+        try {
+            byte[] data = Files.readAllBytes(file);
+            Entry entry = decode(data, key);
+            if (entry != null) {
+                // Marca como usada recentemente (ordem da remoção LRU); uma vez
+                // por processo basta e poupa uma chamada ao sistema por acerto
+                if (touched.add(file)) {
+                    Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+                }
+                hits.increment();
+                return entry;
+            }
+        } catch (IOException | RuntimeException e) {
+            // Ausente, removida por outro processo, parcial ou de outra versão
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Grava uma entrada; falhas de escrita apenas deixam de usar o cache
+     */
+    public void put(byte[] key, Entry entry) {
+        Path file = file(key);
+        try {
+            if (size.get() < 0) {
+                measure();
+            }
+            Files.createDirectories(file.getParent());
+            byte[] data = encode(entry, key);
+            Path tmp = Files.createTempFile(file.getParent(), "bwc", ".tmp");
+            try {
+                Files.write(tmp, data);
+                try {
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            if (size.addAndGet(data.length) > maxBytes) {
+                evict();
+            }
+        } catch (IOException e) {
+            // Disco cheio, sem permissão...: segue sem cache para esta entrada
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // ------------------ Arquivos e remoção LRU ------------------
+
+    private Path file(byte[] key) {
+        String hex = hex(key);
+        return directory.resolve(hex.substring(0, 2)).resolve(hex + ".bwc");
+    }
+
+    private List<Path> entries() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> walk = Files.walk(directory, 2)) {
+            List<Path> files = new ArrayList<>();
+            walk.filter(p -> p.toString().endsWith(".bwc") && Files.isRegularFile(p)).forEach(files::add);
+            return files;
+        }
+    }
+
+    private synchronized void measure() throws IOException {
+        if (size.get() >= 0) {
+            return;
+        }
+        long total = 0;
+        for (Path p : entries()) {
+            total += sizeOf(p);
+        }
+        size.set(total);
+    }
+
+    /**
+     * Remove as entradas menos usadas até sobrar 90% do limite. O diretório
+     * é relido porque outros processos também gravam nele.
+     */
+    private synchronized void evict() throws IOException {
+        if (size.get() <= maxBytes) {
+            return; // outra thread já removeu
+        }
+        List<Path> files = entries();
+        Map<Path, Long> used = new HashMap<>();
+        long total = 0;
+        for (Path p : files) {
+            total += sizeOf(p);
+            used.put(p, lastUsed(p));
+        }
+        files.sort(Comparator.comparingLong(used::get));
+        long target = maxBytes / 10 * 9;
+        for (Path p : files) {
+            if (total <= target) {
+                break;
+            }
+            long bytes = sizeOf(p);
+            if (Files.deleteIfExists(p)) {
+                total -= bytes;
+            }
+        }
+        size.set(total);
+    }
+
+    private static long sizeOf(Path p) {
+        try {
+            return Files.size(p);
+        } catch (IOException e) {
+            return 0; // removida por outro processo
+        }
+    }
+
+    private static long lastUsed(Path p) {
+        try {
+            return Files.getLastModifiedTime(p).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    // ------------------ Formato ------------------
+    //
+    // Depois do cabeçalho: veredictos (recursivo, LL(1): 0 = não feita, 1 = rejeita,
+    // 2 = aceita), erros, tokens [tipo, linha, coluna, posição + 1, lexema, literal]... e a AST
+    // em pré-ordem: um byte de tipo por nó (0 = null) seguido dos filhos. Tokens
+    // da AST são referências à lista (0 = null, 1 = token fora da lista, que vem
+    // em seguida, k + 2 = tokens[k]). Inteiros são varints; strings são varint
+    // do tamanho + bytes UTF-8.
+
+    // Tipos de nó
+    private static final int BLOCK = 1, VAR_DECL = 2, IF = 3, WHILE = 4, DO_WHILE = 5, FOR = 6, SWITCH = 7,
+            RETURN = 8, PRINT = 9, BREAK = 10, CONTINUE = 11, EXPR_STMT = 12;
+    private static final int LITERAL = 20, VARIABLE = 21, GROUPING = 22, UNARY = 23, BINARY = 24, ASSIGN = 25,
+            TERNARY = 26, INPUT = 27, ARRAY_LITERAL = 28, ARRAY_ACCESS = 29, INTERPOLATED = 30;
+
+    // Tipos de literal
+    private static final int NULL = 0, FALSE = 1, TRUE = 2, INT = 3, DOUBLE = 4, CHAR = 5, STRING = 6;
+
+    private static byte[] encode(Entry entry, byte[] key) throws IOException {
+        Encoder out = new Encoder(entry.tokens);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.write(key);
+        out.writeBoolean(entry.recursiveAccepted);
+        out.writeByte(entry.ll1Accepted == null ? 0 : entry.ll1Accepted ? 2 : 1);
+        out.writeVarint(entry.errors.size());
+        for (String e : entry.errors) {
+            out.writeString(e);
+        }
+        out.writeVarint(entry.tokens.size());
+        for (Token t : entry.tokens) {
+            out.writeToken(t);
+        }
+        out.writeBoolean(entry.program != null);
+        if (entry.program != null) {
+            out.writeStatement(entry.program.mainBlock);
+        }
+        return out.toByteArray();
+    }
+
+    private static Entry decode(byte[] data, byte[] key) throws IOException {
+        Decoder in = new Decoder(data);
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            return null;
+        }
+        for (byte b : key) {
+            if (in.readByte() != b) {
+                return null;
+            }
+        }
+        boolean recursiveAccepted = in.readBoolean();
+        int ll1 = in.readByte();
+        int n = in.readVarint();
+        List<String> errors = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            errors.add(in.readString());
+        }
+        n = in.readVarint();
+        List<Token> tokens = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            tokens.add(in.readToken());
+        }
+        in.tokens = tokens;
+        AST.Program program = in.readBoolean() ? new AST.Program((AST.Block) in.readStatement()) : null;
+        return new Entry(tokens, program, recursiveAccepted, ll1 == 0 ? null : ll1 == 2, errors);
+    }
+
+    /**
+     * Escrita em um byte[] que cresce
+     */
+    private static final class Encoder {
+        private byte[] buf = new byte[4096];
+        private int pos;
+        private final Map<Token, Integer> tokenIndex = new IdentityHashMap<>();
+
+        Encoder(List<Token> tokens) {
+            for (int i = 0; i < tokens.size(); i++) {
+                tokenIndex.put(tokens.get(i), i);
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+
+        void writeByte(int b) {
+            if (pos == buf.length) {
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+            buf[pos++] = (byte) b;
+        }
+
+        void write(byte[] bytes) {
+            if (pos + bytes.length > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + bytes.length));
+            }
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+
+        void writeBoolean(boolean b) {
+            writeByte(b ? 1 : 0);
+        }
+
+        void writeInt(int v) {
+            writeByte(v >>> 24);
+            writeByte(v >>> 16);
+            writeByte(v >>> 8);
+            writeByte(v);
+        }
+
+        void writeVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte(value);
+        }
+
+        void writeString(String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            write(bytes);
+        }
+
+        void writeToken(Token t) throws IOException {
+            writeByte(t.type.ordinal());
+            writeVarint(t.line);
+            writeVarint(t.column);
+            writeVarint(t.offset + 1); // -1 (desconhecida) vira 0
+            writeString(t.lexeme);
+            writeValue(t.literal);
+        }
+
+        void writeTokenRef(Token t) throws IOException {
+            if (t == null) {
+                writeVarint(0);
+                return;
+            }
+            Integer index = tokenIndex.get(t);
+            if (index == null) {
+                // Token sintetizado pelo parser (ex.: '+' de um '+=')
+                writeVarint(1);
+                writeToken(t);
+            } else {
+                writeVarint(index + 2);
+            }
+        }
+
+        void writeValue(Object v) throws IOException {
+            if (v == null) {
+                writeByte(NULL);
+            } else if (v instanceof Boolean) {
+                writeByte((Boolean) v ? TRUE : FALSE);
+            } else if (v instanceof Integer) {
+                writeByte(INT);
+                writeInt((Integer) v);
+            } else if (v instanceof Double) {
+                writeByte(DOUBLE);
+                long bits = Double.doubleToRawLongBits((Double) v);
+                writeInt((int) (bits >>> 32));
+                writeInt((int) bits);
+            } else if (v instanceof Character) {
+                writeByte(CHAR);
+                writeVarint((Character) v);
+            } else if (v instanceof String) {
+                writeByte(STRING);
+                writeString((String) v);
+            } else {
+                throw new IOException("Literal não suportado: " + v.getClass().getName());
+            }
+        }
+
+        void writeStatement(AST.Statement s) throws IOException {
+            if (s == null) {
+                writeByte(0);
+            } else if (s instanceof AST.Block) {
+                writeByte(BLOCK);
+                List<AST.Statement> statements = ((AST.Block) s).statements;
+                writeVarint(statements.size());
+                for (AST.Statement st : statements) {
+                    writeStatement(st);
+                }
+            } else if (s instanceof AST.VarDecl) {
+                AST.VarDecl v = (AST.VarDecl) s;
+                writeByte(VAR_DECL);
+                writeTokenRef(v.name);
+                writeBoolean(v.type != null);
+                if (v.type != null) {
+                    writeString(v.type.name);
+                }
+                writeExpr(v.initializer);
+            } else if (s instanceof AST.If) {
+                AST.If v = (AST.If) s;
+                writeByte(IF);
+                writeExpr(v.cond);
+                writeStatement(v.thenB);
+                writeStatement(v.elseB);
+            } else if (s instanceof AST.While) {
+                AST.While v = (AST.While) s;
+                writeByte(WHILE);
+                writeExpr(v.cond);
+                writeStatement(v.body);
+            } else if (s instanceof AST.DoWhile) {
+                AST.DoWhile v = (AST.DoWhile) s;
+                writeByte(DO_WHILE);
+                writeStatement(v.body);
+                writeExpr(v.cond);
+            } else if (s instanceof AST.For) {
+                AST.For v = (AST.For) s;
+                writeByte(FOR);
+                writeStatement(v.init);
+                writeExpr(v.cond);
+                writeExpr(v.inc);
+                writeStatement(v.body);
+            } else if (s instanceof AST.Switch) {
+                AST.Switch v = (AST.Switch) s;
+                writeByte(SWITCH);
+                writeExpr(v.expr);
+                writeVarint(v.cases.size());
+                for (AST.Case c : v.cases) {
+                    writeExpr(c.value);
+                    writeStatement(c.block);
+                }
+                writeStatement(v.defaultBlock);
+            } else if (s instanceof AST.Return) {
+                writeByte(RETURN);
+                writeExpr(((AST.Return) s).value);
+            } else if (s instanceof AST.Print) {
+                writeByte(PRINT);
+                writeExpr(((AST.Print) s).value);
+            } else if (s instanceof AST.Break) {
+                writeByte(BREAK);
+            } else if (s instanceof AST.Continue) {
+                writeByte(CONTINUE);
+            } else if (s instanceof AST.ExprStmt) {
+                writeByte(EXPR_STMT);
+                writeExpr(((AST.ExprStmt) s).expr);
+            } else {
+                throw new IOException("Nó não suportado: " + s.getClass().getName());
+            }
+        }
+
+        void writeExpr(AST.Expr e) throws IOException {
+            if (e == null) {
+                writeByte(0);
+            } else if (e instanceof AST.Literal) {
+                writeByte(LITERAL);
+                writeValue(((AST.Literal) e).value);
+            } else if (e instanceof AST.Variable) {
+                writeByte(VARIABLE);
+                writeTokenRef(((AST.Variable) e).name);
+            } else if (e instanceof AST.Grouping) {
+                writeByte(GROUPING);
+                writeExpr(((AST.Grouping) e).expr);
+            } else if (e instanceof AST.Unary) {
+                AST.Unary v = (AST.Unary) e;
+                writeByte(UNARY);
+                writeTokenRef(v.op);
+                writeExpr(v.right);
+            } else if (e instanceof AST.Binary) {
+                AST.Binary v = (AST.Binary) e;
+                writeByte(BINARY);
+                writeExpr(v.left);
+                writeTokenRef(v.op);
+                writeExpr(v.right);
+            } else if (e instanceof AST.Assign) {
+                AST.Assign v = (AST.Assign) e;
+                writeByte(ASSIGN);
+                writeTokenRef(v.name);
+                writeExpr(v.value);
+                writeTokenRef(v.equals);
+            } else if (e instanceof AST.Ternary) {
+                AST.Ternary v = (AST.Ternary) e;
+                writeByte(TERNARY);
+                writeExpr(v.cond);
+                writeExpr(v.thenExpr);
+                writeExpr(v.elseExpr);
+            } else if (e instanceof AST.Input) {
+                writeByte(INPUT);
+                writeString(((AST.Input) e).prompt);
+            } else if (e instanceof AST.ArrayLiteral) {
+                List<AST.Expr> elements = ((AST.ArrayLiteral) e).elements;
+                writeByte(ARRAY_LITERAL);
+                writeVarint(elements.size());
+                for (AST.Expr el : elements) {
+                    writeExpr(el);
+                }
+            } else if (e instanceof AST.ArrayAccess) {
+                AST.ArrayAccess v = (AST.ArrayAccess) e;
+                writeByte(ARRAY_ACCESS);
+                writeExpr(v.array);
+                writeExpr(v.index);
+            } else if (e instanceof AST.InterpolatedString) {
+                List<Object> parts = ((AST.InterpolatedString) e).parts;
+                writeByte(INTERPOLATED);
+                writeVarint(parts.size());
+                for (Object p : parts) {
+                    if (p instanceof String) {
+                        writeBoolean(true);
+                        writeString((String) p);
+                    } else {
+                        writeBoolean(false);
+                        writeExpr((AST.Expr) p);
+                    }
+                }
+            } else {
+                throw new IOException("Nó não suportado: " + e.getClass().getName());
+            }
+        }
+    }
+
+    /**
+     * Leitura de um byte[] (entradas corrompidas lançam exceção e viram falta)
+     */
+    private static final class Decoder {
+        private static final TokenType[] TYPES = TokenType.values();
+
+        private final byte[] buf;
+        private int pos;
+        List<Token> tokens;
+
+        Decoder(byte[] buf) {
+            this.buf = buf;
+        }
+
+        int readByte() throws IOException {
+            if (pos >= buf.length) {
+                throw new EOFException();
+            }
+            return buf[pos++];
+        }
+
+        boolean readBoolean() throws IOException {
+            return readByte() != 0;
+        }
+
+        int readInt() throws IOException {
+            return (readByte() & 0xFF) << 24 | (readByte() & 0xFF) << 16 | (readByte() & 0xFF) << 8
+                    | (readByte() & 0xFF);
+        }
+
+        int readVarint() throws IOException {
+            int value = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = readByte();
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        String readString() throws IOException {
+            int n = readVarint();
+            if (n < 0 || n > buf.length - pos) {
+                throw new EOFException();
+            }
+            String s = new String(buf, pos, n, StandardCharsets.UTF_8);
+            pos += n;
+            return s;
+        }
+
+        Token readToken() throws IOException {
+            TokenType type = TYPES[readByte() & 0xFF];
+            int line = readVarint();
+            int column = readVarint();
+            int offset = readVarint() - 1;
+            String lexeme = readString();
+            return new Token(type, lexeme, readValue(), line, column, offset);
+        }
+
+        Token readTokenRef() throws IOException {
+            int ref = readVarint();
+            return ref == 0 ? null : ref == 1 ? readToken() : tokens.get(ref - 2);
+        }
+
+        Object readValue() throws IOException {
+            switch (readByte()) {
+                case NULL:
+                    return null;
+                case FALSE:
+                    return Boolean.FALSE;
+                case TRUE:
+                    return Boolean.TRUE;
+                case INT:
+                    return readInt();
+                case DOUBLE:
+                    long high = readInt();
+                    return Double.longBitsToDouble(high << 32 | (readInt() & 0xFFFFFFFFL));
+                case CHAR:
+                    return (char) readVarint();
+                case STRING:
+                    return readString();
+                default:
+                    throw new IOException("Literal desconhecido");
+            }
+        }
+
+        AST.Block readBlock() throws IOException {
+            return (AST.Block) readStatement();
+        }
+
+        AST.Statement readStatement() throws IOException {
+            int kind = readByte();
+            switch (kind) {
+                case 0:
+                    return null;
+                case BLOCK: {
+                    int n = readVarint();
+                    List<AST.Statement> statements = new ArrayList<>(n);
+                    for (int i = 0; i < n; i++) {
+                        statements.add(readStatement());
+                    }
+                    return new AST.Block(statements);
+                }
+                case VAR_DECL: {
+                    Token name = readTokenRef();
+                    AST.TypeNode type = readBoolean() ? new AST.TypeNode(readString()) : null;
+                    return new AST.VarDecl(name, type, readExpr());
+                }
+                case IF: {
+                    AST.Expr cond = readExpr();
+                    AST.Block thenB = readBlock();
+                    return new AST.If(cond, thenB, readBlock());
+                }
+                case WHILE: {
+                    AST.Expr cond = readExpr();
+                    return new AST.While(cond, readBlock());
+                }
+                case DO_WHILE: {
+                    AST.Block body = readBlock();
+                    return new AST.DoWhile(body, readExpr());
+                }
+                case FOR: {
+                    AST.Statement init = readStatement();
+                    AST.Expr cond = readExpr();
+                    AST.Expr inc = readExpr();
+                    return new AST.For(init, cond, inc, readBlock());
+                }
+                case SWITCH: {
+                    AST.Expr expr = readExpr();
+                    int n = readVarint();
+                    List<AST.Case> cases = new ArrayList<>(n);
+                    for (int i = 0; i < n; i++) {
+                        AST.Expr value = readExpr();
+                        cases.add(new AST.Case(value, readBlock()));
+                    }
+                    return new AST.Switch(expr, cases, readBlock());
+                }
+                case RETURN:
+                    return new AST.Return(readExpr());
+                case PRINT:
+                    return new AST.Print(readExpr());
+                case BREAK:
+                    return new AST.Break();
+                case CONTINUE:
+                    return new AST.Continue();
+                case EXPR_STMT:
+                    return new AST.ExprStmt(readExpr());
+                default:
+                    throw new IOException("Nó desconhecido: " + kind);
+            }
+        }
+
+        AST.Expr readExpr() throws IOException {
+            int kind = readByte();
+            switch (kind) {
+                case 0:
+                    return null;
+                case LITERAL:
+                    return new AST.Literal(readValue());
+                case VARIABLE:
+                    return new AST.Variable(readTokenRef());
+                case GROUPING:
+                    return new AST.Grouping(readExpr());
+                case UNARY: {
+                    Token op = readTokenRef();
+                    return new AST.Unary(op, readExpr());
+                }
+                case BINARY: {
+                    AST.Expr left = readExpr();
+                    Token op = readTokenRef();
+                    return new AST.Binary(left, op, readExpr());
+                }
+                case ASSIGN: {
+                    Token name = readTokenRef();
+                    AST.Expr value = readExpr();
+                    return new AST.Assign(name, value, readTokenRef());
+                }
+                case TERNARY: {
+                    AST.Expr cond = readExpr();
+                    AST.Expr thenExpr = readExpr();
+                    return new AST.Ternary(cond, thenExpr, readExpr());
+                }
+                case INPUT:
+                    return new AST.Input(readString());
+                case ARRAY_LITERAL: {
+                    int n = readVarint();
+                    List<AST.Expr> elements = new ArrayList<>(n);
+                    for (int i = 0; i < n; i++) {
+                        elements.add(readExpr());
+                    }
+                    return new AST.ArrayLiteral(elements);
+                }
+                case ARRAY_ACCESS: {
+                    AST.Expr array = readExpr();
+                    return new AST.ArrayAccess(array, readExpr());
+                }
+                case INTERPOLATED: {
+                    int n = readVarint();
+                    List<Object> parts = new ArrayList<>(n);
+                    for (int i = 0; i < n; i++) {
+                        parts.add(readBoolean() ? readString() : readExpr());
+                    }
+                    return new AST.InterpolatedString(parts);
+                }
+                default:
+                    throw new IOException("Nó desconhecido: " + kind);
+            }
+        }
+    }
+
+    // ------------------ Hash ------------------
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * SHA-256 de um texto, em hexadecimal
+     */
+    static String sha256Hex(String text) {
+        return hex(sha256().digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean clear = false;
+        CompileCache cache = defaultCache();
+        for (String arg : args) {
+            if (arg.equals("--clear")) {
+                clear = true;
+            } else {
+                cache = new CompileCache(Path.of(arg), DEFAULT_MAX_BYTES);
+            }
+        }
+        List<Path> files = cache.entries();
+        long total = 0;
+        for (Path p : files) {
+            total += sizeOf(p);
+            if (clear) {
+                Files.deleteIfExists(p);
+            }
+        }
+        System.out.printf("Cache de compilação em %s: %d entrada(s), %.1f KB%s%n", cache.directory,
+                files.size(), total / 1024.0, clear ? " (removidas)" : "");
+    }
+}
@@ -0,0 +1,204 @@
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * CompiledGrammar - Gramática LL(1) compilada, imutável e compartilhável
+ *
+ * O LL1GrammarAnalyzer é mutável (mapas de FIRST/FOLLOW/tabela, edição
+ * incremental) e o LL1StackParser guarda entrada, posição e pilha. Esta
+ * classe separa as duas partes:
+ * - compile() copia uma vez, para coleções imutáveis, tudo o que a análise
+ * precisa (símbolos, FOLLOW, tabela comprimida, alternativas em conflito)
+ * - newParser() cria só o estado de uma análise (LL1StackParser), barato
+ *
+ * Uma instância pode ser usada por qualquer número de threads ao mesmo
+ * tempo. O único estado mutável compartilhado é o cache de DFAs do
+ * AdaptivePredictor, que é concorrente.
+ *
+ * Uso (teste de análises paralelas sobre uma única instância):
+ * java -cp bin CompiledGrammar [diretório com .bw] [análises] [threads]
+ */
+public final class CompiledGrammar {
+
+    private final String startSymbol;
+    private final Set<String> nonTerminals;
+    private final Set<String> terminals;
+    private final Map<String, Set<String>> follow;
+    private final CompressedParsingTable table;
+    private final AdaptivePredictor predictor;
+    private final String fingerprint;
+
+    private CompiledGrammar(LL1GrammarAnalyzer analyzer) {
+        this.fingerprint = CompileCache.sha256Hex(GrammarLoader.toText(analyzer));
+        this.startSymbol = analyzer.getStartSymbol();
+        this.nonTerminals = Collections.unmodifiableSet(new HashSet<>(analyzer.getNonTerminals()));
+        this.terminals = Collections.unmodifiableSet(new HashSet<>(analyzer.getTerminals()));
+        this.follow = copySets(analyzer.getFollow());
+
+        Map<String, Map<String, List<String>>> parsingTable = new HashMap<>();
+        for (Map.Entry<String, Map<String, List<String>>> row : analyzer.getParsingTable().entrySet()) {
+            Map<String, List<String>> cells = new HashMap<>();
+            for (Map.Entry<String, List<String>> cell : row.getValue().entrySet()) {
+                cells.put(cell.getKey(), List.copyOf(cell.getValue()));
+            }
+            parsingTable.put(row.getKey(), Collections.unmodifiableMap(cells));
+        }
+        Map<String, Map<String, List<List<String>>>> alternatives = new HashMap<>();
+        for (Map.Entry<String, Map<String, List<List<String>>>> row : analyzer.getConflictAlternatives()
+                .entrySet()) {
+            Map<String, List<List<String>>> cells = new HashMap<>();
+            for (Map.Entry<String, List<List<String>>> cell : row.getValue().entrySet()) {
+                List<List<String>> alts = new ArrayList<>();
+                for (List<String> production : cell.getValue()) {
+                    alts.add(List.copyOf(production));
+                }
+                cells.put(cell.getKey(), Collections.unmodifiableList(alts));
+            }
+            alternatives.put(row.getKey(), Collections.unmodifiableMap(cells));
+        }
+        parsingTable = Collections.unmodifiableMap(parsingTable);
+        alternatives = Collections.unmodifiableMap(alternatives);
+
+        this.table = new CompressedParsingTable(parsingTable, nonTerminals, terminals, alternatives);
+        this.predictor = alternatives.isEmpty() ? null
+                : new AdaptivePredictor(parsingTable, alternatives, nonTerminals, follow);
+    }
+
+    /**
+     * Compila a gramática de um analisador já analisado (FIRST, FOLLOW e
+     * tabela calculados ou restaurados do cache). Alterações posteriores no
+     * analisador não afetam a gramática compilada.
+     */
+    public static CompiledGrammar compile(LL1GrammarAnalyzer analyzer) {
+        return new CompiledGrammar(analyzer);
+    }
+
+    /**
+     * Novo parser para uma entrada, sem trace e com recuperação de erros
+     */
+    public LL1StackParser newParser(List<Token> tokens) {
+        LL1StackParser parser = new LL1StackParser(tokens, this);
+        parser.setTrace(ParseTrace.OFF);
+        return parser;
+    }
+
+    private static Map<String, Set<String>> copySets(Map<String, Set<String>> sets) {
+        Map<String, Set<String>> copy = new HashMap<>();
+        for (Map.Entry<String, Set<String>> e : sets.entrySet()) {
+            copy.put(e.getKey(), Set.copyOf(e.getValue()));
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+
+    // Getters
+    public String getStartSymbol() {
+        return startSymbol;
+    }
+
+    public Set<String> getNonTerminals() {
+        return nonTerminals;
+    }
+
+    public Set<String> getTerminals() {
+        return terminals;
+    }
+
+    public Map<String, Set<String>> getFollow() {
+        return follow;
+    }
+
+    public CompressedParsingTable getTable() {
+        return table;
+    }
+
+    public AdaptivePredictor getPredictor() {
+        return predictor;
+    }
+
+    /**
+     * SHA-256 do texto canônico da gramática (identifica a gramática em caches)
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    // ------------------ Teste de concorrência ------------------
+
+    /**
+     * Resultado comparável de uma análise: AST detalhada ou lista de erros
+     */
+    private static String outcome(CompiledGrammar grammar, String source) {
+        LL1StackParser parser = grammar.newParser(new Lexer(source).scanTokens());
+        parser.setSemanticActions(new BowlerAstActions());
+        if (parser.parse(grammar.getStartSymbol())) {
+            return "ACEITA\n" + ((AST.Program) parser.getResult()).toDetailedString();
+        }
+        StringBuilder sb = new StringBuilder("REJEITA");
+        for (ParseError e : parser.getErrors()) {
+            sb.append('\n').append(e.getMessage());
+        }
+        return sb.toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Path.of(args.length > 0 ? args[0] : "src");
+        int total = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2])
+                : Math.max(4, Runtime.getRuntime().availableProcessors());
+
+        // Entradas: os exemplos .bw e, para cada um, uma cópia truncada (com erros)
+        List<String> sources = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.bw")) {
+            for (Path file : files) {
+                String source = Files.readString(file);
+                sources.add(source);
+                sources.add(source.substring(0, source.length() * 2 / 3));
+            }
+        }
+        if (sources.isEmpty()) {
+            System.err.println("Nenhum arquivo .bw em " + dir);
+            System.exit(1);
+        }
+
+        LL1GrammarAnalyzer analyzer = Bowler.createBowlerLL1Analyzer();
+        ParseTableCache.defaultCache().analyze(analyzer);
+        CompiledGrammar grammar = compile(analyzer);
+
+        // Referência sequencial
+        List<String> expected = new ArrayList<>();
+        for (String source : sources) {
+            expected.add(outcome(grammar, source));
+        }
+
+        // Todas as análises em paralelo sobre a mesma instância
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Boolean>> results = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            int k = i % sources.size();
+            results.add(pool.submit(() -> outcome(grammar, sources.get(k)).equals(expected.get(k))));
+        }
+        int divergent = 0;
+        for (Future<Boolean> r : results) {
+            if (!r.get()) {
+                divergent++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        System.out.println("=== CompiledGrammar: análises paralelas ===");
+        System.out.printf("%d análises (%d entradas distintas) em %d threads: %.1f ms%n",
+                total, sources.size(), threads, elapsed / 1e6);
+        if (grammar.getPredictor() != null) {
+            grammar.getPredictor().printStats();
+        }
+        if (divergent == 0) {
+            System.out.println("✅ Todos os resultados idênticos à execução sequencial");
+        } else {
+            System.out.println("❌ " + divergent + " resultado(s) divergente(s)");
+            System.exit(1);
+        }
+    }
+}
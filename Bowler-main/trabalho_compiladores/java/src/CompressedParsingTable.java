@@ -0,0 +1,404 @@
+import java.util.*;
+
+/**
+ * CompressedParsingTable - Tabela LL(1) comprimida por deslocamento de linhas
+ * (row displacement / comb vector)
+ *
+ * A tabela densa M[A, a] (não-terminais × terminais) é quase toda vazia. Aqui
+ * todas as linhas são "encaixadas" em um único vetor compartilhado:
+ *
+ * slot = base[A] + a
+ * M[A, a] = next[slot] se slot < check.length e check[slot] == A, senão erro
+ *
+ * Antes do encaixe, cada linha perde a sua entrada mais frequente (em geral
+ * a produção ε repetida em todo o FOLLOW): ela vai para defaults[A] e as
+ * células que a usam ficam marcadas em um bitset (defined), de modo que uma
+ * célula vazia continua sendo erro. Só as demais células entram no vetor:
+ *
+ * M[A, a] = defaults[A] se o bit (A, a) de defined estiver ligado, senão erro
+ * (quando não está no vetor)
+ *
+ * A consulta é O(1) e as tabelas ocupam poucas linhas de cache mesmo com
+ * centenas de terminais: next, check e defaults são short[] (ids de produção
+ * e de não-terminal cabem em 16 bits) e o vetor termina na última célula
+ * ocupada, sem folga para base[A] + a; a consulta testa o limite em vez disso.
+ *
+ * Células em conflito (decisões resolvidas por AdaptivePredictor) são
+ * marcadas com o id da produção padrão codificado como negativo (-id - 2),
+ * de modo que o caso comum continua sendo uma única consulta.
+ *
+ * Para o LL1StackParser não passar por mapas de String a cada passo, o
+ * lookahead é convertido pelo ordinal do TokenType (terminalId(TokenType))
+ * e cada produção guarda os ids dos seus não-terminais (nonTerminalIds),
+ * que vão para a pilha junto com os símbolos.
+ */
+public class CompressedParsingTable {
+
+    private static final int EMPTY = -1;
+
+    // Numeração dos símbolos
+    private final Map<String, Integer> terminalIndex = new HashMap<>();
+    private final Map<String, Integer> nonTerminalIndex = new HashMap<>();
+    private final String[] terminalNames;
+    private final String[] nonTerminalNames;
+
+    // Produções distintas (id → lista de símbolos) e, por símbolo, o id do
+    // não-terminal (EMPTY para terminais e ε)
+    private final List<List<String>> productions = new ArrayList<>();
+    private final List<int[]> productionNonTerminals = new ArrayList<>();
+    // TokenType.ordinal() → id do terminal (EMPTY se não estiver na tabela)
+    private final int[] tokenTerminals;
+
+    // Vetores comprimidos
+    private final int[] base;
+    private final short[] next;
+    private final short[] check;
+    // Entrada mais frequente de cada linha e células (A * terminais + a) que a usam
+    private final short[] defaults;
+    private final long[] defined;
+    private final int filledCells;
+
+    public CompressedParsingTable(Map<String, Map<String, List<String>>> parsingTable,
+            Set<String> nonTerminals,
+            Set<String> terminals) {
+        this(parsingTable, nonTerminals, terminals, Collections.emptyMap());
+    }
+
+    public CompressedParsingTable(Map<String, Map<String, List<String>>> parsingTable,
+            Set<String> nonTerminals,
+            Set<String> terminals,
+            Map<String, Map<String, List<List<String>>>> conflictAlternatives) {
+        // Terminais: os declarados mais qualquer um que apareça na tabela (ex.: EOF)
+        SortedSet<String> allTerminals = new TreeSet<>(terminals);
+        for (Map<String, List<String>> row : parsingTable.values()) {
+            allTerminals.addAll(row.keySet());
+        }
+        terminalNames = allTerminals.toArray(new String[0]);
+        for (int i = 0; i < terminalNames.length; i++) {
+            terminalIndex.put(terminalNames[i], i);
+        }
+
+        TokenType[] types = TokenType.values();
+        tokenTerminals = new int[types.length];
+        for (TokenType type : types) {
+            tokenTerminals[type.ordinal()] = terminalIndex.getOrDefault(LL1StackParser.terminalOf(type), EMPTY);
+        }
+
+        nonTerminalNames = new TreeSet<>(nonTerminals).toArray(new String[0]);
+        if (nonTerminalNames.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Não-terminais demais para a tabela comprimida: "
+                    + nonTerminalNames.length);
+        }
+        for (int i = 0; i < nonTerminalNames.length; i++) {
+            nonTerminalIndex.put(nonTerminalNames[i], i);
+        }
+
+        // Linhas em forma de (coluna, id da produção)
+        Map<List<String>, Integer> productionIds = new HashMap<>();
+        int[][] rowColumns = new int[nonTerminalNames.length][];
+        int[][] rowEntries = new int[nonTerminalNames.length][];
+        defaults = new short[nonTerminalNames.length];
+        defined = new long[(nonTerminalNames.length * terminalNames.length + 63) / 64];
+        int filled = 0;
+        for (int nt = 0; nt < nonTerminalNames.length; nt++) {
+            Map<String, List<String>> row = parsingTable.getOrDefault(nonTerminalNames[nt], Collections.emptyMap());
+            Map<String, List<List<String>>> conflictRow = conflictAlternatives
+                    .getOrDefault(nonTerminalNames[nt], Collections.emptyMap());
+            int[] cols = new int[row.size()];
+            int[] entries = new int[row.size()];
+            int k = 0;
+            for (Map.Entry<String, List<String>> cell : row.entrySet()) {
+                Integer id = productionIds.get(cell.getValue());
+                if (id == null) {
+                    id = productions.size();
+                    List<String> production = Collections.unmodifiableList(new ArrayList<>(cell.getValue()));
+                    productions.add(production);
+                    productionIds.put(production, id);
+                    int[] ids = new int[production.size()];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = nonTerminalIndex.getOrDefault(production.get(i), EMPTY);
+                    }
+                    productionNonTerminals.add(ids);
+                }
+                cols[k] = terminalIndex.get(cell.getKey());
+                entries[k] = conflictRow.containsKey(cell.getKey()) ? -id - 2 : id;
+                k++;
+            }
+            filled += k;
+
+            // Entrada mais frequente da linha vira o padrão; o resto vai para o vetor
+            int common = mostFrequent(entries);
+            defaults[nt] = (short) common;
+            int kept = 0;
+            for (int i = 0; i < k; i++) {
+                if (entries[i] == common) {
+                    int bit = nt * terminalNames.length + cols[i];
+                    defined[bit >>> 6] |= 1L << bit;
+                } else {
+                    cols[kept] = cols[i];
+                    entries[kept] = entries[i];
+                    kept++;
+                }
+            }
+            rowColumns[nt] = Arrays.copyOf(cols, kept);
+            rowEntries[nt] = Arrays.copyOf(entries, kept);
+        }
+        filledCells = filled;
+        // Decisões são gravadas como -id - 2, que precisa caber em short
+        if (productions.size() > Short.MAX_VALUE - 1) {
+            throw new IllegalArgumentException("Produções demais para a tabela comprimida: " + productions.size());
+        }
+
+        // First-fit decrescente: as linhas mais cheias são encaixadas primeiro
+        Integer[] order = new Integer[nonTerminalNames.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> rowColumns[b].length - rowColumns[a].length);
+
+        int capacity = Math.max(terminalNames.length, filled) + terminalNames.length;
+        short[] nextBuf = new short[capacity];
+        short[] checkBuf = new short[capacity];
+        Arrays.fill(checkBuf, (short) EMPTY);
+        base = new int[nonTerminalNames.length];
+        int used = 0;
+
+        for (int nt : order) {
+            int[] cols = rowColumns[nt];
+            int b = 0;
+            while (!fits(checkBuf, cols, b)) {
+                b++;
+            }
+            // Só até a última coluna ocupada da linha; lookup testa o limite
+            int needed = b;
+            for (int c : cols) {
+                needed = Math.max(needed, b + c + 1);
+            }
+            if (needed > checkBuf.length) {
+                int newCap = Math.max(needed, checkBuf.length * 2);
+                nextBuf = Arrays.copyOf(nextBuf, newCap);
+                int oldLen = checkBuf.length;
+                checkBuf = Arrays.copyOf(checkBuf, newCap);
+                Arrays.fill(checkBuf, oldLen, newCap, (short) EMPTY);
+            }
+            base[nt] = b;
+            for (int k = 0; k < cols.length; k++) {
+                checkBuf[b + cols[k]] = (short) nt;
+                nextBuf[b + cols[k]] = (short) rowEntries[nt][k];
+            }
+            used = Math.max(used, needed);
+        }
+
+        next = Arrays.copyOf(nextBuf, used);
+        check = Arrays.copyOf(checkBuf, used);
+    }
+
+    /**
+     * Cria a tabela comprimida a partir de um analisador já construído
+     */
+    public static CompressedParsingTable fromAnalyzer(LL1GrammarAnalyzer analyzer) {
+        return new CompressedParsingTable(analyzer.getParsingTable(), analyzer.getNonTerminals(),
+                analyzer.getTerminals(), analyzer.getConflictAlternatives());
+    }
+
+    private static int mostFrequent(int[] entries) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        int best = EMPTY;
+        int bestCount = 0;
+        for (int e : entries) {
+            int count = counts.merge(e, 1, Integer::sum);
+            if (count > bestCount) {
+                best = e;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    private static boolean fits(short[] checkBuf, int[] cols, int b) {
+        for (int c : cols) {
+            int slot = b + c;
+            if (slot < checkBuf.length && checkBuf[slot] != EMPTY) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Consulta M[A, a] por índices; retorna a célula: id da produção, -1 (erro)
+     * ou uma decisão (ver isDecision)
+     */
+    public int lookup(int nonTerminal, int terminal) {
+        int slot = base[nonTerminal] + terminal;
+        if (slot < check.length && check[slot] == nonTerminal) {
+            return next[slot];
+        }
+        int bit = nonTerminal * terminalNames.length + terminal;
+        return (defined[bit >>> 6] & (1L << bit)) != 0 ? defaults[nonTerminal] : EMPTY;
+    }
+
+    /**
+     * Consulta M[A, a] por nome; retorna a célula (como lookup(int, int))
+     */
+    public int cell(String nonTerminal, String terminal) {
+        Integer nt = nonTerminalIndex.get(nonTerminal);
+        Integer t = terminalIndex.get(terminal);
+        if (nt == null || t == null) {
+            return EMPTY;
+        }
+        return lookup(nt, t);
+    }
+
+    /**
+     * Indica se a célula está em conflito (precisa de predição adaptativa)
+     */
+    public static boolean isDecision(int cell) {
+        return cell < EMPTY;
+    }
+
+    /**
+     * Produção da célula (a padrão, se for uma decisão); null se vazia
+     */
+    public List<String> productionOf(int cell) {
+        if (cell == EMPTY) {
+            return null;
+        }
+        return productions.get(cell >= 0 ? cell : -cell - 2);
+    }
+
+    /**
+     * Consulta M[A, a] por nome; retorna null se a entrada estiver vazia
+     */
+    public List<String> lookup(String nonTerminal, String terminal) {
+        return productionOf(cell(nonTerminal, terminal));
+    }
+
+    /**
+     * Ids dos não-terminais da produção da célula, na ordem dos símbolos
+     * (EMPTY para terminais); null se a célula estiver vazia
+     */
+    public int[] nonTerminalIds(int cell) {
+        if (cell == EMPTY) {
+            return null;
+        }
+        return productionNonTerminals.get(cell >= 0 ? cell : -cell - 2);
+    }
+
+    /**
+     * Id do terminal de um tipo de token, sem consultar mapas
+     */
+    public int terminalId(TokenType type) {
+        return tokenTerminals[type.ordinal()];
+    }
+
+    public int terminalId(String terminal) {
+        return terminalIndex.getOrDefault(terminal, EMPTY);
+    }
+
+    public int nonTerminalId(String nonTerminal) {
+        return nonTerminalIndex.getOrDefault(nonTerminal, EMPTY);
+    }
+
+    public List<String> production(int id) {
+        return productions.get(id);
+    }
+
+    public int denseCells() {
+        return nonTerminalNames.length * terminalNames.length;
+    }
+
+    public int filledCells() {
+        return filledCells;
+    }
+
+    /**
+     * Tamanho em bytes de base (int), defaults/next/check (short) e defined (long)
+     */
+    public int compressedBytes() {
+        return base.length * Integer.BYTES + (defaults.length + next.length + check.length) * Short.BYTES
+                + defined.length * Long.BYTES;
+    }
+
+    /**
+     * Tamanho em bytes de uma matriz densa int[nonTerminais][terminais]
+     */
+    public int denseBytes() {
+        return denseCells() * Integer.BYTES;
+    }
+
+    /**
+     * Exibe o relatório de tamanho (densa vs comprimida)
+     */
+    public void printReport() {
+        System.out.println("\n=== Tabela LL(1) Comprimida (row displacement) ===");
+        System.out.println("Não-terminais: " + nonTerminalNames.length + ", terminais: " + terminalNames.length);
+        System.out.printf("Células densas: %d, preenchidas: %d (%.1f%%)%n",
+                denseCells(), filledCells, 100.0 * filledCells / Math.max(1, denseCells()));
+        System.out.printf("Tamanho denso: int[][] %d bytes, short[][] %d bytes%n",
+                denseBytes(), denseCells() * Short.BYTES);
+        System.out.printf("Tamanho comprimido (base %d ints + defaults %d shorts + defined %d longs"
+                + " + next/check %d+%d shorts): %d bytes (%.1f%% do int[][], %.1f%% do short[][])%n",
+                base.length, defaults.length, defined.length, next.length, check.length, compressedBytes(),
+                100.0 * compressedBytes() / Math.max(1, denseBytes()),
+                100.0 * compressedBytes() / Math.max(1, denseCells() * Short.BYTES));
+        System.out.println("Produções distintas: " + productions.size());
+    }
+
+    /**
+     * Relatório de tamanho e custo de consulta (densa vs comprimida) da
+     * gramática do Bowler; fica fora do driver para não pesar em toda execução
+     *
+     * Uso: java CompressedParsingTable [rodadas]
+     */
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        LL1GrammarAnalyzer analyzer = Bowler.createBowlerLL1Analyzer();
+        ParseTableCache.defaultCache().analyze(analyzer);
+        CompressedParsingTable table = fromAnalyzer(analyzer);
+        table.printReport();
+
+        // Custo de consulta: mesmas consultas nas duas representações
+        double total = (double) rounds * Math.max(1, table.denseCells());
+        long mapNanos = 0;
+        long arrayNanos = 0;
+        for (int warm = 0; warm < 3; warm++) {
+            mapNanos = table.timeMapLookups(analyzer.getParsingTable(), rounds);
+            arrayNanos = table.timeArrayLookups(rounds);
+        }
+        System.out.printf("Custo de consulta: Map<String, Map<...>> %.2f ns/op, comprimida %.2f ns/op%n",
+                mapNanos / total, arrayNanos / total);
+    }
+
+    private long timeMapLookups(Map<String, Map<String, List<String>>> denseTable, int rounds) {
+        long sink = 0;
+        long t0 = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            for (String nt : nonTerminalNames) {
+                Map<String, List<String>> row = denseTable.get(nt);
+                for (String t : terminalNames) {
+                    List<String> p = row == null ? null : row.get(t);
+                    if (p != null) {
+                        sink += p.size();
+                    }
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - t0;
+        return sink == Long.MIN_VALUE ? 0 : elapsed; // usa sink para evitar eliminação pelo JIT
+    }
+
+    private long timeArrayLookups(int rounds) {
+        long sink = 0;
+        long t0 = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            for (int nt = 0; nt < nonTerminalNames.length; nt++) {
+                for (int t = 0; t < terminalNames.length; t++) {
+                    sink += lookup(nt, t);
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - t0;
+        return sink == Long.MIN_VALUE ? 0 : elapsed;
+    }
+}
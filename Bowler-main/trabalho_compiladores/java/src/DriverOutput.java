@@ -0,0 +1,95 @@
+import java.util.*;
+
+/**
+ * DriverOutput - Saída do driver Bowler, por fase
+ *
+ * O Bowler.main só produz eventos (tokens, veredicto do parser recursivo,
+ * gramática, veredicto LL(1), conciliação no modo --concurrent); o formato
+ * fica a cargo da implementação:
+ * TextDriverOutput - texto para leitura (padrão) ou só os veredictos (quiet)
+ * JsonLinesDriverOutput - um objeto JSON por linha, para ferramentas
+ * BinaryDriverOutput - registros binários compactos em arquivo
+ *
+ * As fases a exibir são escolhidas com --phases; o driver consulta shows()
+ * antes de montar o que for caro (ex.: relatório da tabela comprimida).
+ * Toda a saída passa por um único stream com buffer, descarregado em close().
+ */
+public interface DriverOutput {
+
+    enum Phase {
+        TOKENS, // tabela e cadeia de tokens
+        REGEX, // expressões regulares do Lexer
+        AST, // árvores (simplificada e detalhada)
+        GRAMMAR, // FIRST, FOLLOW, tabela LL(1) e tabela comprimida
+        STATS // estatísticas da predição adaptativa e do trace
+    }
+
+    /**
+     * Interpreta "--phases=tokens,ast,..." ("all" e "none" também valem)
+     */
+    static Set<Phase> parsePhases(String list) {
+        Set<Phase> phases = EnumSet.noneOf(Phase.class);
+        for (String name : list.split(",")) {
+            name = name.trim();
+            if (name.equalsIgnoreCase("all")) {
+                phases.addAll(EnumSet.allOf(Phase.class));
+            } else if (!name.isEmpty() && !name.equalsIgnoreCase("none")) {
+                phases.add(Phase.valueOf(name.toUpperCase()));
+            }
+        }
+        return phases;
+    }
+
+    boolean shows(Phase phase);
+
+    /**
+     * Início: nome do arquivo (null = exemplo embutido)
+     */
+    void begin(String sourcePath);
+
+    void tokens(List<Token> tokens);
+
+    void regex();
+
+    /**
+     * Resultado do parser recursivo: program ou error (o outro é null)
+     */
+    void recursive(AST.Program program, ParseError error);
+
+    /**
+     * Gramática LL(1) analisada (ou restaurada do cache)
+     */
+    void grammar(LL1GrammarAnalyzer analyzer, CompressedParsingTable table, boolean fromCache);
+
+    /**
+     * Imediatamente antes da análise com pilha (o trace em texto vem depois)
+     */
+    void stackStart(List<Token> tokens);
+
+    /**
+     * Estatísticas após a análise com pilha (fase STATS); predictor e
+     * traceNote podem ser null
+     */
+    void stackStats(AdaptivePredictor predictor, String traceNote);
+
+    /**
+     * Resultado da análise com pilha; stackProgram é a AST das ações
+     * semânticas (null se não construída) e sameAst a comparação com a do
+     * parser recursivo (null se não comparável)
+     */
+    void stackResult(boolean accepted, List<ParseError> errors, AST.Program stackProgram, Boolean sameAst);
+
+    /**
+     * Falha na etapa LL(1) (gramática inválida, E/S etc.)
+     */
+    void failure(String message);
+
+    /**
+     * Modo --concurrent, depois dos dois veredictos: agree indica que
+     * aceitação, primeiro erro e AST conferem; message descreve a
+     * conciliação ou a divergência; tempos de cada análise e do total
+     */
+    void reconciliation(boolean agree, String message, long recursiveNanos, long stackNanos, long totalNanos);
+
+    void close();
+}
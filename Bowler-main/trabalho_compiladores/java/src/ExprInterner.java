@@ -0,0 +1,323 @@
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * ExprInterner - hash-consing de expressões da AST
+ *
+ * Programas gerados repetem as mesmas expressões (notas[0] + notas[1],
+ * condições idênticas, literais constantes). Com um ExprInterner ligado
+ * (Parser.hashConsing), cada AST.Expr criada pelo parser passa por intern()
+ * e subárvores estruturalmente iguais viram uma única instância: menos
+ * memória retida e, para passes posteriores, igualdade estrutural em O(1)
+ * (a == b) entre expressões do mesmo interner.
+ *
+ * Como o parser constrói de baixo para cima, os filhos de um nó já estão
+ * internados quando ele chega aqui; basta comparar o próprio nó com os
+ * filhos por identidade. Tokens comparam tipo e lexema, não posição: a
+ * instância compartilhada guarda a linha/coluna da primeira ocorrência.
+ * Os nós AST.* são imutáveis, então o compartilhamento é seguro; quem
+ * precisar da posição exata de cada ocorrência deve deixar o modo desligado.
+ *
+ * Expressões com efeito colateral (AST.Assign, AST.Input) e qualquer
+ * expressão que contenha uma delas nunca são internadas: dois input() ou
+ * dois "x = x + 1" iguais no texto dão valores diferentes, e um passe que
+ * confie em a == b (eliminação de subexpressões comuns, por exemplo) não
+ * pode juntá-los. Para as demais, a == b significa mesmo texto, e portanto
+ * o mesmo valor enquanto as variáveis lidas não mudarem entre as duas.
+ *
+ * Um interner pode ser compartilhado entre vários parses (um lote inteiro
+ * de arquivos divide as mesmas expressões); clear() o esvazia.
+ *
+ * Uso (expressões compartilhadas e memória retida em um lote):
+ * java -cp bin ExprInterner [dir | arquivo.bw ...] [cópias]
+ */
+public final class ExprInterner {
+
+    private final Map<Key, AST.Expr> table = new HashMap<>();
+    // Expressões com efeito colateral (nunca internadas), para marcar os pais
+    private final Set<AST.Expr> impure = Collections.newSetFromMap(new IdentityHashMap<>());
+    private long lookups;
+    private long hits;
+
+    /**
+     * Instância canônica de e (o próprio e se ainda não havia igual, ou se e
+     * tem efeito colateral)
+     */
+    public AST.Expr intern(AST.Expr e) {
+        if (e instanceof AST.Assign || e instanceof AST.Input || hasImpureChild(e)) {
+            impure.add(e);
+            return e;
+        }
+        lookups++;
+        Key key = new Key(e);
+        AST.Expr existing = table.putIfAbsent(key, e);
+        if (existing != null) {
+            hits++;
+            return existing;
+        }
+        return e;
+    }
+
+    /**
+     * Expressões distintas guardadas
+     */
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * Chamadas a intern()
+     */
+    public long getLookups() {
+        return lookups;
+    }
+
+    /**
+     * Chamadas a intern() respondidas com uma instância já existente
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    public void clear() {
+        table.clear();
+        impure.clear();
+        lookups = 0;
+        hits = 0;
+    }
+
+    /**
+     * Algum filho direto tem efeito colateral (os filhos já passaram por
+     * intern, então basta olhar um nível)
+     */
+    private boolean hasImpureChild(AST.Expr e) {
+        if (impure.isEmpty()) {
+            return false;
+        }
+        if (e instanceof AST.Grouping) {
+            return impure.contains(((AST.Grouping) e).expr);
+        } else if (e instanceof AST.Unary) {
+            return impure.contains(((AST.Unary) e).right);
+        } else if (e instanceof AST.Binary) {
+            AST.Binary b = (AST.Binary) e;
+            return impure.contains(b.left) || impure.contains(b.right);
+        } else if (e instanceof AST.Ternary) {
+            AST.Ternary t = (AST.Ternary) e;
+            return impure.contains(t.cond) || impure.contains(t.thenExpr) || impure.contains(t.elseExpr);
+        } else if (e instanceof AST.ArrayAccess) {
+            AST.ArrayAccess a = (AST.ArrayAccess) e;
+            return impure.contains(a.array) || impure.contains(a.index);
+        } else if (e instanceof AST.ArrayLiteral) {
+            for (AST.Expr el : ((AST.ArrayLiteral) e).elements) {
+                if (impure.contains(el)) {
+                    return true;
+                }
+            }
+        } else if (e instanceof AST.InterpolatedString) {
+            for (Object part : ((AST.InterpolatedString) e).parts) {
+                if (part instanceof AST.Expr && impure.contains(part)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Chave rasa: tipo do nó + campos, com filhos comparados por identidade
+     */
+    private static final class Key {
+        final AST.Expr expr;
+        final int hash;
+
+        Key(AST.Expr expr) {
+            this.expr = expr;
+            this.hash = hash(expr);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).hash == hash && same(expr, ((Key) o).expr);
+        }
+    }
+
+    private static int hash(AST.Expr e) {
+        int h = e.getClass().hashCode();
+        if (e instanceof AST.Literal) {
+            Object v = ((AST.Literal) e).value;
+            return h * 31 + (v == null ? 0 : v.getClass().hashCode() * 31 + v.hashCode());
+        } else if (e instanceof AST.Variable) {
+            return h * 31 + hash(((AST.Variable) e).name);
+        } else if (e instanceof AST.Grouping) {
+            return h * 31 + id(((AST.Grouping) e).expr);
+        } else if (e instanceof AST.Unary) {
+            AST.Unary u = (AST.Unary) e;
+            return (h * 31 + hash(u.op)) * 31 + id(u.right);
+        } else if (e instanceof AST.Binary) {
+            AST.Binary b = (AST.Binary) e;
+            return ((h * 31 + id(b.left)) * 31 + hash(b.op)) * 31 + id(b.right);
+        } else if (e instanceof AST.Ternary) {
+            AST.Ternary t = (AST.Ternary) e;
+            return ((h * 31 + id(t.cond)) * 31 + id(t.thenExpr)) * 31 + id(t.elseExpr);
+        } else if (e instanceof AST.ArrayLiteral) {
+            for (AST.Expr el : ((AST.ArrayLiteral) e).elements) {
+                h = h * 31 + id(el);
+            }
+            return h;
+        } else if (e instanceof AST.ArrayAccess) {
+            AST.ArrayAccess a = (AST.ArrayAccess) e;
+            return (h * 31 + id(a.array)) * 31 + id(a.index);
+        } else if (e instanceof AST.InterpolatedString) {
+            for (Object part : ((AST.InterpolatedString) e).parts) {
+                h = h * 31 + (part instanceof AST.Expr ? id((AST.Expr) part) : Objects.hashCode(part));
+            }
+            return h;
+        }
+        return System.identityHashCode(e);
+    }
+
+    private static boolean same(AST.Expr a, AST.Expr b) {
+        if (a == b) {
+            return true;
+        }
+        if (a.getClass() != b.getClass()) {
+            return false;
+        }
+        if (a instanceof AST.Literal) {
+            Object x = ((AST.Literal) a).value, y = ((AST.Literal) b).value;
+            // 1 e 1.0 (ou 'a' e "a") não são o mesmo literal
+            return x == null ? y == null : y != null && x.getClass() == y.getClass() && x.equals(y);
+        } else if (a instanceof AST.Variable) {
+            return same(((AST.Variable) a).name, ((AST.Variable) b).name);
+        } else if (a instanceof AST.Grouping) {
+            return ((AST.Grouping) a).expr == ((AST.Grouping) b).expr;
+        } else if (a instanceof AST.Unary) {
+            AST.Unary x = (AST.Unary) a, y = (AST.Unary) b;
+            return same(x.op, y.op) && x.right == y.right;
+        } else if (a instanceof AST.Binary) {
+            AST.Binary x = (AST.Binary) a, y = (AST.Binary) b;
+            return x.left == y.left && x.right == y.right && same(x.op, y.op);
+        } else if (a instanceof AST.Ternary) {
+            AST.Ternary x = (AST.Ternary) a, y = (AST.Ternary) b;
+            return x.cond == y.cond && x.thenExpr == y.thenExpr && x.elseExpr == y.elseExpr;
+        } else if (a instanceof AST.ArrayLiteral) {
+            return sameParts(((AST.ArrayLiteral) a).elements, ((AST.ArrayLiteral) b).elements);
+        } else if (a instanceof AST.ArrayAccess) {
+            AST.ArrayAccess x = (AST.ArrayAccess) a, y = (AST.ArrayAccess) b;
+            return x.array == y.array && x.index == y.index;
+        } else if (a instanceof AST.InterpolatedString) {
+            return sameParts(((AST.InterpolatedString) a).parts, ((AST.InterpolatedString) b).parts);
+        }
+        return false;
+    }
+
+    // Expressões por identidade, strings por equals
+    private static boolean sameParts(List<?> a, List<?> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            Object x = a.get(i), y = b.get(i);
+            if (x instanceof AST.Expr || y instanceof AST.Expr ? x != y : !Objects.equals(x, y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int id(AST.Expr e) {
+        return System.identityHashCode(e);
+    }
+
+    private static int hash(Token t) {
+        return t == null ? 0 : t.type.hashCode() * 31 + Objects.hashCode(t.lexeme);
+    }
+
+    private static boolean same(Token a, Token b) {
+        return a == b || a != null && b != null && a.type == b.type && Objects.equals(a.lexeme, b.lexeme);
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> inputs = new ArrayList<>();
+        int copies = 2000;
+        for (String arg : args) {
+            if (arg.matches("\\d+")) {
+                copies = Integer.parseInt(arg);
+            } else {
+                inputs.add(arg);
+            }
+        }
+        if (inputs.isEmpty()) {
+            inputs.add("src");
+        }
+        List<List<Token>> programs = new ArrayList<>();
+        for (Path f : BatchValidator.collect(inputs)) {
+            try {
+                programs.add(new Lexer(Files.readString(f)).scanTokens());
+            } catch (RuntimeException e) {
+                // Arquivos com erro léxico ficam de fora
+            }
+        }
+
+        // Conferência: a AST com compartilhamento imprime igual à sem
+        Parser parser = new Parser();
+        ExprInterner interner = new ExprInterner();
+        int same = 0, total = 0;
+        for (List<Token> tokens : programs) {
+            String plain, shared;
+            try {
+                parser.hashConsing(null).reset(tokens);
+                plain = parser.parse().toDetailedString();
+                parser.hashConsing(interner).reset(tokens);
+                shared = parser.parse().toDetailedString();
+            } catch (ParseError e) {
+                continue;
+            }
+            total++;
+            if (plain.equals(shared)) {
+                same++;
+            }
+        }
+        System.out.printf("Conferência: %d/%d programas idênticos com hash-consing%n", same, total);
+        System.out.printf("Lote: %d expressões criadas, %d distintas (%.0f%% compartilhadas)%n",
+                interner.getLookups(), interner.size(), 100.0 * interner.getHits() / Math.max(1, interner.getLookups()));
+
+        // Memória retida: cópias do lote sem e com um interner comum
+        for (int round = 0; round < 2; round++) {
+            ExprInterner common = round == 0 ? null : new ExprInterner();
+            parser.hashConsing(common);
+            long before = usedMemory();
+            List<AST.Program> kept = new ArrayList<>();
+            long t0 = System.nanoTime();
+            for (int c = 0; c < copies; c++) {
+                for (List<Token> tokens : programs) {
+                    parser.reset(tokens);
+                    try {
+                        kept.add(parser.parse());
+                    } catch (ParseError e) {
+                        // já contado na conferência
+                    }
+                }
+            }
+            long elapsed = System.nanoTime() - t0;
+            long bytes = usedMemory() - before;
+            System.out.printf("%s: %d ASTs, %.1f MB retidos, %.2f µs/parse%n",
+                    common == null ? "Sem hash-consing" : "Com hash-consing", kept.size(), bytes / 1e6,
+                    elapsed / 1e3 / Math.max(1, kept.size()));
+            kept.clear();
+        }
+    }
+
+    private static long usedMemory() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
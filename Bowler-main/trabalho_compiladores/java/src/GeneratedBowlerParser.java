@@ -0,0 +1,1227 @@
+import java.util.*;
+
+/**
+ * GeneratedBowlerParser - Parser LL(1) gerado por ParserGenerator. NÃO EDITAR.
+ *
+ * Um método por não-terminal; predição por switch sobre TokenType.
+ * Células em conflito são decididas por AdaptivePredictor.
+ */
+public class GeneratedBowlerParser {
+    private final List<Token> tokens;
+    private final AdaptivePredictor predictor;
+    private int current = 0;
+
+    public GeneratedBowlerParser(List<Token> tokens, AdaptivePredictor predictor) {
+        this.tokens = tokens;
+        this.predictor = predictor;
+    }
+
+    public boolean parse() {
+        parseProgram();
+        if (peekType() != TokenType.EOF) {
+            throw new ParseError("Tokens extras após o fim do programa.");
+        }
+        return true;
+    }
+
+    // Additive → Term AdditiveTail   [!, (, -, CHAR, DOUBLE, FLOAT, IDENTIFIER, INTERPOLATED_STRING, NUMBER, STRING, [, false, input, true]
+    private void parseAdditive() {
+        switch (peekType()) {
+            case BANG:
+            case LEFT_PAREN:
+            case MINUS:
+            case CHAR:
+            case DOUBLE:
+            case FLOAT:
+            case IDENTIFIER:
+            case INTERPOLATED_STRING:
+            case NUMBER:
+            case STRING:
+            case LEFT_BRACKET:
+            case FALSE:
+            case INPUT:
+            case TRUE:
+                parseTerm();
+                parseAdditiveTail();
+                break;
+            default:
+                throw noEntry("Additive");
+        }
+    }
+
+    // AdditiveTail → ε   [!=, %, &&, ), *, ,, /, :, ;, <, <=, ==, >, >=, ?, ], ||, }]
+    // AdditiveTail → + Term AdditiveTail   [+]
+    // AdditiveTail → - Term AdditiveTail   [-]
+    private void parseAdditiveTail() {
+        while (true) {
+            switch (peekType()) {
+                case BANG_EQUAL:
+                case PERCENT:
+                case AND_AND:
+                case RIGHT_PAREN:
+                case STAR:
+                case COMMA:
+                case SLASH:
+                case COLON:
+                case SEMICOLON:
+                case LESS:
+                case LESS_EQUAL:
+                case EQUAL_EQUAL:
+                case GREATER:
+                case GREATER_EQUAL:
+                case QUESTION:
+                case RIGHT_BRACKET:
+                case OR_OR:
+                case RIGHT_BRACE:
+                    return;
+                case PLUS:
+                    expect(TokenType.PLUS, "+");
+                    parseTerm();
+                    continue;
+                case MINUS:
+                    expect(TokenType.MINUS, "-");
+                    parseTerm();
+                    continue;
+                default:
+                    throw noEntry("AdditiveTail");
+            }
+        }
+    }
+
+    // And → Equality AndTail   [!, (, -, CHAR, DOUBLE, FLOAT, IDENTIFIER, INTERPOLATED_STRING, NUMBER, STRING, [, false, input, true]
+    private void parseAnd() {
+        switch (peekType()) {
+            case BANG:
+            case LEFT_PAREN:
+            case MINUS:
+            case CHAR:
+            case DOUBLE:
+            case FLOAT:
+            case IDENTIFIER:
+            case INTERPOLATED_STRING:
+            case NUMBER:
+            case STRING:
+            case LEFT_BRACKET:
+            case FALSE:
+            case INPUT:
+            case TRUE:
+                parseEquality();
+                parseAndTail();
+                break;
+            default:
+                throw noEntry("And");
+        }
+    }
+
+    // AndTail → ε   [!=, %, ), *, +, ,, -, /, :, ;, <, <=, ==, >, >=, ?, ], ||, }]
+    // AndTail → && Equality AndTail   [&&]
+    private void parseAndTail() {
+        while (true) {
+            switch (peekType()) {
+                case BANG_EQUAL:
+                case PERCENT:
+                case RIGHT_PAREN:
+                case STAR:
+                case PLUS:
+                case COMMA:
+                case MINUS:
+                case SLASH:
+                case COLON:
+                case SEMICOLON:
+                case LESS:
+                case LESS_EQUAL:
+                case EQUAL_EQUAL:
+                case GREATER:
+                case GREATER_EQUAL:
+                case QUESTION:
+                case RIGHT_BRACKET:
+                case OR_OR:
+                case RIGHT_BRACE:
+                    return;
+                case AND_AND:
+                    expect(TokenType.AND_AND, "&&");
+                    parseEquality();
+                    continue;
+                default:
+                    throw noEntry("AndTail");
+            }
+        }
+    }
+
+    // ArgList → Expr ArgTail   [!, (, -, CHAR, DOUBLE, FLOAT, IDENTIFIER, INTERPOLATED_STRING, NUMBER, STRING, [, false, input, true]
+    // ArgList → ε   []]
+    private void parseArgList() {
+        switch (peekType()) {
+            case BANG:
+            case LEFT_PAREN:
+            case MINUS:
+            case CHAR:
+            case DOUBLE:
+            case FLOAT:
+            case IDENTIFIER:
+            case INTERPOLATED_STRING:
+            case NUMBER:
+            case STRING:
+            case LEFT_BRACKET:
+            case FALSE:
+            case INPUT:
+            case TRUE:
+                parseExpr();
+                parseArgTail();
+                break;
+            case RIGHT_BRACKET:
+                break;
+            default:
+                throw noEntry("ArgList");
+        }
+    }
+
+    // ArgTail → , Expr ArgTail   [,]
+    // ArgTail → ε   []]
+    private void parseArgTail() {
+        while (true) {
+            switch (peekType()) {
+                case COMMA:
+                    expect(TokenType.COMMA, ",");
+                    parseExpr();
+                    continue;
+                case RIGHT_BRACKET:
+                    return;
+                default:
+                    throw noEntry("ArgTail");
+            }
+        }
+    }
+
+    // AssignOp → %=   [%=]
+    // AssignOp → *=   [*=]
+    // AssignOp → +=   [+=]
+    // AssignOp → -=   [-=]
+    // AssignOp → /=   [/=]
+    // AssignOp → =   [=]
+    private void parseAssignOp() {
+        switch (peekType()) {
+            case PERCENT_EQUAL:
+                expect(TokenType.PERCENT_EQUAL, "%=");
+                break;
+            case STAR_EQUAL:
+                expect(TokenType.STAR_EQUAL, "*=");
+                break;
+            case PLUS_EQUAL:
+                expect(TokenType.PLUS_EQUAL, "+=");
+                break;
+            case MINUS_EQUAL:
+                expect(TokenType.MINUS_EQUAL, "-=");
+                break;
+            case SLASH_EQUAL:
+                expect(TokenType.SLASH_EQUAL, "/=");
+                break;
+            case EQUAL:
+                expect(TokenType.EQUAL, "=");
+                break;
+            default:
+                throw noEntry("AssignOp");
+        }
+    }
+
+    // BaseType → bool   [bool]
+    // BaseType → char   [char]
+    // BaseType → double   [double]
+    // BaseType → float   [float]
+    // BaseType → int   [int]
+    // BaseType → string   [string]
+    private void parseBaseType() {
+        switch (peekType()) {
+            case BOOL:
+                expect(TokenType.BOOL, "bool");
+                break;
+            case CHAR_KW:
+                expect(TokenType.CHAR_KW, "char");
+                break;
+            case DOUBLE_KW:
+                expect(TokenType.DOUBLE_KW, "double");
+                break;
+            case FLOAT_KW:
+                expect(TokenType.FLOAT_KW, "float");
+                break;
+            case INT:
+                expect(TokenType.INT, "int");
+                break;
+            case STRING_KW:
+                expect(TokenType.STRING_KW, "string");
+                break;
+            default:
+                throw noEntry("BaseType");
+        }
+    }
+
+    // Block → { StmtList }   [{]
+    private void parseBlock() {
+        switch (peekType()) {
+            case LEFT_BRACE:
+                expect(TokenType.LEFT_BRACE, "{");
+                parseStmtList();
+                expect(TokenType.RIGHT_BRACE, "}");
+                break;
+            default:
+                throw noEntry("Block");
+        }
+    }
+
+    // CaseList → case Expr : Block CaseList   [case]
+    // CaseList → default : Block CaseList   [default]
+    // CaseList → ε   [}]
+    private void parseCaseList() {
+        while (true) {
+            switch (peekType()) {
+                case CASE:
+                    expect(TokenType.CASE, "case");
+                    parseExpr();
+                    expect(TokenType.COLON, ":");
+                    parseBlock();
+                    continue;
+                case DEFAULT:
+                    expect(TokenType.DEFAULT, "default");
+                    expect(TokenType.COLON, ":");
+                    parseBlock();
+                    continue;
+                case RIGHT_BRACE:
+                    return;
+                default:
+                    throw noEntry("CaseList");
+            }
+        }
+    }
+
+    // ElseOpt → ε   [!, (, -, ;, CHAR, DOUBLE, FLOAT, IDENTIFIER, INTERPOLATED_STRING, NUMBER, STRING, [, break, continue, do, false, for, if, input, print, return, switch, true, var, while, }]
+    // ElseOpt → else Block   [else]
+    private void parseElseOpt() {
+        switch (peekType()) {
+            case BANG:
+            case LEFT_PAREN:
+            case MINUS:
+            case SEMICOLON:
+            case CHAR:
+            case DOUBLE:
+            case FLOAT:
+            case IDENTIFIER:
+            case INTERPOLATED_STRING:
+            case NUMBER:
+            case STRING:
+            case LEFT_BRACKET:
+            case BREAK:
+            case CONTINUE:
+            case DO:
+            case FALSE:
+            case FOR:
+            case IF:
+            case INPUT:
+            case PRINT:
+            case RETURN:
+            case SWITCH:
+            case TRUE:
+            case VAR:
+            case WHILE:
+            case RIGHT_BRACE:
+                break;
+            case ELSE:
+                expect(TokenType.ELSE, "else");
+                parseBlock();
+                break;
+            default:
+                throw noEntry("ElseOpt");
+        }
+    }
+
+    // Equality → Relational EqualityTail   [!, (, -, CHAR, DOUBLE, FLOAT, IDENTIFIER, INTERPOLATED_STRING, NUMBER, STRING, [, false, input, true]
+    private void parseEquality() {
+        switch (peekType()) {
+            case BANG:
+            case LEFT_PAREN:
+            case MINUS:
+            case CHAR:
+            case DOUBLE:
+            case FLOAT:
+            case IDENTIFIER:
+            case INTERPOLATED_STRING:
+            case NUMBER:
+            case STRING:
+            case LEFT_BRACKET:
+            case FALSE:
+            case INPUT:
+            case TRUE:
+                parseRelational();
+                parseEqualityTail();
+                break;
+            default:
+                throw noEntry("Equality");
+        }
+    }
+
+    // EqualityTail → != Relational EqualityTail   [!=]
+    // EqualityTail → ε   [%, &&, ), *, +, ,, -, /, :, ;, <, <=, >, >=, ?, ], ||, }]
+    // EqualityTail → == Relational EqualityTail   [==]
+    private void parseEqualityTail() {
+        while (true) {
+            switch (peekType()) {
+                case BANG_EQUAL:
+                    expect(TokenType.BANG_EQUAL, "!=");
+                    parseRelational();
+                    continue;
+                case PERCENT:
+                case AND_AND:
+                case RIGHT_PAREN:
+                case STAR:
+                case PLUS:
+                case COMMA:
+                case MINUS:
+                case SLASH:
+                case COLON:
+                case SEMICOLON:
+                case LESS:
+                case LESS_EQUAL:
+                case GREATER:
+                case GREATER_EQUAL:
+                case QUESTION:
+                case RIGHT_BRACKET:
+                case OR_OR:
+                case RIGHT_BRACE:
+                    return;
+                case EQUAL_EQUAL:
+                    expect(TokenType.EQUAL_EQUAL, "==");
+                    parseRelational();
+                    continue;
+                default:
+                    throw noEntry("EqualityTail");
+            }
+        }
+    }
+
+    // Expr → Or TernaryTail   [!, (, -, CHAR, DOUBLE, FLOAT, IDENTIFIER, INTERPOLATED_STRING, NUMBER, STRING, [, false, input, true]
+    private void parseExpr() {
+        switch (peekType()) {
+            case BANG:
+            case LEFT_PAREN:
+            case MINUS:
+            case CHAR:
+            case DOUBLE:
+            case FLOAT:
+            case IDENTIFIER:
+            case INTERPOLATED_STRING:
+            case NUMBER:
+            case STRING:
+            case LEFT_BRACKET:
+            case FALSE:
+            case INPUT:
+            case TRUE:
+                parseOr();
+                parseTernaryTail();
+                break;
+            default:
+                throw noEntry("Expr");
+        }
+    }
+
+    // ForCond → Expr   [!, (, -, CHAR, DOUBLE, FLOAT, IDENTIFIER, INTERPOLATED_STRING, NUMBER, STRING, [, false, input, true]
+    // ForCond → ε   [;]
+    private void parseForCond() {
+        switch (peekType()) {
+            case BANG:
+            case LEFT_PAREN:
+            case MINUS:
+            case CHAR:
+            case DOUBLE:
+            case FLOAT:
+            case IDENTIFIER:
+            case INTERPOLATED_STRING:
+            case NUMBER:
+            case STRING:
+            case LEFT_BRACKET:
+            case FALSE:
+            case INPUT:
+            case TRUE:
+                parseExpr();
+                break;
+            case SEMICOLON:
+                break;
+            default:
+                throw noEntry("ForCond");
+        }
+    }
+
+    // ForInit → Statement   [!, (, -, CHAR, DOUBLE, FLOAT, IDENTIFIER, INTERPOLATED_STRING, NUMBER, STRING, [, break, continue, do, false, for, if, input, print, return, switch, true, var, while]
+    // ForInit → ;   [;]
+    private void parseForInit() {
+        switch (peekType()) {
+            case BANG:
+            case LEFT_PAREN:
+            case MINUS:
+            case CHAR:
+            case DOUBLE:
+            case FLOAT:
+            case IDENTIFIER:
+            case INTERPOLATED_STRING:
+            case NUMBER:
+            case STRING:
+            case LEFT_BRACKET:
+            case BREAK:
+            case CONTINUE:
+            case DO:
+            case FALSE:
+            case FOR:
+            case IF:
+            case INPUT:
+            case PRINT:
+            case RETURN:
+            case SWITCH:
+            case TRUE:
+            case VAR:
+            case WHILE:
+                parseStatement();
+                break;
+            case SEMICOLON:
+                expect(TokenType.SEMICOLON, ";");
+                break;
+            default:
+                throw noEntry("ForInit");
+        }
+    }
+
+    // ForStep → Expr   [!, (, -, CHAR, DOUBLE, FLOAT, IDENTIFIER, INTERPOLATED_STRING, NUMBER, STRING, [, false, input, true]
+    // ForStep → ε   [)]
+    private void parseForStep() {
+        switch (peekType()) {
+            case BANG:
+            case LEFT_PAREN:
+            case MINUS:
+            case CHAR:
+            case DOUBLE:
+            case FLOAT:
+            case IDENTIFIER:
+            case INTERPOLATED_STRING:
+            case NUMBER:
+            case STRING:
+            case LEFT_BRACKET:
+            case FALSE:
+            case INPUT:
+            case TRUE:
+                parseExpr();
+                break;
+            case RIGHT_PAREN:
+                break;
+            default:
+                throw noEntry("ForStep");
+        }
+    }
+
+    // Index → ε   [!=, %, &&, ), *, +, ,, -, /, :, ;, <, <=, ==, >, >=, ?, ], ||, }]
+    // Index → [ Expr ] Index   [[]
+    private void parseIndex() {
+        while (true) {
+            switch (peekType()) {
+                case BANG_EQUAL:
+                case PERCENT:
+                case AND_AND:
+                case RIGHT_PAREN:
+                case STAR:
+                case PLUS:
+                case COMMA:
+                case MINUS:
+                case SLASH:
+                case COLON:
+                case SEMICOLON:
+                case LESS:
+                case LESS_EQUAL:
+                case EQUAL_EQUAL:
+                case GREATER:
+                case GREATER_EQUAL:
+                case QUESTION:
+                case RIGHT_BRACKET:
+                case OR_OR:
+                case RIGHT_BRACE:
+                    return;
+                case LEFT_BRACKET:
+                    expect(TokenType.LEFT_BRACKET, "[");
+                    parseExpr();
+                    expect(TokenType.RIGHT_BRACKET, "]");
+                    continue;
+                default:
+                    throw noEntry("Index");
+            }
+        }
+    }
+
+    // InputArg → ε   [)]
+    // InputArg → STRING   [STRING]
+    private void parseInputArg() {
+        switch (peekType()) {
+            case RIGHT_PAREN:
+                break;
+            case STRING:
+                expect(TokenType.STRING, "STRING");
+                break;
+            default:
+                throw noEntry("InputArg");
+        }
+    }
+
+    // InterpPart → INTERPOLATED_STRING   [INTERPOLATED_STRING]
+    // InterpPart → STRING   [STRING]
+    // InterpPart → { Expr }   [{]
+    private void parseInterpPart() {
+        switch (peekType()) {
+            case INTERPOLATED_STRING:
+                expect(TokenType.INTERPOLATED_STRING, "INTERPOLATED_STRING");
+                break;
+            case STRING:
+                expect(TokenType.STRING, "STRING");
+                break;
+            case LEFT_BRACE:
+                expect(TokenType.LEFT_BRACE, "{");
+                parseExpr();
+                expect(TokenType.RIGHT_BRACE, "}");
+                break;
+            default:
+                throw noEntry("InterpPart");
+        }
+    }
+
+    // InterpParts → ε   [!=, %, &&, ), *, +, ,, -, /, :, ;, <, <=, ==, >, >=, ?, ], ||, }]
+    // InterpParts → InterpPart InterpParts   [INTERPOLATED_STRING, STRING, {]
+    private void parseInterpParts() {
+        while (true) {
+            switch (peekType()) {
+                case BANG_EQUAL:
+                case PERCENT:
+                case AND_AND:
+                case RIGHT_PAREN:
+                case STAR:
+                case PLUS:
+                case COMMA:
+                case MINUS:
+                case SLASH:
+                case COLON:
+                case SEMICOLON:
+                case LESS:
+                case LESS_EQUAL:
+                case EQUAL_EQUAL:
+                case GREATER:
+                case GREATER_EQUAL:
+                case QUESTION:
+                case RIGHT_BRACKET:
+                case OR_OR:
+                case RIGHT_BRACE:
+                    return;
+                case INTERPOLATED_STRING:
+                case STRING:
+                case LEFT_BRACE:
+                    parseInterpPart();
+                    continue;
+                default:
+                    throw noEntry("InterpParts");
+            }
+        }
+    }
+
+    // Or → And OrTail   [!, (, -, CHAR, DOUBLE, FLOAT, IDENTIFIER, INTERPOLATED_STRING, NUMBER, STRING, [, false, input, true]
+    private void parseOr() {
+        switch (peekType()) {
+            case BANG:
+            case LEFT_PAREN:
+            case MINUS:
+            case CHAR:
+            case DOUBLE:
+            case FLOAT:
+            case IDENTIFIER:
+            case INTERPOLATED_STRING:
+            case NUMBER:
+            case STRING:
+            case LEFT_BRACKET:
+            case FALSE:
+            case INPUT:
+            case TRUE:
+                parseAnd();
+                parseOrTail();
+                break;
+            default:
+                throw noEntry("Or");
+        }
+    }
+
+    // OrTail → ε   [!=, %, &&, ), *, +, ,, -, /, :, ;, <, <=, ==, >, >=, ?, ], }]
+    // OrTail → || And OrTail   [||]
+    private void parseOrTail() {
+        while (true) {
+            switch (peekType()) {
+                case BANG_EQUAL:
+                case PERCENT:
+                case AND_AND:
+                case RIGHT_PAREN:
+                case STAR:
+                case PLUS:
+                case COMMA:
+                case MINUS:
+                case SLASH:
+                case COLON:
+                case SEMICOLON:
+                case LESS:
+                case LESS_EQUAL:
+                case EQUAL_EQUAL:
+                case GREATER:
+                case GREATER_EQUAL:
+                case QUESTION:
+                case RIGHT_BRACKET:
+                case RIGHT_BRACE:
+                    return;
+                case OR_OR:
+                    expect(TokenType.OR_OR, "||");
+                    parseAnd();
+                    continue;
+                default:
+                    throw noEntry("OrTail");
+            }
+        }
+    }
+
+    // Primary → ( Expr )   [(]
+    // Primary → CHAR   [CHAR]
+    // Primary → DOUBLE   [DOUBLE]
+    // Primary → FLOAT   [FLOAT]
+    // Primary → INTERPOLATED_STRING InterpParts   [INTERPOLATED_STRING]
+    // Primary → NUMBER   [NUMBER]
+    // Primary → STRING   [STRING]
+    // Primary → [ ArgList ]   [[]
+    // Primary → false   [false]
+    // Primary → input ( InputArg )   [input]
+    // Primary → true   [true]
+    // Primary → IDENTIFIER Index   (predição adaptativa)
+    // Primary → IDENTIFIER AssignOp Expr   (predição adaptativa)
+    private void parsePrimary() {
+        switch (peekType()) {
+            case LEFT_PAREN:
+                expect(TokenType.LEFT_PAREN, "(");
+                parseExpr();
+                expect(TokenType.RIGHT_PAREN, ")");
+                break;
+            case CHAR:
+                expect(TokenType.CHAR, "CHAR");
+                break;
+            case DOUBLE:
+                expect(TokenType.DOUBLE, "DOUBLE");
+                break;
+            case FLOAT:
+                expect(TokenType.FLOAT, "FLOAT");
+                break;
+            case INTERPOLATED_STRING:
+                expect(TokenType.INTERPOLATED_STRING, "INTERPOLATED_STRING");
+                parseInterpParts();
+                break;
+            case NUMBER:
+                expect(TokenType.NUMBER, "NUMBER");
+                break;
+            case STRING:
+                expect(TokenType.STRING, "STRING");
+                break;
+            case LEFT_BRACKET:
+                expect(TokenType.LEFT_BRACKET, "[");
+                parseArgList();
+                expect(TokenType.RIGHT_BRACKET, "]");
+                break;
+            case FALSE:
+                expect(TokenType.FALSE, "false");
+                break;
+            case INPUT:
+                expect(TokenType.INPUT, "input");
+                expect(TokenType.LEFT_PAREN, "(");
+                parseInputArg();
+                expect(TokenType.RIGHT_PAREN, ")");
+                break;
+            case TRUE:
+                expect(TokenType.TRUE, "true");
+                break;
+            case IDENTIFIER:
+                {
+                    int alt = predictor.predictAlternative("Primary", LL1StackParser.terminalOf(peekType()), tokens, current);
+                    if (alt == 0) {
+                        expect(TokenType.IDENTIFIER, "IDENTIFIER");
+                        parseIndex();
+                        break;
+                    } else {
+                        expect(TokenType.IDENTIFIER, "IDENTIFIER");
+                        parseAssignOp();
+                        parseExpr();
+                        break;
+                    }
+                }
+            default:
+                throw noEntry("Primary");
+        }
+    }
+
+    // Program → main Block EOF   [main]
+    private void parseProgram() {
+        switch (peekType()) {
+            case MAIN:
+                expect(TokenType.MAIN, "main");
+                parseBlock();
+                expect(TokenType.EOF, "EOF");
+                break;
+            default:
+                throw noEntry("Program");
+        }
+    }
+
+    // Relational → Additive RelationalTail   [!, (, -, CHAR, DOUBLE, FLOAT, IDENTIFIER, INTERPOLATED_STRING, NUMBER, STRING, [, false, input, true]
+    private void parseRelational() {
+        switch (peekType()) {
+            case BANG:
+            case LEFT_PAREN:
+            case MINUS:
+            case CHAR:
+            case DOUBLE:
+            case FLOAT:
+            case IDENTIFIER:
+            case INTERPOLATED_STRING:
+            case NUMBER:
+            case STRING:
+            case LEFT_BRACKET:
+            case FALSE:
+            case INPUT:
+            case TRUE:
+                parseAdditive();
+                parseRelationalTail();
+                break;
+            default:
+                throw noEntry("Relational");
+        }
+    }
+
+    // RelationalTail → ε   [!=, %, &&, ), *, +, ,, -, /, :, ;, ==, ?, ], ||, }]
+    // RelationalTail → < Additive RelationalTail   [<]
+    // RelationalTail → <= Additive RelationalTail   [<=]
+    // RelationalTail → > Additive RelationalTail   [>]
+    // RelationalTail → >= Additive RelationalTail   [>=]
+    private void parseRelationalTail() {
+        while (true) {
+            switch (peekType()) {
+                case BANG_EQUAL:
+                case PERCENT:
+                case AND_AND:
+                case RIGHT_PAREN:
+                case STAR:
+                case PLUS:
+                case COMMA:
+                case MINUS:
+                case SLASH:
+                case COLON:
+                case SEMICOLON:
+                case EQUAL_EQUAL:
+                case QUESTION:
+                case RIGHT_BRACKET:
+                case OR_OR:
+                case RIGHT_BRACE:
+                    return;
+                case LESS:
+                    expect(TokenType.LESS, "<");
+                    parseAdditive();
+                    continue;
+                case LESS_EQUAL:
+                    expect(TokenType.LESS_EQUAL, "<=");
+                    parseAdditive();
+                    continue;
+                case GREATER:
+                    expect(TokenType.GREATER, ">");
+                    parseAdditive();
+                    continue;
+                case GREATER_EQUAL:
+                    expect(TokenType.GREATER_EQUAL, ">=");
+                    parseAdditive();
+                    continue;
+                default:
+                    throw noEntry("RelationalTail");
+            }
+        }
+    }
+
+    // ReturnValue → Expr   [!, (, -, CHAR, DOUBLE, FLOAT, IDENTIFIER, INTERPOLATED_STRING, NUMBER, STRING, [, false, input, true]
+    // ReturnValue → ε   [;]
+    private void parseReturnValue() {
+        switch (peekType()) {
+            case BANG:
+            case LEFT_PAREN:
+            case MINUS:
+            case CHAR:
+            case DOUBLE:
+            case FLOAT:
+            case IDENTIFIER:
+            case INTERPOLATED_STRING:
+            case NUMBER:
+            case STRING:
+            case LEFT_BRACKET:
+            case FALSE:
+            case INPUT:
+            case TRUE:
+                parseExpr();
+                break;
+            case SEMICOLON:
+                break;
+            default:
+                throw noEntry("ReturnValue");
+        }
+    }
+
+    // Statement → Expr ;   [!, (, -, CHAR, DOUBLE, FLOAT, IDENTIFIER, INTERPOLATED_STRING, NUMBER, STRING, [, false, input, true]
+    // Statement → break ;   [break]
+    // Statement → continue ;   [continue]
+    // Statement → do Block while ( Expr ) ;   [do]
+    // Statement → for ( ForInit ForCond ; ForStep ) Block   [for]
+    // Statement → if ( Expr ) Block ElseOpt   [if]
+    // Statement → print ( Expr ) ;   [print]
+    // Statement → return ReturnValue ;   [return]
+    // Statement → switch ( Expr ) { CaseList }   [switch]
+    // Statement → while ( Expr ) Block   [while]
+    // Statement → var IDENTIFIER : Type ;   (predição adaptativa)
+    // Statement → var IDENTIFIER : Type = Expr ;   (predição adaptativa)
+    private void parseStatement() {
+        switch (peekType()) {
+            case BANG:
+            case LEFT_PAREN:
+            case MINUS:
+            case CHAR:
+            case DOUBLE:
+            case FLOAT:
+            case IDENTIFIER:
+            case INTERPOLATED_STRING:
+            case NUMBER:
+            case STRING:
+            case LEFT_BRACKET:
+            case FALSE:
+            case INPUT:
+            case TRUE:
+                parseExpr();
+                expect(TokenType.SEMICOLON, ";");
+                break;
+            case BREAK:
+                expect(TokenType.BREAK, "break");
+                expect(TokenType.SEMICOLON, ";");
+                break;
+            case CONTINUE:
+                expect(TokenType.CONTINUE, "continue");
+                expect(TokenType.SEMICOLON, ";");
+                break;
+            case DO:
+                expect(TokenType.DO, "do");
+                parseBlock();
+                expect(TokenType.WHILE, "while");
+                expect(TokenType.LEFT_PAREN, "(");
+                parseExpr();
+                expect(TokenType.RIGHT_PAREN, ")");
+                expect(TokenType.SEMICOLON, ";");
+                break;
+            case FOR:
+                expect(TokenType.FOR, "for");
+                expect(TokenType.LEFT_PAREN, "(");
+                parseForInit();
+                parseForCond();
+                expect(TokenType.SEMICOLON, ";");
+                parseForStep();
+                expect(TokenType.RIGHT_PAREN, ")");
+                parseBlock();
+                break;
+            case IF:
+                expect(TokenType.IF, "if");
+                expect(TokenType.LEFT_PAREN, "(");
+                parseExpr();
+                expect(TokenType.RIGHT_PAREN, ")");
+                parseBlock();
+                parseElseOpt();
+                break;
+            case PRINT:
+                expect(TokenType.PRINT, "print");
+                expect(TokenType.LEFT_PAREN, "(");
+                parseExpr();
+                expect(TokenType.RIGHT_PAREN, ")");
+                expect(TokenType.SEMICOLON, ";");
+                break;
+            case RETURN:
+                expect(TokenType.RETURN, "return");
+                parseReturnValue();
+                expect(TokenType.SEMICOLON, ";");
+                break;
+            case SWITCH:
+                expect(TokenType.SWITCH, "switch");
+                expect(TokenType.LEFT_PAREN, "(");
+                parseExpr();
+                expect(TokenType.RIGHT_PAREN, ")");
+                expect(TokenType.LEFT_BRACE, "{");
+                parseCaseList();
+                expect(TokenType.RIGHT_BRACE, "}");
+                break;
+            case WHILE:
+                expect(TokenType.WHILE, "while");
+                expect(TokenType.LEFT_PAREN, "(");
+                parseExpr();
+                expect(TokenType.RIGHT_PAREN, ")");
+                parseBlock();
+                break;
+            case VAR:
+                {
+                    int alt = predictor.predictAlternative("Statement", LL1StackParser.terminalOf(peekType()), tokens, current);
+                    if (alt == 0) {
+                        expect(TokenType.VAR, "var");
+                        expect(TokenType.IDENTIFIER, "IDENTIFIER");
+                        expect(TokenType.COLON, ":");
+                        parseType();
+                        expect(TokenType.SEMICOLON, ";");
+                        break;
+                    } else {
+                        expect(TokenType.VAR, "var");
+                        expect(TokenType.IDENTIFIER, "IDENTIFIER");
+                        expect(TokenType.COLON, ":");
+                        parseType();
+                        expect(TokenType.EQUAL, "=");
+                        parseExpr();
+                        expect(TokenType.SEMICOLON, ";");
+                        break;
+                    }
+                }
+            default:
+                throw noEntry("Statement");
+        }
+    }
+
+    // StmtList → Statement StmtList   [!, (, -, CHAR, DOUBLE, FLOAT, IDENTIFIER, INTERPOLATED_STRING, NUMBER, STRING, [, break, continue, do, false, for, if, input, print, return, switch, true, var, while]
+    // StmtList → ε   [}]
+    private void parseStmtList() {
+        while (true) {
+            switch (peekType()) {
+                case BANG:
+                case LEFT_PAREN:
+                case MINUS:
+                case CHAR:
+                case DOUBLE:
+                case FLOAT:
+                case IDENTIFIER:
+                case INTERPOLATED_STRING:
+                case NUMBER:
+                case STRING:
+                case LEFT_BRACKET:
+                case BREAK:
+                case CONTINUE:
+                case DO:
+                case FALSE:
+                case FOR:
+                case IF:
+                case INPUT:
+                case PRINT:
+                case RETURN:
+                case SWITCH:
+                case TRUE:
+                case VAR:
+                case WHILE:
+                    parseStatement();
+                    continue;
+                case RIGHT_BRACE:
+                    return;
+                default:
+                    throw noEntry("StmtList");
+            }
+        }
+    }
+
+    // Term → Unary TermTail   [!, (, -, CHAR, DOUBLE, FLOAT, IDENTIFIER, INTERPOLATED_STRING, NUMBER, STRING, [, false, input, true]
+    private void parseTerm() {
+        switch (peekType()) {
+            case BANG:
+            case LEFT_PAREN:
+            case MINUS:
+            case CHAR:
+            case DOUBLE:
+            case FLOAT:
+            case IDENTIFIER:
+            case INTERPOLATED_STRING:
+            case NUMBER:
+            case STRING:
+            case LEFT_BRACKET:
+            case FALSE:
+            case INPUT:
+            case TRUE:
+                parseUnary();
+                parseTermTail();
+                break;
+            default:
+                throw noEntry("Term");
+        }
+    }
+
+    // TermTail → ε   [!=, &&, ), +, ,, -, :, ;, <, <=, ==, >, >=, ?, ], ||, }]
+    // TermTail → % Unary TermTail   [%]
+    // TermTail → * Unary TermTail   [*]
+    // TermTail → / Unary TermTail   [/]
+    private void parseTermTail() {
+        while (true) {
+            switch (peekType()) {
+                case BANG_EQUAL:
+                case AND_AND:
+                case RIGHT_PAREN:
+                case PLUS:
+                case COMMA:
+                case MINUS:
+                case COLON:
+                case SEMICOLON:
+                case LESS:
+                case LESS_EQUAL:
+                case EQUAL_EQUAL:
+                case GREATER:
+                case GREATER_EQUAL:
+                case QUESTION:
+                case RIGHT_BRACKET:
+                case OR_OR:
+                case RIGHT_BRACE:
+                    return;
+                case PERCENT:
+                    expect(TokenType.PERCENT, "%");
+                    parseUnary();
+                    continue;
+                case STAR:
+                    expect(TokenType.STAR, "*");
+                    parseUnary();
+                    continue;
+                case SLASH:
+                    expect(TokenType.SLASH, "/");
+                    parseUnary();
+                    continue;
+                default:
+                    throw noEntry("TermTail");
+            }
+        }
+    }
+
+    // TernaryTail → ε   [!=, %, &&, ), *, +, ,, -, /, :, ;, <, <=, ==, >, >=, ], ||, }]
+    // TernaryTail → ? Expr : Expr   [?]
+    private void parseTernaryTail() {
+        switch (peekType()) {
+            case BANG_EQUAL:
+            case PERCENT:
+            case AND_AND:
+            case RIGHT_PAREN:
+            case STAR:
+            case PLUS:
+            case COMMA:
+            case MINUS:
+            case SLASH:
+            case COLON:
+            case SEMICOLON:
+            case LESS:
+            case LESS_EQUAL:
+            case EQUAL_EQUAL:
+            case GREATER:
+            case GREATER_EQUAL:
+            case RIGHT_BRACKET:
+            case OR_OR:
+            case RIGHT_BRACE:
+                break;
+            case QUESTION:
+                expect(TokenType.QUESTION, "?");
+                parseExpr();
+                expect(TokenType.COLON, ":");
+                parseExpr();
+                break;
+            default:
+                throw noEntry("TernaryTail");
+        }
+    }
+
+    // Type → BaseType [ ]   (predição adaptativa)
+    // Type → BaseType   (predição adaptativa)
+    private void parseType() {
+        switch (peekType()) {
+            case BOOL:
+            case CHAR_KW:
+            case DOUBLE_KW:
+            case FLOAT_KW:
+            case INT:
+            case STRING_KW:
+                {
+                    int alt = predictor.predictAlternative("Type", LL1StackParser.terminalOf(peekType()), tokens, current);
+                    if (alt == 0) {
+                        parseBaseType();
+                        expect(TokenType.LEFT_BRACKET, "[");
+                        expect(TokenType.RIGHT_BRACKET, "]");
+                        break;
+                    } else {
+                        parseBaseType();
+                        break;
+                    }
+                }
+            default:
+                throw noEntry("Type");
+        }
+    }
+
+    // Unary → ! Unary   [!]
+    // Unary → Primary   [(, CHAR, DOUBLE, FLOAT, IDENTIFIER, INTERPOLATED_STRING, NUMBER, STRING, [, false, input, true]
+    // Unary → - Unary   [-]
+    private void parseUnary() {
+        while (true) {
+            switch (peekType()) {
+                case BANG:
+                    expect(TokenType.BANG, "!");
+                    continue;
+                case LEFT_PAREN:
+                case CHAR:
+                case DOUBLE:
+                case FLOAT:
+                case IDENTIFIER:
+                case INTERPOLATED_STRING:
+                case NUMBER:
+                case STRING:
+                case LEFT_BRACKET:
+                case FALSE:
+                case INPUT:
+                case TRUE:
+                    parsePrimary();
+                    return;
+                case MINUS:
+                    expect(TokenType.MINUS, "-");
+                    continue;
+                default:
+                    throw noEntry("Unary");
+            }
+        }
+    }
+
+    // ------------------ Utilidades ------------------
+    private TokenType peekType() {
+        return current < tokens.size() ? tokens.get(current).type : TokenType.EOF;
+    }
+
+    private void expect(TokenType type, String terminal) {
+        if (peekType() != type) {
+            throw mismatch(terminal);
+        }
+        current++;
+    }
+
+    private void expectAny(String terminal, TokenType... types) {
+        TokenType t = peekType();
+        for (TokenType type : types) {
+            if (t == type) {
+                current++;
+                return;
+            }
+        }
+        throw mismatch(terminal);
+    }
+
+    private ParseError mismatch(String terminal) {
+        return new ParseError("Erro de casamento: esperado '" + terminal + "', encontrado '"
+                + LL1StackParser.terminalOf(peekType()) + "'");
+    }
+
+    private ParseError noEntry(String nonTerminal) {
+        int line = current < tokens.size() ? tokens.get(current).line : -1;
+        return new ParseError("Erro LL(1): M[" + nonTerminal + ", " + LL1StackParser.terminalOf(peekType())
+                + "] não definida na tabela (linha " + line + ")");
+    }
+}
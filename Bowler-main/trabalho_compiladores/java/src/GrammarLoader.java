@@ -0,0 +1,185 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * GrammarLoader - Lê gramáticas LL(1) em um formato tipo BNF
+ *
+ * Formato:
+ * # comentário até o fim da linha
+ * %start Program (opcional; padrão = primeiro lado esquerdo)
+ * %terminals main var ... (opcional; padrão = símbolos sem produção)
+ * Program -> main Block EOF
+ * StmtList -> Statement StmtList
+ * | ε
+ *
+ * Símbolos são separados por espaços; "ε" (ou "eps") denota a cadeia vazia.
+ * Linhas iniciadas por "|" continuam as alternativas do último não-terminal.
+ */
+public class GrammarLoader {
+
+    /**
+     * Carrega a gramática de um arquivo
+     */
+    public static LL1GrammarAnalyzer load(Path path) throws IOException {
+        return parse(Files.readString(path, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Interpreta o texto de uma gramática
+     */
+    public static LL1GrammarAnalyzer parse(String text) {
+        Map<String, List<List<String>>> productions = new LinkedHashMap<>();
+        Set<String> declaredTerminals = null;
+        String startSymbol = null;
+        String currentLhs = null;
+
+        String[] lines = text.split("\r?\n");
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
+            int hash = line.indexOf('#');
+            if (hash >= 0) {
+                line = line.substring(0, hash);
+            }
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            List<String> syms = symbols(line);
+            if (line.startsWith("%start")) {
+                startSymbol = line.substring("%start".length()).trim();
+            } else if (line.startsWith("%terminals")) {
+                if (declaredTerminals == null) {
+                    declaredTerminals = new LinkedHashSet<>();
+                }
+                declaredTerminals.addAll(symbols(line.substring("%terminals".length())));
+            } else if (syms.get(0).equals("|")) {
+                if (currentLhs == null) {
+                    throw error(i, "alternativa '|' sem não-terminal anterior");
+                }
+                addAlternatives(productions.get(currentLhs), syms.subList(1, syms.size()));
+            } else {
+                int arrow = line.indexOf("->");
+                if (arrow < 0) {
+                    arrow = line.indexOf("→");
+                }
+                if (arrow < 0) {
+                    throw error(i, "esperado 'A -> ...'");
+                }
+                currentLhs = line.substring(0, arrow).trim();
+                if (currentLhs.isEmpty() || currentLhs.contains(" ")) {
+                    throw error(i, "lado esquerdo inválido: '" + currentLhs + "'");
+                }
+                int rhsStart = arrow + (line.startsWith("->", arrow) ? 2 : 1);
+                // Permite "A -> x | y" na mesma linha
+                addAlternatives(productions.computeIfAbsent(currentLhs, k -> new ArrayList<>()),
+                        symbols(line.substring(rhsStart)));
+            }
+        }
+
+        if (productions.isEmpty()) {
+            throw new IllegalArgumentException("Gramática vazia.");
+        }
+        if (startSymbol == null) {
+            startSymbol = productions.keySet().iterator().next();
+        }
+
+        Set<String> terminals = new HashSet<>();
+        if (declaredTerminals != null) {
+            terminals.addAll(declaredTerminals);
+        } else {
+            for (List<List<String>> alts : productions.values()) {
+                for (List<String> alt : alts) {
+                    for (String sym : alt) {
+                        if (!sym.equals("ε") && !productions.containsKey(sym)) {
+                            terminals.add(sym);
+                        }
+                    }
+                }
+            }
+        }
+
+        return new LL1GrammarAnalyzer(new HashMap<>(productions), terminals, startSymbol);
+    }
+
+    /**
+     * Escreve a gramática de um analisador no formato canônico deste loader
+     * (não-terminais ordenados, alternativas na ordem original). O texto
+     * canônico também é usado como chave do cache de tabelas.
+     */
+    public static String toText(LL1GrammarAnalyzer analyzer) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("%start ").append(analyzer.getStartSymbol()).append('\n');
+        sb.append("%terminals");
+        for (String t : new TreeSet<>(analyzer.getTerminals())) {
+            sb.append(' ').append(t);
+        }
+        sb.append("\n\n");
+
+        Map<String, List<List<String>>> productions = analyzer.getProductions();
+        for (String nt : new TreeSet<>(productions.keySet())) {
+            List<List<String>> alts = productions.get(nt);
+            for (int i = 0; i < alts.size(); i++) {
+                sb.append(i == 0 ? nt + " ->" : " ".repeat(nt.length()) + "  |");
+                for (String sym : alts.get(i)) {
+                    sb.append(' ').append(sym);
+                }
+                sb.append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Separa as alternativas pelo símbolo isolado "|" (o terminal "||" não é
+     * afetado) e adiciona cada uma à lista de produções
+     */
+    private static void addAlternatives(List<List<String>> target, List<String> syms) {
+        List<String> current = new ArrayList<>();
+        for (String sym : syms) {
+            if (sym.equals("|")) {
+                target.add(alternative(current));
+                current = new ArrayList<>();
+            } else {
+                current.add(sym);
+            }
+        }
+        target.add(alternative(current));
+    }
+
+    private static List<String> alternative(List<String> syms) {
+        if (syms.isEmpty() || (syms.size() == 1 && (syms.get(0).equals("eps") || syms.get(0).equals("ε")))) {
+            return Arrays.asList("ε");
+        }
+        return syms;
+    }
+
+    private static List<String> symbols(String text) {
+        List<String> result = new ArrayList<>();
+        for (String s : text.trim().split("\\s+")) {
+            if (!s.isEmpty()) {
+                result.add(s);
+            }
+        }
+        return result;
+    }
+
+    private static IllegalArgumentException error(int lineIndex, String message) {
+        return new IllegalArgumentException("[Gramática, linha " + (lineIndex + 1) + "] " + message);
+    }
+
+    /**
+     * Exporta a gramática Bowler embutida para um arquivo no formato do loader:
+     * java GrammarLoader saida.ll1
+     */
+    public static void main(String[] args) throws IOException {
+        String text = toText(Bowler.createBowlerLL1Analyzer());
+        if (args.length == 0) {
+            System.out.print(text);
+        } else {
+            Files.writeString(Path.of(args[0]), text, StandardCharsets.UTF_8);
+        }
+    }
+}
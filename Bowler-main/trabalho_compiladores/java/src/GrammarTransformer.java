@@ -0,0 +1,335 @@
+import java.util.*;
+
+/**
+ * GrammarTransformer - Transformações automáticas para obter gramáticas LL(1)
+ *
+ * 1. Eliminação de recursão à esquerda (direta e indireta):
+ * A → A α | β ⇒ A → β AP ; AP → α AP | ε
+ * A recursão indireta é tratada pelo algoritmo de Paull, aplicado somente
+ * dentro das componentes fortemente conexas do grafo "canto esquerdo"
+ * (A → B se alguma alternativa de A começa por B), evitando substituições
+ * desnecessárias no resto da gramática.
+ *
+ * 2. Fatoração à esquerda:
+ * A → x y z | x y w ⇒ A → x y AP ; AP → z | w
+ * As alternativas de cada não-terminal são inseridas em uma árvore de
+ * prefixos (trie); cada nó com mais de um ramo vira um novo não-terminal.
+ * O custo é linear no número total de símbolos.
+ *
+ * Limitação: recursão à esquerda "escondida" atrás de não-terminais anuláveis
+ * (A → B A x com B ⇒* ε) não é detectada.
+ */
+public class GrammarTransformer {
+
+    private final Map<String, List<List<String>>> productions;
+    private final Set<String> names;
+
+    private GrammarTransformer(Map<String, List<List<String>>> productions) {
+        // Cópia profunda: a gramática de entrada não é alterada
+        this.productions = new LinkedHashMap<>();
+        for (Map.Entry<String, List<List<String>>> e : productions.entrySet()) {
+            List<List<String>> alts = new ArrayList<>();
+            for (List<String> alt : e.getValue()) {
+                alts.add(new ArrayList<>(alt));
+            }
+            this.productions.put(e.getKey(), alts);
+        }
+        this.names = new HashSet<>(productions.keySet());
+    }
+
+    /**
+     * Remove recursão à esquerda e fatora prefixos comuns, devolvendo um novo
+     * analisador (ainda não analisado) para a gramática transformada
+     */
+    public static LL1GrammarAnalyzer transform(LL1GrammarAnalyzer analyzer) {
+        Map<String, List<List<String>>> result = leftFactor(eliminateLeftRecursion(analyzer.getProductions()));
+        result = removeUnreachable(result, analyzer.getStartSymbol());
+        return new LL1GrammarAnalyzer(new HashMap<>(result), analyzer.getTerminals(), analyzer.getStartSymbol());
+    }
+
+    /**
+     * Remove não-terminais inalcançáveis a partir do símbolo inicial (a
+     * substituição de Paull pode deixar regras intermediárias sem uso)
+     */
+    public static Map<String, List<List<String>>> removeUnreachable(Map<String, List<List<String>>> productions,
+            String startSymbol) {
+        Set<String> reachable = new HashSet<>();
+        Deque<String> work = new ArrayDeque<>();
+        reachable.add(startSymbol);
+        work.push(startSymbol);
+        while (!work.isEmpty()) {
+            for (List<String> alt : productions.getOrDefault(work.pop(), Collections.emptyList())) {
+                for (String sym : alt) {
+                    if (productions.containsKey(sym) && reachable.add(sym)) {
+                        work.push(sym);
+                    }
+                }
+            }
+        }
+        Map<String, List<List<String>>> result = new LinkedHashMap<>(productions);
+        result.keySet().retainAll(reachable);
+        return result;
+    }
+
+    public static Map<String, List<List<String>>> eliminateLeftRecursion(Map<String, List<List<String>>> productions) {
+        GrammarTransformer t = new GrammarTransformer(productions);
+        t.removeLeftRecursion();
+        return t.productions;
+    }
+
+    public static Map<String, List<List<String>>> leftFactor(Map<String, List<List<String>>> productions) {
+        GrammarTransformer t = new GrammarTransformer(productions);
+        t.factor();
+        return t.productions;
+    }
+
+    // ------------------ Recursão à esquerda ------------------
+
+    private void removeLeftRecursion() {
+        for (List<String> component : leftCornerComponents()) {
+            // Paull: para i > j, substitui Ai → Aj γ pelas alternativas de Aj
+            for (int i = 0; i < component.size(); i++) {
+                String ai = component.get(i);
+                for (int j = 0; j < i; j++) {
+                    substituteLeftCorner(ai, component.get(j));
+                }
+                removeImmediateLeftRecursion(ai);
+            }
+        }
+    }
+
+    /**
+     * Componentes fortemente conexas (Tarjan) do grafo de canto esquerdo que
+     * contêm algum ciclo; apenas nelas pode haver recursão à esquerda
+     */
+    private List<List<String>> leftCornerComponents() {
+        Map<String, Integer> index = new HashMap<>();
+        Map<String, Integer> low = new HashMap<>();
+        Deque<String> stack = new ArrayDeque<>();
+        Set<String> onStack = new HashSet<>();
+        List<List<String>> result = new ArrayList<>();
+        int[] counter = { 0 };
+
+        for (String nt : new ArrayList<>(productions.keySet())) {
+            if (!index.containsKey(nt)) {
+                strongConnect(nt, index, low, stack, onStack, result, counter);
+            }
+        }
+        return result;
+    }
+
+    private void strongConnect(String v, Map<String, Integer> index, Map<String, Integer> low,
+            Deque<String> stack, Set<String> onStack, List<List<String>> result, int[] counter) {
+        index.put(v, counter[0]);
+        low.put(v, counter[0]);
+        counter[0]++;
+        stack.push(v);
+        onStack.add(v);
+
+        boolean selfLoop = false;
+        for (String w : leftCorners(v)) {
+            if (w.equals(v)) {
+                selfLoop = true;
+            }
+            if (!index.containsKey(w)) {
+                strongConnect(w, index, low, stack, onStack, result, counter);
+                low.put(v, Math.min(low.get(v), low.get(w)));
+            } else if (onStack.contains(w)) {
+                low.put(v, Math.min(low.get(v), index.get(w)));
+            }
+        }
+
+        if (low.get(v).equals(index.get(v))) {
+            List<String> component = new ArrayList<>();
+            String w;
+            do {
+                w = stack.pop();
+                onStack.remove(w);
+                component.add(w);
+            } while (!w.equals(v));
+            if (component.size() > 1 || selfLoop) {
+                Collections.reverse(component);
+                result.add(component);
+            }
+        }
+    }
+
+    private Set<String> leftCorners(String nt) {
+        Set<String> corners = new LinkedHashSet<>();
+        for (List<String> alt : productions.get(nt)) {
+            if (!alt.isEmpty() && productions.containsKey(alt.get(0))) {
+                corners.add(alt.get(0));
+            }
+        }
+        return corners;
+    }
+
+    private void substituteLeftCorner(String ai, String aj) {
+        List<List<String>> result = new ArrayList<>();
+        for (List<String> alt : productions.get(ai)) {
+            if (!alt.isEmpty() && alt.get(0).equals(aj)) {
+                List<String> gamma = alt.subList(1, alt.size());
+                for (List<String> delta : productions.get(aj)) {
+                    List<String> combined = new ArrayList<>();
+                    if (!isEpsilon(delta)) {
+                        combined.addAll(delta);
+                    }
+                    combined.addAll(gamma);
+                    result.add(combined.isEmpty() ? epsilon() : combined);
+                }
+            } else {
+                result.add(alt);
+            }
+        }
+        productions.put(ai, result);
+    }
+
+    private void removeImmediateLeftRecursion(String a) {
+        List<List<String>> recursive = new ArrayList<>(); // α em A → A α
+        List<List<String>> others = new ArrayList<>(); // β em A → β
+        for (List<String> alt : productions.get(a)) {
+            if (!alt.isEmpty() && alt.get(0).equals(a)) {
+                if (alt.size() > 1) {
+                    recursive.add(new ArrayList<>(alt.subList(1, alt.size())));
+                }
+                // A → A (ciclo trivial) é simplesmente descartado
+            } else {
+                others.add(alt);
+            }
+        }
+        if (recursive.isEmpty()) {
+            return;
+        }
+
+        String tail = fresh(a);
+        List<List<String>> newA = new ArrayList<>();
+        for (List<String> beta : others) {
+            List<String> alt = new ArrayList<>();
+            if (!isEpsilon(beta)) {
+                alt.addAll(beta);
+            }
+            alt.add(tail);
+            newA.add(alt);
+        }
+        List<List<String>> newTail = new ArrayList<>();
+        for (List<String> alpha : recursive) {
+            alpha.add(tail);
+            newTail.add(alpha);
+        }
+        newTail.add(epsilon());
+
+        productions.put(a, newA);
+        productions.put(tail, newTail);
+    }
+
+    // ------------------ Fatoração à esquerda ------------------
+
+    /**
+     * Nó da árvore de prefixos das alternativas de um não-terminal
+     */
+    private static class TrieNode {
+        final Map<String, TrieNode> children = new LinkedHashMap<>();
+        boolean end; // alguma alternativa termina aqui
+    }
+
+    private void factor() {
+        Deque<String> work = new ArrayDeque<>(productions.keySet());
+        while (!work.isEmpty()) {
+            String nt = work.poll();
+            TrieNode root = new TrieNode();
+            for (List<String> alt : productions.get(nt)) {
+                TrieNode node = root;
+                if (!isEpsilon(alt)) {
+                    for (String sym : alt) {
+                        node = node.children.computeIfAbsent(sym, k -> new TrieNode());
+                    }
+                }
+                node.end = true;
+            }
+            productions.put(nt, emit(root, nt));
+        }
+    }
+
+    /**
+     * Converte um nó da trie nas alternativas de lhs; cada ponto de
+     * ramificação abaixo da raiz gera um novo não-terminal
+     */
+    private List<List<String>> emit(TrieNode node, String lhs) {
+        List<List<String>> alts = new ArrayList<>();
+        if (node.end) {
+            alts.add(epsilon());
+        }
+        for (Map.Entry<String, TrieNode> edge : node.children.entrySet()) {
+            List<String> prefix = new ArrayList<>();
+            prefix.add(edge.getKey());
+            TrieNode cur = edge.getValue();
+            // Segue a cadeia sem ramificações
+            while (!cur.end && cur.children.size() == 1) {
+                Map.Entry<String, TrieNode> only = cur.children.entrySet().iterator().next();
+                prefix.add(only.getKey());
+                cur = only.getValue();
+            }
+            if (cur.children.isEmpty()) {
+                alts.add(prefix);
+            } else {
+                String rest = fresh(lhs);
+                prefix.add(rest);
+                alts.add(prefix);
+                productions.put(rest, emit(cur, rest));
+            }
+        }
+        return alts;
+    }
+
+    // ------------------ Utilidades ------------------
+
+    /**
+     * Novo nome de não-terminal no estilo da gramática Bowler (ExprP, TermP)
+     */
+    private String fresh(String base) {
+        String name = base + "P";
+        int n = 2;
+        while (names.contains(name)) {
+            name = base + "P" + n++;
+        }
+        names.add(name);
+        return name;
+    }
+
+    private static boolean isEpsilon(List<String> alt) {
+        return alt.isEmpty() || (alt.size() == 1 && alt.get(0).equals("ε"));
+    }
+
+    private static List<String> epsilon() {
+        return new ArrayList<>(Arrays.asList("ε"));
+    }
+
+    public static void main(String[] args) {
+        // Gramática "natural" com recursão à esquerda (direta e indireta) e prefixos comuns
+        String text = String.join("\n",
+                "%start Prog",
+                "Prog -> Stmt S",
+                "S -> A a | b",
+                "A -> A c | S d | e",
+                "E -> E + T | E - T | T",
+                "T -> T * F | T / F | F",
+                "F -> ( E ) | id | id [ E ] | id ( E )",
+                "Stmt -> if ( E ) Stmt | if ( E ) Stmt else Stmt | id = E ; | print E ;");
+        LL1GrammarAnalyzer original = GrammarLoader.parse(text);
+        LL1GrammarAnalyzer transformed = transform(original);
+
+        System.out.println("=== Gramática original ===");
+        System.out.print(GrammarLoader.toText(original));
+        System.out.println("\n=== Gramática transformada ===");
+        System.out.print(GrammarLoader.toText(transformed));
+
+        transformed.calculateFirst();
+        transformed.calculateFollow();
+        transformed.buildParsingTable();
+        // Esperado: apenas o "else pendente" de Stmt, resolvido a favor de else
+        System.out.println("\nConflitos na tabela: " + transformed.getConflicts().size());
+        for (String c : transformed.getConflicts()) {
+            System.out.println("  " + c);
+        }
+    }
+}
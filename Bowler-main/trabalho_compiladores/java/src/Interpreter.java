@@ -0,0 +1,659 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Interpreter - interpretador de programas Bowler sobre a AST
+ *
+ * Antes de executar, uma passada de resolução (prepare) percorre o
+ * AST.Program com um SlotResolver e monta uma árvore de execução: cada
+ * AST.Variable, AST.VarDecl e AST.Assign vira um nó com o índice do seu
+ * slot no frame, então a execução lê e grava variáveis por índice de
+ * vetor, sem procurar nomes. Literais string já saem com os escapes
+ * resolvidos e tipos declarados já ficam ligados a cada atribuição.
+ *
+ * A árvore é separada da AST porque a mesma AST.Variable pode aparecer em
+ * escopos diferentes (hash-consing, ExprInterner): o slot é da ocorrência,
+ * não do objeto. Um Prepared não guarda estado de execução e pode rodar
+ * várias vezes (cada run() cria um frame novo).
+ *
+ * Semântica dos valores (aritmética, '+' com strings, conversões para o
+ * tipo declarado) em Values. Controle de fluxo: break sai do laço ou do
+ * switch mais interno, continue vai para a próxima iteração do laço, e
+ * return encerra o programa devolvendo o valor. Cada case de um switch tem
+ * seu próprio bloco e não há fall-through. input() imprime o prompt e lê
+ * uma linha da entrada (string vazia no fim da entrada).
+ *
+ * Uso: java -cp bin Interpreter arquivo.bw
+ */
+public final class Interpreter {
+
+    // Como terminou um statement
+    static final int NORMAL = 0, BREAK = 1, CONTINUE = 2, RETURN = 3;
+
+    private final PrintStream out;
+    private final BufferedReader in;
+
+    public Interpreter() {
+        this(System.out, new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)));
+    }
+
+    public Interpreter(PrintStream out, BufferedReader in) {
+        this.out = out;
+        this.in = in;
+    }
+
+    /**
+     * Programa resolvido, pronto para executar
+     */
+    public static final class Prepared {
+        final Stmt body;
+        final int frameSize;
+
+        Prepared(Stmt body, int frameSize) {
+            this.body = body;
+            this.frameSize = frameSize;
+        }
+
+        public int frameSize() {
+            return frameSize;
+        }
+    }
+
+    /**
+     * Resolve variáveis para slots e monta a árvore de execução
+     * (SemanticError para variáveis não declaradas ou redeclaradas)
+     */
+    public static Prepared prepare(AST.Program program) {
+        Resolver r = new Resolver();
+        Stmt body = r.block(program.mainBlock);
+        return new Prepared(body, r.slots.frameSize());
+    }
+
+    /**
+     * Executa o programa; devolve o valor do return (null se não houve)
+     */
+    public Object run(AST.Program program) {
+        return run(prepare(program));
+    }
+
+    public Object run(Prepared program) {
+        Frame frame = new Frame(program.frameSize, out, in);
+        program.body.exec(frame);
+        out.flush();
+        return frame.returned;
+    }
+
+    // ------------------ Frame ------------------
+
+    static final class Frame {
+        final Object[] slots;
+        final PrintStream out;
+        final BufferedReader in;
+        Object returned;
+
+        Frame(int size, PrintStream out, BufferedReader in) {
+            this.slots = new Object[size];
+            this.out = out;
+            this.in = in;
+        }
+    }
+
+    // ------------------ Árvore de execução ------------------
+
+    abstract static class Node {
+        abstract Object eval(Frame f);
+    }
+
+    abstract static class Stmt {
+        abstract int exec(Frame f);
+    }
+
+    static final class Constant extends Node {
+        final Object value;
+
+        Constant(Object value) {
+            this.value = value;
+        }
+
+        Object eval(Frame f) {
+            return value;
+        }
+    }
+
+    static final class Load extends Node {
+        final int slot;
+
+        Load(int slot) {
+            this.slot = slot;
+        }
+
+        Object eval(Frame f) {
+            return f.slots[slot];
+        }
+    }
+
+    static final class Store extends Node {
+        final int slot;
+        final String type;
+        final Node value;
+        final Token where;
+
+        Store(int slot, String type, Node value, Token where) {
+            this.slot = slot;
+            this.type = type;
+            this.value = value;
+            this.where = where;
+        }
+
+        Object eval(Frame f) {
+            Object v = Values.coerce(where, value.eval(f), type);
+            f.slots[slot] = v;
+            return v;
+        }
+    }
+
+    static final class Binary extends Node {
+        final Node left, right;
+        final Token op;
+
+        Binary(Node left, Token op, Node right) {
+            this.left = left;
+            this.op = op;
+            this.right = right;
+        }
+
+        Object eval(Frame f) {
+            return Values.binary(op, left.eval(f), right.eval(f));
+        }
+    }
+
+    static final class And extends Node {
+        final Node left, right;
+        final Token op;
+
+        And(Node left, Token op, Node right) {
+            this.left = left;
+            this.op = op;
+            this.right = right;
+        }
+
+        Object eval(Frame f) {
+            return Values.condition(op, left.eval(f)) && Values.condition(op, right.eval(f));
+        }
+    }
+
+    static final class Or extends Node {
+        final Node left, right;
+        final Token op;
+
+        Or(Node left, Token op, Node right) {
+            this.left = left;
+            this.op = op;
+            this.right = right;
+        }
+
+        Object eval(Frame f) {
+            return Values.condition(op, left.eval(f)) || Values.condition(op, right.eval(f));
+        }
+    }
+
+    static final class Not extends Node {
+        final Node operand;
+        final Token op;
+
+        Not(Token op, Node operand) {
+            this.op = op;
+            this.operand = operand;
+        }
+
+        Object eval(Frame f) {
+            return !Values.condition(op, operand.eval(f));
+        }
+    }
+
+    static final class Negate extends Node {
+        final Node operand;
+        final Token op;
+
+        Negate(Token op, Node operand) {
+            this.op = op;
+            this.operand = operand;
+        }
+
+        Object eval(Frame f) {
+            return Values.negate(op, operand.eval(f));
+        }
+    }
+
+    static final class Conditional extends Node {
+        final Node cond, thenNode, elseNode;
+        final Token where;
+
+        Conditional(Node cond, Node thenNode, Node elseNode, Token where) {
+            this.cond = cond;
+            this.thenNode = thenNode;
+            this.elseNode = elseNode;
+            this.where = where;
+        }
+
+        Object eval(Frame f) {
+            return Values.condition(where, cond.eval(f)) ? thenNode.eval(f) : elseNode.eval(f);
+        }
+    }
+
+    static final class Input extends Node {
+        final String prompt;
+
+        Input(String prompt) {
+            this.prompt = prompt;
+        }
+
+        Object eval(Frame f) {
+            f.out.print(prompt);
+            f.out.flush();
+            try {
+                String line = f.in.readLine();
+                return line == null ? "" : line;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    static final class NewArray extends Node {
+        final Node[] elements;
+
+        NewArray(Node[] elements) {
+            this.elements = elements;
+        }
+
+        Object eval(Frame f) {
+            Object[] array = new Object[elements.length];
+            for (int i = 0; i < elements.length; i++) {
+                array[i] = elements[i].eval(f);
+            }
+            return array;
+        }
+    }
+
+    static final class Index extends Node {
+        final Node array, index;
+        final Token where;
+
+        Index(Node array, Node index, Token where) {
+            this.array = array;
+            this.index = index;
+            this.where = where;
+        }
+
+        Object eval(Frame f) {
+            return Values.index(where, array.eval(f), index.eval(f));
+        }
+    }
+
+    static final class Concat extends Node {
+        final Node[] parts;
+
+        Concat(Node[] parts) {
+            this.parts = parts;
+        }
+
+        Object eval(Frame f) {
+            StringBuilder sb = new StringBuilder();
+            for (Node part : parts) {
+                sb.append(Values.toText(part.eval(f)));
+            }
+            return sb.toString();
+        }
+    }
+
+    static final class Sequence extends Stmt {
+        final Stmt[] body;
+
+        Sequence(Stmt[] body) {
+            this.body = body;
+        }
+
+        int exec(Frame f) {
+            for (Stmt s : body) {
+                int result = s.exec(f);
+                if (result != NORMAL) {
+                    return result;
+                }
+            }
+            return NORMAL;
+        }
+    }
+
+    static final class Evaluate extends Stmt {
+        final Node expr;
+
+        Evaluate(Node expr) {
+            this.expr = expr;
+        }
+
+        int exec(Frame f) {
+            expr.eval(f);
+            return NORMAL;
+        }
+    }
+
+    static final class Print extends Stmt {
+        final Node value;
+
+        Print(Node value) {
+            this.value = value;
+        }
+
+        int exec(Frame f) {
+            f.out.println(Values.toText(value.eval(f)));
+            return NORMAL;
+        }
+    }
+
+    static final class IfStmt extends Stmt {
+        final Node cond;
+        final Stmt thenB, elseB; // elseB pode ser null
+        final Token where;
+
+        IfStmt(Node cond, Stmt thenB, Stmt elseB, Token where) {
+            this.cond = cond;
+            this.thenB = thenB;
+            this.elseB = elseB;
+            this.where = where;
+        }
+
+        int exec(Frame f) {
+            if (Values.condition(where, cond.eval(f))) {
+                return thenB.exec(f);
+            }
+            return elseB == null ? NORMAL : elseB.exec(f);
+        }
+    }
+
+    // while, do-while e for: init (pode ser null), cond (null = true), inc (pode ser null)
+    static final class Loop extends Stmt {
+        final Stmt init;
+        final Node cond;
+        final Node inc;
+        final Stmt body;
+        final boolean testFirst;
+        final Token where;
+
+        Loop(Stmt init, Node cond, Node inc, Stmt body, boolean testFirst, Token where) {
+            this.init = init;
+            this.cond = cond;
+            this.inc = inc;
+            this.body = body;
+            this.testFirst = testFirst;
+            this.where = where;
+        }
+
+        int exec(Frame f) {
+            if (init != null) {
+                int result = init.exec(f);
+                if (result != NORMAL) {
+                    return result;
+                }
+            }
+            if (testFirst && !test(f)) {
+                return NORMAL;
+            }
+            while (true) {
+                int result = body.exec(f);
+                if (result == BREAK) {
+                    return NORMAL;
+                }
+                if (result == RETURN) {
+                    return RETURN;
+                }
+                if (inc != null) {
+                    inc.eval(f);
+                }
+                if (!test(f)) {
+                    return NORMAL;
+                }
+            }
+        }
+
+        private boolean test(Frame f) {
+            return cond == null || Values.condition(where, cond.eval(f));
+        }
+    }
+
+    static final class SwitchStmt extends Stmt {
+        final Node value;
+        final Node[] caseValues;
+        final Stmt[] caseBodies;
+        final Stmt defaultBody; // pode ser null
+
+        SwitchStmt(Node value, Node[] caseValues, Stmt[] caseBodies, Stmt defaultBody) {
+            this.value = value;
+            this.caseValues = caseValues;
+            this.caseBodies = caseBodies;
+            this.defaultBody = defaultBody;
+        }
+
+        int exec(Frame f) {
+            Object v = value.eval(f);
+            Stmt chosen = defaultBody;
+            for (int i = 0; i < caseValues.length; i++) {
+                if (Values.equal(v, caseValues[i].eval(f))) {
+                    chosen = caseBodies[i];
+                    break;
+                }
+            }
+            if (chosen == null) {
+                return NORMAL;
+            }
+            int result = chosen.exec(f);
+            return result == BREAK ? NORMAL : result;
+        }
+    }
+
+    static final class Jump extends Stmt {
+        final int kind;
+
+        Jump(int kind) {
+            this.kind = kind;
+        }
+
+        int exec(Frame f) {
+            return kind;
+        }
+    }
+
+    static final class ReturnStmt extends Stmt {
+        final Node value; // pode ser null
+
+        ReturnStmt(Node value) {
+            this.value = value;
+        }
+
+        int exec(Frame f) {
+            f.returned = value == null ? null : value.eval(f);
+            return RETURN;
+        }
+    }
+
+    // ------------------ Resolução ------------------
+
+    /**
+     * Passada única: resolve nomes para slots e constrói os nós
+     */
+    private static final class Resolver {
+        final SlotResolver slots = new SlotResolver();
+
+        Stmt block(AST.Block b) {
+            slots.beginScope();
+            Stmt[] body = new Stmt[b.statements.size()];
+            for (int i = 0; i < body.length; i++) {
+                body[i] = statement(b.statements.get(i));
+            }
+            slots.endScope();
+            return body.length == 1 ? body[0] : new Sequence(body);
+        }
+
+        Stmt statement(AST.Statement s) {
+            if (s instanceof AST.Block) {
+                return block((AST.Block) s);
+            } else if (s instanceof AST.VarDecl) {
+                AST.VarDecl v = (AST.VarDecl) s;
+                String type = v.type == null ? null : v.type.name;
+                // O inicializador é resolvido antes da declaração: em "var x: int = x;" o x da direita é outro
+                Node init = v.initializer == null ? new Constant(Values.defaultValue(type)) : expr(v.initializer);
+                int slot = slots.declare(v.name, v.type);
+                return new Evaluate(new Store(slot, type, init, v.name));
+            } else if (s instanceof AST.If) {
+                AST.If v = (AST.If) s;
+                return new IfStmt(expr(v.cond), block(v.thenB), v.elseB == null ? null : block(v.elseB),
+                        firstToken(v.cond));
+            } else if (s instanceof AST.While) {
+                AST.While v = (AST.While) s;
+                return new Loop(null, expr(v.cond), null, block(v.body), true, firstToken(v.cond));
+            } else if (s instanceof AST.DoWhile) {
+                AST.DoWhile v = (AST.DoWhile) s;
+                Stmt body = block(v.body);
+                return new Loop(null, expr(v.cond), null, body, false, firstToken(v.cond));
+            } else if (s instanceof AST.For) {
+                AST.For v = (AST.For) s;
+                slots.beginScope(); // variável do init visível só no for
+                Stmt init = v.init == null ? null : statement(v.init);
+                Node cond = v.cond == null ? null : expr(v.cond);
+                Node inc = v.inc == null ? null : expr(v.inc);
+                Stmt body = block(v.body);
+                slots.endScope();
+                return new Loop(init, cond, inc, body, true, firstToken(v.cond));
+            } else if (s instanceof AST.Switch) {
+                AST.Switch v = (AST.Switch) s;
+                Node value = expr(v.expr);
+                Node[] caseValues = new Node[v.cases.size()];
+                Stmt[] caseBodies = new Stmt[v.cases.size()];
+                for (int i = 0; i < caseValues.length; i++) {
+                    caseValues[i] = expr(v.cases.get(i).value);
+                    caseBodies[i] = block(v.cases.get(i).block);
+                }
+                return new SwitchStmt(value, caseValues, caseBodies,
+                        v.defaultBlock == null ? null : block(v.defaultBlock));
+            } else if (s instanceof AST.Return) {
+                AST.Expr value = ((AST.Return) s).value;
+                return new ReturnStmt(value == null ? null : expr(value));
+            } else if (s instanceof AST.Print) {
+                return new Print(expr(((AST.Print) s).value));
+            } else if (s instanceof AST.Break) {
+                return new Jump(BREAK);
+            } else if (s instanceof AST.Continue) {
+                return new Jump(CONTINUE);
+            } else if (s instanceof AST.ExprStmt) {
+                return new Evaluate(expr(((AST.ExprStmt) s).expr));
+            }
+            throw new IllegalArgumentException("Statement não suportado: " + s.getClass().getName());
+        }
+
+        Node expr(AST.Expr e) {
+            if (e instanceof AST.Literal) {
+                Object value = ((AST.Literal) e).value;
+                return new Constant(value instanceof String ? Values.unescape((String) value) : value);
+            } else if (e instanceof AST.Variable) {
+                return new Load(slots.resolve(((AST.Variable) e).name));
+            } else if (e instanceof AST.Grouping) {
+                return expr(((AST.Grouping) e).expr);
+            } else if (e instanceof AST.Unary) {
+                AST.Unary v = (AST.Unary) e;
+                Node operand = expr(v.right);
+                return v.op.type == TokenType.BANG ? new Not(v.op, operand) : new Negate(v.op, operand);
+            } else if (e instanceof AST.Binary) {
+                AST.Binary v = (AST.Binary) e;
+                Node left = expr(v.left);
+                Node right = expr(v.right);
+                if (v.op.type == TokenType.AND_AND) {
+                    return new And(left, v.op, right);
+                } else if (v.op.type == TokenType.OR_OR) {
+                    return new Or(left, v.op, right);
+                }
+                return new Binary(left, v.op, right);
+            } else if (e instanceof AST.Assign) {
+                AST.Assign v = (AST.Assign) e;
+                Node value = expr(v.value);
+                int slot = slots.resolve(v.name);
+                return new Store(slot, slots.typeOf(slot), value, v.name);
+            } else if (e instanceof AST.Ternary) {
+                AST.Ternary v = (AST.Ternary) e;
+                return new Conditional(expr(v.cond), expr(v.thenExpr), expr(v.elseExpr), firstToken(v.cond));
+            } else if (e instanceof AST.Input) {
+                return new Input(Values.unescape(((AST.Input) e).prompt));
+            } else if (e instanceof AST.ArrayLiteral) {
+                List<AST.Expr> elements = ((AST.ArrayLiteral) e).elements;
+                Node[] nodes = new Node[elements.size()];
+                for (int i = 0; i < nodes.length; i++) {
+                    nodes[i] = expr(elements.get(i));
+                }
+                return new NewArray(nodes);
+            } else if (e instanceof AST.ArrayAccess) {
+                AST.ArrayAccess v = (AST.ArrayAccess) e;
+                return new Index(expr(v.array), expr(v.index), firstToken(v.array));
+            } else if (e instanceof AST.InterpolatedString) {
+                List<Object> parts = ((AST.InterpolatedString) e).parts;
+                Node[] nodes = new Node[parts.size()];
+                for (int i = 0; i < nodes.length; i++) {
+                    Object part = parts.get(i);
+                    nodes[i] = part instanceof String ? new Constant(Values.interpolationText(parts, i))
+                            : expr((AST.Expr) part);
+                }
+                return new Concat(nodes);
+            }
+            throw new IllegalArgumentException("Expressão não suportada: " + e.getClass().getName());
+        }
+    }
+
+    /**
+     * Algum token da expressão, para a linha das mensagens de erro (null se
+     * ela não guarda nenhum, como um literal)
+     */
+    static Token firstToken(AST.Expr e) {
+        if (e instanceof AST.Variable) {
+            return ((AST.Variable) e).name;
+        } else if (e instanceof AST.ArrayAccess) {
+            return firstToken(((AST.ArrayAccess) e).array);
+        } else if (e instanceof AST.Grouping) {
+            return firstToken(((AST.Grouping) e).expr);
+        } else if (e instanceof AST.Binary) {
+            Token t = firstToken(((AST.Binary) e).left);
+            return t != null ? t : ((AST.Binary) e).op;
+        } else if (e instanceof AST.Unary) {
+            return ((AST.Unary) e).op;
+        } else if (e instanceof AST.Assign) {
+            return ((AST.Assign) e).name;
+        } else if (e instanceof AST.Ternary) {
+            return firstToken(((AST.Ternary) e).cond);
+        }
+        return null;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Uso: java -cp bin Interpreter arquivo.bw");
+            System.exit(1);
+        }
+        String source = Files.readString(Path.of(args[0]));
+        List<Token> tokens;
+        try {
+            tokens = new Lexer(source).scanTokens();
+        } catch (RuntimeException e) {
+            System.err.println("❌ Erro léxico: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        try {
+            Object returned = new Interpreter().run(new Parser(tokens).parse());
+            if (returned != null) {
+                System.err.println("Programa terminou com return " + Values.toText(returned));
+            }
+        } catch (ParseError | SemanticError | RuntimeError e) {
+            System.err.println("❌ " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
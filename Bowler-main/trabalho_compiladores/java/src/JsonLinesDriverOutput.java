@@ -0,0 +1,211 @@
+import java.io.PrintStream;
+import java.util.*;
+
+/**
+ * JsonLinesDriverOutput - Saída do driver Bowler em JSON Lines
+ *
+ * Um objeto por linha, sempre com o campo "event". Os veredictos são sempre
+ * emitidos; o resto depende das fases:
+ * {"event":"begin","file":...}
+ * {"event":"tokens","count":N} (+ {"event":"token",...} por token com TOKENS)
+ * {"event":"recursive","accepted":...,"error"|"ast":...} (ast com AST)
+ * {"event":"grammar","cached":...,"nonTerminals":N,"terminals":N,"conflicts":N,"notes":N}
+ * (conflicts = células com mais de uma produção, notes = avisos de resolução;
+ * + "first", "follow" e "cell" com GRAMMAR)
+ * {"event":"stats","decisions":N,"dfaStates":N,"predictions":N,...,"trace":...} (com STATS)
+ * {"event":"ll1","accepted":...,"errors":[...],"sameAst":...}
+ * {"event":"failure","message":...}
+ * {"event":"concurrent","agree":...,"message":...,"recursiveMicros":N,"ll1Micros":N,"totalMicros":N}
+ * (só com --concurrent)
+ */
+public class JsonLinesDriverOutput implements DriverOutput {
+
+    private final Set<Phase> phases;
+    private final StringBuilder line = new StringBuilder(256);
+
+    public JsonLinesDriverOutput(Set<Phase> phases) {
+        this.phases = phases;
+    }
+
+    @Override
+    public boolean shows(Phase phase) {
+        return phases.contains(phase);
+    }
+
+    @Override
+    public void begin(String sourcePath) {
+        start("begin").field("file", sourcePath).end();
+    }
+
+    @Override
+    public void tokens(List<Token> tokens) {
+        start("tokens").field("count", tokens.size()).end();
+        if (shows(Phase.TOKENS)) {
+            for (Token t : tokens) {
+                start("token").field("type", t.type.name()).field("lexeme", t.lexeme)
+                        .field("line", t.line).field("col", t.column).end();
+            }
+        }
+    }
+
+    @Override
+    public void regex() {
+        // Lista fixa, sem interesse para ferramentas
+    }
+
+    @Override
+    public void recursive(AST.Program program, ParseError error) {
+        start("recursive").field("accepted", program != null);
+        if (program == null) {
+            field("error", error.getMessage());
+        } else if (shows(Phase.AST)) {
+            field("ast", program.toDetailedString());
+        }
+        end();
+    }
+
+    @Override
+    public void grammar(LL1GrammarAnalyzer analyzer, CompressedParsingTable table, boolean fromCache) {
+        start("grammar").field("cached", fromCache)
+                .field("nonTerminals", analyzer.getNonTerminals().size())
+                .field("terminals", analyzer.getTerminals().size())
+                .field("conflicts", analyzer.getConflictCellCount())
+                .field("notes", analyzer.getConflicts().size()).end();
+        if (!shows(Phase.GRAMMAR)) {
+            return;
+        }
+        for (String nt : analyzer.getNonTerminals()) {
+            start("first").field("nt", nt).field("set", analyzer.getFirst().get(nt)).end();
+        }
+        for (String nt : analyzer.getNonTerminals()) {
+            start("follow").field("nt", nt).field("set", analyzer.getFollow().get(nt)).end();
+        }
+        for (Map.Entry<String, Map<String, List<String>>> row : analyzer.getParsingTable().entrySet()) {
+            for (Map.Entry<String, List<String>> cell : row.getValue().entrySet()) {
+                start("cell").field("nt", row.getKey()).field("terminal", cell.getKey())
+                        .field("production", cell.getValue()).end();
+            }
+        }
+    }
+
+    @Override
+    public void stackStart(List<Token> tokens) {
+    }
+
+    @Override
+    public void stackStats(AdaptivePredictor predictor, String traceNote) {
+        if (!shows(Phase.STATS) || (predictor == null && traceNote == null)) {
+            return;
+        }
+        start("stats");
+        if (predictor != null) {
+            field("decisions", predictor.getDecisionCount()).field("dfaStates", predictor.getDfaStateCount())
+                    .field("predictions", predictor.getPredictionCount())
+                    .field("cachedTransitions", predictor.getCachedTransitionCount())
+                    .field("fullContextPredictions", predictor.getFullContextPredictionCount());
+        }
+        if (traceNote != null) {
+            field("trace", traceNote);
+        }
+        end();
+    }
+
+    @Override
+    public void stackResult(boolean accepted, List<ParseError> errors, AST.Program stackProgram, Boolean sameAst) {
+        List<String> messages = new ArrayList<>(errors.size());
+        for (ParseError e : errors) {
+            messages.add(e.getMessage());
+        }
+        start("ll1").field("accepted", accepted).field("errors", messages);
+        if (sameAst != null) {
+            field("sameAst", sameAst);
+        }
+        end();
+    }
+
+    @Override
+    public void failure(String message) {
+        start("failure").field("message", message).end();
+    }
+
+    @Override
+    public void reconciliation(boolean agree, String message, long recursiveNanos, long stackNanos,
+            long totalNanos) {
+        start("concurrent").field("agree", agree).field("message", message)
+                .field("recursiveMicros", recursiveNanos / 1000).field("ll1Micros", stackNanos / 1000)
+                .field("totalMicros", totalNanos / 1000).end();
+    }
+
+    @Override
+    public void close() {
+        System.out.flush();
+    }
+
+    // ------------------ Escrita JSON ------------------
+
+    private JsonLinesDriverOutput start(String event) {
+        line.setLength(0);
+        line.append("{\"event\":");
+        string(event);
+        return this;
+    }
+
+    private JsonLinesDriverOutput field(String name, Object value) {
+        line.append(",\"").append(name).append("\":");
+        if (value == null) {
+            line.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            line.append(value);
+        } else if (value instanceof Collection) {
+            line.append('[');
+            boolean first = true;
+            for (Object item : (Collection<?>) value) {
+                if (!first) {
+                    line.append(',');
+                }
+                string(String.valueOf(item));
+                first = false;
+            }
+            line.append(']');
+        } else {
+            string(value.toString());
+        }
+        return this;
+    }
+
+    private void end() {
+        line.append('}');
+        System.out.println(line);
+    }
+
+    private void string(String s) {
+        line.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    line.append("\\\"");
+                    break;
+                case '\\':
+                    line.append("\\\\");
+                    break;
+                case '\n':
+                    line.append("\\n");
+                    break;
+                case '\r':
+                    line.append("\\r");
+                    break;
+                case '\t':
+                    line.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+            }
+        }
+        line.append('"');
+    }
+}
@@ -27,6 +27,17 @@ public class LL1GrammarAnalyzer {
     private Map<String, Map<String, List<String>>> parsingTable = new HashMap<>();
     // Coleta de conflitos detectados durante construção da tabela
     private List<String> conflicts = new ArrayList<>();
+    // Todas as alternativas candidatas de cada célula em conflito (M[A, a] → produções),
+    // usadas pela predição adaptativa (AdaptivePredictor)
+    private Map<String, Map<String, List<List<String>>>> conflictAlternatives = new HashMap<>();
+    // Conflitos por linha da tabela (permite reconstruir só as linhas afetadas);
+    // null enquanto a tabela não foi construída por este analisador
+    private Map<String, List<String>> rowConflicts = null;
+    // Índice de ocorrências dos não-terminais nos lados direitos, mantido
+    // pelas edições incrementais; null = ainda não construído
+    private Map<String, List<Occurrence>> occurrenceIndex = null;
+    // buildParsingTable imprime os CONFLITO LL(1) em System.err
+    private boolean reportConflicts = true;
 
     public LL1GrammarAnalyzer(Map<String, List<List<String>>> productions,
             Set<String> terminals,
@@ -148,79 +159,474 @@ public class LL1GrammarAnalyzer {
         }
     }
 
+    /**
+     * Liga/desliga a impressão dos conflitos em System.err ao fim de
+     * buildParsingTable; eles continuam em getConflicts()
+     */
+    public void setReportConflicts(boolean reportConflicts) {
+        this.reportConflicts = reportConflicts;
+    }
+
     /**
      * Constrói a tabela de análise LL(1)
      * M[A, a] = produção
      */
     public void buildParsingTable() {
+        buildTable();
+        if (reportConflicts) {
+            for (String c : conflicts) {
+                if (c.startsWith("CONFLITO")) {
+                    System.err.println(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tabela completa sem imprimir nada (também usada pelas edições
+     * incrementais)
+     */
+    private void buildTable() {
+        parsingTable.clear();
+        conflictAlternatives.clear();
+        rowConflicts = new HashMap<>();
         for (String nt : nonTerminals) {
-            parsingTable.put(nt, new HashMap<>());
+            buildRow(nt);
+        }
+        rebuildConflictList();
+    }
+
+    /**
+     * Constrói (ou reconstrói) a linha M[nt, *] da tabela e os conflitos dela
+     */
+    private void buildRow(String nt) {
+        Map<String, List<String>> row = new HashMap<>();
+        List<String> messages = new ArrayList<>();
+        conflictAlternatives.remove(nt);
+
+        for (List<String> production : productions.get(nt)) {
+            // Calcular FIRST(production)
+            Set<String> firstProd = firstOf(production);
+
+            // Para cada terminal em FIRST(production)
+            for (String terminal : firstProd) {
+                if (!terminal.equals("ε")) {
+                    addToRow(nt, row, messages, terminal, production);
+                }
+            }
+
+            // Se ε ∈ FIRST(production)
+            if (firstProd.contains("ε")) {
+                for (String followTerm : follow.get(nt)) {
+                    addToRow(nt, row, messages, followTerm, production);
+                }
+            }
+        }
+
+        parsingTable.put(nt, row);
+        rowConflicts.put(nt, messages);
+    }
+
+    private void addToRow(String nt, Map<String, List<String>> row, List<String> messages,
+            String terminal, List<String> production) {
+        List<String> existing = row.get(terminal);
+        if (existing != null && !existing.equals(production)) {
+            // Se houver conflito entre uma produção ε e uma produção não-ε,
+            // preferimos a produção não-ε (evita mapear ε sobre um terminal)
+            boolean existingIsEps = existing.size() == 1 && existing.get(0).equals("ε");
+            boolean newIsEps = production.size() == 1 && production.get(0).equals("ε");
+            if (existingIsEps && !newIsEps) {
+                row.put(terminal, new ArrayList<>(production));
+                // registrar como aviso resolvido
+                messages.add("RESOLVIDO (pref. nao-eps): M[" + nt + ", " + terminal + "] => "
+                        + production + " sobre " + existing);
+            } else if (!existingIsEps && newIsEps) {
+                // manter existing (não sobrescrever)
+                messages.add("IGNORADO (eps vs nao-eps): M[" + nt + ", " + terminal + "] manter "
+                        + existing + " (ignorando " + production + ")");
+            } else {
+                String msg = "CONFLITO LL(1) em M[" + nt + ", " + terminal + "] entre " + existing
+                        + " e " + production;
+                messages.add(msg);
+                // Decisão para a predição adaptativa (AdaptivePredictor)
+                recordConflict(nt, terminal, existing, production);
+            }
+        } else {
+            row.put(terminal, new ArrayList<>(production));
         }
+    }
 
+    private void rebuildConflictList() {
+        conflicts.clear();
         for (String nt : nonTerminals) {
-            for (List<String> production : productions.get(nt)) {
-                // Calcular FIRST(production)
-                Set<String> firstProd = firstOf(production);
-
-                // Para cada terminal em FIRST(production)
-                for (String terminal : firstProd) {
-                    if (!terminal.equals("ε")) {
-                        List<String> existing = parsingTable.get(nt).get(terminal);
-                        if (existing != null && !existing.equals(production)) {
-                            // Se houver conflito entre uma produção ε e uma produção não-ε,
-                            // preferimos a produção não-ε (evita mapear ε sobre um terminal)
-                            boolean existingIsEps = existing.size() == 1 && existing.get(0).equals("ε");
-                            boolean newIsEps = production.size() == 1 && production.get(0).equals("ε");
-                            if (existingIsEps && !newIsEps) {
-                                parsingTable.get(nt).put(terminal, new ArrayList<>(production));
-                                // registrar como aviso resolvido
-                                conflicts.add("RESOLVIDO (pref. nao-eps): M[" + nt + ", " + terminal + "] => "
-                                        + production + " sobre " + existing);
-                            } else if (!existingIsEps && newIsEps) {
-                                // manter existing (não sobrescrever)
-                                conflicts.add("IGNORADO (eps vs nao-eps): M[" + nt + ", " + terminal + "] manter "
-                                        + existing + " (ignorando " + production + ")");
-                            } else {
-                                String msg = "CONFLITO LL(1) em M[" + nt + ", " + terminal + "] entre " + existing
-                                        + " e " + production;
-                                System.err.println(msg);
-                                conflicts.add(msg);
-                            }
-                        } else {
-                            parsingTable.get(nt).put(terminal, new ArrayList<>(production));
+            conflicts.addAll(rowConflicts.getOrDefault(nt, Collections.emptyList()));
+        }
+    }
+
+    /**
+     * Registra as duas produções candidatas de uma célula em conflito,
+     * mantendo a ordem em que aparecem na gramática. Conflitos ε vs não-ε não
+     * entram aqui: já são resolvidos a favor da produção não-ε.
+     */
+    private void recordConflict(String nt, String terminal, List<String> existing, List<String> production) {
+        List<List<String>> alts = conflictAlternatives
+                .computeIfAbsent(nt, k -> new HashMap<>())
+                .computeIfAbsent(terminal, k -> new ArrayList<>());
+        for (List<String> p : Arrays.asList(existing, production)) {
+            if (!alts.contains(p)) {
+                alts.add(new ArrayList<>(p));
+            }
+        }
+        List<List<String>> order = productions.get(nt);
+        alts.sort(Comparator.comparingInt(order::indexOf));
+    }
+
+    // ------------------ Análise incremental ------------------
+
+    /**
+     * Célula M[A, a] alterada por uma mudança incremental na gramática
+     */
+    public static class CellChange {
+        public final String nonTerminal;
+        public final String terminal;
+        public final List<String> before; // null = célula vazia
+        public final List<String> after; // null = célula vazia
+
+        CellChange(String nonTerminal, String terminal, List<String> before, List<String> after) {
+            this.nonTerminal = nonTerminal;
+            this.terminal = terminal;
+            this.before = before;
+            this.after = after;
+        }
+
+        @Override
+        public String toString() {
+            return "M[" + nonTerminal + ", " + terminal + "]: " + (before == null ? "erro" : before)
+                    + " → " + (after == null ? "erro" : after);
+        }
+    }
+
+    /**
+     * Ocorrência de um não-terminal no lado direito de uma produção
+     */
+    private static class Occurrence {
+        final String lhs;
+        final List<String> production;
+        final int index;
+
+        Occurrence(String lhs, List<String> production, int index) {
+            this.lhs = lhs;
+            this.production = production;
+            this.index = index;
+        }
+    }
+
+    /**
+     * Adiciona a produção lhs → production e atualiza apenas os conjuntos
+     * FIRST/FOLLOW e as linhas da tabela afetados. Retorna as células M[A, a]
+     * que mudaram.
+     */
+    public List<CellChange> addProduction(String lhs, List<String> production) {
+        List<List<String>> alts = productions.get(lhs);
+        if (alts != null && alts.contains(production)) {
+            return Collections.emptyList();
+        }
+        boolean promotedTerminal = alts == null && terminals.contains(lhs);
+
+        List<String> added = new ArrayList<>(production);
+        List<List<String>> updated = alts == null ? new ArrayList<>() : new ArrayList<>(alts);
+        updated.add(added);
+        productions.put(lhs, updated);
+        if (alts == null) {
+            first.put(lhs, new HashSet<>());
+            follow.put(lhs, new HashSet<>());
+            // Não-terminal novo: ocorrências dele ainda não estão no índice
+            occurrenceIndex = null;
+        } else if (occurrenceIndex != null) {
+            index(occurrenceIndex, lhs, added);
+        }
+        // Símbolos novos que não são não-terminais passam a ser terminais
+        Set<String> newTerminals = new HashSet<>(terminals);
+        if (promotedTerminal) {
+            newTerminals.remove(lhs);
+        }
+        for (String symbol : production) {
+            if (!symbol.equals("ε") && !productions.containsKey(symbol)) {
+                newTerminals.add(symbol);
+            }
+        }
+        if (!newTerminals.equals(terminals)) {
+            terminals = newTerminals;
+        }
+
+        // Um terminal que vira não-terminal muda o papel de todas as suas ocorrências
+        return promotedTerminal ? recomputeAll() : propagate(lhs, production);
+    }
+
+    /**
+     * Remove a produção lhs → production (se existir) e atualiza apenas o que
+     * foi afetado. Retorna as células M[A, a] que mudaram.
+     */
+    public List<CellChange> removeProduction(String lhs, List<String> production) {
+        List<List<String>> alts = productions.get(lhs);
+        if (alts == null || !alts.contains(production)) {
+            return Collections.emptyList();
+        }
+        // O não-terminal permanece mesmo sem produções (continua podendo ser referenciado)
+        List<List<String>> updated = new ArrayList<>(alts);
+        updated.remove(production);
+        productions.put(lhs, updated);
+        if (occurrenceIndex != null) {
+            for (String symbol : new HashSet<>(production)) {
+                List<Occurrence> list = occurrenceIndex.get(symbol);
+                if (list != null) {
+                    list.removeIf(occ -> occ.lhs.equals(lhs) && occ.production.equals(production));
+                }
+            }
+        }
+        return propagate(lhs, production);
+    }
+
+    /**
+     * Propaga a mudança de uma produção de lhs:
+     * 1. FIRST: recalcula só os não-terminais cujo FIRST pode depender de lhs
+     * 2. FOLLOW: recalcula só os não-terminais com ocorrências afetadas
+     * 3. Tabela: reconstrói as linhas afetadas e compara com as antigas
+     */
+    private List<CellChange> propagate(String lhs, List<String> production) {
+        if (rowConflicts == null) {
+            if (parsingTable.isEmpty()) {
+                // Ainda não analisada: não há o que atualizar incrementalmente
+                return recomputeAll();
+            }
+            // Análise restaurada do cache: reconstrói os conflitos por linha
+            buildTable();
+        }
+        Map<String, List<Occurrence>> occurrences = occurrences();
+
+        // 1. FIRST
+        Set<String> firstAffected = firstDependents(lhs, occurrences);
+        Map<String, Set<String>> oldFirst = new HashMap<>();
+        for (String nt : firstAffected) {
+            oldFirst.put(nt, first.get(nt));
+            first.put(nt, new HashSet<>());
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (String nt : firstAffected) {
+                int beforeSize = first.get(nt).size();
+                for (List<String> p : productions.get(nt)) {
+                    first.get(nt).addAll(firstOf(p));
+                }
+                if (first.get(nt).size() > beforeSize) {
+                    changed = true;
+                }
+            }
+        }
+        Set<String> firstChanged = new HashSet<>();
+        for (String nt : firstAffected) {
+            if (!first.get(nt).equals(oldFirst.get(nt))) {
+                firstChanged.add(nt);
+            }
+        }
+
+        // 2. FOLLOW
+        Set<String> followAffected = followDependents(production, firstChanged, occurrences);
+        Map<String, Set<String>> oldFollow = new HashMap<>();
+        for (String nt : followAffected) {
+            oldFollow.put(nt, follow.get(nt));
+            Set<String> fresh = new HashSet<>();
+            if (nt.equals(startSymbol)) {
+                fresh.add("EOF");
+            }
+            follow.put(nt, fresh);
+        }
+        changed = true;
+        while (changed) {
+            changed = false;
+            for (String nt : followAffected) {
+                Set<String> target = follow.get(nt);
+                int beforeSize = target.size();
+                for (Occurrence occ : occurrences.getOrDefault(nt, Collections.emptyList())) {
+                    List<String> beta = occ.production.subList(occ.index + 1, occ.production.size());
+                    Set<String> firstBeta = firstOf(beta);
+                    for (String t : firstBeta) {
+                        if (!t.equals("ε")) {
+                            target.add(t);
                         }
                     }
+                    if (firstBeta.contains("ε")) {
+                        target.addAll(follow.get(occ.lhs));
+                    }
+                }
+                if (target.size() > beforeSize) {
+                    changed = true;
                 }
+            }
+        }
 
-                // Se ε ∈ FIRST(production)
-                if (firstProd.contains("ε")) {
-                    for (String followTerm : follow.get(nt)) {
-                        List<String> existing = parsingTable.get(nt).get(followTerm);
-                        if (existing != null && !existing.equals(production)) {
-                            boolean existingIsEps = existing.size() == 1 && existing.get(0).equals("ε");
-                            boolean newIsEps = production.size() == 1 && production.get(0).equals("ε");
-                            if (existingIsEps && !newIsEps) {
-                                parsingTable.get(nt).put(followTerm, new ArrayList<>(production));
-                                conflicts.add("RESOLVIDO (pref. nao-eps): M[" + nt + ", " + followTerm + "] => "
-                                        + production + " sobre " + existing);
-                            } else if (!existingIsEps && newIsEps) {
-                                conflicts.add("IGNORADO (eps vs nao-eps): M[" + nt + ", " + followTerm + "] manter "
-                                        + existing + " (ignorando " + production + ")");
-                            } else {
-                                String msg = "CONFLITO LL(1) em M[" + nt + ", " + followTerm + "] entre " + existing
-                                        + " e " + production;
-                                System.err.println(msg);
-                                conflicts.add(msg);
-                            }
-                        } else {
-                            parsingTable.get(nt).put(followTerm, new ArrayList<>(production));
-                        }
+        // 3. Linhas da tabela
+        Set<String> rows = new TreeSet<>(firstAffected);
+        rows.add(lhs);
+        for (String nt : followAffected) {
+            if (!follow.get(nt).equals(oldFollow.get(nt))) {
+                rows.add(nt);
+            }
+        }
+        List<CellChange> changes = new ArrayList<>();
+        for (String nt : rows) {
+            Map<String, List<String>> oldRow = parsingTable.getOrDefault(nt, Collections.emptyMap());
+            buildRow(nt);
+            diffRow(nt, oldRow, parsingTable.get(nt), changes);
+        }
+        rebuildConflictList();
+        return changes;
+    }
+
+    /**
+     * Refaz toda a análise e compara a tabela nova com a anterior
+     */
+    private List<CellChange> recomputeAll() {
+        Map<String, Map<String, List<String>>> oldTable = new HashMap<>(parsingTable);
+        for (String nt : nonTerminals) {
+            first.put(nt, new HashSet<>());
+            follow.put(nt, new HashSet<>());
+        }
+        occurrenceIndex = null;
+        calculateFirst();
+        calculateFollow();
+        buildTable();
+
+        Set<String> rows = new TreeSet<>(oldTable.keySet());
+        rows.addAll(parsingTable.keySet());
+        List<CellChange> changes = new ArrayList<>();
+        for (String nt : rows) {
+            diffRow(nt, oldTable.getOrDefault(nt, Collections.emptyMap()),
+                    parsingTable.getOrDefault(nt, Collections.emptyMap()), changes);
+        }
+        return changes;
+    }
+
+    private static void diffRow(String nt, Map<String, List<String>> oldRow, Map<String, List<String>> newRow,
+            List<CellChange> changes) {
+        Set<String> columns = new TreeSet<>(oldRow.keySet());
+        columns.addAll(newRow.keySet());
+        for (String t : columns) {
+            List<String> before = oldRow.get(t);
+            List<String> after = newRow.get(t);
+            if (!Objects.equals(before, after)) {
+                changes.add(new CellChange(nt, t, before, after));
+            }
+        }
+    }
+
+    /**
+     * Índice: não-terminal → ocorrências no lado direito das produções.
+     * Construído uma vez; depois addProduction/removeProduction só acrescentam
+     * ou tiram as ocorrências da produção editada.
+     */
+    private Map<String, List<Occurrence>> occurrences() {
+        if (occurrenceIndex == null) {
+            occurrenceIndex = new HashMap<>();
+            for (String nt : nonTerminals) {
+                for (List<String> p : productions.get(nt)) {
+                    index(occurrenceIndex, nt, p);
+                }
+            }
+        }
+        return occurrenceIndex;
+    }
+
+    private void index(Map<String, List<Occurrence>> index, String lhs, List<String> p) {
+        for (int i = 0; i < p.size(); i++) {
+            if (nonTerminals.contains(p.get(i))) {
+                index.computeIfAbsent(p.get(i), k -> new ArrayList<>()).add(new Occurrence(lhs, p, i));
+            }
+        }
+    }
+
+    /**
+     * Não-terminais cujo FIRST pode depender de lhs: B entra se alguma
+     * produção de B começa por um afetado precedido só de anuláveis. Os
+     * afetados são tratados como anuláveis, pois sua anulabilidade pode mudar.
+     */
+    private Set<String> firstDependents(String lhs, Map<String, List<Occurrence>> occurrences) {
+        Set<String> affected = new HashSet<>();
+        Deque<String> work = new ArrayDeque<>();
+        affected.add(lhs);
+        work.push(lhs);
+        while (!work.isEmpty()) {
+            for (Occurrence occ : occurrences.getOrDefault(work.pop(), Collections.emptyList())) {
+                if (!affected.contains(occ.lhs) && allNullable(occ.production, 0, occ.index, affected)) {
+                    affected.add(occ.lhs);
+                    work.push(occ.lhs);
+                }
+            }
+        }
+        return affected;
+    }
+
+    /**
+     * Não-terminais cujo FOLLOW pode mudar: os símbolos da produção alterada,
+     * os que precedem (via anuláveis) um não-terminal com FIRST alterado e,
+     * por fecho, os que terminam (via anuláveis) produções de um afetado
+     */
+    private Set<String> followDependents(List<String> production, Set<String> firstChanged,
+            Map<String, List<Occurrence>> occurrences) {
+        Set<String> affected = new HashSet<>();
+        for (String symbol : production) {
+            if (nonTerminals.contains(symbol)) {
+                affected.add(symbol);
+            }
+        }
+        for (String x : firstChanged) {
+            for (Occurrence occ : occurrences.getOrDefault(x, Collections.emptyList())) {
+                for (int j = occ.index - 1; j >= 0; j--) {
+                    String y = occ.production.get(j);
+                    if (nonTerminals.contains(y)) {
+                        affected.add(y);
+                    }
+                    if (!isNullable(y, firstChanged)) {
+                        break;
                     }
                 }
+            }
+        }
 
-                // contador de produções não utilizado (removido)
+        Deque<String> work = new ArrayDeque<>(affected);
+        while (!work.isEmpty()) {
+            String x = work.pop();
+            for (List<String> p : productions.getOrDefault(x, Collections.emptyList())) {
+                for (int j = p.size() - 1; j >= 0; j--) {
+                    String y = p.get(j);
+                    if (nonTerminals.contains(y) && affected.add(y)) {
+                        work.push(y);
+                    }
+                    if (!isNullable(y, firstChanged)) {
+                        break;
+                    }
+                }
             }
         }
+        return affected;
+    }
+
+    private boolean allNullable(List<String> symbols, int from, int to, Set<String> assumeNullable) {
+        for (int i = from; i < to; i++) {
+            if (!isNullable(symbols.get(i), assumeNullable)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isNullable(String symbol, Set<String> assumeNullable) {
+        if (symbol.equals("ε")) {
+            return true;
+        }
+        return nonTerminals.contains(symbol)
+                && (assumeNullable.contains(symbol) || first.get(symbol).contains("ε"));
     }
 
     /**
@@ -266,7 +672,34 @@ public class LL1GrammarAnalyzer {
         }
     }
 
+    /**
+     * Restaura FIRST, FOLLOW, tabela e conflitos previamente calculados
+     * (ex.: lidos do cache em disco), dispensando calculateFirst/Follow e
+     * buildParsingTable
+     */
+    public void restoreAnalysis(Map<String, Set<String>> first,
+            Map<String, Set<String>> follow,
+            Map<String, Map<String, List<String>>> parsingTable,
+            List<String> conflicts,
+            Map<String, Map<String, List<List<String>>>> conflictAlternatives) {
+        this.first = first;
+        this.follow = follow;
+        this.parsingTable = parsingTable;
+        this.conflicts = conflicts;
+        this.conflictAlternatives = conflictAlternatives;
+        this.rowConflicts = null;
+        this.occurrenceIndex = null;
+    }
+
     // Getters
+    public Map<String, List<List<String>>> getProductions() {
+        return productions;
+    }
+
+    public String getStartSymbol() {
+        return startSymbol;
+    }
+
     public Map<String, Set<String>> getFirst() {
         return first;
     }
@@ -291,6 +724,22 @@ public class LL1GrammarAnalyzer {
         return conflicts;
     }
 
+    public Map<String, Map<String, List<List<String>>>> getConflictAlternatives() {
+        return conflictAlternatives;
+    }
+
+    /**
+     * Número de células M[A, a] com mais de uma produção; getConflicts()
+     * também traz as notas de resolução (RESOLVIDO/IGNORADO)
+     */
+    public int getConflictCellCount() {
+        int count = 0;
+        for (Map<String, List<List<String>>> row : conflictAlternatives.values()) {
+            count += row.size();
+        }
+        return count;
+    }
+
     public static void main(String[] args) {
         // Exemplo de uso: Gramática simples
         // E → T E'
@@ -334,5 +783,66 @@ public class LL1GrammarAnalyzer {
         analyzer.printFirst();
         analyzer.printFollow();
         analyzer.printParsingTable();
+
+        // Análise incremental: F → - F e depois sua remoção
+        System.out.println("\n=== Análise incremental ===");
+        System.out.println("+ F → - F: " + analyzer.addProduction("F", Arrays.asList("-", "F")));
+        System.out.println("- F → - F: " + analyzer.removeProduction("F", Arrays.asList("-", "F")));
+
+        // Verificação na gramática Bowler: remover/recolocar cada produção
+        // incrementalmente deve dar o mesmo resultado que a análise completa
+        LL1GrammarAnalyzer bowler = Bowler.createBowlerLL1Analyzer();
+        bowler.setReportConflicts(false);
+        bowler.calculateFirst();
+        bowler.calculateFollow();
+        bowler.buildParsingTable();
+        int edits = 0;
+        int mismatches = 0;
+        long incrementalNanos = 0;
+        long fullNanos = 0;
+        for (String nt : new TreeSet<>(bowler.getNonTerminals())) {
+            for (List<String> production : new ArrayList<>(bowler.getProductions().get(nt))) {
+                long t0 = System.nanoTime();
+                bowler.removeProduction(nt, production);
+                incrementalNanos += System.nanoTime() - t0;
+
+                t0 = System.nanoTime();
+                LL1GrammarAnalyzer full = reanalyze(bowler);
+                fullNanos += System.nanoTime() - t0;
+                if (!sameAnalysis(bowler, full)) {
+                    mismatches++;
+                    System.out.println("  divergência ao remover " + nt + " → " + production);
+                }
+
+                bowler.addProduction(nt, production);
+                if (!sameAnalysis(bowler, reanalyze(bowler))) {
+                    mismatches++;
+                    System.out.println("  divergência ao recolocar " + nt + " → " + production);
+                }
+                edits++;
+            }
+        }
+        System.out.printf("Gramática Bowler: %d remoções/reinserções, %d divergência(s)%n", edits, mismatches);
+        System.out.printf("Remoção: incremental %.3f ms/edição, análise completa %.3f ms/edição%n",
+                incrementalNanos / 1e6 / edits, fullNanos / 1e6 / edits);
+    }
+
+    /**
+     * Análise completa (do zero) de uma cópia da gramática atual
+     */
+    private static LL1GrammarAnalyzer reanalyze(LL1GrammarAnalyzer analyzer) {
+        LL1GrammarAnalyzer copy = new LL1GrammarAnalyzer(new HashMap<>(analyzer.getProductions()),
+                new HashSet<>(analyzer.getTerminals()), analyzer.getStartSymbol());
+        copy.setReportConflicts(false);
+        copy.calculateFirst();
+        copy.calculateFollow();
+        copy.buildParsingTable();
+        return copy;
+    }
+
+    private static boolean sameAnalysis(LL1GrammarAnalyzer a, LL1GrammarAnalyzer b) {
+        return a.first.equals(b.first) && a.follow.equals(b.follow) && a.parsingTable.equals(b.parsingTable)
+                && new HashSet<>(a.conflicts).equals(new HashSet<>(b.conflicts))
+                && a.conflictAlternatives.equals(b.conflictAlternatives);
     }
 }
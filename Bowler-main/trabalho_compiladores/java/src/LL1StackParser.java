@@ -16,6 +16,24 @@ import java.util.*;
  * - Se M[não-terminal, lookahead] = erro: ERRO
  * - Caso contrário: pop não-terminal e empilhar produção (reversa)
  * 4) Se pilha vazia e lookahead = EOF: SUCESSO
+ *
+ * Com tabela comprimida, a consulta é feita só com ids: o lookahead vira
+ * um id de terminal pelo TokenType e cada posição da pilha guarda também o
+ * id do seu não-terminal (symbolIds), vindo da própria produção empilhada.
+ *
+ * Com ações semânticas (setSemanticActions), cada expansão registra um
+ * marcador de redução; ao completar a produção, a ação correspondente
+ * combina os valores dos símbolos (ex.: nós da AST) na mesma passada.
+ *
+ * Com recuperação de erros (enableErrorRecovery), o parser não para no
+ * primeiro erro: registra-o em getErrors() e repara a entrada, um passo por
+ * vez, para continuar a análise:
+ * - terminal diferente do lookahead: se o token seguinte casa, o lookahead é
+ * descartado (remoção); senão o terminal é considerado inserido (pop)
+ * - M[A, a] vazia: tokens são descartados até que M[A, a] exista ou que a
+ * pertença a FOLLOW(A); nesse caso A é desempilhado (sincronização)
+ * Erros seguintes só são reportados depois de um token casar com sucesso,
+ * evitando cascatas de mensagens para um mesmo erro.
  */
 public class LL1StackParser {
 
@@ -25,6 +43,48 @@ public class LL1StackParser {
 
     // Tabela de análise LL(1): M[A, a] = lista de símbolos
     private Map<String, Map<String, List<String>>> parsingTable;
+    // Tabela comprimida (opcional): quando presente, substitui os mapas
+    private CompressedParsingTable compressedTable;
+    // Com tabela comprimida: id do não-terminal em cada altura da pilha (-1 = terminal ou $)
+    private int[] symbolIds = new int[64];
+    // Ids dos não-terminais da última produção prevista (null = calcular pelos nomes)
+    private int[] predictedIds;
+    // Predição adaptativa para células em conflito (opcional)
+    private AdaptivePredictor predictor;
+    // Destino do trace (padrão: todos os passos em System.out)
+    private ParseTrace trace;
+    private boolean traceSteps;
+
+    // Ações semânticas (opcional): marcadores de redução e pilha de valores
+    private SemanticActions actions;
+    private SemanticActions configuredActions; // restauradas por reset()
+    private final ArrayDeque<Reduction> reductions = new ArrayDeque<>();
+    private final ArrayList<Object> values = new ArrayList<>();
+    private Object result;
+
+    // Recuperação de erros (opcional): FOLLOW dos não-terminais e erros encontrados
+    private Map<String, Set<String>> follow;
+    private final List<ParseError> errors = new ArrayList<>();
+    private boolean recovering = false;
+    private static final int MAX_ERRORS = 100;
+    private static final int MAX_REPAIRS = 10000; // reparos seguidos sem consumir token
+    private static final List<String> EPSILON = Collections.singletonList("ε");
+
+    /**
+     * Marcador de redução: quando a pilha volta à altura registrada, todos os
+     * símbolos da produção foram reconhecidos
+     */
+    private static final class Reduction {
+        final int height;
+        final String nonTerminal;
+        final List<String> production;
+
+        Reduction(int height, String nonTerminal, List<String> production) {
+            this.height = height;
+            this.nonTerminal = nonTerminal;
+            this.production = production;
+        }
+    }
 
     // Símbolos da gramática
     private Set<String> nonTerminals;
@@ -40,82 +100,363 @@ public class LL1StackParser {
         this.terminals = terminals;
     }
 
+    public LL1StackParser(List<Token> tokens,
+            CompressedParsingTable compressedTable,
+            Set<String> nonTerminals,
+            Set<String> terminals) {
+        this.tokens = tokens;
+        this.compressedTable = compressedTable;
+        this.nonTerminals = nonTerminals;
+        this.terminals = terminals;
+    }
+
+    /**
+     * Estado de uma análise sobre uma gramática compilada e compartilhada:
+     * tabela comprimida, predição adaptativa e recuperação de erros vêm de
+     * CompiledGrammar; só a entrada, a posição e a pilha pertencem ao parser
+     */
+    public LL1StackParser(List<Token> tokens, CompiledGrammar grammar) {
+        this(tokens, grammar.getTable(), grammar.getNonTerminals(), grammar.getTerminals());
+        this.predictor = grammar.getPredictor();
+        this.follow = grammar.getFollow();
+    }
+
+    /**
+     * Ativa a predição adaptativa: células M[A, a] em conflito passam a ser
+     * decididas olhando adiante, em vez de usar sempre a escolha da tabela
+     */
+    public void enableAdaptivePrediction(AdaptivePredictor predictor) {
+        this.predictor = predictor;
+    }
+
+    /**
+     * Ativa ações semânticas: o valor do símbolo inicial (ex.: AST.Program)
+     * fica disponível em getResult() após uma análise bem-sucedida
+     */
+    public void setSemanticActions(SemanticActions actions) {
+        this.actions = actions;
+        this.configuredActions = actions;
+    }
+
+    /**
+     * Prepara o parser para uma nova entrada, mantendo tabela, preditor,
+     * trace e ações, e reaproveitando pilhas e listas internas
+     */
+    public void reset(List<Token> tokens) {
+        this.tokens = tokens;
+        current = 0;
+        stack.clear();
+        reductions.clear();
+        values.clear();
+        errors.clear();
+        recovering = false;
+        result = null;
+        actions = configuredActions;
+    }
+
+    public Object getResult() {
+        return result;
+    }
+
+    /**
+     * Ativa a recuperação de erros com os conjuntos FOLLOW da gramática: a
+     * análise segue até o fim da entrada e parse() retorna false se houve erros
+     */
+    public void enableErrorRecovery(Map<String, Set<String>> follow) {
+        this.follow = follow;
+    }
+
+    /**
+     * Erros sintáticos encontrados na última análise (com recuperação ativa)
+     */
+    public List<ParseError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Define o destino do trace (ParseTrace.OFF desliga toda a saída)
+     */
+    public void setTrace(ParseTrace trace) {
+        this.trace = trace;
+    }
+
     /**
      * Realiza análise sintática LL(1)
      */
     public boolean parse(String startSymbol) throws ParseError {
+        if (trace == null) {
+            trace = TextParseTrace.stdout(ParseTrace.Level.STEPS);
+        }
+        try {
+            return run(startSymbol);
+        } finally {
+            trace.flush();
+        }
+    }
+
+    private boolean run(String startSymbol) throws ParseError {
         // Inicializar pilha com [startSymbol, $]
-        stack.push("$");
-        stack.push(startSymbol);
+        push("$", -1);
+        push(startSymbol, compressedTable != null ? compressedTable.nonTerminalId(startSymbol) : -1);
 
         Token lookahead = peek();
 
-        System.out.println("\n=== Iniciando Análise LL(1) com Pilha ===");
-        printParseStep(0);
+        // Nível consultado uma vez: com OFF nenhuma string é montada por passo
+        boolean traceOn = trace.level() != ParseTrace.Level.OFF;
+        traceSteps = trace.level() == ParseTrace.Level.STEPS;
+        if (traceOn) {
+            trace.start(startSymbol, stack, tokenToTerminal(lookahead));
+        }
 
         int step = 0;
+        int repairs = 0;
         while (!stack.isEmpty()) {
             step++;
 
             String top = stack.peek();
             String lookaheadStr = tokenToTerminal(lookahead);
+            int topId = symbolIds[stack.size() - 1];
 
-            System.out.println("\nPasso " + step + ":");
-            System.out.println("  Pilha: " + stack);
-            System.out.println("  Lookahead: " + lookaheadStr + " (" + lookahead.lexeme + ")");
+            if (traceSteps) {
+                trace.step(step, stack, lookaheadStr, lookahead);
+            }
 
             if (top.equals("$")) {
                 if (lookaheadStr.equals("EOF")) {
-                    System.out.println("✅ Análise SUCESSO! String aceita.");
-                    return true;
-                } else {
+                    boolean accepted = errors.isEmpty();
+                    if (traceOn) {
+                        trace.finish(accepted, step);
+                    }
+                    result = accepted && !values.isEmpty() ? values.get(values.size() - 1) : null;
+                    return accepted;
+                } else if (follow == null) {
                     throw new ParseError("Tokens extras após o fim do programa.");
                 }
+                // Recuperação: descarta os tokens extras
+                error("Tokens extras após o fim do programa", lookahead);
+                skipToken(lookahead);
+                lookahead = peek();
+                continue;
+            }
+
+            if (follow != null && (errors.size() >= MAX_ERRORS || repairs > MAX_REPAIRS)) {
+                errors.add(new ParseError("Muitos erros; análise interrompida"));
+                if (traceOn) {
+                    trace.syntaxError(errors.get(errors.size() - 1).getMessage());
+                    trace.finish(false, step);
+                }
+                return false;
             }
 
             // Se topo é terminal
-            if (isTerminal(top)) {
+            if (compressedTable != null ? topId < 0 : isTerminal(top)) {
                 if (top.equals(lookaheadStr)) {
-                    System.out.println("  MATCH: " + top);
+                    if (traceSteps) {
+                        trace.match(top);
+                    }
                     stack.pop();
+                    if (actions != null) {
+                        values.add(lookahead);
+                        reduceCompleted();
+                    }
                     advance();
                     lookahead = peek();
-                } else {
+                    recovering = false;
+                    repairs = 0;
+                } else if (follow == null) {
                     throw new ParseError("Erro de casamento: esperado '" + top +
                             "', encontrado '" + lookaheadStr + "'");
+                } else {
+                    error("Erro de casamento: esperado '" + top + "', encontrado '" + lookaheadStr + "'",
+                            lookahead);
+                    if (!lookaheadStr.equals("EOF") && top.equals(terminalAt(current + 1))) {
+                        // Remoção: o token seguinte é o esperado
+                        skipToken(lookahead);
+                        lookahead = peek();
+                        repairs = 0;
+                    } else {
+                        // Inserção: age como se o terminal estivesse na entrada
+                        if (traceSteps) {
+                            trace.insert(top);
+                        }
+                        stack.pop();
+                        repairs++;
+                    }
                 }
             }
             // Se topo é não-terminal
-            else if (nonTerminals.contains(top)) {
-                List<String> production = getProduction(top, lookaheadStr);
+            else if (compressedTable != null || nonTerminals.contains(top)) {
+                List<String> production = predictProduction(top, topId, lookaheadStr, lookahead);
+                if (production == null && follow != null && isNullable(top)) {
+                    // A anulável: expande por ε e deixa o erro para o próximo terminal,
+                    // onde remoção/inserção de um token consegue repará-lo
+                    production = EPSILON;
+                    predictedIds = null;
+                }
 
                 if (production == null) {
-                    throw new ParseError("Erro LL(1): M[" + top + ", " + lookaheadStr +
-                            "] não definida na tabela (linha " + lookahead.line + ")");
+                    if (follow == null) {
+                        throw new ParseError("Erro LL(1): M[" + top + ", " + lookaheadStr +
+                                "] não definida na tabela (linha " + lookahead.line + ")");
+                    }
+                    error("Erro LL(1): M[" + top + ", " + lookaheadStr + "] não definida na tabela", lookahead);
+                    if (lookaheadStr.equals("EOF")
+                            || follow.getOrDefault(top, Collections.emptySet()).contains(lookaheadStr)) {
+                        // Sincronização: o lookahead pode seguir A
+                        if (traceSteps) {
+                            trace.pop(top);
+                        }
+                        stack.pop();
+                        repairs++;
+                    } else {
+                        skipToken(lookahead);
+                        lookahead = peek();
+                        repairs = 0;
+                    }
+                    continue;
                 }
 
-                System.out.println("  Produção: " + top + " → " + production);
+                if (traceSteps) {
+                    trace.expand(top, production);
+                }
                 stack.pop();
+                if (actions != null) {
+                    reductions.push(new Reduction(stack.size(), top, production));
+                }
 
                 // Empilhar produção em ordem reversa (exceto ε)
                 if (!production.get(0).equals("ε")) {
+                    int[] ids = predictedIds;
                     for (int i = production.size() - 1; i >= 0; i--) {
-                        stack.push(production.get(i));
+                        String symbol = production.get(i);
+                        push(symbol, ids != null ? ids[i]
+                                : compressedTable != null ? compressedTable.nonTerminalId(symbol) : -1);
                     }
+                } else if (actions != null) {
+                    reduceCompleted();
                 }
             } else {
                 throw new ParseError("Símbolo inválido na pilha: " + top);
             }
         }
 
-        System.out.println("\n❌ Análise FALHOU! Pilha vazia mas lookahead != $");
+        if (traceOn) {
+            trace.finish(false, step);
+        }
         return false;
     }
 
+    /**
+     * Empilha um símbolo e o id do seu não-terminal (-1 para terminais)
+     */
+    private void push(String symbol, int id) {
+        int height = stack.size();
+        if (height == symbolIds.length) {
+            symbolIds = Arrays.copyOf(symbolIds, height * 2);
+        }
+        symbolIds[height] = id;
+        stack.push(symbol);
+    }
+
+    /**
+     * Registra um erro (fora de uma recuperação em andamento) e descarta as
+     * ações semânticas: com erros não há AST a construir
+     */
+    private void error(String message, Token token) {
+        if (!recovering) {
+            ParseError e = new ParseError("[Linha " + token.line + ", Col " + token.column + "] " + message);
+            errors.add(e);
+            if (trace.level() != ParseTrace.Level.OFF) {
+                trace.syntaxError(e.getMessage());
+            }
+            recovering = true;
+        }
+        if (actions != null) {
+            actions = null;
+            reductions.clear();
+            values.clear();
+        }
+    }
+
+    private void skipToken(Token token) {
+        if (traceSteps) {
+            trace.skip(token);
+        }
+        advance();
+    }
+
+    /**
+     * A ⇒* ε: alguma célula da linha de A (para um terminal de FOLLOW(A))
+     * tem a produção ε
+     */
+    private boolean isNullable(String nonTerminal) {
+        for (String t : follow.getOrDefault(nonTerminal, Collections.emptySet())) {
+            List<String> production = getProduction(nonTerminal, t);
+            if (production != null && production.get(0).equals("ε")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String terminalAt(int index) {
+        return index < tokens.size() ? tokenToTerminal(tokens.get(index)) : "EOF";
+    }
+
+    /**
+     * Executa as reduções cujas produções acabaram de ser completadas (a
+     * pilha voltou à altura do marcador), da mais interna para a externa
+     */
+    private void reduceCompleted() {
+        while (!reductions.isEmpty() && reductions.peek().height == stack.size()) {
+            Reduction r = reductions.pop();
+            int n = r.production.get(0).equals("ε") ? 0 : r.production.size();
+            int from = values.size() - n;
+            Object[] args = values.subList(from, values.size()).toArray();
+            values.subList(from, values.size()).clear();
+            values.add(actions.reduce(r.nonTerminal, r.production, args));
+        }
+    }
+
+    /**
+     * Escolhe a produção para M[A, a], consultando o preditor adaptativo
+     * apenas quando a célula está em conflito. Com tabela comprimida a
+     * consulta usa só ids (nonTerminalId e o TokenType do lookahead) e deixa
+     * em predictedIds os ids dos não-terminais da produção.
+     */
+    private List<String> predictProduction(String nonTerminal, int nonTerminalId, String terminal, Token lookahead) {
+        boolean decision;
+        List<String> production;
+        predictedIds = null;
+        if (compressedTable != null) {
+            int terminalId = compressedTable.terminalId(lookahead.type);
+            int cell = nonTerminalId < 0 || terminalId < 0 ? -1 : compressedTable.lookup(nonTerminalId, terminalId);
+            decision = CompressedParsingTable.isDecision(cell);
+            production = compressedTable.productionOf(cell);
+            predictedIds = compressedTable.nonTerminalIds(cell);
+        } else {
+            production = getProduction(nonTerminal, terminal);
+            decision = predictor != null && predictor.isDecision(nonTerminal, terminal);
+        }
+        if (decision && predictor != null) {
+            // Contexto para o fallback: a pilha abaixo do não-terminal
+            production = predictor.predict(nonTerminal, terminal, tokens, current,
+                    stack.subList(0, stack.size() - 1));
+            predictedIds = null;
+            if (traceSteps) {
+                trace.predicted(nonTerminal, terminal, production);
+            }
+        }
+        return production;
+    }
+
     /**
      * Obtém a produção da tabela M[A, a]
      */
     private List<String> getProduction(String nonTerminal, String terminal) {
+        if (compressedTable != null) {
+            return compressedTable.lookup(nonTerminal, terminal);
+        }
         if (!parsingTable.containsKey(nonTerminal)) {
             return null;
         }
@@ -128,12 +469,19 @@ public class LL1StackParser {
      * Converte token para terminal da gramática
      */
     private String tokenToTerminal(Token token) {
-        if (token.type == TokenType.EOF) {
+        return terminalOf(token.type);
+    }
+
+    /**
+     * Converte um tipo de token para o terminal correspondente da gramática
+     */
+    public static String terminalOf(TokenType type) {
+        if (type == TokenType.EOF) {
             return "EOF";
         }
 
         // Mapeamento de TokenType para terminal
-        switch (token.type) {
+        switch (type) {
             case MAIN:
                 return "main";
             case VAR:
@@ -156,6 +504,8 @@ public class LL1StackParser {
                 return "else";
             case WHILE:
                 return "while";
+            case DO:
+                return "do";
             case FOR:
                 return "for";
             case SWITCH:
@@ -182,7 +532,7 @@ public class LL1StackParser {
             case FLOAT:
             case DOUBLE:
             case CHAR:
-                return token.type.toString();
+                return type.toString();
             case STRING:
                 return "STRING";
             case IDENTIFIER:
@@ -253,7 +603,7 @@ public class LL1StackParser {
                 return "%=";
 
             default:
-                return token.type.toString();
+                return type.toString();
         }
     }
 
@@ -264,14 +614,6 @@ public class LL1StackParser {
         return symbol.equals("$") || !nonTerminals.contains(symbol);
     }
 
-    /**
-     * Imprime passo da análise
-     */
-    private void printParseStep(int step) {
-        System.out.println("Passo " + step + ": Pilha = " + stack +
-                ", Lookahead = " + tokenToTerminal(peek()));
-    }
-
     private Token peek() {
         if (current < tokens.size()) {
             return tokens.get(current);
@@ -1,7 +1,7 @@
 import java.util.*;
 
 public class Lexer {
-    private final String src;
+    private String src;
     private final java.util.List<Token> tokens = new ArrayList<>();
     private int start = 0; // início do lexema atual
     private int current = 0; // posição atual no código
@@ -41,12 +41,33 @@ public class Lexer {
         this.src = source;
     }
 
+    /**
+     * Lexer reutilizável: chame reset(fonte) antes de cada scanTokens()
+     */
+    public Lexer() {
+        this("");
+    }
+
+    /**
+     * Prepara o lexer para uma nova entrada, reaproveitando a lista de tokens
+     * (a lista devolvida pelo scanTokens() anterior é esvaziada)
+     */
+    public void reset(String source) {
+        this.src = source;
+        tokens.clear();
+        start = 0;
+        current = 0;
+        line = 1;
+        col = 1;
+        inInterpolatedString = false;
+    }
+
     public java.util.List<Token> scanTokens() {
         while (!isAtEnd()) {
             start = current; // início do próximo lexema
             scanToken();
         }
-        tokens.add(new Token(TokenType.EOF, "<EOF>", null, line, col));
+        tokens.add(new Token(TokenType.EOF, "<EOF>", null, line, col, current));
         return tokens;
     }
 
@@ -312,7 +333,7 @@ public class Lexer {
     // add para tokens com literal
     private void add(TokenType type, Object literal) {
         String text = src.substring(start, current);
-        tokens.add(new Token(type, text, literal, line, Math.max(1, col - (current - start))));
+        tokens.add(new Token(type, text, literal, line, Math.max(1, col - (current - start)), start));
     }
 
     private static boolean isDigit(char c) {
@@ -0,0 +1,73 @@
+import java.util.*;
+
+/**
+ * LineIndex - índice de linhas de uma fonte (posição → linha/coluna)
+ *
+ * Guarda só o início de cada linha (int[]); linha e coluna de uma posição
+ * saem por busca binária. Com ele, quem guarda posições (SourceSpans,
+ * Token.offset) não precisa guardar linha e coluna de cada token.
+ *
+ * Linhas e colunas começam em 1, como nas mensagens do Lexer; a coluna
+ * conta caracteres (um '\t' vale 1).
+ */
+public final class LineIndex {
+
+    private final int[] lineStarts;
+    private final int lineCount;
+    private final int length;
+
+    private LineIndex(int[] lineStarts, int lineCount, int length) {
+        this.lineStarts = lineStarts;
+        this.lineCount = lineCount;
+        this.length = length;
+    }
+
+    public static LineIndex of(CharSequence source) {
+        int[] starts = new int[16];
+        int count = 1; // starts[0] = 0
+        for (int i = 0; i < source.length(); i++) {
+            if (source.charAt(i) == '\n') {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                }
+                starts[count++] = i + 1;
+            }
+        }
+        return new LineIndex(Arrays.copyOf(starts, count), count, source.length());
+    }
+
+    public int lineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Linha (1-based) da posição; posições fora da fonte vão para a
+     * primeira ou a última linha
+     */
+    public int line(int offset) {
+        int i = Arrays.binarySearch(lineStarts, 0, lineCount, Math.max(0, Math.min(offset, length)));
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    /**
+     * Coluna (1-based) da posição
+     */
+    public int column(int offset) {
+        int clamped = Math.max(0, Math.min(offset, length));
+        return clamped - lineStarts[line(clamped) - 1] + 1;
+    }
+
+    /**
+     * Posição do início da linha (1-based)
+     */
+    public int lineStart(int line) {
+        return lineStarts[line - 1];
+    }
+
+    /**
+     * Prefixo de diagnóstico no formato do Lexer: "[Linha L, Col C]"
+     */
+    public String describe(int offset) {
+        return "[Linha " + line(offset) + ", Col " + column(offset) + "]";
+    }
+}
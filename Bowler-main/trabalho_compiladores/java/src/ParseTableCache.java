@@ -0,0 +1,285 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * ParseTableCache - Cache binário em disco da análise LL(1)
+ *
+ * A chave é o SHA-256 do texto canônico da gramática (GrammarLoader.toText).
+ * Se existir um arquivo para a chave, FIRST, FOLLOW, tabela M[A, a] e
+ * conflitos são lidos via memory mapping e restaurados no analisador; caso
+ * contrário a análise é feita normalmente e o resultado é gravado.
+ *
+ * Formato (big-endian):
+ * magic "BLL1", versão, hash (32 bytes)
+ * tabela de strings: n, [tamanho, bytes UTF-8]...
+ * FIRST e FOLLOW: n, [nt, k, símbolo...]...
+ * tabela: linhas, [nt, células, [terminal, tamanho, símbolo...]...]...
+ * conflitos: n, [string]...
+ * alternativas em conflito: linhas, [nt, células, [terminal, k, [produção]...]...]...
+ * (símbolos são índices na tabela de strings)
+ */
+public class ParseTableCache {
+
+    private static final int MAGIC = 0x424C4C31; // "BLL1"
+    private static final int VERSION = 2;
+
+    private final Path directory;
+
+    public ParseTableCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Diretório padrão: -Dbowler.cache.dir ou <tmp>/bowler-cache
+     */
+    public static ParseTableCache defaultCache() {
+        String dir = System.getProperty("bowler.cache.dir",
+                Path.of(System.getProperty("java.io.tmpdir"), "bowler-cache").toString());
+        return new ParseTableCache(Path.of(dir));
+    }
+
+    /**
+     * Restaura a análise do cache ou a calcula (e grava) se não existir.
+     * Retorna true quando o cache foi usado.
+     */
+    public boolean analyze(LL1GrammarAnalyzer analyzer) {
+        byte[] hash = hash(GrammarLoader.toText(analyzer));
+        Path file = directory.resolve(hex(hash) + ".ll1cache");
+
+        if (Files.isRegularFile(file)) {
+            try {
+                if (read(file, hash, analyzer)) {
+                    return true;
+                }
+            } catch (IOException | RuntimeException e) {
+                // Cache corrompido ou de outra versão: recalcula abaixo
+            }
+        }
+
+        analyzer.calculateFirst();
+        analyzer.calculateFollow();
+        analyzer.buildParsingTable();
+
+        try {
+            write(file, hash, analyzer);
+        } catch (IOException e) {
+            System.err.println("⚠️ Não foi possível gravar o cache da gramática: " + e.getMessage());
+        }
+        return false;
+    }
+
+    // ------------------ Escrita ------------------
+
+    private void write(Path file, byte[] hash, LL1GrammarAnalyzer analyzer) throws IOException {
+        Files.createDirectories(directory);
+
+        // Tabela de strings
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        for (Set<String> set : analyzer.getFirst().values()) {
+            intern(ids, set);
+        }
+        for (Set<String> set : analyzer.getFollow().values()) {
+            intern(ids, set);
+        }
+        intern(ids, analyzer.getNonTerminals());
+        for (Map<String, List<String>> row : analyzer.getParsingTable().values()) {
+            intern(ids, row.keySet());
+            for (List<String> production : row.values()) {
+                intern(ids, production);
+            }
+        }
+        intern(ids, analyzer.getConflicts());
+        Map<String, Map<String, List<List<String>>>> alternatives = analyzer.getConflictAlternatives();
+        for (Map.Entry<String, Map<String, List<List<String>>>> row : alternatives.entrySet()) {
+            ids.putIfAbsent(row.getKey(), ids.size());
+            intern(ids, row.getValue().keySet());
+            for (List<List<String>> alts : row.getValue().values()) {
+                for (List<String> production : alts) {
+                    intern(ids, production);
+                }
+            }
+        }
+
+        // Grava em arquivo temporário e move (leitores concorrentes nunca veem arquivo parcial)
+        Path tmp = Files.createTempFile(directory, "ll1", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.write(hash);
+
+            out.writeInt(ids.size());
+            for (String s : ids.keySet()) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            writeSets(out, ids, analyzer.getFirst());
+            writeSets(out, ids, analyzer.getFollow());
+
+            Map<String, Map<String, List<String>>> table = analyzer.getParsingTable();
+            out.writeInt(table.size());
+            for (Map.Entry<String, Map<String, List<String>>> row : table.entrySet()) {
+                out.writeInt(ids.get(row.getKey()));
+                out.writeInt(row.getValue().size());
+                for (Map.Entry<String, List<String>> cell : row.getValue().entrySet()) {
+                    out.writeInt(ids.get(cell.getKey()));
+                    writeSymbols(out, ids, cell.getValue());
+                }
+            }
+
+            writeSymbols(out, ids, analyzer.getConflicts());
+
+            out.writeInt(alternatives.size());
+            for (Map.Entry<String, Map<String, List<List<String>>>> row : alternatives.entrySet()) {
+                out.writeInt(ids.get(row.getKey()));
+                out.writeInt(row.getValue().size());
+                for (Map.Entry<String, List<List<String>>> cell : row.getValue().entrySet()) {
+                    out.writeInt(ids.get(cell.getKey()));
+                    out.writeInt(cell.getValue().size());
+                    for (List<String> production : cell.getValue()) {
+                        writeSymbols(out, ids, production);
+                    }
+                }
+            }
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void intern(Map<String, Integer> ids, Collection<String> symbols) {
+        for (String s : symbols) {
+            ids.putIfAbsent(s, ids.size());
+        }
+    }
+
+    private static void writeSets(DataOutputStream out, Map<String, Integer> ids,
+            Map<String, Set<String>> sets) throws IOException {
+        out.writeInt(sets.size());
+        for (Map.Entry<String, Set<String>> e : sets.entrySet()) {
+            out.writeInt(ids.get(e.getKey()));
+            writeSymbols(out, ids, e.getValue());
+        }
+    }
+
+    private static void writeSymbols(DataOutputStream out, Map<String, Integer> ids,
+            Collection<String> symbols) throws IOException {
+        out.writeInt(symbols.size());
+        for (String s : symbols) {
+            out.writeInt(ids.get(s));
+        }
+    }
+
+    // ------------------ Leitura (memory mapped) ------------------
+
+    private boolean read(Path file, byte[] hash, LL1GrammarAnalyzer analyzer) throws IOException {
+        MappedByteBuffer buf;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+            return false;
+        }
+        byte[] stored = new byte[hash.length];
+        buf.get(stored);
+        if (!Arrays.equals(stored, hash)) {
+            return false;
+        }
+
+        String[] strings = new String[buf.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[buf.getInt()];
+            buf.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        Map<String, Set<String>> first = readSets(buf, strings);
+        Map<String, Set<String>> follow = readSets(buf, strings);
+
+        Map<String, Map<String, List<String>>> table = new HashMap<>();
+        int rows = buf.getInt();
+        for (int r = 0; r < rows; r++) {
+            String nt = strings[buf.getInt()];
+            int cells = buf.getInt();
+            Map<String, List<String>> row = new HashMap<>();
+            for (int c = 0; c < cells; c++) {
+                String terminal = strings[buf.getInt()];
+                row.put(terminal, readSymbols(buf, strings, new ArrayList<>()));
+            }
+            table.put(nt, row);
+        }
+
+        List<String> conflicts = readSymbols(buf, strings, new ArrayList<>());
+
+        Map<String, Map<String, List<List<String>>>> alternatives = new HashMap<>();
+        int altRows = buf.getInt();
+        for (int r = 0; r < altRows; r++) {
+            String nt = strings[buf.getInt()];
+            int cells = buf.getInt();
+            Map<String, List<List<String>>> row = new HashMap<>();
+            for (int c = 0; c < cells; c++) {
+                String terminal = strings[buf.getInt()];
+                int n = buf.getInt();
+                List<List<String>> alts = new ArrayList<>();
+                for (int k = 0; k < n; k++) {
+                    alts.add(readSymbols(buf, strings, new ArrayList<>()));
+                }
+                row.put(terminal, alts);
+            }
+            alternatives.put(nt, row);
+        }
+
+        analyzer.restoreAnalysis(first, follow, table, conflicts, alternatives);
+        return true;
+    }
+
+    private static Map<String, Set<String>> readSets(ByteBuffer buf, String[] strings) {
+        Map<String, Set<String>> sets = new HashMap<>();
+        int n = buf.getInt();
+        for (int i = 0; i < n; i++) {
+            String nt = strings[buf.getInt()];
+            sets.put(nt, readSymbols(buf, strings, new HashSet<>()));
+        }
+        return sets;
+    }
+
+    private static <C extends Collection<String>> C readSymbols(ByteBuffer buf, String[] strings, C target) {
+        int n = buf.getInt();
+        for (int i = 0; i < n; i++) {
+            target.add(strings[buf.getInt()]);
+        }
+        return target;
+    }
+
+    // ------------------ Hash ------------------
+
+    private static byte[] hash(String grammarText) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(("bowler-ll1-cache-v" + VERSION + "\n").getBytes(StandardCharsets.UTF_8));
+            return md.digest(grammarText.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+}
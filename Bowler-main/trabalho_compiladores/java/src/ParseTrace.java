@@ -0,0 +1,134 @@
+import java.util.List;
+
+/**
+ * ParseTrace - Destino do rastreamento (trace) do LL1StackParser
+ *
+ * Níveis:
+ * OFF - nada é registrado; o parser nem chama os métodos de passo
+ * SUMMARY - apenas início e resultado final
+ * STEPS - cada passo (pilha, lookahead, MATCH, produção, recuperação)
+ *
+ * O parser consulta level() uma única vez por análise, de modo que com OFF
+ * nenhuma string é construída. Implementações: TextParseTrace (texto, com
+ * buffer) e BinaryParseTrace (log binário compacto, renderizado depois).
+ */
+public interface ParseTrace {
+
+    enum Level {
+        OFF, SUMMARY, STEPS
+    }
+
+    /**
+     * Trace desligado
+     */
+    ParseTrace OFF = new ParseTrace() {
+        @Override
+        public Level level() {
+            return Level.OFF;
+        }
+
+        @Override
+        public void start(String startSymbol, List<String> stack, String lookahead) {
+        }
+
+        @Override
+        public void step(int step, List<String> stack, String lookahead, Token token) {
+        }
+
+        @Override
+        public void match(String terminal) {
+        }
+
+        @Override
+        public void predicted(String nonTerminal, String terminal, List<String> production) {
+        }
+
+        @Override
+        public void expand(String nonTerminal, List<String> production) {
+        }
+
+        @Override
+        public void syntaxError(String message) {
+        }
+
+        @Override
+        public void skip(Token token) {
+        }
+
+        @Override
+        public void insert(String terminal) {
+        }
+
+        @Override
+        public void pop(String nonTerminal) {
+        }
+
+        @Override
+        public void finish(boolean accepted, int steps) {
+        }
+
+        @Override
+        public void flush() {
+        }
+    };
+
+    Level level();
+
+    /**
+     * Início da análise (SUMMARY e STEPS)
+     */
+    void start(String startSymbol, List<String> stack, String lookahead);
+
+    /**
+     * Início de um passo (apenas STEPS); stack tem o fundo no índice 0
+     */
+    void step(int step, List<String> stack, String lookahead, Token token);
+
+    /**
+     * Terminal casado com o lookahead (apenas STEPS)
+     */
+    void match(String terminal);
+
+    /**
+     * Célula em conflito decidida pela predição adaptativa (apenas STEPS)
+     */
+    void predicted(String nonTerminal, String terminal, List<String> production);
+
+    /**
+     * Não-terminal expandido pela produção (apenas STEPS)
+     */
+    void expand(String nonTerminal, List<String> production);
+
+    /**
+     * Erro sintático reportado (SUMMARY e STEPS); com recuperação de erros o
+     * reparo vem a seguir, no mesmo passo
+     */
+    void syntaxError(String message);
+
+    /**
+     * Recuperação: token da entrada descartado (apenas STEPS)
+     */
+    void skip(Token token);
+
+    /**
+     * Recuperação: terminal do topo considerado inserido e desempilhado
+     * (apenas STEPS)
+     */
+    void insert(String terminal);
+
+    /**
+     * Recuperação: não-terminal desempilhado na sincronização por FOLLOW
+     * (apenas STEPS)
+     */
+    void pop(String nonTerminal);
+
+    /**
+     * Fim da análise (SUMMARY e STEPS)
+     */
+    void finish(boolean accepted, int steps);
+
+    /**
+     * Descarrega o buffer (chamado pelo parser ao terminar, mesmo com erro)
+     */
+    void flush();
+}
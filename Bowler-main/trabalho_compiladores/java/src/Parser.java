@@ -1,14 +1,50 @@
 import java.util.*;
 
 public class Parser {
-    private final List<Token> tokens;
+    private List<Token> tokens;
     private int current = 0;
+    private ExprInterner interner; // null = sem hash-consing
+    private SourceSpans spans; // null = sem tabela de trechos
+    private final Map<Object, Long> recorded = new IdentityHashMap<>(); // nó -> início << 32 | fim
 
     public Parser(List<Token> tokens) {
         this.tokens = tokens;
     }
 
+    /**
+     * Parser reutilizável: chame reset(tokens) antes de cada parse()
+     */
+    public Parser() {
+        this(Collections.emptyList());
+    }
+
+    public void reset(List<Token> tokens) {
+        this.tokens = tokens;
+        this.current = 0;
+    }
+
+    /**
+     * Liga o hash-consing de expressões (null desliga): subárvores AST.Expr
+     * estruturalmente iguais e sem efeito colateral (sem atribuição nem
+     * input) passam a ser uma só instância. O interner é do
+     * chamador e sobrevive a reset(), então pode ser dividido por um lote.
+     */
+    public Parser hashConsing(ExprInterner interner) {
+        this.interner = interner;
+        return this;
+    }
+
+    /**
+     * Passa a preencher a tabela de trechos (null desliga) ao fim de cada
+     * parse(): início e comprimento de cada nó na fonte, nos ids da AstArena
+     */
+    public Parser recordSpans(SourceSpans spans) {
+        this.spans = spans;
+        return this;
+    }
+
     public AST.Program parse() {
+        recorded.clear();
         AST.Block mainBlock;
         if (match(TokenType.MAIN)) {
             mainBlock = block();
@@ -20,11 +56,21 @@ public class Parser {
         while (!isAtEnd() && peek().type != TokenType.EOF)
             advance();
         consume(TokenType.EOF, "Tokens extras após o fim do programa.");
-        return new AST.Program(mainBlock);
+        AST.Program program = span(new AST.Program(mainBlock), 0);
+        if (spans != null) {
+            spans.fill(program, recorded);
+            recorded.clear();
+        }
+        return program;
     }
 
     // ------------------ Statements ------------------
     private AST.Statement declarationOrStmt() {
+        int start = current;
+        return span(statement(), start);
+    }
+
+    private AST.Statement statement() {
         if (match(TokenType.VAR))
             return varDecl();
         if (match(TokenType.IF))
@@ -79,10 +125,11 @@ public class Parser {
         AST.Block defaultBlock = null;
         while (!check(TokenType.RIGHT_BRACE) && !isAtEnd()) {
             if (match(TokenType.CASE)) {
+                int caseStart = current - 1;
                 AST.Expr value = expression();
                 consume(TokenType.COLON, "Esperado ':' após valor do case.");
                 AST.Block block = block();
-                cases.add(new AST.Case(value, block));
+                cases.add(span(new AST.Case(value, block), caseStart));
             } else if (match(TokenType.DEFAULT)) {
                 consume(TokenType.COLON, "Esperado ':' após 'default'.");
                 defaultBlock = block();
@@ -193,13 +240,14 @@ public class Parser {
     }
 
     private AST.Block block() {
+        int start = current;
         consume(TokenType.LEFT_BRACE, "Esperado '{' para iniciar bloco.");
         List<AST.Statement> stmts = new ArrayList<>();
         while (!check(TokenType.RIGHT_BRACE) && !isAtEnd()) {
             stmts.add(declarationOrStmt());
         }
         consume(TokenType.RIGHT_BRACE, "Esperado '}' para fechar bloco.");
-        return new AST.Block(stmts);
+        return span(new AST.Block(stmts), start);
     }
 
     // ------------------ Expressions ------------------
@@ -209,87 +257,96 @@ public class Parser {
 
     // cond ? expr1 : expr2
     private AST.Expr ternary() {
+        int start = current;
         AST.Expr expr = or();
         if (match(TokenType.QUESTION)) {
             AST.Expr thenExpr = expression();
             consume(TokenType.COLON, "Esperado ':' no operador ternário.");
             AST.Expr elseExpr = expression();
-            return new AST.Ternary(expr, thenExpr, elseExpr);
+            return node(new AST.Ternary(expr, thenExpr, elseExpr), start);
         }
         return expr;
     }
 
     private AST.Expr or() {
+        int start = current;
         AST.Expr expr = and();
         while (match(TokenType.OR_OR)) {
             Token op = previous();
             AST.Expr right = and();
-            expr = new AST.Binary(expr, op, right);
+            expr = node(new AST.Binary(expr, op, right), start);
         }
         return expr;
     }
 
     private AST.Expr and() {
+        int start = current;
         AST.Expr expr = equality();
         while (match(TokenType.AND_AND)) {
             Token op = previous();
             AST.Expr right = equality();
-            expr = new AST.Binary(expr, op, right);
+            expr = node(new AST.Binary(expr, op, right), start);
         }
         return expr;
     }
 
     private AST.Expr equality() {
+        int start = current;
         AST.Expr expr = relational();
         while (match(TokenType.EQUAL_EQUAL, TokenType.BANG_EQUAL)) {
             Token op = previous();
             AST.Expr right = relational();
-            expr = new AST.Binary(expr, op, right);
+            expr = node(new AST.Binary(expr, op, right), start);
         }
         return expr;
     }
 
     private AST.Expr relational() {
+        int start = current;
         AST.Expr expr = addition();
         while (match(TokenType.LESS, TokenType.LESS_EQUAL, TokenType.GREATER, TokenType.GREATER_EQUAL)) {
             Token op = previous();
             AST.Expr right = addition();
-            expr = new AST.Binary(expr, op, right);
+            expr = node(new AST.Binary(expr, op, right), start);
         }
         return expr;
     }
 
     private AST.Expr addition() {
+        int start = current;
         AST.Expr expr = multiplication();
         while (match(TokenType.PLUS, TokenType.MINUS)) {
             Token op = previous();
             AST.Expr right = multiplication();
-            expr = new AST.Binary(expr, op, right);
+            expr = node(new AST.Binary(expr, op, right), start);
         }
         return expr;
     }
 
     private AST.Expr multiplication() {
+        int start = current;
         AST.Expr expr = unary();
         while (match(TokenType.STAR, TokenType.SLASH, TokenType.PERCENT)) {
             Token op = previous();
             AST.Expr right = unary();
-            expr = new AST.Binary(expr, op, right);
+            expr = node(new AST.Binary(expr, op, right), start);
         }
         return expr;
     }
 
     private AST.Expr unary() {
+        int start = current;
         if (match(TokenType.BANG, TokenType.MINUS)) {
             Token op = previous();
             AST.Expr right = unary();
-            return new AST.Unary(op, right);
+            return node(new AST.Unary(op, right), start);
         }
         return assignmentLike();
     }
 
     // Suporta atribuição simples: IDENT '=' Expr
     private AST.Expr assignmentLike() {
+        int start = current;
         AST.Expr left = primary();
         if (match(TokenType.EQUAL, TokenType.PLUS_EQUAL, TokenType.MINUS_EQUAL, TokenType.STAR_EQUAL,
                 TokenType.SLASH_EQUAL, TokenType.PERCENT_EQUAL)) {
@@ -299,7 +356,7 @@ public class Parser {
                 // Para operadores compostos, cria um nó de atribuição equivalente: x += y => x
                 // = x + y
                 if (op.type == TokenType.EQUAL) {
-                    return new AST.Assign(((AST.Variable) left).name, value, op);
+                    return node(new AST.Assign(((AST.Variable) left).name, value, op), start);
                 } else {
                     TokenType binOp;
                     switch (op.type) {
@@ -321,9 +378,9 @@ public class Parser {
                         default:
                             throw error(op, "Operador de atribuição composto inválido.");
                     }
-                    Token fakeOp = new Token(binOp, op.lexeme.substring(0, 1), null, op.line, op.column);
-                    AST.Expr bin = new AST.Binary(left, fakeOp, value);
-                    return new AST.Assign(((AST.Variable) left).name, bin, op);
+                    Token fakeOp = new Token(binOp, op.lexeme.substring(0, 1), null, op.line, op.column, op.offset);
+                    AST.Expr bin = node(new AST.Binary(left, fakeOp, value), start);
+                    return node(new AST.Assign(((AST.Variable) left).name, bin, op), start);
                 }
             }
             throw error(op, "Alvo de atribuição inválido.");
@@ -332,39 +389,40 @@ public class Parser {
     }
 
     private AST.Expr primary() {
+        int start = current;
         if (match(TokenType.FALSE))
-            return new AST.Literal(false);
+            return node(new AST.Literal(false), start);
         if (match(TokenType.TRUE))
-            return new AST.Literal(true);
+            return node(new AST.Literal(true), start);
         if (match(TokenType.NUMBER))
-            return new AST.Literal(previous().literal);
+            return node(new AST.Literal(previous().literal), start);
         if (match(TokenType.FLOAT))
-            return new AST.Literal(previous().literal);
+            return node(new AST.Literal(previous().literal), start);
         if (match(TokenType.DOUBLE))
-            return new AST.Literal(previous().literal);
+            return node(new AST.Literal(previous().literal), start);
         if (match(TokenType.CHAR))
-            return new AST.Literal(previous().literal);
+            return node(new AST.Literal(previous().literal), start);
         if (match(TokenType.STRING)) {
             Object val = previous().literal;
-            return new AST.Literal(val);
+            return node(new AST.Literal(val), start);
         }
         if (check(TokenType.INTERPOLATED_STRING)) {
             java.util.List<Object> parts = new java.util.ArrayList<>();
             while (check(TokenType.INTERPOLATED_STRING) || check(TokenType.LEFT_BRACE) || check(TokenType.STRING)) {
                 if (match(TokenType.INTERPOLATED_STRING)) {
-                    parts.add(previous().literal);
+                    parts.add(span(previous().literal, current - 1));
                 } else if (match(TokenType.LEFT_BRACE)) {
                     // Suporta apenas expressão simples entre { e }
                     AST.Expr expr = expression();
                     consume(TokenType.RIGHT_BRACE, "Esperado '}' após expressão interpolada.");
                     parts.add(expr);
                 } else if (match(TokenType.STRING)) {
-                    parts.add(previous().literal);
+                    parts.add(span(previous().literal, current - 1));
                 } else {
                     break;
                 }
             }
-            return new AST.InterpolatedString(parts);
+            return node(new AST.InterpolatedString(parts), start);
         }
         if (match(TokenType.INPUT)) {
             consume(TokenType.LEFT_PAREN, "Esperado '(' após 'input'.");
@@ -377,7 +435,7 @@ public class Parser {
                 }
             }
             consume(TokenType.RIGHT_PAREN, "Esperado ')' após input.");
-            return new AST.Input(prompt);
+            return node(new AST.Input(prompt), start);
         }
         if (match(TokenType.LEFT_BRACKET)) {
             // Inicialização literal de array: [expr1, expr2, ...]
@@ -388,27 +446,43 @@ public class Parser {
                 } while (match(TokenType.COMMA));
             }
             consume(TokenType.RIGHT_BRACKET, "Esperado ']' após elementos do array.");
-            return new AST.ArrayLiteral(elements);
+            return node(new AST.ArrayLiteral(elements), start);
         }
         if (match(TokenType.IDENTIFIER)) {
-            AST.Expr var = new AST.Variable(previous());
+            AST.Expr var = node(new AST.Variable(previous()), start);
             // Suporte a acesso por índice: var[expr]
             while (match(TokenType.LEFT_BRACKET)) {
                 AST.Expr index = expression();
                 consume(TokenType.RIGHT_BRACKET, "Esperado ']' após índice do array.");
-                var = new AST.ArrayAccess(var, index);
+                var = node(new AST.ArrayAccess(var, index), start);
             }
             return var;
         }
         if (match(TokenType.LEFT_PAREN)) {
             AST.Expr expr = expression();
             consume(TokenType.RIGHT_PAREN, "Esperado ')' após expressão.");
-            return new AST.Grouping(expr);
+            return node(new AST.Grouping(expr), start);
         }
         throw error(peek(), "Expressão primária inválida.");
     }
 
     // ------------------ Utilidades ------------------
+    private AST.Expr node(AST.Expr e, int startToken) {
+        return span(interner == null ? e : interner.intern(e), startToken);
+    }
+
+    // Anota o trecho do nó: do token startToken até o último consumido
+    private <T> T span(T node, int startToken) {
+        if (spans != null) {
+            Token first = tokens.get(startToken);
+            Token last = previous();
+            if (first.offset >= 0 && last.offset >= 0) {
+                recorded.putIfAbsent(node, (long) first.offset << 32 | (last.offset + last.lexeme.length()));
+            }
+        }
+        return node;
+    }
+
     private boolean match(TokenType... types) {
         for (TokenType t : types) {
             if (check(t)) {
@@ -0,0 +1,126 @@
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * ParserBenchmark - Compara, sobre os mesmos tokens, o parser gerado
+ * (GeneratedBowlerParser), o parser com pilha dirigido por tabela
+ * (LL1StackParser) e o parser recursivo escrito à mão (Parser)
+ *
+ * Uso: java -cp bin ParserBenchmark [arquivo.bw ...]
+ * Sem argumentos, usa um programa sintético com 500 repetições de comandos
+ * aceitos pelas três implementações.
+ */
+public class ParserBenchmark {
+
+    private static final int WARMUP = 10;
+    private static final int ITERATIONS = 20;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> sources = new LinkedHashMap<>();
+        for (String arg : args) {
+            sources.put(arg, Files.readString(Path.of(arg)));
+        }
+        if (sources.isEmpty()) {
+            sources.put("<sintético>", syntheticProgram(500));
+        }
+
+        LL1GrammarAnalyzer analyzer = Bowler.createBowlerLL1Analyzer();
+        analyzer.setReportConflicts(false);
+        analyzer.calculateFirst();
+        analyzer.calculateFollow();
+        analyzer.buildParsingTable();
+        CompressedParsingTable compressed = CompressedParsingTable.fromAnalyzer(analyzer);
+        AdaptivePredictor predictor = new AdaptivePredictor(analyzer);
+
+        // Só entram no benchmark entradas aceitas pela gramática LL(1)
+        List<List<Token>> inputs = new ArrayList<>();
+        long totalTokens = 0;
+        for (Map.Entry<String, String> e : sources.entrySet()) {
+            List<Token> tokens = new Lexer(e.getValue()).scanTokens();
+            try {
+                new GeneratedBowlerParser(tokens, predictor).parse();
+            } catch (ParseError err) {
+                System.out.println("Ignorado " + e.getKey() + ": " + err.getMessage());
+                continue;
+            }
+            inputs.add(tokens);
+            totalTokens += tokens.size();
+        }
+        if (inputs.isEmpty()) {
+            return;
+        }
+
+        System.out.println("=== Benchmark de parsers (" + inputs.size() + " entrada(s), "
+                + totalTokens + " tokens) ===");
+
+        run("Gerado (switch/TokenType)", totalTokens, () -> {
+            for (List<Token> tokens : inputs) {
+                new GeneratedBowlerParser(tokens, predictor).parse();
+            }
+        });
+
+        run("LL1StackParser (tabela)", totalTokens, () -> {
+            // Trace desligado: mede só a análise
+            for (List<Token> tokens : inputs) {
+                LL1StackParser parser = new LL1StackParser(tokens, compressed, analyzer.getNonTerminals(),
+                        analyzer.getTerminals());
+                parser.enableAdaptivePrediction(predictor);
+                parser.setTrace(ParseTrace.OFF);
+                parser.parse(analyzer.getStartSymbol());
+            }
+        });
+
+        run("LL1StackParser + AST (ações)", totalTokens, () -> {
+            for (List<Token> tokens : inputs) {
+                LL1StackParser parser = new LL1StackParser(tokens, compressed, analyzer.getNonTerminals(),
+                        analyzer.getTerminals());
+                parser.enableAdaptivePrediction(predictor);
+                parser.setTrace(ParseTrace.OFF);
+                parser.setSemanticActions(new BowlerAstActions());
+                parser.parse(analyzer.getStartSymbol());
+            }
+        });
+
+        run("Parser recursivo (AST)", totalTokens, () -> {
+            for (List<Token> tokens : inputs) {
+                new Parser(tokens).parse();
+            }
+        });
+    }
+
+    private static void run(String name, long tokens, Runnable body) {
+        for (int i = 0; i < WARMUP; i++) {
+            body.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            body.run();
+        }
+        double nanosPerIter = (System.nanoTime() - start) / (double) ITERATIONS;
+        System.out.printf("%-28s %10.3f ms/iter %10.2f ns/token%n", name, nanosPerIter / 1e6, nanosPerIter / tokens);
+    }
+
+    /**
+     * Programa com comandos reconhecidos pela gramática LL(1) e pelo parser
+     * recursivo
+     */
+    static String syntheticProgram(int repetitions) {
+        StringBuilder sb = new StringBuilder("main {\n");
+        sb.append("  var x: int = 10;\n");
+        sb.append("  var y: int = 2;\n");
+        for (int i = 0; i < repetitions; i++) {
+            sb.append("  x = x + y * 3 - (x / 2);\n");
+            sb.append("  if (x > y && y != 0) {\n");
+            sb.append("    x = x - 1;\n");
+            sb.append("  } else {\n");
+            sb.append("    x = 0;\n");
+            sb.append("  }\n");
+            sb.append("  while (x >= 100) {\n");
+            sb.append("    x = x - 1;\n");
+            sb.append("  }\n");
+        }
+        sb.append("  return x;\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,298 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * ParserGenerator - Gera um parser Java especializado a partir da tabela LL(1)
+ *
+ * Em vez de interpretar M[A, a] em tempo de execução (LL1StackParser), o
+ * gerador emite uma classe com um método por não-terminal, cuja predição é um
+ * switch sobre TokenType. Produções com recursão à direita no próprio
+ * não-terminal (ex.: StmtList → Statement StmtList) viram laços, evitando
+ * recursão proporcional ao tamanho da entrada. Células em conflito viram uma
+ * chamada a AdaptivePredictor seguida de um if/else entre as alternativas.
+ *
+ * Uso: java -cp bin ParserGenerator [--grammar=arquivo.ll1] src/GeneratedBowlerParser.java
+ */
+public class ParserGenerator {
+
+    private final LL1GrammarAnalyzer analyzer;
+    private final String className;
+    // terminal da gramática → tipos de token que o produzem
+    private final Map<String, List<TokenType>> tokenTypesOf = new HashMap<>();
+    private final StringBuilder out = new StringBuilder();
+
+    public ParserGenerator(LL1GrammarAnalyzer analyzer, String className) {
+        this.analyzer = analyzer;
+        this.className = className;
+        for (TokenType type : TokenType.values()) {
+            tokenTypesOf.computeIfAbsent(LL1StackParser.terminalOf(type), k -> new ArrayList<>()).add(type);
+        }
+    }
+
+    /**
+     * Gera o código-fonte da classe (o analisador já deve ter a tabela construída)
+     */
+    public String generate() {
+        out.setLength(0);
+        Map<String, Map<String, List<String>>> table = analyzer.getParsingTable();
+        String start = analyzer.getStartSymbol();
+        boolean adaptive = !analyzer.getConflictAlternatives().isEmpty();
+
+        line(0, "import java.util.*;");
+        line(0, "");
+        line(0, "/**");
+        line(0, " * " + className + " - Parser LL(1) gerado por ParserGenerator. NÃO EDITAR.");
+        line(0, " *");
+        line(0, " * Um método por não-terminal; predição por switch sobre TokenType.");
+        if (adaptive) {
+            line(0, " * Células em conflito são decididas por AdaptivePredictor.");
+        }
+        line(0, " */");
+        line(0, "public class " + className + " {");
+        line(1, "private final List<Token> tokens;");
+        if (adaptive) {
+            line(1, "private final AdaptivePredictor predictor;");
+        }
+        line(1, "private int current = 0;");
+        line(0, "");
+        if (adaptive) {
+            line(1, "public " + className + "(List<Token> tokens, AdaptivePredictor predictor) {");
+            line(2, "this.tokens = tokens;");
+            line(2, "this.predictor = predictor;");
+        } else {
+            line(1, "public " + className + "(List<Token> tokens) {");
+            line(2, "this.tokens = tokens;");
+        }
+        line(1, "}");
+        line(0, "");
+        line(1, "public boolean parse() {");
+        line(2, methodName(start) + "();");
+        line(2, "if (peekType() != TokenType.EOF) {");
+        line(3, "throw new ParseError(\"Tokens extras após o fim do programa.\");");
+        line(2, "}");
+        line(2, "return true;");
+        line(1, "}");
+
+        for (String nt : new TreeSet<>(analyzer.getNonTerminals())) {
+            generateNonTerminal(nt, table.getOrDefault(nt, Collections.emptyMap()));
+        }
+
+        generateHelpers();
+        line(0, "}");
+        return out.toString();
+    }
+
+    private void generateNonTerminal(String nt, Map<String, List<String>> row) {
+        Map<String, List<List<String>>> decisionRow = analyzer.getConflictAlternatives()
+                .getOrDefault(nt, Collections.emptyMap());
+
+        // Agrupa os terminais por produção (um grupo de "case" por produção);
+        // células em conflito são agrupadas pelas alternativas da decisão
+        Map<List<String>, List<TokenType>> cases = new LinkedHashMap<>();
+        Map<List<String>, List<String>> terminalsOf = new LinkedHashMap<>();
+        Map<List<List<String>>, List<TokenType>> decisions = new LinkedHashMap<>();
+        for (String terminal : new TreeSet<>(row.keySet())) {
+            List<TokenType> types = tokenTypesOf.getOrDefault(terminal, Collections.emptyList());
+            if (decisionRow.containsKey(terminal)) {
+                decisions.computeIfAbsent(decisionRow.get(terminal), k -> new ArrayList<>()).addAll(types);
+                continue;
+            }
+            List<String> production = row.get(terminal);
+            terminalsOf.computeIfAbsent(production, k -> new ArrayList<>()).add(terminal);
+            cases.computeIfAbsent(production, k -> new ArrayList<>()).addAll(types);
+        }
+
+        boolean loop = false;
+        for (List<String> production : cases.keySet()) {
+            loop |= isTailRecursive(nt, production);
+        }
+        for (List<List<String>> alts : decisions.keySet()) {
+            for (List<String> production : alts) {
+                loop |= isTailRecursive(nt, production);
+            }
+        }
+
+        line(0, "");
+        for (Map.Entry<List<String>, List<String>> e : terminalsOf.entrySet()) {
+            line(1, "// " + nt + " → " + String.join(" ", e.getKey()) + "   " + e.getValue());
+        }
+        for (List<List<String>> alts : decisions.keySet()) {
+            for (List<String> production : alts) {
+                line(1, "// " + nt + " → " + String.join(" ", production) + "   (predição adaptativa)");
+            }
+        }
+        line(1, "private void " + methodName(nt) + "() {");
+        int depth = 2;
+        if (loop) {
+            line(2, "while (true) {");
+            depth = 3;
+        }
+        line(depth, "switch (peekType()) {");
+        for (Map.Entry<List<String>, List<TokenType>> e : cases.entrySet()) {
+            for (TokenType type : e.getValue()) {
+                line(depth + 1, "case " + type + ":");
+            }
+            generateBody(nt, e.getKey(), depth + 2, loop);
+        }
+        for (Map.Entry<List<List<String>>, List<TokenType>> e : decisions.entrySet()) {
+            for (TokenType type : e.getValue()) {
+                line(depth + 1, "case " + type + ":");
+            }
+            // Célula em conflito: a alternativa é escolhida olhando adiante
+            line(depth + 2, "{");
+            line(depth + 3, "int alt = predictor.predictAlternative(\"" + escape(nt)
+                    + "\", LL1StackParser.terminalOf(peekType()), tokens, current);");
+            List<List<String>> alts = e.getKey();
+            for (int i = 0; i < alts.size(); i++) {
+                if (i == 0) {
+                    line(depth + 3, "if (alt == 0) {");
+                } else if (i < alts.size() - 1) {
+                    line(depth + 3, "} else if (alt == " + i + ") {");
+                } else {
+                    line(depth + 3, "} else {");
+                }
+                generateBody(nt, alts.get(i), depth + 4, loop);
+            }
+            line(depth + 3, "}");
+            line(depth + 2, "}");
+        }
+        line(depth + 1, "default:");
+        line(depth + 2, "throw noEntry(\"" + escape(nt) + "\");");
+        line(depth, "}");
+        if (loop) {
+            line(2, "}");
+        }
+        line(1, "}");
+    }
+
+    /**
+     * Emite o reconhecimento de uma produção seguido do desvio adequado
+     * (continue para recursão de cauda, return/break caso contrário)
+     */
+    private void generateBody(String nt, List<String> production, int depth, boolean loop) {
+        boolean tail = isTailRecursive(nt, production);
+        List<String> body = tail ? production.subList(0, production.size() - 1) : production;
+        for (String symbol : body) {
+            if (symbol.equals("ε")) {
+                continue;
+            }
+            if (analyzer.getNonTerminals().contains(symbol)) {
+                line(depth, methodName(symbol) + "();");
+            } else {
+                line(depth, matchCall(symbol));
+            }
+        }
+        if (tail) {
+            line(depth, "continue;");
+        } else {
+            line(depth, loop ? "return;" : "break;");
+        }
+    }
+
+    private String matchCall(String terminal) {
+        List<TokenType> types = tokenTypesOf.getOrDefault(terminal, Collections.emptyList());
+        if (types.size() == 1) {
+            return "expect(TokenType." + types.get(0) + ", \"" + escape(terminal) + "\");";
+        }
+        // Terminal sem tipo de token correspondente (ou com vários): verificação genérica
+        StringBuilder sb = new StringBuilder("expectAny(\"" + escape(terminal) + "\"");
+        for (TokenType t : types) {
+            sb.append(", TokenType.").append(t);
+        }
+        return sb.append(");").toString();
+    }
+
+    private void generateHelpers() {
+        line(0, "");
+        line(1, "// ------------------ Utilidades ------------------");
+        line(1, "private TokenType peekType() {");
+        line(2, "return current < tokens.size() ? tokens.get(current).type : TokenType.EOF;");
+        line(1, "}");
+        line(0, "");
+        line(1, "private void expect(TokenType type, String terminal) {");
+        line(2, "if (peekType() != type) {");
+        line(3, "throw mismatch(terminal);");
+        line(2, "}");
+        line(2, "current++;");
+        line(1, "}");
+        line(0, "");
+        line(1, "private void expectAny(String terminal, TokenType... types) {");
+        line(2, "TokenType t = peekType();");
+        line(2, "for (TokenType type : types) {");
+        line(3, "if (t == type) {");
+        line(4, "current++;");
+        line(4, "return;");
+        line(3, "}");
+        line(2, "}");
+        line(2, "throw mismatch(terminal);");
+        line(1, "}");
+        line(0, "");
+        line(1, "private ParseError mismatch(String terminal) {");
+        line(2, "return new ParseError(\"Erro de casamento: esperado '\" + terminal + \"', encontrado '\"");
+        line(4, "+ LL1StackParser.terminalOf(peekType()) + \"'\");");
+        line(1, "}");
+        line(0, "");
+        line(1, "private ParseError noEntry(String nonTerminal) {");
+        line(2, "int line = current < tokens.size() ? tokens.get(current).line : -1;");
+        line(2, "return new ParseError(\"Erro LL(1): M[\" + nonTerminal + \", \" + LL1StackParser.terminalOf(peekType())");
+        line(4, "+ \"] não definida na tabela (linha \" + line + \")\");");
+        line(1, "}");
+    }
+
+    private static boolean isTailRecursive(String nt, List<String> production) {
+        return !production.isEmpty() && production.get(production.size() - 1).equals(nt);
+    }
+
+    private static String methodName(String nt) {
+        StringBuilder sb = new StringBuilder("parse");
+        for (char c : nt.toCharArray()) {
+            sb.append(Character.isJavaIdentifierPart(c) ? c : '_');
+        }
+        return sb.toString();
+    }
+
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private void line(int indent, String text) {
+        if (!text.isEmpty()) {
+            out.append("    ".repeat(indent)).append(text);
+        }
+        out.append('\n');
+    }
+
+    public static void main(String[] args) throws IOException {
+        String grammarPath = null;
+        String outputPath = null;
+        for (String arg : args) {
+            if (arg.startsWith("--grammar=")) {
+                grammarPath = arg.substring("--grammar=".length());
+            } else {
+                outputPath = arg;
+            }
+        }
+
+        LL1GrammarAnalyzer analyzer = grammarPath != null
+                ? GrammarLoader.load(Path.of(grammarPath))
+                : Bowler.createBowlerLL1Analyzer();
+        analyzer.calculateFirst();
+        analyzer.calculateFollow();
+        analyzer.buildParsingTable();
+
+        String className = "GeneratedBowlerParser";
+        if (outputPath != null) {
+            String fileName = Path.of(outputPath).getFileName().toString();
+            className = fileName.endsWith(".java") ? fileName.substring(0, fileName.length() - 5) : fileName;
+        }
+        String source = new ParserGenerator(analyzer, className).generate();
+        if (outputPath == null) {
+            System.out.print(source);
+        } else {
+            Files.writeString(Path.of(outputPath), source, StandardCharsets.UTF_8);
+            System.out.println("Parser gerado em " + outputPath);
+        }
+    }
+}
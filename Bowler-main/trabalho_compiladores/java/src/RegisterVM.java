@@ -0,0 +1,1734 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * RegisterVM - máquina virtual de registradores para Bowler
+ *
+ * Um compilador leva a AST a um bytecode de registradores guardado em um
+ * único int[], e um laço de despacho (switch no opcode) o executa. Não
+ * depende da JVM gerar classes (ao contrário do BytecodeCompiler), e o
+ * programa compilado pode ser gravado em um arquivo .bwvm e executado de novo
+ * sem passar pelo Lexer e pelo Parser.
+ *
+ * Registradores: três bancos por execução, int[] (int, char e bool),
+ * double[] e Object[] (string, arrays e valores sem tipo). Cada variável
+ * ganha um registrador fixo no banco do seu tipo declarado e os
+ * temporários de um statement são liberados no fim dele. O tipo estático
+ * de cada expressão (StaticTypes) escolhe a instrução: IADD, DMUL etc. não
+ * fazem boxing nem alocam; só valores sem tipo, strings e arrays passam
+ * por Object e por Values, o que mantém a saída e as mensagens de erro do
+ * Interpreter.
+ *
+ * Codificação: a primeira palavra de cada instrução é opcode | a << 8 (a é
+ * quase sempre o registrador de destino); os demais operandos vêm nas
+ * palavras seguintes (registradores, imediatos, índices do pool de
+ * constantes, linhas para erros, endereços absolutos de salto). Literais
+ * int e char são imediatos; doubles e strings vão para o pool.
+ *
+ * Superinstruções:
+ * - JILT a b alvo (e JIEQ, JINE, JILE, JIGT, JIGE): compara e salta;
+ * - JILTK a imm alvo: compara com constante (i < 10) e salta;
+ * - JD a b cond alvo: o mesmo para doubles (cond também pode ser NLT..NGE,
+ *   a negação de LT..GE, que com NaN difere de GE..LT);
+ * - IADDK, IMULK, IDIVK, IREMK a b imm: operação com constante int
+ *   (i += 1, i % 7; divisor zero fica na forma com registrador, que dá o
+ *   erro de Bowler).
+ * Literais double usados em aritmética e comparações ganham registradores
+ * de constante no fim do banco double, preenchidos antes de executar
+ * (Program.presets): media / 3.0 vira um só DDIV.
+ * while e for repetem o teste da condição no fim do laço (um só salto
+ * por iteração): o fim de um for (var i = 0; i < n; i += 1) vira
+ * IADDK + JILT.
+ *
+ * Uso:
+ * RegisterVM.Program p = RegisterVM.compile(program);
+ * new RegisterVM(System.out, in).run(p);
+ * p.write(out) / RegisterVM.Program.read(in)     (formato .bwvm)
+ *
+ * java -cp bin RegisterVM arquivo.bw | arquivo.bwvm      (executa)
+ * java -cp bin RegisterVM --save=saida.bwvm arquivo.bw  (compila e grava)
+ * java -cp bin RegisterVM --dump arquivo.bw | arquivo.bwvm
+ * java -cp bin RegisterVM --check [dir | arquivo.bw ...] [iterações]
+ */
+public final class RegisterVM {
+
+    // ------------------ Conjunto de instruções ------------------
+
+    static final int ICONST = 0, DCONST = 1, RCONST = 2, IMOV = 3, DMOV = 4, RMOV = 5, I2D = 6, BOX = 7,
+            COERCE = 8, IADD = 9, ISUB = 10, IMUL = 11, IDIV = 12, IREM = 13, IADDK = 14, INEG = 15, DADD = 16,
+            DSUB = 17, DMUL = 18, DDIV = 19, DREM = 20, DNEG = 21, GBIN = 22, GNEG = 23, GEQ = 24, GCMP = 25,
+            SCMP = 26, JIEQ = 27, JIEQK = 33, JD = 39, JT = 40, JF = 41, JDT = 42, JDF = 43, JRT = 44, JRF = 45,
+            JMP = 46, CONCAT = 47, PRINT = 48, INPUT = 49, NEWARR = 50, ELEM = 51, CHARAT = 52, GINDEX = 53,
+            TSWITCH = 54, LSWITCH = 55, RET = 56, RETNULL = 57, IMULK = 58, IDIVK = 59, IREMK = 60;
+
+    static final String[] NAMES = { "ICONST", "DCONST", "RCONST", "IMOV", "DMOV", "RMOV", "I2D", "BOX", "COERCE",
+            "IADD", "ISUB", "IMUL", "IDIV", "IREM", "IADDK", "INEG", "DADD", "DSUB", "DMUL", "DDIV", "DREM", "DNEG",
+            "GBIN", "GNEG", "GEQ", "GCMP", "SCMP", "JIEQ", "JINE", "JILT", "JILE", "JIGT", "JIGE", "JIEQK", "JINEK",
+            "JILTK", "JILEK", "JIGTK", "JIGEK", "JD", "JT", "JF", "JDT", "JDF", "JRT", "JRF", "JMP", "CONCAT",
+            "PRINT", "INPUT", "NEWARR", "ELEM", "CHARAT", "GINDEX", "TSWITCH", "LSWITCH", "RET", "RETNULL", "IMULK",
+            "IDIVK", "IREMK" };
+
+    // Palavras por instrução (0 = tamanho variável, ver length)
+    private static final int[] LENGTHS = { 2, 2, 2, 2, 2, 2, 2, 3, 5, 3, 3, 3, 4, 4, 3, 2, 3, 3, 3, 3, 3, 2, 5, 3, 3,
+            5, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 4, 2, 2, 2, 2, 3, 3, 2, 0, 2, 2, 0, 5, 4, 4, 0, 0, 2, 1, 3, 3,
+            3 };
+
+    // Condições dos saltos (JIEQ + cond, JIEQK + cond, operando de JD)
+    static final int EQ = 0, NE = 1, LT = 2, LE = 3, GT = 4, GE = 5;
+    private static final int[] NEGATED = { NE, EQ, GE, GT, LE, LT };
+    // Só para JD: !(x < y) etc., verdadeiras com NaN
+    static final int NLT = 6, NLE = 7, NGT = 8, NGE = 9;
+
+    // Registradores de constante double antes de placeConstants
+    private static final int PRESET = 1 << 22;
+
+    // Operando de CONCAT que é texto do pool (e não registrador)
+    static final byte TEXT = 7;
+
+    static final byte INT = StaticTypes.INT, CHAR = StaticTypes.CHAR, BOOL = StaticTypes.BOOL,
+            DOUBLE = StaticTypes.DOUBLE, STRING = StaticTypes.STRING, ARRAY = StaticTypes.ARRAY,
+            OBJECT = StaticTypes.OBJECT;
+
+    static int length(int[] code, int pc) {
+        int op = code[pc] & 0xFF;
+        switch (op) {
+            case CONCAT:
+                return 2 + 2 * code[pc + 1];
+            case NEWARR:
+                return 2 + code[pc + 1];
+            case TSWITCH:
+                return 4 + code[pc + 2];
+            case LSWITCH:
+                return 3 + 2 * code[pc + 1];
+            default:
+                return LENGTHS[op];
+        }
+    }
+
+    // Banco de registradores de um tipo: 0 = int[], 1 = double[], 2 = Object[]
+    static int bank(byte type) {
+        return type == DOUBLE ? 1 : StaticTypes.isReference(type) ? 2 : 0;
+    }
+
+    // ------------------ Programa compilado ------------------
+
+    /**
+     * Código, pool de constantes e tamanho de cada banco; imutável, pode ser
+     * executado por várias VMs ao mesmo tempo
+     */
+    public static final class Program {
+        private static final int MAGIC = 0x42574243; // "BWBC"
+        private static final int VERSION = 2;
+
+        final int[] code;
+        final Object[] constants; // Double, String ou null
+        final int ints, doubles, refs;
+        final double[] presets; // registradores de constante: últimos do banco double
+
+        Program(int[] code, Object[] constants, int ints, int doubles, int refs, double[] presets) {
+            this.code = code;
+            this.constants = constants;
+            this.ints = ints;
+            this.doubles = doubles;
+            this.refs = refs;
+            this.presets = presets;
+        }
+
+        public int codeSize() {
+            return code.length;
+        }
+
+        public void write(OutputStream stream) throws IOException {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(ints);
+            out.writeInt(doubles);
+            out.writeInt(refs);
+            out.writeInt(presets.length);
+            for (double d : presets) {
+                out.writeDouble(d);
+            }
+            out.writeInt(constants.length);
+            for (Object c : constants) {
+                if (c instanceof Double) {
+                    out.writeByte('D');
+                    out.writeDouble((Double) c);
+                } else if (c instanceof String) {
+                    byte[] utf8 = ((String) c).getBytes(StandardCharsets.UTF_8);
+                    out.writeByte('S');
+                    out.writeInt(utf8.length);
+                    out.write(utf8);
+                } else {
+                    out.writeByte('N');
+                }
+            }
+            out.writeInt(code.length);
+            for (int word : code) {
+                out.writeInt(word);
+            }
+            out.flush();
+        }
+
+        public static Program read(InputStream stream) throws IOException {
+            try {
+                return read(new DataInputStream(new BufferedInputStream(stream)));
+            } catch (EOFException e) {
+                throw new IOException("Arquivo .bwvm incompleto.");
+            }
+        }
+
+        private static Program read(DataInputStream in) throws IOException {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Arquivo não é um programa compilado de Bowler (.bwvm).");
+            }
+            int version = in.readUnsignedShort();
+            if (version != VERSION) {
+                throw new IOException("Versão " + version + " de .bwvm não suportada (esperada " + VERSION + ").");
+            }
+            int ints = in.readInt(), doubles = in.readInt(), refs = in.readInt();
+            double[] presets = new double[in.readInt()];
+            for (int i = 0; i < presets.length; i++) {
+                presets[i] = in.readDouble();
+            }
+            Object[] constants = new Object[in.readInt()];
+            for (int i = 0; i < constants.length; i++) {
+                int tag = in.readUnsignedByte();
+                if (tag == 'D') {
+                    constants[i] = in.readDouble();
+                } else if (tag == 'S') {
+                    byte[] utf8 = new byte[in.readInt()];
+                    in.readFully(utf8);
+                    constants[i] = new String(utf8, StandardCharsets.UTF_8);
+                } else if (tag != 'N') {
+                    throw new IOException("Constante inválida no .bwvm (marca " + tag + ").");
+                }
+            }
+            int[] code = new int[in.readInt()];
+            for (int i = 0; i < code.length; i++) {
+                code[i] = in.readInt();
+            }
+            return new Program(code, constants, ints, doubles, refs, presets);
+        }
+
+        /**
+         * Listagem legível: endereço, instrução e operandos
+         */
+        public String disassemble() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("; registradores: %d int, %d double, %d ref; %d constantes; %d palavras%n", ints,
+                    doubles, refs, constants.length, code.length));
+            for (int i = 0; i < presets.length; i++) {
+                sb.append(String.format("; d%d = %s%n", doubles - presets.length + i, presets[i]));
+            }
+            for (int i = 0; i < constants.length; i++) {
+                Object c = constants[i];
+                sb.append(String.format("; k%d = %s%n", i,
+                        c instanceof String ? "\"" + ((String) c).replace("\n", "\\n") + "\"" : c));
+            }
+            for (int pc = 0; pc < code.length; pc += length(code, pc)) {
+                int op = code[pc] & 0xFF;
+                sb.append(String.format("%5d  %-8s %d", pc, NAMES[op], code[pc] >>> 8));
+                for (int i = 1; i < length(code, pc); i++) {
+                    sb.append(", ").append(code[pc + i]);
+                }
+                sb.append('\n');
+            }
+            return sb.toString();
+        }
+    }
+
+    // ------------------ Compilação ------------------
+
+    public static Program compile(AST.Program program) {
+        Compiler c = new Compiler();
+        c.block(program.mainBlock);
+        c.mark(c.exit);
+        c.emit(RETNULL, 0);
+        double[] presets = c.placeConstants();
+        return new Program(Arrays.copyOf(c.code, c.length), c.constants.toArray(), c.max[0],
+                c.max[1] + presets.length, c.max[2], presets);
+    }
+
+    private static final class Label {
+        int position = -1;
+        final List<Integer> uses = new ArrayList<>();
+    }
+
+    private static final class Compiler {
+        final SlotResolver slots = new SlotResolver();
+        final StaticTypes types = new StaticTypes(slots);
+        final List<Integer> registers = new ArrayList<>(); // slot → registrador no banco do seu tipo
+        final int[] top = new int[3];
+        final int[] max = new int[3];
+        final BitSet[] variables = { new BitSet(), new BitSet(), new BitSet() };
+        final List<Object> constants = new ArrayList<>();
+        final Map<Object, Integer> constantIndex = new HashMap<>();
+        final Map<Double, Integer> doubleConstants = new LinkedHashMap<>(); // valor → PRESET + ordem
+        final Deque<Label[]> targets = new ArrayDeque<>(); // {break, continue}
+        final Label exit = new Label();
+        int[] code = new int[256];
+        int length;
+
+        // ---------- Emissão ----------
+
+        void word(int w) {
+            if (length == code.length) {
+                code = Arrays.copyOf(code, length * 2);
+            }
+            code[length++] = w;
+        }
+
+        void emit(int op, int a, int... operands) {
+            word(op | a << 8);
+            for (int w : operands) {
+                word(w);
+            }
+        }
+
+        void target(Label label) {
+            if (label.position < 0) {
+                label.uses.add(length);
+            }
+            word(label.position);
+        }
+
+        void mark(Label label) {
+            label.position = length;
+            for (int use : label.uses) {
+                code[use] = length;
+            }
+            label.uses.clear();
+        }
+
+        void jumpTo(int op, int a, int operand, Label label) {
+            word(op | a << 8);
+            word(operand);
+            target(label);
+        }
+
+        int constant(Object value) {
+            return constantIndex.computeIfAbsent(value, v -> {
+                constants.add(v);
+                return constants.size() - 1;
+            });
+        }
+
+        /**
+         * Registrador de constante double; o número definitivo (depois dos
+         * temporários) só é conhecido no fim, em placeConstants
+         */
+        int doubleConstant(double v) {
+            return doubleConstants.computeIfAbsent(v, d -> PRESET + doubleConstants.size());
+        }
+
+        double[] placeConstants() {
+            double[] presets = new double[doubleConstants.size()];
+            for (Map.Entry<Double, Integer> entry : doubleConstants.entrySet()) {
+                presets[entry.getValue() - PRESET] = entry.getKey();
+            }
+            // Só DADD..DREM e JD recebem registradores de constante (asDouble)
+            for (int pc = 0; pc < length; pc += length(code, pc)) {
+                int op = code[pc] & 0xFF;
+                if (op >= DADD && op <= DREM) {
+                    code[pc + 1] = place(code[pc + 1]);
+                    code[pc + 2] = place(code[pc + 2]);
+                } else if (op == JD) {
+                    code[pc] = op | place(code[pc] >>> 8) << 8;
+                    code[pc + 1] = place(code[pc + 1]);
+                }
+            }
+            return presets;
+        }
+
+        int place(int reg) {
+            return reg >= PRESET ? max[1] + reg - PRESET : reg;
+        }
+
+        int temp(byte type) {
+            int b = bank(type);
+            int r = top[b]++;
+            max[b] = Math.max(max[b], top[b]);
+            return r;
+        }
+
+        int into(int dest, byte type) {
+            return dest >= 0 ? dest : temp(type);
+        }
+
+        void move(byte type, int dest, int source) {
+            if (dest != source) {
+                int b = bank(type);
+                emit(b == 0 ? IMOV : b == 1 ? DMOV : RMOV, dest, source);
+            }
+        }
+
+        // ---------- Statements ----------
+
+        void block(AST.Block b) {
+            slots.beginScope();
+            for (AST.Statement s : b.statements) {
+                statement(s);
+            }
+            slots.endScope();
+        }
+
+        void statement(AST.Statement s) {
+            int[] saved = top.clone(); // temporários do statement voltam a ficar livres no fim
+            if (s instanceof AST.Block) {
+                block((AST.Block) s);
+            } else if (s instanceof AST.VarDecl) {
+                AST.VarDecl v = (AST.VarDecl) s;
+                String type = v.type == null ? null : v.type.name;
+                byte target = StaticTypes.typeOfName(type);
+                int reg = temp(target);
+                variables[bank(target)].set(reg);
+                saved[bank(target)]++;
+                // O inicializador vem antes da declaração: em "var x: int = x;" o x da direita é outro
+                if (v.initializer == null) {
+                    defaultValue(target, reg);
+                } else {
+                    store(v.initializer, reg, type, v.name);
+                }
+                slots.declare(v.name, v.type);
+                registers.add(reg);
+            } else if (s instanceof AST.If) {
+                AST.If v = (AST.If) s;
+                Label otherwise = new Label();
+                jump(v.cond, otherwise, false, Interpreter.firstToken(v.cond));
+                block(v.thenB);
+                if (v.elseB == null) {
+                    mark(otherwise);
+                } else {
+                    Label end = new Label();
+                    emit(JMP, 0);
+                    target(end);
+                    mark(otherwise);
+                    block(v.elseB);
+                    mark(end);
+                }
+            } else if (s instanceof AST.While) {
+                AST.While v = (AST.While) s;
+                loop(null, v.cond, null, v.body, true);
+            } else if (s instanceof AST.DoWhile) {
+                AST.DoWhile v = (AST.DoWhile) s;
+                loop(null, v.cond, null, v.body, false);
+            } else if (s instanceof AST.For) {
+                AST.For v = (AST.For) s;
+                slots.beginScope(); // variável do init visível só no for
+                loop(v.init, v.cond, v.inc, v.body, true);
+                slots.endScope();
+            } else if (s instanceof AST.Switch) {
+                switchStmt((AST.Switch) s);
+            } else if (s instanceof AST.Return) {
+                AST.Expr value = ((AST.Return) s).value;
+                if (value == null) {
+                    emit(RETNULL, 0);
+                } else {
+                    emit(RET, expr(value, -1), types.typeOf(value));
+                }
+            } else if (s instanceof AST.Print) {
+                AST.Expr value = ((AST.Print) s).value;
+                emit(PRINT, expr(value, -1), types.typeOf(value));
+            } else if (s instanceof AST.Break) {
+                emit(JMP, 0);
+                target(targets.isEmpty() ? exit : targets.peek()[0]);
+            } else if (s instanceof AST.Continue) {
+                emit(JMP, 0);
+                target(targets.isEmpty() ? exit : targets.peek()[1]);
+            } else if (s instanceof AST.ExprStmt) {
+                expr(((AST.ExprStmt) s).expr, -1);
+            } else {
+                throw new IllegalArgumentException("Statement não suportado: " + s.getClass().getName());
+            }
+            System.arraycopy(saved, 0, top, 0, 3);
+        }
+
+        /**
+         * Laço com o teste repetido no fim: teste (salta para o fim se falso);
+         * corpo; continue: inc; teste (volta ao corpo se verdadeiro). Cada
+         * iteração faz um só salto condicional; do-while não tem o teste de
+         * entrada
+         */
+        void loop(AST.Statement init, AST.Expr cond, AST.Expr inc, AST.Block body, boolean testFirst) {
+            if (init != null) {
+                statement(init);
+            }
+            Label start = new Label(), next = new Label(), end = new Label();
+            if (testFirst && cond != null) {
+                test(cond, end, false);
+            }
+            mark(start);
+            targets.push(new Label[] { end, next });
+            block(body);
+            targets.pop();
+            mark(next);
+            if (inc != null) {
+                int[] saved = top.clone();
+                expr(inc, -1);
+                System.arraycopy(saved, 0, top, 0, 3);
+            }
+            if (cond == null) {
+                emit(JMP, 0);
+                target(start);
+            } else {
+                test(cond, start, true);
+            }
+            mark(end);
+        }
+
+        void test(AST.Expr cond, Label target, boolean when) {
+            int[] saved = top.clone();
+            jump(cond, target, when, Interpreter.firstToken(cond));
+            System.arraycopy(saved, 0, top, 0, 3);
+        }
+
+        void switchStmt(AST.Switch v) {
+            int n = v.cases.size();
+            Label end = new Label();
+            Label dflt = v.defaultBlock == null ? end : new Label();
+            Label[] bodies = new Label[n];
+            for (int i = 0; i < n; i++) {
+                bodies[i] = new Label();
+            }
+            byte t = types.typeOf(v.expr);
+            int[] keys = literalKeys(v, t);
+            if (keys != null) {
+                int value = expr(v.expr, -1);
+                // Casos repetidos: vale o primeiro, como na busca em ordem do Interpreter
+                TreeMap<Integer, Label> byKey = new TreeMap<>();
+                for (int i = 0; i < n; i++) {
+                    byKey.putIfAbsent(keys[i], bodies[i]);
+                }
+                long range = byKey.isEmpty() ? 0 : (long) byKey.lastKey() - byKey.firstKey() + 1;
+                if (!byKey.isEmpty() && range <= 2L * byKey.size() + 4) {
+                    int low = byKey.firstKey();
+                    emit(TSWITCH, value, low, (int) range);
+                    target(dflt);
+                    for (int k = 0; k < range; k++) {
+                        target(byKey.getOrDefault(low + k, dflt));
+                    }
+                } else {
+                    emit(LSWITCH, value, byKey.size());
+                    target(dflt);
+                    for (Map.Entry<Integer, Label> entry : byKey.entrySet()) {
+                        word(entry.getKey());
+                        target(entry.getValue());
+                    }
+                }
+            } else {
+                int value = boxed(v.expr, false);
+                int equal = temp(BOOL);
+                for (int i = 0; i < n; i++) {
+                    emit(GEQ, equal, value, boxed(v.cases.get(i).value, false));
+                    emit(JT, equal);
+                    target(bodies[i]);
+                }
+                emit(JMP, 0);
+                target(dflt);
+            }
+            // Sem fall-through; break sai do switch, continue vai para o laço de fora
+            Label continueTo = targets.isEmpty() ? exit : targets.peek()[1];
+            for (int i = 0; i < n; i++) {
+                mark(bodies[i]);
+                targets.push(new Label[] { end, continueTo });
+                block(v.cases.get(i).block);
+                targets.pop();
+                emit(JMP, 0);
+                target(end);
+            }
+            if (v.defaultBlock != null) {
+                mark(dflt);
+                targets.push(new Label[] { end, continueTo });
+                block(v.defaultBlock);
+                targets.pop();
+            }
+            mark(end);
+        }
+
+        // Chaves int dos casos se o valor é int/char e todos os casos são literais int/char
+        int[] literalKeys(AST.Switch v, byte t) {
+            if (t != INT && t != CHAR) {
+                return null;
+            }
+            int[] keys = new int[v.cases.size()];
+            for (int i = 0; i < keys.length; i++) {
+                Integer key = intLiteral(v.cases.get(i).value);
+                if (key == null) {
+                    return null;
+                }
+                keys[i] = key;
+            }
+            return keys;
+        }
+
+        // ---------- Variáveis ----------
+
+        void defaultValue(byte t, int reg) {
+            switch (t) {
+                case DOUBLE:
+                    emit(DCONST, reg, constant(0.0));
+                    break;
+                case STRING:
+                    emit(RCONST, reg, constant(""));
+                    break;
+                case ARRAY:
+                    emit(NEWARR, reg, 0);
+                    break;
+                case OBJECT:
+                    emit(RCONST, reg, constant(null));
+                    break;
+                default:
+                    emit(ICONST, reg, 0);
+            }
+        }
+
+        /**
+         * Guarda o valor no registrador de uma variável do tipo declarado
+         * (Values.coerce)
+         */
+        void store(AST.Expr value, int reg, String type, Token where) {
+            byte from = types.typeOf(value);
+            byte to = StaticTypes.typeOfName(type);
+            if (to != ARRAY && to != OBJECT && (from == to || to == INT && from == CHAR)) {
+                expr(value, reg);
+            } else if (to == DOUBLE && (from == INT || from == CHAR)) {
+                emit(I2D, reg, expr(value, -1));
+            } else if (to == OBJECT) {
+                boxInto(value, reg);
+            } else {
+                // Arrays sempre passam por Values.coerce (elementos convertidos)
+                emit(COERCE, reg, boxed(value, false), constant(type), line(where), to);
+            }
+        }
+
+        int assign(AST.Assign v, int dest) {
+            int slot = slots.resolve(v.name);
+            int reg = registers.get(slot);
+            store(v.value, reg, slots.typeOf(slot), v.name);
+            if (dest < 0) {
+                return reg;
+            }
+            move(types.slotType(slot), dest, reg);
+            return dest;
+        }
+
+        // ---------- Expressões ----------
+
+        /**
+         * Compila a expressão e devolve o registrador com o valor (no banco
+         * do tipo de StaticTypes). Com dest >= 0 o valor vai para dest; com
+         * -1 pode ser um temporário novo ou o registrador de uma variável
+         */
+        int expr(AST.Expr e, int dest) {
+            if (e instanceof AST.Literal) {
+                Object value = ((AST.Literal) e).value;
+                byte t = types.typeOf(e);
+                int r = into(dest, t);
+                if (t == DOUBLE) {
+                    emit(DCONST, r, constant(value));
+                } else if (t == STRING) {
+                    emit(RCONST, r, constant(Values.unescape((String) value)));
+                } else if (t == OBJECT) {
+                    emit(RCONST, r, constant(null));
+                } else {
+                    emit(ICONST, r, intLiteral(e));
+                }
+                return r;
+            } else if (e instanceof AST.Variable) {
+                int slot = slots.resolve(((AST.Variable) e).name);
+                int reg = registers.get(slot);
+                if (dest < 0) {
+                    return reg;
+                }
+                move(types.slotType(slot), dest, reg);
+                return dest;
+            } else if (e instanceof AST.Grouping) {
+                return expr(((AST.Grouping) e).expr, dest);
+            } else if (e instanceof AST.Unary) {
+                AST.Unary v = (AST.Unary) e;
+                if (v.op.type == TokenType.BANG) {
+                    return condition(e, dest);
+                }
+                byte t = types.typeOf(v.right);
+                if (t == INT || t == CHAR) {
+                    int operand = expr(v.right, -1);
+                    int r = into(dest, INT);
+                    emit(INEG, r, operand);
+                    return r;
+                } else if (t == DOUBLE) {
+                    int operand = expr(v.right, -1);
+                    int r = into(dest, DOUBLE);
+                    emit(DNEG, r, operand);
+                    return r;
+                }
+                int operand = boxed(v.right, false);
+                int r = into(dest, OBJECT);
+                emit(GNEG, r, operand, v.op.line);
+                return r;
+            } else if (e instanceof AST.Binary) {
+                return binary((AST.Binary) e, dest);
+            } else if (e instanceof AST.Assign) {
+                return assign((AST.Assign) e, dest);
+            } else if (e instanceof AST.Ternary) {
+                AST.Ternary v = (AST.Ternary) e;
+                byte t = types.typeOf(e);
+                int r = into(dest, t);
+                Label otherwise = new Label(), end = new Label();
+                jump(v.cond, otherwise, false, Interpreter.firstToken(v.cond));
+                if (t == OBJECT) {
+                    boxInto(v.thenExpr, r);
+                } else {
+                    expr(v.thenExpr, r);
+                }
+                emit(JMP, 0);
+                target(end);
+                mark(otherwise);
+                if (t == OBJECT) {
+                    boxInto(v.elseExpr, r);
+                } else {
+                    expr(v.elseExpr, r);
+                }
+                mark(end);
+                return r;
+            } else if (e instanceof AST.Input) {
+                int r = into(dest, STRING);
+                emit(INPUT, r, constant(Values.unescape(((AST.Input) e).prompt)));
+                return r;
+            } else if (e instanceof AST.ArrayLiteral) {
+                List<AST.Expr> elements = ((AST.ArrayLiteral) e).elements;
+                int[] operands = new int[elements.size() + 1];
+                operands[0] = elements.size();
+                for (int i = 0; i < elements.size(); i++) {
+                    operands[i + 1] = boxed(elements.get(i), assignsAfter(elements, i));
+                }
+                int r = into(dest, ARRAY);
+                emit(NEWARR, r, operands);
+                return r;
+            } else if (e instanceof AST.ArrayAccess) {
+                return index((AST.ArrayAccess) e, dest);
+            } else if (e instanceof AST.InterpolatedString) {
+                List<Object> parts = ((AST.InterpolatedString) e).parts;
+                List<Object> pieces = new ArrayList<>();
+                for (int i = 0; i < parts.size(); i++) {
+                    Object part = parts.get(i);
+                    if (part instanceof String) {
+                        String text = Values.interpolationText(parts, i);
+                        if (!text.isEmpty()) {
+                            pieces.add(text);
+                        }
+                    } else {
+                        pieces.add(part);
+                    }
+                }
+                return concat(pieces, dest);
+            }
+            throw new IllegalArgumentException("Expressão não suportada: " + e.getClass().getName());
+        }
+
+        int binary(AST.Binary v, int dest) {
+            if (StaticTypes.isCondition(v.op.type)) {
+                return condition(v, dest);
+            }
+            byte t = types.typeOf(v);
+            if (t == STRING) {
+                // Cadeia de '+' com string: uma só instrução CONCAT, na ordem de avaliação
+                List<Object> pieces = new ArrayList<>();
+                concatParts(v, pieces);
+                return concat(pieces, dest);
+            }
+            boolean protect = hasAssign(v.right);
+            if (t == OBJECT) {
+                int left = boxed(v.left, protect);
+                int right = boxed(v.right, false);
+                int r = into(dest, OBJECT);
+                emit(GBIN, r, left, right, v.op.type.ordinal(), v.op.line);
+                return r;
+            }
+            if (t == INT) {
+                int left = operand(v.left, protect);
+                Integer k = intLiteral(v.right);
+                if (k != null && (k != 0 || v.op.type != TokenType.SLASH && v.op.type != TokenType.PERCENT)) {
+                    int r = into(dest, INT);
+                    switch (v.op.type) {
+                        case PLUS:
+                            emit(IADDK, r, left, k);
+                            break;
+                        case MINUS:
+                            emit(IADDK, r, left, -k);
+                            break;
+                        case STAR:
+                            emit(IMULK, r, left, k);
+                            break;
+                        case SLASH:
+                            emit(IDIVK, r, left, k);
+                            break;
+                        default:
+                            emit(IREMK, r, left, k);
+                    }
+                    return r;
+                }
+                int right = operand(v.right, false);
+                int r = into(dest, INT);
+                switch (v.op.type) {
+                    case PLUS:
+                        emit(IADD, r, left, right);
+                        break;
+                    case MINUS:
+                        emit(ISUB, r, left, right);
+                        break;
+                    case STAR:
+                        emit(IMUL, r, left, right);
+                        break;
+                    case SLASH:
+                        emit(IDIV, r, left, right, v.op.line);
+                        break;
+                    case PERCENT:
+                        emit(IREM, r, left, right, v.op.line);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Operador aritmético inválido: " + v.op.lexeme);
+                }
+                return r;
+            }
+            int left = asDouble(v.left, protect);
+            int right = asDouble(v.right, false);
+            int r = into(dest, DOUBLE);
+            switch (v.op.type) {
+                case PLUS:
+                    emit(DADD, r, left, right);
+                    break;
+                case MINUS:
+                    emit(DSUB, r, left, right);
+                    break;
+                case STAR:
+                    emit(DMUL, r, left, right);
+                    break;
+                case SLASH:
+                    emit(DDIV, r, left, right);
+                    break;
+                case PERCENT:
+                    emit(DREM, r, left, right);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Operador aritmético inválido: " + v.op.lexeme);
+            }
+            return r;
+        }
+
+        void concatParts(AST.Expr e, List<Object> pieces) {
+            while (e instanceof AST.Grouping) {
+                e = ((AST.Grouping) e).expr;
+            }
+            if (e instanceof AST.Binary && ((AST.Binary) e).op.type == TokenType.PLUS
+                    && types.typeOf(e) == STRING) {
+                AST.Binary v = (AST.Binary) e;
+                if (types.typeOf(v.left) == STRING) {
+                    concatParts(v.left, pieces);
+                } else {
+                    pieces.add(v.left);
+                }
+                concatParts(v.right, pieces);
+            } else if (e instanceof AST.Literal && ((AST.Literal) e).value instanceof String) {
+                pieces.add(Values.unescape((String) ((AST.Literal) e).value));
+            } else {
+                pieces.add(e);
+            }
+        }
+
+        /**
+         * CONCAT com pedaços de texto fixo (String, do pool) e expressões
+         */
+        int concat(List<Object> pieces, int dest) {
+            int[] operands = new int[1 + 2 * pieces.size()];
+            operands[0] = pieces.size();
+            for (int i = 0; i < pieces.size(); i++) {
+                Object piece = pieces.get(i);
+                if (piece instanceof String) {
+                    operands[1 + 2 * i] = TEXT;
+                    operands[2 + 2 * i] = constant(piece);
+                } else {
+                    AST.Expr e = (AST.Expr) piece;
+                    operands[1 + 2 * i] = types.typeOf(e);
+                    operands[2 + 2 * i] = operand(e, assignsAfter(pieces, i));
+                }
+            }
+            int r = into(dest, STRING);
+            emit(CONCAT, r, operands);
+            return r;
+        }
+
+        int index(AST.ArrayAccess v, int dest) {
+            byte t = types.typeOf(v);
+            int where = line(Interpreter.firstToken(v.array));
+            boolean protect = hasAssign(v.index);
+            if (t != OBJECT && types.elementType(v.array) >= 0) {
+                int array = operand(v.array, protect);
+                int i = expr(v.index, -1);
+                int r = into(dest, t);
+                emit(ELEM, r, array, i, where, t);
+                return r;
+            } else if (t == CHAR) {
+                int s = operand(v.array, protect);
+                int i = expr(v.index, -1);
+                int r = into(dest, CHAR);
+                emit(CHARAT, r, s, i, where);
+                return r;
+            }
+            int array = boxed(v.array, protect);
+            int i = boxed(v.index, false);
+            int r = into(dest, OBJECT);
+            emit(GINDEX, r, array, i, where);
+            return r;
+        }
+
+        // ---------- Operandos ----------
+
+        /**
+         * Registrador com o valor; se uma expressão avaliada depois atribui a
+         * variáveis, o registrador de uma variável é copiado antes (x + (x = 1))
+         */
+        int operand(AST.Expr e, boolean protect) {
+            int r = expr(e, -1);
+            byte t = types.typeOf(e);
+            if (protect && variables[bank(t)].get(r)) {
+                int copy = temp(t);
+                move(t, copy, r);
+                return copy;
+            }
+            return r;
+        }
+
+        /**
+         * Operando double de DADD..DREM e JD; literais viram registradores de
+         * constante
+         */
+        int asDouble(AST.Expr e, boolean protect) {
+            AST.Expr inner = e;
+            while (inner instanceof AST.Grouping) {
+                inner = ((AST.Grouping) inner).expr;
+            }
+            if (inner instanceof AST.Literal && ((AST.Literal) inner).value instanceof Double) {
+                return doubleConstant((Double) ((AST.Literal) inner).value);
+            }
+            Integer k = intLiteral(inner);
+            if (k != null) {
+                return doubleConstant(k);
+            }
+            byte t = types.typeOf(e);
+            if (t == DOUBLE) {
+                return operand(e, protect);
+            }
+            int r = expr(e, -1);
+            int d = temp(DOUBLE);
+            emit(I2D, d, r);
+            return d;
+        }
+
+        int boxed(AST.Expr e, boolean protect) {
+            byte t = types.typeOf(e);
+            if (StaticTypes.isReference(t)) {
+                return operand(e, protect);
+            }
+            int r = expr(e, -1);
+            int b = temp(OBJECT);
+            emit(BOX, b, r, t);
+            return b;
+        }
+
+        void boxInto(AST.Expr e, int dest) {
+            byte t = types.typeOf(e);
+            if (StaticTypes.isReference(t)) {
+                expr(e, dest);
+            } else {
+                emit(BOX, dest, expr(e, -1), t);
+            }
+        }
+
+        // ---------- Condições ----------
+
+        /**
+         * Valor bool (0/1) de uma condição
+         */
+        int condition(AST.Expr e, int dest) {
+            int r = into(dest, BOOL);
+            Label no = new Label(), end = new Label();
+            jump(e, no, false, null);
+            emit(ICONST, r, 1);
+            emit(JMP, 0);
+            target(end);
+            mark(no);
+            emit(ICONST, r, 0);
+            mark(end);
+            return r;
+        }
+
+        /**
+         * Salta para target se a condição for igual a when; senão segue.
+         * where é o token das mensagens de erro (Values.condition)
+         */
+        void jump(AST.Expr e, Label target, boolean when, Token where) {
+            while (e instanceof AST.Grouping) {
+                e = ((AST.Grouping) e).expr;
+            }
+            if (e instanceof AST.Unary && ((AST.Unary) e).op.type == TokenType.BANG) {
+                AST.Unary v = (AST.Unary) e;
+                jump(v.right, target, !when, v.op);
+                return;
+            }
+            if (e instanceof AST.Binary && StaticTypes.isCondition(((AST.Binary) e).op.type)) {
+                AST.Binary v = (AST.Binary) e;
+                TokenType op = v.op.type;
+                if (op == TokenType.AND_AND || op == TokenType.OR_OR) {
+                    // && salta cedo quando o lado esquerdo é falso; || quando é verdadeiro
+                    boolean shortCircuit = op == TokenType.OR_OR;
+                    if (when == shortCircuit) {
+                        jump(v.left, target, when, v.op);
+                        jump(v.right, target, when, v.op);
+                    } else {
+                        Label skip = new Label();
+                        jump(v.left, skip, shortCircuit, v.op);
+                        jump(v.right, target, when, v.op);
+                        mark(skip);
+                    }
+                    return;
+                }
+                compare(v, target, when);
+                return;
+            }
+            byte t = types.typeOf(e);
+            int r = expr(e, -1);
+            if (t == DOUBLE) {
+                emit(when ? JDT : JDF, r);
+            } else if (StaticTypes.isReference(t)) {
+                emit(when ? JRT : JRF, r, line(where));
+            } else {
+                emit(when ? JT : JF, r);
+            }
+            target(target);
+        }
+
+        void compare(AST.Binary v, Label target, boolean when) {
+            TokenType op = v.op.type;
+            boolean equality = op == TokenType.EQUAL_EQUAL || op == TokenType.BANG_EQUAL;
+            byte l = types.typeOf(v.left), r = types.typeOf(v.right);
+            int cond = conditionCode(op);
+            if (!when) {
+                cond = NEGATED[cond];
+            }
+            boolean protect = hasAssign(v.right);
+            if ((l == INT || l == CHAR) && (r == INT || r == CHAR) || equality && l == BOOL && r == BOOL) {
+                Integer k = intLiteral(v.right);
+                if (k != null) {
+                    jumpTo(JIEQK + cond, expr(v.left, -1), k, target);
+                } else {
+                    int left = operand(v.left, protect);
+                    jumpTo(JIEQ + cond, left, expr(v.right, -1), target);
+                }
+                return;
+            }
+            if (StaticTypes.isNumeric(l) && StaticTypes.isNumeric(r)) {
+                int left = asDouble(v.left, protect);
+                int right = asDouble(v.right, false);
+                // Com NaN, !(a < b) não é a >= b: a negação tem condição própria
+                emit(JD, left, right, when || equality ? cond : NLT + conditionCode(op) - LT);
+                target(target);
+                return;
+            }
+            int result = temp(INT);
+            if (!equality && l == STRING && r == STRING) {
+                int left = operand(v.left, protect);
+                emit(SCMP, result, left, expr(v.right, -1));
+            } else if (equality) {
+                int left = boxed(v.left, protect);
+                emit(GEQ, result, left, boxed(v.right, false));
+                // result é 1 se iguais: "==" salta com 1, "!=" com 0
+                emit(cond == EQ ? JT : JF, result);
+                target(target);
+                return;
+            } else {
+                int left = boxed(v.left, protect);
+                emit(GCMP, result, left, boxed(v.right, false), op.ordinal(), v.op.line);
+            }
+            jumpTo(JIEQK + cond, result, 0, target);
+        }
+
+        // ---------- Auxiliares ----------
+
+        Integer intLiteral(AST.Expr e) {
+            while (e instanceof AST.Grouping) {
+                e = ((AST.Grouping) e).expr;
+            }
+            if (!(e instanceof AST.Literal)) {
+                return null;
+            }
+            Object value = ((AST.Literal) e).value;
+            return value instanceof Integer ? (Integer) value : value instanceof Character ? (int) (Character) value
+                    : value instanceof Boolean ? (Boolean) value ? 1 : 0 : null;
+        }
+
+        boolean assignsAfter(List<?> items, int i) {
+            for (int k = i + 1; k < items.size(); k++) {
+                if (items.get(k) instanceof AST.Expr && hasAssign((AST.Expr) items.get(k))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    static int conditionCode(TokenType op) {
+        switch (op) {
+            case EQUAL_EQUAL:
+                return EQ;
+            case BANG_EQUAL:
+                return NE;
+            case LESS:
+                return LT;
+            case LESS_EQUAL:
+                return LE;
+            case GREATER:
+                return GT;
+            default:
+                return GE;
+        }
+    }
+
+    /**
+     * A expressão atribui a alguma variável?
+     */
+    static boolean hasAssign(AST.Expr e) {
+        if (e instanceof AST.Assign) {
+            return true;
+        } else if (e instanceof AST.Grouping) {
+            return hasAssign(((AST.Grouping) e).expr);
+        } else if (e instanceof AST.Unary) {
+            return hasAssign(((AST.Unary) e).right);
+        } else if (e instanceof AST.Binary) {
+            return hasAssign(((AST.Binary) e).left) || hasAssign(((AST.Binary) e).right);
+        } else if (e instanceof AST.Ternary) {
+            AST.Ternary v = (AST.Ternary) e;
+            return hasAssign(v.cond) || hasAssign(v.thenExpr) || hasAssign(v.elseExpr);
+        } else if (e instanceof AST.ArrayAccess) {
+            return hasAssign(((AST.ArrayAccess) e).array) || hasAssign(((AST.ArrayAccess) e).index);
+        } else if (e instanceof AST.ArrayLiteral) {
+            for (AST.Expr element : ((AST.ArrayLiteral) e).elements) {
+                if (hasAssign(element)) {
+                    return true;
+                }
+            }
+        } else if (e instanceof AST.InterpolatedString) {
+            for (Object part : ((AST.InterpolatedString) e).parts) {
+                if (part instanceof AST.Expr && hasAssign((AST.Expr) part)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static int line(Token t) {
+        return t == null ? -1 : t.line;
+    }
+
+    // ------------------ Execução ------------------
+
+    private final PrintStream out;
+    private final BufferedReader in;
+
+    public RegisterVM() {
+        this(System.out, new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)));
+    }
+
+    public RegisterVM(PrintStream out, BufferedReader in) {
+        this.out = out;
+        this.in = in;
+    }
+
+    public Object run(AST.Program program) {
+        return run(compile(program));
+    }
+
+    /**
+     * Laço de despacho; erros de Bowler saem como RuntimeError (mesmas
+     * chamadas de execução do BytecodeCompiler, que delegam a Values)
+     */
+    public Object run(Program p) {
+        final int[] code = p.code;
+        final Object[] k = p.constants;
+        final int[] I = new int[p.ints];
+        final double[] D = new double[p.doubles];
+        System.arraycopy(p.presets, 0, D, p.doubles - p.presets.length, p.presets.length);
+        final Object[] R = new Object[p.refs];
+        int pc = 0;
+        while (true) {
+            int w = code[pc];
+            int a = w >>> 8;
+            switch (w & 0xFF) {
+                case ICONST:
+                    I[a] = code[pc + 1];
+                    pc += 2;
+                    break;
+                case DCONST:
+                    D[a] = (Double) k[code[pc + 1]];
+                    pc += 2;
+                    break;
+                case RCONST:
+                    R[a] = k[code[pc + 1]];
+                    pc += 2;
+                    break;
+                case IMOV:
+                    I[a] = I[code[pc + 1]];
+                    pc += 2;
+                    break;
+                case DMOV:
+                    D[a] = D[code[pc + 1]];
+                    pc += 2;
+                    break;
+                case RMOV:
+                    R[a] = R[code[pc + 1]];
+                    pc += 2;
+                    break;
+                case I2D:
+                    D[a] = I[code[pc + 1]];
+                    pc += 2;
+                    break;
+                case BOX:
+                    R[a] = box(code[pc + 2], code[pc + 1], I, D, R);
+                    pc += 3;
+                    break;
+                case COERCE:
+                    put(code[pc + 4], a,
+                            BytecodeCompiler.coerce(R[code[pc + 1]], (String) k[code[pc + 2]], code[pc + 3]), I, D, R);
+                    pc += 5;
+                    break;
+                case IADD:
+                    I[a] = I[code[pc + 1]] + I[code[pc + 2]];
+                    pc += 3;
+                    break;
+                case ISUB:
+                    I[a] = I[code[pc + 1]] - I[code[pc + 2]];
+                    pc += 3;
+                    break;
+                case IMUL:
+                    I[a] = I[code[pc + 1]] * I[code[pc + 2]];
+                    pc += 3;
+                    break;
+                case IDIV:
+                    I[a] = BytecodeCompiler.divide(I[code[pc + 1]], I[code[pc + 2]], code[pc + 3]);
+                    pc += 4;
+                    break;
+                case IREM:
+                    I[a] = BytecodeCompiler.remainder(I[code[pc + 1]], I[code[pc + 2]], code[pc + 3]);
+                    pc += 4;
+                    break;
+                case IADDK:
+                    I[a] = I[code[pc + 1]] + code[pc + 2];
+                    pc += 3;
+                    break;
+                case IMULK:
+                    I[a] = I[code[pc + 1]] * code[pc + 2];
+                    pc += 3;
+                    break;
+                case IDIVK:
+                    I[a] = I[code[pc + 1]] / code[pc + 2];
+                    pc += 3;
+                    break;
+                case IREMK:
+                    I[a] = I[code[pc + 1]] % code[pc + 2];
+                    pc += 3;
+                    break;
+                case INEG:
+                    I[a] = -I[code[pc + 1]];
+                    pc += 2;
+                    break;
+                case DADD:
+                    D[a] = D[code[pc + 1]] + D[code[pc + 2]];
+                    pc += 3;
+                    break;
+                case DSUB:
+                    D[a] = D[code[pc + 1]] - D[code[pc + 2]];
+                    pc += 3;
+                    break;
+                case DMUL:
+                    D[a] = D[code[pc + 1]] * D[code[pc + 2]];
+                    pc += 3;
+                    break;
+                case DDIV:
+                    D[a] = D[code[pc + 1]] / D[code[pc + 2]];
+                    pc += 3;
+                    break;
+                case DREM:
+                    D[a] = D[code[pc + 1]] % D[code[pc + 2]];
+                    pc += 3;
+                    break;
+                case DNEG:
+                    D[a] = -D[code[pc + 1]];
+                    pc += 2;
+                    break;
+                case GBIN:
+                    R[a] = BytecodeCompiler.binary(R[code[pc + 1]], R[code[pc + 2]], code[pc + 3],
+                            symbol(code[pc + 3]), code[pc + 4]);
+                    pc += 5;
+                    break;
+                case GNEG:
+                    R[a] = BytecodeCompiler.negate(R[code[pc + 1]], code[pc + 2]);
+                    pc += 3;
+                    break;
+                case GEQ:
+                    I[a] = Values.equal(R[code[pc + 1]], R[code[pc + 2]]) ? 1 : 0;
+                    pc += 3;
+                    break;
+                case GCMP:
+                    I[a] = BytecodeCompiler.compare(R[code[pc + 1]], R[code[pc + 2]], code[pc + 3],
+                            symbol(code[pc + 3]), code[pc + 4]);
+                    pc += 5;
+                    break;
+                case SCMP:
+                    I[a] = ((String) R[code[pc + 1]]).compareTo((String) R[code[pc + 2]]);
+                    pc += 3;
+                    break;
+                // Superinstruções: compara e salta
+                case JIEQ:
+                    pc = I[a] == I[code[pc + 1]] ? code[pc + 2] : pc + 3;
+                    break;
+                case JIEQ + NE:
+                    pc = I[a] != I[code[pc + 1]] ? code[pc + 2] : pc + 3;
+                    break;
+                case JIEQ + LT:
+                    pc = I[a] < I[code[pc + 1]] ? code[pc + 2] : pc + 3;
+                    break;
+                case JIEQ + LE:
+                    pc = I[a] <= I[code[pc + 1]] ? code[pc + 2] : pc + 3;
+                    break;
+                case JIEQ + GT:
+                    pc = I[a] > I[code[pc + 1]] ? code[pc + 2] : pc + 3;
+                    break;
+                case JIEQ + GE:
+                    pc = I[a] >= I[code[pc + 1]] ? code[pc + 2] : pc + 3;
+                    break;
+                case JIEQK:
+                    pc = I[a] == code[pc + 1] ? code[pc + 2] : pc + 3;
+                    break;
+                case JIEQK + NE:
+                    pc = I[a] != code[pc + 1] ? code[pc + 2] : pc + 3;
+                    break;
+                case JIEQK + LT:
+                    pc = I[a] < code[pc + 1] ? code[pc + 2] : pc + 3;
+                    break;
+                case JIEQK + LE:
+                    pc = I[a] <= code[pc + 1] ? code[pc + 2] : pc + 3;
+                    break;
+                case JIEQK + GT:
+                    pc = I[a] > code[pc + 1] ? code[pc + 2] : pc + 3;
+                    break;
+                case JIEQK + GE:
+                    pc = I[a] >= code[pc + 1] ? code[pc + 2] : pc + 3;
+                    break;
+                case JD:
+                    pc = compareDoubles(D[a], D[code[pc + 1]], code[pc + 2]) ? code[pc + 3] : pc + 4;
+                    break;
+                case JT:
+                    pc = I[a] != 0 ? code[pc + 1] : pc + 2;
+                    break;
+                case JF:
+                    pc = I[a] == 0 ? code[pc + 1] : pc + 2;
+                    break;
+                case JDT:
+                    pc = D[a] != 0.0 ? code[pc + 1] : pc + 2;
+                    break;
+                case JDF:
+                    pc = D[a] == 0.0 ? code[pc + 1] : pc + 2;
+                    break;
+                case JRT:
+                    pc = BytecodeCompiler.condition(R[a], code[pc + 1]) ? code[pc + 2] : pc + 3;
+                    break;
+                case JRF:
+                    pc = BytecodeCompiler.condition(R[a], code[pc + 1]) ? pc + 3 : code[pc + 2];
+                    break;
+                case JMP:
+                    pc = code[pc + 1];
+                    break;
+                case CONCAT:
+                    R[a] = concat(code, pc, k, I, D, R);
+                    pc += 2 + 2 * code[pc + 1];
+                    break;
+                case PRINT:
+                    print(code[pc + 1], a, I, D, R);
+                    pc += 2;
+                    break;
+                case INPUT:
+                    R[a] = BytecodeCompiler.input(out, in, (String) k[code[pc + 1]]);
+                    pc += 2;
+                    break;
+                case NEWARR: {
+                    Object[] array = new Object[code[pc + 1]];
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = R[code[pc + 2 + i]];
+                    }
+                    R[a] = array;
+                    pc += 2 + array.length;
+                    break;
+                }
+                case ELEM:
+                    put(code[pc + 4], a, BytecodeCompiler.element((Object[]) R[code[pc + 1]], I[code[pc + 2]],
+                            code[pc + 3]), I, D, R);
+                    pc += 5;
+                    break;
+                case CHARAT:
+                    I[a] = BytecodeCompiler.charAt((String) R[code[pc + 1]], I[code[pc + 2]], code[pc + 3]);
+                    pc += 4;
+                    break;
+                case GINDEX:
+                    R[a] = BytecodeCompiler.index(R[code[pc + 1]], R[code[pc + 2]], code[pc + 3]);
+                    pc += 4;
+                    break;
+                case TSWITCH: {
+                    long i = (long) I[a] - code[pc + 1];
+                    pc = i >= 0 && i < code[pc + 2] ? code[pc + 4 + (int) i] : code[pc + 3];
+                    break;
+                }
+                case LSWITCH:
+                    pc = lookup(code, pc, I[a]);
+                    break;
+                case RET:
+                    out.flush();
+                    return box(code[pc + 1], a, I, D, R);
+                case RETNULL:
+                    out.flush();
+                    return null;
+                default:
+                    throw new IllegalStateException("Instrução inválida " + (w & 0xFF) + " em " + pc);
+            }
+        }
+    }
+
+    // Instruções menos frequentes ficam fora do laço de despacho (método menor para o JIT)
+
+    private static Object box(int type, int r, int[] I, double[] D, Object[] R) {
+        switch (type) {
+            case INT:
+                return I[r];
+            case CHAR:
+                return (char) I[r];
+            case BOOL:
+                return I[r] != 0;
+            case DOUBLE:
+                return D[r];
+            default:
+                return R[r];
+        }
+    }
+
+    private static void put(int type, int r, Object v, int[] I, double[] D, Object[] R) {
+        switch (type) {
+            case INT:
+                I[r] = (Integer) v;
+                break;
+            case CHAR:
+                I[r] = (Character) v;
+                break;
+            case BOOL:
+                I[r] = (Boolean) v ? 1 : 0;
+                break;
+            case DOUBLE:
+                D[r] = (Double) v;
+                break;
+            default:
+                R[r] = v;
+        }
+    }
+
+    private static boolean compareDoubles(double x, double y, int cond) {
+        switch (cond) {
+            case EQ:
+                return x == y;
+            case NE:
+                return x != y;
+            case LT:
+                return x < y; // primitivos, como Values.compare: NaN sempre falso
+            case LE:
+                return x <= y;
+            case GT:
+                return x > y;
+            case GE:
+                return x >= y;
+            case NLT:
+                return !(x < y);
+            case NLE:
+                return !(x <= y);
+            case NGT:
+                return !(x > y);
+            default:
+                return !(x >= y);
+        }
+    }
+
+    private static String concat(int[] code, int pc, Object[] k, int[] I, double[] D, Object[] R) {
+        StringBuilder sb = new StringBuilder();
+        int n = code[pc + 1];
+        for (int i = 0; i < n; i++) {
+            int type = code[pc + 2 + 2 * i];
+            int r = code[pc + 3 + 2 * i];
+            switch (type) {
+                case INT:
+                    sb.append(I[r]);
+                    break;
+                case CHAR:
+                    sb.append((char) I[r]);
+                    break;
+                case BOOL:
+                    sb.append(I[r] != 0);
+                    break;
+                case DOUBLE:
+                    sb.append(D[r]);
+                    break;
+                case TEXT:
+                    sb.append((String) k[r]);
+                    break;
+                default:
+                    sb.append(Values.toText(R[r]));
+            }
+        }
+        return sb.toString();
+    }
+
+    private void print(int type, int r, int[] I, double[] D, Object[] R) {
+        switch (type) {
+            case INT:
+                out.println(I[r]);
+                break;
+            case CHAR:
+                out.println((char) I[r]);
+                break;
+            case BOOL:
+                out.println(I[r] != 0);
+                break;
+            case DOUBLE:
+                out.println(D[r]);
+                break;
+            default:
+                out.println(Values.toText(R[r]));
+        }
+    }
+
+    // Busca binária nos pares (chave, alvo) do LSWITCH, em ordem de chave
+    private static int lookup(int[] code, int pc, int key) {
+        int low = 0, high = code[pc + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int k = code[pc + 3 + 2 * mid];
+            if (k < key) {
+                low = mid + 1;
+            } else if (k > key) {
+                high = mid - 1;
+            } else {
+                return code[pc + 4 + 2 * mid];
+            }
+        }
+        return code[pc + 2];
+    }
+
+    // Lexema do operador (o mesmo do token, para as mensagens de Values)
+    private static String symbol(int op) {
+        switch (TokenType.values()[op]) {
+            case PLUS:
+                return "+";
+            case MINUS:
+                return "-";
+            case STAR:
+                return "*";
+            case SLASH:
+                return "/";
+            case PERCENT:
+                return "%";
+            case LESS:
+                return "<";
+            case LESS_EQUAL:
+                return "<=";
+            case GREATER:
+                return ">";
+            case GREATER_EQUAL:
+                return ">=";
+            case EQUAL_EQUAL:
+                return "==";
+            default:
+                return "!=";
+        }
+    }
+
+    // ------------------ Linha de comando ------------------
+
+    public static void main(String[] args) throws Exception {
+        List<String> inputs = new ArrayList<>();
+        String save = null;
+        boolean dump = false, check = false;
+        int iterations = 2_000_000;
+        for (String arg : args) {
+            if (arg.startsWith("--save=")) {
+                save = arg.substring("--save=".length());
+            } else if (arg.equals("--dump")) {
+                dump = true;
+            } else if (arg.equals("--check")) {
+                check = true;
+            } else if (arg.matches("\\d+")) {
+                iterations = Integer.parseInt(arg);
+            } else {
+                inputs.add(arg);
+            }
+        }
+        if (check) {
+            check(BatchValidator.collect(inputs.isEmpty() ? List.of("src") : inputs), iterations);
+            return;
+        }
+        if (inputs.size() != 1) {
+            System.err.println("Uso: java -cp bin RegisterVM arquivo.bw | arquivo.bwvm");
+            System.err.println("     java -cp bin RegisterVM --save=saida.bwvm arquivo.bw");
+            System.err.println("     java -cp bin RegisterVM --dump arquivo.bw | arquivo.bwvm");
+            System.err.println("     java -cp bin RegisterVM --check [dir | arquivo.bw ...] [iterações]");
+            System.exit(1);
+        }
+        Program program;
+        try {
+            program = load(Path.of(inputs.get(0)));
+        } catch (ParseError | SemanticError e) {
+            System.err.println("❌ " + e.getMessage());
+            System.exit(1);
+            return;
+        } catch (IOException e) {
+            System.err.println("❌ " + e.getMessage());
+            System.exit(1);
+            return;
+        } catch (RuntimeException e) {
+            System.err.println("❌ Erro léxico: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        if (save != null) {
+            try (OutputStream file = Files.newOutputStream(Path.of(save))) {
+                program.write(file);
+            }
+            System.out.printf("%s → %s (%d palavras de código)%n", inputs.get(0), save, program.codeSize());
+        } else if (dump) {
+            System.out.print(program.disassemble());
+        } else {
+            try {
+                Object returned = new RegisterVM().run(program);
+                if (returned != null) {
+                    System.err.println("Programa terminou com return " + Values.toText(returned));
+                }
+            } catch (RuntimeError e) {
+                System.out.flush();
+                System.err.println("❌ " + e.getMessage());
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * .bwvm é lido direto; .bw passa por Lexer, Parser e compilação
+     */
+    private static Program load(Path file) throws IOException {
+        if (file.toString().endsWith(".bwvm")) {
+            try (InputStream in = Files.newInputStream(file)) {
+                return Program.read(in);
+            }
+        }
+        return compile(new Parser(new Lexer(Files.readString(file)).scanTokens()).parse());
+    }
+
+    private static void check(List<Path> files, int iterations) throws IOException {
+        // Conferência: mesma saída (ou mesmo erro) que o Interpreter, também depois de gravar e ler o .bwvm
+        int same = 0, total = 0;
+        for (Path file : files) {
+            AST.Program program;
+            try {
+                program = new Parser(new Lexer(Files.readString(file)).scanTokens()).parse();
+            } catch (RuntimeException e) {
+                continue;
+            }
+            total++;
+            String expected = runCapturing(program, false);
+            if (expected.equals(runCapturing(program, true))) {
+                same++;
+            } else {
+                System.out.println("  saída diferente: " + file);
+            }
+        }
+        System.out.printf(
+                "Conferência: %d/%d programas com a mesma saída do Interpreter (após gravar e ler .bwvm)%n",
+                same, total);
+
+        // Desempenho no mesmo laço quente do SpecializingInterpreter e do BytecodeCompiler
+        String source = String.format(SpecializingInterpreter.HOT_LOOP, iterations);
+        AST.Program hot = new Parser(new Lexer(source).scanTokens()).parse();
+        Program compiled = compile(hot);
+        PrintStream sink = new PrintStream(OutputStream.nullOutputStream());
+        BufferedReader noInput = new BufferedReader(new StringReader(""));
+        Interpreter generic = new Interpreter(sink, noInput);
+        SpecializingInterpreter specializing = new SpecializingInterpreter(sink, noInput);
+        RegisterVM vm = new RegisterVM(sink, noInput);
+        BytecodeCompiler.Compiled jvm = BytecodeCompiler.load(hot);
+        for (int round = 1; round <= 5; round++) {
+            long t0 = System.nanoTime();
+            generic.run(hot);
+            long tGeneric = System.nanoTime() - t0;
+            t0 = System.nanoTime();
+            specializing.run(hot);
+            long tSpecial = System.nanoTime() - t0;
+            t0 = System.nanoTime();
+            vm.run(compiled);
+            long tVm = System.nanoTime() - t0;
+            t0 = System.nanoTime();
+            jvm.run(sink, noInput);
+            long tJvm = System.nanoTime() - t0;
+            System.out.printf("Rodada %d (%d iterações): genérico %.1f ms, especializado %.1f ms, "
+                    + "RegisterVM %.1f ms (%.1fx o genérico), BytecodeCompiler %.1f ms%n", round, iterations,
+                    tGeneric / 1e6, tSpecial / 1e6, tVm / 1e6, (double) tGeneric / tVm, tJvm / 1e6);
+        }
+        System.out.println("Mesma saída no laço quente: " + runCapturing(hot, false).equals(runCapturing(hot, true)));
+
+        // Carga: Lexer + Parser + compilação contra leitura do .bwvm
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        compiled.write(bytes);
+        byte[] bwvm = bytes.toByteArray();
+        long tSource = 0, tBinary = 0;
+        for (int i = 0; i < 2000; i++) {
+            long t0 = System.nanoTime();
+            compile(new Parser(new Lexer(source).scanTokens()).parse());
+            long t1 = System.nanoTime();
+            Program.read(new ByteArrayInputStream(bwvm));
+            long t2 = System.nanoTime();
+            tSource += t1 - t0;
+            tBinary += t2 - t1;
+        }
+        System.out.printf("Laço quente: %d palavras de código, .bwvm com %d bytes%n", compiled.codeSize(),
+                bwvm.length);
+        System.out.printf("Carga média: fonte (Lexer + Parser + compilação) %.1f µs, .bwvm %.1f µs%n",
+                tSource / 2000 / 1e3, tBinary / 2000 / 1e3);
+    }
+
+    private static String runCapturing(AST.Program program, boolean vm) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        BufferedReader noInput = new BufferedReader(new StringReader(""));
+        try {
+            Object returned;
+            if (vm) {
+                ByteArrayOutputStream bwvm = new ByteArrayOutputStream();
+                compile(program).write(bwvm);
+                returned = new RegisterVM(out, noInput).run(Program.read(new ByteArrayInputStream(bwvm.toByteArray())));
+            } else {
+                returned = new Interpreter(out, noInput).run(program);
+            }
+            out.print("return " + Values.toText(returned));
+        } catch (SemanticError | RuntimeError e) {
+            out.print(e.getMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,5 @@
+public class RuntimeError extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public RuntimeError(String m) { super(m); }
+}
@@ -0,0 +1,14 @@
+import java.util.List;
+
+/**
+ * SemanticActions - Ações semânticas executadas pelo LL1StackParser
+ *
+ * Ao expandir A → X1 ... Xn, o parser registra um marcador de redução; quando
+ * todos os Xi foram reconhecidos, reduce é chamado com os valores de cada
+ * símbolo (Token para terminais, resultado da redução para não-terminais) e o
+ * valor devolvido passa a representar A. Produções ε recebem um vetor vazio.
+ */
+public interface SemanticActions {
+
+    Object reduce(String nonTerminal, List<String> production, Object[] values);
+}
@@ -0,0 +1,5 @@
+public class SemanticError extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public SemanticError(String m) { super(m); }
+}
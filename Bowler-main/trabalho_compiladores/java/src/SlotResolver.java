@@ -0,0 +1,83 @@
+import java.util.*;
+
+/**
+ * SlotResolver - resolução de variáveis para slots de um frame
+ *
+ * Bowler só tem o bloco main, então todas as variáveis cabem em um único
+ * frame (Object[], int[], locais da JVM...). O resolver acompanha os
+ * escopos léxicos (cada bloco, o init de um for) durante a análise e dá a
+ * cada declaração um slot próprio: quem executa só indexa o frame, sem
+ * procurar nomes. Slots não são reaproveitados quando um escopo fecha,
+ * então cada slot tem um único tipo declarado (typeOf).
+ *
+ * Regras: usar uma variável antes de declará-la (ou fora do seu escopo) e
+ * redeclarar no mesmo escopo são erros (SemanticError); um escopo interno
+ * pode esconder uma variável de fora (for (var i ...) com i já declarado).
+ *
+ * Uso típico, em uma passada sobre a AST:
+ * beginScope(); ... declare(v.name, v.type) ... resolve(var.name) ... endScope();
+ */
+public final class SlotResolver {
+
+    private final List<Map<String, Integer>> scopes = new ArrayList<>();
+    private final List<String> types = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+
+    public void beginScope() {
+        scopes.add(new HashMap<>());
+    }
+
+    public void endScope() {
+        scopes.remove(scopes.size() - 1);
+    }
+
+    /**
+     * Declara a variável no escopo atual e devolve seu slot
+     */
+    public int declare(Token name, AST.TypeNode type) {
+        Map<String, Integer> scope = scopes.get(scopes.size() - 1);
+        if (scope.containsKey(name.lexeme)) {
+            throw error(name, "Variável '" + name.lexeme + "' já declarada neste escopo.");
+        }
+        int slot = types.size();
+        types.add(type == null ? null : type.name);
+        names.add(name.lexeme);
+        scope.put(name.lexeme, slot);
+        return slot;
+    }
+
+    /**
+     * Slot da declaração visível mais interna com esse nome
+     */
+    public int resolve(Token name) {
+        for (int i = scopes.size() - 1; i >= 0; i--) {
+            Integer slot = scopes.get(i).get(name.lexeme);
+            if (slot != null) {
+                return slot;
+            }
+        }
+        throw error(name, "Variável '" + name.lexeme + "' não declarada.");
+    }
+
+    /**
+     * Tipo declarado do slot ("int", "float[]"...; null se sem tipo)
+     */
+    public String typeOf(int slot) {
+        return types.get(slot);
+    }
+
+    public String nameOf(int slot) {
+        return names.get(slot);
+    }
+
+    /**
+     * Slots usados até agora (tamanho do frame)
+     */
+    public int frameSize() {
+        return types.size();
+    }
+
+    private static SemanticError error(Token token, String message) {
+        return new SemanticError("[Linha " + token.line + "] Erro semântico: " + message);
+    }
+}
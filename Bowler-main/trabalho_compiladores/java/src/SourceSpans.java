@@ -0,0 +1,289 @@
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * SourceSpans - tabela compacta de trechos da fonte por nó da AST
+ *
+ * Para cada nó guarda só início e comprimento na fonte (dois ints em um
+ * vetor); linha e coluna saem do LineIndex da fonte quando um diagnóstico
+ * precisa delas. Preenchida pelo Parser (recordSpans) ao fim de cada
+ * parse(), ela cobre o nó inteiro (de 'if' até o '}' do else, de 'a' até
+ * o ']' de a[i + 1]), não só o token que o nó guarda, e dispensa a lista
+ * de tokens depois do parse: quem trabalha com AstArena ou BinaryAst
+ * guarda a tabela e o LineIndex em vez dos Tokens.
+ *
+ * Os ids são os da AstArena e de BinaryAst: pré-ordem a partir do PROGRAM
+ * (0), com filho ausente = nó NONE e as partes string de uma string
+ * interpolada como nós próprios. Nós sem trecho (NONE, tokens sem offset)
+ * têm início -1. Com hash-consing (ExprInterner) uma expressão
+ * compartilhada aparece em vários ids, todos com o trecho da primeira
+ * ocorrência.
+ *
+ * Uso (conferência contra os tokens e memória contra guardar os tokens):
+ * java -cp bin SourceSpans [dir | arquivo.bw ...] [cópias]
+ */
+public final class SourceSpans {
+
+    private int[] spans = new int[256]; // pares (início, comprimento)
+    private int size;
+
+    public void reset() {
+        size = 0;
+    }
+
+    /**
+     * Nós na tabela (igual a nodeCount() da AstArena do mesmo programa)
+     */
+    public int size() {
+        return size;
+    }
+
+    public int start(int node) {
+        return spans[2 * node];
+    }
+
+    public int length(int node) {
+        return spans[2 * node + 1];
+    }
+
+    public int end(int node) {
+        return start(node) + length(node);
+    }
+
+    public boolean hasSpan(int node) {
+        return start(node) >= 0;
+    }
+
+    /**
+     * Trecho da fonte coberto pelo nó ("" se não tem trecho)
+     */
+    public String text(int node, CharSequence source) {
+        return hasSpan(node) ? source.subSequence(start(node), end(node)).toString() : "";
+    }
+
+    /**
+     * Prefixo de diagnóstico do nó, "[Linha L, Col C]"
+     */
+    public String describe(int node, LineIndex lines) {
+        return hasSpan(node) ? lines.describe(start(node)) : "[posição desconhecida]";
+    }
+
+    /**
+     * Nó mais interno que cobre a posição (-1 se nenhum): em pré-ordem os
+     * descendentes vêm depois do ancestral e irmãos não se sobrepõem, então
+     * é o maior id que contém a posição
+     */
+    public int nodeAt(int offset) {
+        for (int node = size - 1; node >= 0; node--) {
+            if (hasSpan(node) && start(node) <= offset && offset < end(node)) {
+                return node;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Libera a capacidade não usada
+     */
+    public void trim() {
+        spans = Arrays.copyOf(spans, 2 * size);
+    }
+
+    private void add(Long span) {
+        if (2 * size == spans.length) {
+            spans = Arrays.copyOf(spans, Math.max(16, spans.length * 2));
+        }
+        if (span == null) {
+            spans[2 * size] = -1;
+            spans[2 * size + 1] = 0;
+        } else {
+            int start = (int) (span >>> 32);
+            spans[2 * size] = start;
+            spans[2 * size + 1] = (int) (long) span - start;
+        }
+        size++;
+    }
+
+    /**
+     * Monta a tabela em pré-ordem a partir dos trechos que o Parser anotou
+     * por nó (início << 32 | fim)
+     */
+    void fill(AST.Program program, Map<Object, Long> recorded) {
+        size = 0;
+        add(recorded.get(program));
+        walk(program.mainBlock, recorded);
+    }
+
+    // Mesma ordem de AstArena.from e BinaryAst.Writer
+    private void walk(Object n, Map<Object, Long> recorded) {
+        add(n == null ? null : recorded.get(n));
+        if (n instanceof AST.Block) {
+            for (AST.Statement s : ((AST.Block) n).statements) {
+                walk(s, recorded);
+            }
+        } else if (n instanceof AST.VarDecl) {
+            walk(((AST.VarDecl) n).initializer, recorded);
+        } else if (n instanceof AST.If) {
+            AST.If v = (AST.If) n;
+            walk(v.cond, recorded);
+            walk(v.thenB, recorded);
+            walk(v.elseB, recorded);
+        } else if (n instanceof AST.While) {
+            walk(((AST.While) n).cond, recorded);
+            walk(((AST.While) n).body, recorded);
+        } else if (n instanceof AST.DoWhile) {
+            walk(((AST.DoWhile) n).body, recorded);
+            walk(((AST.DoWhile) n).cond, recorded);
+        } else if (n instanceof AST.For) {
+            AST.For v = (AST.For) n;
+            walk(v.init, recorded);
+            walk(v.cond, recorded);
+            walk(v.inc, recorded);
+            walk(v.body, recorded);
+        } else if (n instanceof AST.Switch) {
+            AST.Switch v = (AST.Switch) n;
+            walk(v.expr, recorded);
+            for (AST.Case c : v.cases) {
+                add(recorded.get(c));
+                walk(c.value, recorded);
+                walk(c.block, recorded);
+            }
+            walk(v.defaultBlock, recorded);
+        } else if (n instanceof AST.Return) {
+            walk(((AST.Return) n).value, recorded);
+        } else if (n instanceof AST.Print) {
+            walk(((AST.Print) n).value, recorded);
+        } else if (n instanceof AST.ExprStmt) {
+            walk(((AST.ExprStmt) n).expr, recorded);
+        } else if (n instanceof AST.Grouping) {
+            walk(((AST.Grouping) n).expr, recorded);
+        } else if (n instanceof AST.Unary) {
+            walk(((AST.Unary) n).right, recorded);
+        } else if (n instanceof AST.Binary) {
+            walk(((AST.Binary) n).left, recorded);
+            walk(((AST.Binary) n).right, recorded);
+        } else if (n instanceof AST.Assign) {
+            walk(((AST.Assign) n).value, recorded);
+        } else if (n instanceof AST.Ternary) {
+            AST.Ternary v = (AST.Ternary) n;
+            walk(v.cond, recorded);
+            walk(v.thenExpr, recorded);
+            walk(v.elseExpr, recorded);
+        } else if (n instanceof AST.ArrayLiteral) {
+            for (AST.Expr e : ((AST.ArrayLiteral) n).elements) {
+                walk(e, recorded);
+            }
+        } else if (n instanceof AST.ArrayAccess) {
+            walk(((AST.ArrayAccess) n).array, recorded);
+            walk(((AST.ArrayAccess) n).index, recorded);
+        } else if (n instanceof AST.InterpolatedString) {
+            for (Object part : ((AST.InterpolatedString) n).parts) {
+                if (part instanceof String) {
+                    add(recorded.get(part)); // nó STRING_PART
+                } else {
+                    walk(part, recorded);
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> inputs = new ArrayList<>();
+        int copies = 2000;
+        for (String arg : args) {
+            if (arg.matches("\\d+")) {
+                copies = Integer.parseInt(arg);
+            } else {
+                inputs.add(arg);
+            }
+        }
+        if (inputs.isEmpty()) {
+            inputs.add("src");
+        }
+        List<String> sources = new ArrayList<>();
+        for (Path f : BatchValidator.collect(inputs)) {
+            sources.add(Files.readString(f));
+        }
+
+        // Conferência: ids batem com a AstArena e o trecho de cada variável
+        // cai na linha/coluna do seu token
+        Lexer lexer = new Lexer();
+        Parser parser = new Parser();
+        SourceSpans spans = new SourceSpans();
+        parser.recordSpans(spans);
+        AstArena arena = new AstArena();
+        int programs = 0, sameIds = 0, checked = 0, matching = 0;
+        String example = null;
+        for (String source : sources) {
+            AST.Program program;
+            try {
+                lexer.reset(source);
+                parser.reset(lexer.scanTokens());
+                program = parser.parse();
+            } catch (RuntimeException e) {
+                continue;
+            }
+            programs++;
+            arena.reset();
+            arena.load(program);
+            if (arena.nodeCount() == spans.size()) {
+                sameIds++;
+            }
+            LineIndex lines = LineIndex.of(source);
+            for (int node = 0; node < arena.nodeCount(); node++) {
+                if (arena.kind(node) == BinaryAst.VARIABLE) {
+                    Token t = arena.token(node);
+                    checked++;
+                    if (lines.line(spans.start(node)) == t.line && lines.column(spans.start(node)) == t.column
+                            && spans.text(node, source).equals(t.lexeme)) {
+                        matching++;
+                    }
+                } else if (example == null && arena.kind(node) == BinaryAst.ASSIGN) {
+                    example = spans.describe(node, lines) + " " + spans.text(node, source);
+                }
+            }
+        }
+        System.out.printf("Conferência: %d/%d programas com os mesmos ids da AstArena, %d/%d variáveis na posição do token%n",
+                sameIds, programs, matching, checked);
+        if (example != null) {
+            System.out.println("Exemplo de atribuição: " + example);
+        }
+
+        // Memória retida para diagnósticos: listas de tokens vs. tabela + índice de linhas
+        for (int round = 0; round < 2; round++) {
+            boolean keepTokens = round == 0;
+            long before = usedMemory();
+            List<Object> kept = new ArrayList<>();
+            for (int c = 0; c < copies; c++) {
+                for (String source : sources) {
+                    try {
+                        List<Token> tokens = new Lexer(source).scanTokens();
+                        if (keepTokens) {
+                            kept.add(tokens);
+                        } else {
+                            SourceSpans table = new SourceSpans();
+                            new Parser(tokens).recordSpans(table).parse();
+                            table.trim();
+                            kept.add(table);
+                            kept.add(LineIndex.of(source));
+                        }
+                    } catch (RuntimeException e) {
+                        // arquivo com erro fica de fora
+                    }
+                }
+            }
+            long bytes = usedMemory() - before;
+            System.out.printf("%s: %.1f MB retidos para %d cópias do lote%n",
+                    keepTokens ? "Listas de tokens" : "SourceSpans + LineIndex", bytes / 1e6, copies);
+            kept.clear();
+        }
+    }
+
+    private static long usedMemory() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
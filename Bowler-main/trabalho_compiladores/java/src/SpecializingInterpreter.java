@@ -0,0 +1,1581 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * SpecializingInterpreter - interpretador com nós que se especializam
+ *
+ * O Interpreter é genérico: toda operação recebe Objects e descobre os
+ * tipos em Values a cada execução (o '+' de Bowler tanto soma quanto
+ * concatena). Aqui os nós de operação começam não inicializados e, na
+ * primeira execução, olham os tipos dos operandos e se substituem na árvore
+ * (replace) por uma versão especializada: int com int, double (com o lado
+ * int já conhecido), concatenação de strings, comparações que devolvem
+ * boolean sem boxing. Depois disso o laço quente só vê nós monomórficos,
+ * o que o JIT compila bem.
+ *
+ * Nós especializados pedem valores tipados aos filhos (executeInt,
+ * executeDouble, executeBoolean); se um filho devolver outro tipo
+ * (UnexpectedType, com o valor já calculado), o nó termina a operação de
+ * forma genérica e se reescreve para a versão genérica, que não muda mais
+ * (sem vai-e-vem entre especializações). Condições que recebem número em
+ * vez de bool (while (x)) ganham um nó Truthy na mesma hora.
+ *
+ * Variáveis ficam sem boxing no frame: o tipo declarado de cada slot
+ * (SlotResolver) escolhe int[] (int e bool), double[] (float e double) ou
+ * Object[] (char, string, arrays). A semântica é a de Values, então a
+ * saída é a mesma do Interpreter.
+ *
+ * Um Prepared se reescreve enquanto roda: use um por thread.
+ *
+ * Uso (conferência com o Interpreter e comparação de desempenho):
+ * java -cp bin SpecializingInterpreter [dir | arquivo.bw ...] [iterações]
+ */
+public final class SpecializingInterpreter {
+
+    static final int NORMAL = Interpreter.NORMAL, BREAK = Interpreter.BREAK, CONTINUE = Interpreter.CONTINUE,
+            RETURN = Interpreter.RETURN;
+
+    // Armazenamento de um slot no frame
+    static final byte INT = 0, DOUBLE = 1, BOOL = 2, REF = 3;
+
+    private final PrintStream out;
+    private final BufferedReader in;
+
+    public SpecializingInterpreter() {
+        this(System.out, new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)));
+    }
+
+    public SpecializingInterpreter(PrintStream out, BufferedReader in) {
+        this.out = out;
+        this.in = in;
+    }
+
+    /**
+     * Programa resolvido; a árvore se especializa a cada execução
+     */
+    public static final class Prepared {
+        final Root root;
+        final byte[] kinds;
+
+        Prepared(Root root, byte[] kinds) {
+            this.root = root;
+            this.kinds = kinds;
+        }
+
+        /**
+         * Reescritas feitas até agora ("IntArith → GenericBinary (linha 7)"...)
+         */
+        public List<String> rewrites() {
+            return Collections.unmodifiableList(root.rewrites);
+        }
+    }
+
+    public static Prepared prepare(AST.Program program) {
+        Builder b = new Builder();
+        StmtNode body = b.block(program.mainBlock);
+        byte[] kinds = new byte[b.slots.frameSize()];
+        for (int i = 0; i < kinds.length; i++) {
+            kinds[i] = kindOf(b.slots.typeOf(i));
+        }
+        return new Prepared(new Root(body), kinds);
+    }
+
+    public Object run(AST.Program program) {
+        return run(prepare(program));
+    }
+
+    public Object run(Prepared program) {
+        Frame frame = new Frame(program.kinds.length, out, in);
+        program.root.body.exec(frame);
+        out.flush();
+        return frame.returned;
+    }
+
+    static byte kindOf(String type) {
+        if ("int".equals(type)) {
+            return INT;
+        }
+        if ("float".equals(type) || "double".equals(type)) {
+            return DOUBLE;
+        }
+        return "bool".equals(type) ? BOOL : REF;
+    }
+
+    // ------------------ Frame ------------------
+
+    static final class Frame {
+        final int[] ints; // int e bool (0/1)
+        final double[] doubles;
+        final Object[] refs;
+        final PrintStream out;
+        final BufferedReader in;
+        Object returned;
+
+        Frame(int size, PrintStream out, BufferedReader in) {
+            this.ints = new int[size];
+            this.doubles = new double[size];
+            this.refs = new Object[size];
+            this.out = out;
+            this.in = in;
+        }
+
+        Object read(byte kind, int slot) {
+            switch (kind) {
+                case INT:
+                    return ints[slot];
+                case DOUBLE:
+                    return doubles[slot];
+                case BOOL:
+                    return ints[slot] != 0;
+                default:
+                    return refs[slot];
+            }
+        }
+
+        // v já convertido para o tipo do slot
+        void write(byte kind, int slot, Object v) {
+            switch (kind) {
+                case INT:
+                    ints[slot] = (Integer) v;
+                    break;
+                case DOUBLE:
+                    doubles[slot] = (Double) v;
+                    break;
+                case BOOL:
+                    ints[slot] = (Boolean) v ? 1 : 0;
+                    break;
+                default:
+                    refs[slot] = v;
+            }
+        }
+    }
+
+    /**
+     * Um filho devolveu um tipo diferente do pedido; value é o valor já
+     * calculado (o nó pai não reexecuta o filho). É controle de fluxo: não
+     * captura stack trace nem aceita supressão
+     */
+    static final class UnexpectedType extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        final Object value;
+
+        UnexpectedType(Object value) {
+            super(null, null, false, false);
+            this.value = value;
+        }
+    }
+
+    // ------------------ Nós ------------------
+
+    abstract static class Node {
+        Node parent;
+
+        <T extends Node> T adopt(T child) {
+            if (child != null) {
+                child.parent = this;
+            }
+            return child;
+        }
+
+        /**
+         * Troca o filho old por neu (só nós com filhos sobrescrevem)
+         */
+        void replaceChild(Node old, Node neu) {
+            throw new IllegalStateException(getClass().getSimpleName() + " não tem filhos");
+        }
+
+        /**
+         * Põe neu no lugar deste nó na árvore
+         */
+        final <T extends Node> T replace(T neu) {
+            Node p = parent;
+            p.replaceChild(this, neu);
+            neu.parent = p;
+            while (p.parent != null) {
+                p = p.parent;
+            }
+            if (p instanceof Root) {
+                ((Root) p).rewrites.add(getClass().getSimpleName() + " → " + neu.getClass().getSimpleName()
+                        + line(neu));
+            }
+            return neu;
+        }
+
+        Token where() {
+            return null;
+        }
+
+        private static String line(Node n) {
+            Token t = n.where();
+            return t == null ? "" : " (linha " + t.line + ")";
+        }
+    }
+
+    abstract static class ExprNode extends Node {
+        abstract Object execute(Frame f);
+
+        int executeInt(Frame f) throws UnexpectedType {
+            return expectInt(execute(f));
+        }
+
+        double executeDouble(Frame f) throws UnexpectedType {
+            return expectDouble(execute(f));
+        }
+
+        boolean executeBoolean(Frame f) throws UnexpectedType {
+            return expectBoolean(execute(f));
+        }
+    }
+
+    abstract static class StmtNode extends Node {
+        abstract int exec(Frame f);
+    }
+
+    static int expectInt(Object v) throws UnexpectedType {
+        if (v instanceof Integer) {
+            return (Integer) v;
+        }
+        throw new UnexpectedType(v);
+    }
+
+    static double expectDouble(Object v) throws UnexpectedType {
+        if (v instanceof Double) {
+            return (Double) v;
+        }
+        throw new UnexpectedType(v);
+    }
+
+    static boolean expectBoolean(Object v) throws UnexpectedType {
+        if (v instanceof Boolean) {
+            return (Boolean) v;
+        }
+        throw new UnexpectedType(v);
+    }
+
+    /**
+     * Avalia cond como condição; na primeira vez que ela não der bool,
+     * embrulha cond em um Truthy (que aceita números)
+     */
+    static boolean test(ExprNode cond, Token where, Frame f) {
+        try {
+            return cond.executeBoolean(f);
+        } catch (UnexpectedType e) {
+            Node p = cond.parent;
+            Truthy truthy = new Truthy(cond, where);
+            p.replaceChild(cond, truthy);
+            truthy.parent = p;
+            return Values.condition(where, e.value);
+        }
+    }
+
+    static final class Root extends Node {
+        StmtNode body;
+        final List<String> rewrites = new ArrayList<>();
+
+        Root(StmtNode body) {
+            this.body = adopt(body);
+        }
+
+        @Override
+        void replaceChild(Node old, Node neu) {
+            body = (StmtNode) neu;
+        }
+    }
+
+    // --- Constantes e variáveis ---
+
+    static final class IntConstant extends ExprNode {
+        final int value;
+
+        IntConstant(int value) {
+            this.value = value;
+        }
+
+        Object execute(Frame f) {
+            return value;
+        }
+
+        @Override
+        int executeInt(Frame f) {
+            return value;
+        }
+    }
+
+    static final class DoubleConstant extends ExprNode {
+        final double value;
+
+        DoubleConstant(double value) {
+            this.value = value;
+        }
+
+        Object execute(Frame f) {
+            return value;
+        }
+
+        @Override
+        double executeDouble(Frame f) {
+            return value;
+        }
+    }
+
+    static final class ObjectConstant extends ExprNode {
+        final Object value;
+
+        ObjectConstant(Object value) {
+            this.value = value;
+        }
+
+        Object execute(Frame f) {
+            return value;
+        }
+    }
+
+    static final class IntLoad extends ExprNode {
+        final int slot;
+
+        IntLoad(int slot) {
+            this.slot = slot;
+        }
+
+        Object execute(Frame f) {
+            return f.ints[slot];
+        }
+
+        @Override
+        int executeInt(Frame f) {
+            return f.ints[slot];
+        }
+    }
+
+    static final class DoubleLoad extends ExprNode {
+        final int slot;
+
+        DoubleLoad(int slot) {
+            this.slot = slot;
+        }
+
+        Object execute(Frame f) {
+            return f.doubles[slot];
+        }
+
+        @Override
+        double executeDouble(Frame f) {
+            return f.doubles[slot];
+        }
+    }
+
+    static final class BoolLoad extends ExprNode {
+        final int slot;
+
+        BoolLoad(int slot) {
+            this.slot = slot;
+        }
+
+        Object execute(Frame f) {
+            return f.ints[slot] != 0;
+        }
+
+        @Override
+        boolean executeBoolean(Frame f) {
+            return f.ints[slot] != 0;
+        }
+    }
+
+    static final class RefLoad extends ExprNode {
+        final int slot;
+
+        RefLoad(int slot) {
+            this.slot = slot;
+        }
+
+        Object execute(Frame f) {
+            return f.refs[slot];
+        }
+    }
+
+    // --- Atribuição: não inicializada → int/double sem boxing ou genérica ---
+
+    abstract static class StoreNode extends ExprNode {
+        final int slot;
+        final byte kind;
+        final String type;
+        final Token name;
+        ExprNode value;
+
+        StoreNode(int slot, byte kind, String type, Token name, ExprNode value) {
+            this.slot = slot;
+            this.kind = kind;
+            this.type = type;
+            this.name = name;
+            this.value = adopt(value);
+        }
+
+        @Override
+        void replaceChild(Node old, Node neu) {
+            value = (ExprNode) neu;
+        }
+
+        @Override
+        Token where() {
+            return name;
+        }
+
+        // Caminho genérico: converte para o tipo declarado e grava
+        Object storeGeneric(Frame f, Object v) {
+            Object coerced = Values.coerce(name, v, type);
+            f.write(kind, slot, coerced);
+            return coerced;
+        }
+
+        Object generalize(Frame f, Object v) {
+            return replace(new GenericStore(slot, kind, type, name, value)).storeGeneric(f, v);
+        }
+    }
+
+    static final class UninitializedStore extends StoreNode {
+        UninitializedStore(int slot, byte kind, String type, Token name, ExprNode value) {
+            super(slot, kind, type, name, value);
+        }
+
+        Object execute(Frame f) {
+            Object v = value.execute(f);
+            if (kind == INT && v instanceof Integer) {
+                replace(new IntStore(slot, kind, type, name, value));
+            } else if (kind == DOUBLE && (v instanceof Double || v instanceof Integer)) {
+                replace(new DoubleStore(slot, kind, type, name, value, v instanceof Integer));
+            } else {
+                replace(new GenericStore(slot, kind, type, name, value));
+            }
+            return storeGeneric(f, v);
+        }
+    }
+
+    static final class IntStore extends StoreNode {
+        IntStore(int slot, byte kind, String type, Token name, ExprNode value) {
+            super(slot, kind, type, name, value);
+        }
+
+        Object execute(Frame f) {
+            try {
+                return executeInt(f);
+            } catch (UnexpectedType e) {
+                return e.value;
+            }
+        }
+
+        @Override
+        int executeInt(Frame f) throws UnexpectedType {
+            int v;
+            try {
+                v = value.executeInt(f);
+            } catch (UnexpectedType e) {
+                return expectInt(generalize(f, e.value));
+            }
+            f.ints[slot] = v;
+            return v;
+        }
+    }
+
+    static final class DoubleStore extends StoreNode {
+        final boolean fromInt; // valor vem como int e é convertido
+
+        DoubleStore(int slot, byte kind, String type, Token name, ExprNode value, boolean fromInt) {
+            super(slot, kind, type, name, value);
+            this.fromInt = fromInt;
+        }
+
+        Object execute(Frame f) {
+            try {
+                return executeDouble(f);
+            } catch (UnexpectedType e) {
+                return e.value;
+            }
+        }
+
+        @Override
+        double executeDouble(Frame f) throws UnexpectedType {
+            double v;
+            try {
+                v = fromInt ? value.executeInt(f) : value.executeDouble(f);
+            } catch (UnexpectedType e) {
+                return expectDouble(generalize(f, e.value));
+            }
+            f.doubles[slot] = v;
+            return v;
+        }
+    }
+
+    static final class GenericStore extends StoreNode {
+        GenericStore(int slot, byte kind, String type, Token name, ExprNode value) {
+            super(slot, kind, type, name, value);
+        }
+
+        Object execute(Frame f) {
+            return storeGeneric(f, value.execute(f));
+        }
+    }
+
+    // --- Operadores binários ---
+
+    abstract static class BinaryNode extends ExprNode {
+        final Token op;
+        ExprNode left, right;
+
+        BinaryNode(ExprNode left, Token op, ExprNode right) {
+            this.op = op;
+            this.left = adopt(left);
+            this.right = adopt(right);
+        }
+
+        @Override
+        void replaceChild(Node old, Node neu) {
+            if (left == old) {
+                left = (ExprNode) neu;
+            } else {
+                right = (ExprNode) neu;
+            }
+        }
+
+        @Override
+        Token where() {
+            return op;
+        }
+
+        /**
+         * Operandos com tipo inesperado: termina de forma genérica e passa a
+         * ser genérico de vez
+         */
+        Object generalize(Object a, Object b) {
+            replace(new GenericBinary(left, op, right));
+            return Values.binary(op, a, b);
+        }
+    }
+
+    static boolean isComparison(TokenType t) {
+        switch (t) {
+            case LESS:
+            case LESS_EQUAL:
+            case GREATER:
+            case GREATER_EQUAL:
+            case EQUAL_EQUAL:
+            case BANG_EQUAL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    static final class UninitializedBinary extends BinaryNode {
+        UninitializedBinary(ExprNode left, Token op, ExprNode right) {
+            super(left, op, right);
+        }
+
+        Object execute(Frame f) {
+            Object a = left.execute(f);
+            Object b = right.execute(f);
+            replace(specialize(a, b));
+            return Values.binary(op, a, b);
+        }
+
+        private BinaryNode specialize(Object a, Object b) {
+            boolean ai = a instanceof Integer, bi = b instanceof Integer;
+            boolean ad = a instanceof Double, bd = b instanceof Double;
+            if (op.type == TokenType.PLUS && (a instanceof String || b instanceof String)) {
+                return new StringConcat(left, op, right);
+            }
+            if (ai && bi) {
+                return isComparison(op.type) ? new IntCompare(left, op, right) : new IntArith(left, op, right);
+            }
+            if ((ai || ad) && (bi || bd)) {
+                return isComparison(op.type) ? new DoubleCompare(left, op, right, ai, bi)
+                        : new DoubleArith(left, op, right, ai, bi);
+            }
+            return new GenericBinary(left, op, right);
+        }
+    }
+
+    static final class IntArith extends BinaryNode {
+        IntArith(ExprNode left, Token op, ExprNode right) {
+            super(left, op, right);
+        }
+
+        Object execute(Frame f) {
+            try {
+                return executeInt(f);
+            } catch (UnexpectedType e) {
+                return e.value;
+            }
+        }
+
+        @Override
+        int executeInt(Frame f) throws UnexpectedType {
+            int a, b;
+            try {
+                a = left.executeInt(f);
+            } catch (UnexpectedType e) {
+                return expectInt(generalize(e.value, right.execute(f)));
+            }
+            try {
+                b = right.executeInt(f);
+            } catch (UnexpectedType e) {
+                return expectInt(generalize(a, e.value));
+            }
+            return Values.arithmetic(op, a, b);
+        }
+    }
+
+    static final class DoubleArith extends BinaryNode {
+        final boolean leftInt, rightInt; // no máximo um dos dois
+
+        DoubleArith(ExprNode left, Token op, ExprNode right, boolean leftInt, boolean rightInt) {
+            super(left, op, right);
+            this.leftInt = leftInt;
+            this.rightInt = rightInt;
+        }
+
+        Object execute(Frame f) {
+            try {
+                return executeDouble(f);
+            } catch (UnexpectedType e) {
+                return e.value;
+            }
+        }
+
+        @Override
+        double executeDouble(Frame f) throws UnexpectedType {
+            double a, b;
+            try {
+                a = leftInt ? left.executeInt(f) : left.executeDouble(f);
+            } catch (UnexpectedType e) {
+                return expectDouble(generalize(e.value, right.execute(f)));
+            }
+            try {
+                b = rightInt ? right.executeInt(f) : right.executeDouble(f);
+            } catch (UnexpectedType e) {
+                return expectDouble(generalize(leftInt ? (Object) (int) a : (Object) a, e.value));
+            }
+            return Values.arithmetic(op, a, b);
+        }
+    }
+
+    static boolean compare(TokenType t, int c) {
+        switch (t) {
+            case LESS:
+                return c < 0;
+            case LESS_EQUAL:
+                return c <= 0;
+            case GREATER:
+                return c > 0;
+            case GREATER_EQUAL:
+                return c >= 0;
+            case EQUAL_EQUAL:
+                return c == 0;
+            default:
+                return c != 0;
+        }
+    }
+
+    static final class IntCompare extends BinaryNode {
+        IntCompare(ExprNode left, Token op, ExprNode right) {
+            super(left, op, right);
+        }
+
+        Object execute(Frame f) {
+            try {
+                return executeBoolean(f);
+            } catch (UnexpectedType e) {
+                return e.value;
+            }
+        }
+
+        @Override
+        boolean executeBoolean(Frame f) throws UnexpectedType {
+            int a, b;
+            try {
+                a = left.executeInt(f);
+            } catch (UnexpectedType e) {
+                return expectBoolean(generalize(e.value, right.execute(f)));
+            }
+            try {
+                b = right.executeInt(f);
+            } catch (UnexpectedType e) {
+                return expectBoolean(generalize(a, e.value));
+            }
+            return compare(op.type, Integer.compare(a, b));
+        }
+    }
+
+    static final class DoubleCompare extends BinaryNode {
+        final boolean leftInt, rightInt;
+
+        DoubleCompare(ExprNode left, Token op, ExprNode right, boolean leftInt, boolean rightInt) {
+            super(left, op, right);
+            this.leftInt = leftInt;
+            this.rightInt = rightInt;
+        }
+
+        Object execute(Frame f) {
+            try {
+                return executeBoolean(f);
+            } catch (UnexpectedType e) {
+                return e.value;
+            }
+        }
+
+        @Override
+        boolean executeBoolean(Frame f) throws UnexpectedType {
+            double a, b;
+            try {
+                a = leftInt ? left.executeInt(f) : left.executeDouble(f);
+            } catch (UnexpectedType e) {
+                return expectBoolean(generalize(e.value, right.execute(f)));
+            }
+            try {
+                b = rightInt ? right.executeInt(f) : right.executeDouble(f);
+            } catch (UnexpectedType e) {
+                return expectBoolean(generalize(leftInt ? (Object) (int) a : (Object) a, e.value));
+            }
+            // Primitivos, como Values: NaN só satisfaz '!=' e -0.0 == 0.0
+            switch (op.type) {
+                case EQUAL_EQUAL:
+                    return a == b;
+                case BANG_EQUAL:
+                    return a != b;
+                case LESS:
+                    return a < b;
+                case LESS_EQUAL:
+                    return a <= b;
+                case GREATER:
+                    return a > b;
+                default:
+                    return a >= b;
+            }
+        }
+    }
+
+    static final class StringConcat extends BinaryNode {
+        StringConcat(ExprNode left, Token op, ExprNode right) {
+            super(left, op, right);
+        }
+
+        Object execute(Frame f) {
+            Object a = left.execute(f);
+            Object b = right.execute(f);
+            if (a instanceof String || b instanceof String) {
+                return Values.toText(a).concat(Values.toText(b));
+            }
+            return generalize(a, b);
+        }
+    }
+
+    static final class GenericBinary extends BinaryNode {
+        GenericBinary(ExprNode left, Token op, ExprNode right) {
+            super(left, op, right);
+        }
+
+        Object execute(Frame f) {
+            return Values.binary(op, left.execute(f), right.execute(f));
+        }
+    }
+
+    // --- Lógicos, unários, ternário ---
+
+    static final class Truthy extends ExprNode {
+        ExprNode operand;
+        final Token where;
+
+        Truthy(ExprNode operand, Token where) {
+            this.operand = adopt(operand);
+            this.where = where;
+        }
+
+        @Override
+        void replaceChild(Node old, Node neu) {
+            operand = (ExprNode) neu;
+        }
+
+        Object execute(Frame f) {
+            return executeBoolean(f);
+        }
+
+        @Override
+        boolean executeBoolean(Frame f) {
+            return Values.condition(where, operand.execute(f));
+        }
+    }
+
+    static final class Logical extends ExprNode {
+        final Token op;
+        final boolean isAnd;
+        ExprNode left, right;
+
+        Logical(ExprNode left, Token op, ExprNode right) {
+            this.op = op;
+            this.isAnd = op.type == TokenType.AND_AND;
+            this.left = adopt(left);
+            this.right = adopt(right);
+        }
+
+        @Override
+        void replaceChild(Node old, Node neu) {
+            if (left == old) {
+                left = (ExprNode) neu;
+            } else {
+                right = (ExprNode) neu;
+            }
+        }
+
+        Object execute(Frame f) {
+            return executeBoolean(f);
+        }
+
+        @Override
+        boolean executeBoolean(Frame f) {
+            return isAnd ? test(left, op, f) && test(right, op, f) : test(left, op, f) || test(right, op, f);
+        }
+    }
+
+    static final class Not extends ExprNode {
+        final Token op;
+        ExprNode operand;
+
+        Not(Token op, ExprNode operand) {
+            this.op = op;
+            this.operand = adopt(operand);
+        }
+
+        @Override
+        void replaceChild(Node old, Node neu) {
+            operand = (ExprNode) neu;
+        }
+
+        Object execute(Frame f) {
+            return executeBoolean(f);
+        }
+
+        @Override
+        boolean executeBoolean(Frame f) {
+            return !test(operand, op, f);
+        }
+    }
+
+    abstract static class NegateNode extends ExprNode {
+        final Token op;
+        ExprNode operand;
+
+        NegateNode(Token op, ExprNode operand) {
+            this.op = op;
+            this.operand = adopt(operand);
+        }
+
+        @Override
+        void replaceChild(Node old, Node neu) {
+            operand = (ExprNode) neu;
+        }
+
+        @Override
+        Token where() {
+            return op;
+        }
+
+        Object generalize(Object v) {
+            replace(new GenericNegate(op, operand));
+            return Values.negate(op, v);
+        }
+    }
+
+    static final class UninitializedNegate extends NegateNode {
+        UninitializedNegate(Token op, ExprNode operand) {
+            super(op, operand);
+        }
+
+        Object execute(Frame f) {
+            Object v = operand.execute(f);
+            replace(v instanceof Integer ? new IntNegate(op, operand)
+                    : v instanceof Double ? new DoubleNegate(op, operand) : new GenericNegate(op, operand));
+            return Values.negate(op, v);
+        }
+    }
+
+    static final class IntNegate extends NegateNode {
+        IntNegate(Token op, ExprNode operand) {
+            super(op, operand);
+        }
+
+        Object execute(Frame f) {
+            try {
+                return executeInt(f);
+            } catch (UnexpectedType e) {
+                return e.value;
+            }
+        }
+
+        @Override
+        int executeInt(Frame f) throws UnexpectedType {
+            try {
+                return -operand.executeInt(f);
+            } catch (UnexpectedType e) {
+                return expectInt(generalize(e.value));
+            }
+        }
+    }
+
+    static final class DoubleNegate extends NegateNode {
+        DoubleNegate(Token op, ExprNode operand) {
+            super(op, operand);
+        }
+
+        Object execute(Frame f) {
+            try {
+                return executeDouble(f);
+            } catch (UnexpectedType e) {
+                return e.value;
+            }
+        }
+
+        @Override
+        double executeDouble(Frame f) throws UnexpectedType {
+            try {
+                return -operand.executeDouble(f);
+            } catch (UnexpectedType e) {
+                return expectDouble(generalize(e.value));
+            }
+        }
+    }
+
+    static final class GenericNegate extends NegateNode {
+        GenericNegate(Token op, ExprNode operand) {
+            super(op, operand);
+        }
+
+        Object execute(Frame f) {
+            return Values.negate(op, operand.execute(f));
+        }
+    }
+
+    static final class Conditional extends ExprNode {
+        final Token where;
+        ExprNode cond, thenNode, elseNode;
+
+        Conditional(ExprNode cond, ExprNode thenNode, ExprNode elseNode, Token where) {
+            this.where = where;
+            this.cond = adopt(cond);
+            this.thenNode = adopt(thenNode);
+            this.elseNode = adopt(elseNode);
+        }
+
+        @Override
+        void replaceChild(Node old, Node neu) {
+            if (cond == old) {
+                cond = (ExprNode) neu;
+            } else if (thenNode == old) {
+                thenNode = (ExprNode) neu;
+            } else {
+                elseNode = (ExprNode) neu;
+            }
+        }
+
+        Object execute(Frame f) {
+            return test(cond, where, f) ? thenNode.execute(f) : elseNode.execute(f);
+        }
+
+        @Override
+        int executeInt(Frame f) throws UnexpectedType {
+            return test(cond, where, f) ? thenNode.executeInt(f) : elseNode.executeInt(f);
+        }
+
+        @Override
+        double executeDouble(Frame f) throws UnexpectedType {
+            return test(cond, where, f) ? thenNode.executeDouble(f) : elseNode.executeDouble(f);
+        }
+    }
+
+    // --- Input, arrays, strings interpoladas ---
+
+    static final class Input extends ExprNode {
+        final String prompt;
+
+        Input(String prompt) {
+            this.prompt = prompt;
+        }
+
+        Object execute(Frame f) {
+            f.out.print(prompt);
+            f.out.flush();
+            try {
+                String line = f.in.readLine();
+                return line == null ? "" : line;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    abstract static class ListNode extends ExprNode {
+        final ExprNode[] items;
+
+        ListNode(ExprNode[] items) {
+            this.items = items;
+            for (ExprNode item : items) {
+                adopt(item);
+            }
+        }
+
+        @Override
+        void replaceChild(Node old, Node neu) {
+            for (int i = 0; i < items.length; i++) {
+                if (items[i] == old) {
+                    items[i] = (ExprNode) neu;
+                }
+            }
+        }
+    }
+
+    static final class NewArray extends ListNode {
+        NewArray(ExprNode[] elements) {
+            super(elements);
+        }
+
+        Object execute(Frame f) {
+            Object[] array = new Object[items.length];
+            for (int i = 0; i < items.length; i++) {
+                array[i] = items[i].execute(f);
+            }
+            return array;
+        }
+    }
+
+    static final class Concat extends ListNode {
+        Concat(ExprNode[] parts) {
+            super(parts);
+        }
+
+        Object execute(Frame f) {
+            StringBuilder sb = new StringBuilder();
+            for (ExprNode part : items) {
+                sb.append(Values.toText(part.execute(f)));
+            }
+            return sb.toString();
+        }
+    }
+
+    static final class Index extends ExprNode {
+        final Token where;
+        ExprNode array, index;
+
+        Index(ExprNode array, ExprNode index, Token where) {
+            this.where = where;
+            this.array = adopt(array);
+            this.index = adopt(index);
+        }
+
+        @Override
+        void replaceChild(Node old, Node neu) {
+            if (array == old) {
+                array = (ExprNode) neu;
+            } else {
+                index = (ExprNode) neu;
+            }
+        }
+
+        Object execute(Frame f) {
+            Object a = array.execute(f);
+            int i;
+            try {
+                i = index.executeInt(f);
+            } catch (UnexpectedType e) {
+                return Values.index(where, a, e.value);
+            }
+            if (a instanceof Object[] && i >= 0 && i < ((Object[]) a).length) {
+                return ((Object[]) a)[i];
+            }
+            return Values.index(where, a, i); // strings e erros de limite
+        }
+    }
+
+    // --- Statements ---
+
+    static final class Sequence extends StmtNode {
+        final StmtNode[] body;
+
+        Sequence(StmtNode[] body) {
+            this.body = body;
+            for (StmtNode s : body) {
+                adopt(s);
+            }
+        }
+
+        @Override
+        void replaceChild(Node old, Node neu) {
+            for (int i = 0; i < body.length; i++) {
+                if (body[i] == old) {
+                    body[i] = (StmtNode) neu;
+                }
+            }
+        }
+
+        int exec(Frame f) {
+            for (StmtNode s : body) {
+                int result = s.exec(f);
+                if (result != NORMAL) {
+                    return result;
+                }
+            }
+            return NORMAL;
+        }
+    }
+
+    static final class Evaluate extends StmtNode {
+        ExprNode expr;
+
+        Evaluate(ExprNode expr) {
+            this.expr = adopt(expr);
+        }
+
+        @Override
+        void replaceChild(Node old, Node neu) {
+            expr = (ExprNode) neu;
+        }
+
+        int exec(Frame f) {
+            expr.execute(f);
+            return NORMAL;
+        }
+    }
+
+    static final class Print extends StmtNode {
+        ExprNode value;
+
+        Print(ExprNode value) {
+            this.value = adopt(value);
+        }
+
+        @Override
+        void replaceChild(Node old, Node neu) {
+            value = (ExprNode) neu;
+        }
+
+        int exec(Frame f) {
+            f.out.println(Values.toText(value.execute(f)));
+            return NORMAL;
+        }
+    }
+
+    static final class If extends StmtNode {
+        final Token where;
+        ExprNode cond;
+        StmtNode thenB, elseB;
+
+        If(ExprNode cond, StmtNode thenB, StmtNode elseB, Token where) {
+            this.where = where;
+            this.cond = adopt(cond);
+            this.thenB = adopt(thenB);
+            this.elseB = adopt(elseB);
+        }
+
+        @Override
+        void replaceChild(Node old, Node neu) {
+            if (cond == old) {
+                cond = (ExprNode) neu;
+            } else if (thenB == old) {
+                thenB = (StmtNode) neu;
+            } else {
+                elseB = (StmtNode) neu;
+            }
+        }
+
+        int exec(Frame f) {
+            if (test(cond, where, f)) {
+                return thenB.exec(f);
+            }
+            return elseB == null ? NORMAL : elseB.exec(f);
+        }
+    }
+
+    static final class Loop extends StmtNode {
+        final boolean testFirst;
+        final Token where;
+        StmtNode init;
+        ExprNode cond, inc;
+        StmtNode body;
+
+        Loop(StmtNode init, ExprNode cond, ExprNode inc, StmtNode body, boolean testFirst, Token where) {
+            this.testFirst = testFirst;
+            this.where = where;
+            this.init = adopt(init);
+            this.cond = adopt(cond);
+            this.inc = adopt(inc);
+            this.body = adopt(body);
+        }
+
+        @Override
+        void replaceChild(Node old, Node neu) {
+            if (init == old) {
+                init = (StmtNode) neu;
+            } else if (cond == old) {
+                cond = (ExprNode) neu;
+            } else if (inc == old) {
+                inc = (ExprNode) neu;
+            } else {
+                body = (StmtNode) neu;
+            }
+        }
+
+        int exec(Frame f) {
+            if (init != null) {
+                int result = init.exec(f);
+                if (result != NORMAL) {
+                    return result;
+                }
+            }
+            if (testFirst && !(cond == null || test(cond, where, f))) {
+                return NORMAL;
+            }
+            while (true) {
+                int result = body.exec(f);
+                if (result == BREAK) {
+                    return NORMAL;
+                }
+                if (result == RETURN) {
+                    return RETURN;
+                }
+                if (inc != null) {
+                    inc.execute(f);
+                }
+                if (!(cond == null || test(cond, where, f))) {
+                    return NORMAL;
+                }
+            }
+        }
+    }
+
+    static final class Switch extends StmtNode {
+        ExprNode value;
+        final ExprNode[] caseValues;
+        final StmtNode[] caseBodies;
+        StmtNode defaultBody;
+
+        Switch(ExprNode value, ExprNode[] caseValues, StmtNode[] caseBodies, StmtNode defaultBody) {
+            this.value = adopt(value);
+            this.caseValues = caseValues;
+            this.caseBodies = caseBodies;
+            for (int i = 0; i < caseValues.length; i++) {
+                adopt(caseValues[i]);
+                adopt(caseBodies[i]);
+            }
+            this.defaultBody = adopt(defaultBody);
+        }
+
+        @Override
+        void replaceChild(Node old, Node neu) {
+            if (value == old) {
+                value = (ExprNode) neu;
+            } else if (defaultBody == old) {
+                defaultBody = (StmtNode) neu;
+            }
+            for (int i = 0; i < caseValues.length; i++) {
+                if (caseValues[i] == old) {
+                    caseValues[i] = (ExprNode) neu;
+                } else if (caseBodies[i] == old) {
+                    caseBodies[i] = (StmtNode) neu;
+                }
+            }
+        }
+
+        int exec(Frame f) {
+            Object v = value.execute(f);
+            StmtNode chosen = defaultBody;
+            for (int i = 0; i < caseValues.length; i++) {
+                if (Values.equal(v, caseValues[i].execute(f))) {
+                    chosen = caseBodies[i];
+                    break;
+                }
+            }
+            if (chosen == null) {
+                return NORMAL;
+            }
+            int result = chosen.exec(f);
+            return result == BREAK ? NORMAL : result;
+        }
+    }
+
+    static final class Jump extends StmtNode {
+        final int kind;
+
+        Jump(int kind) {
+            this.kind = kind;
+        }
+
+        int exec(Frame f) {
+            return kind;
+        }
+    }
+
+    static final class Return extends StmtNode {
+        ExprNode value;
+
+        Return(ExprNode value) {
+            this.value = adopt(value);
+        }
+
+        @Override
+        void replaceChild(Node old, Node neu) {
+            value = (ExprNode) neu;
+        }
+
+        int exec(Frame f) {
+            f.returned = value == null ? null : value.execute(f);
+            return RETURN;
+        }
+    }
+
+    // ------------------ Construção ------------------
+
+    /**
+     * Mesma resolução do Interpreter (SlotResolver), com loads tipados pelo
+     * slot e operações não inicializadas
+     */
+    private static final class Builder {
+        final SlotResolver slots = new SlotResolver();
+
+        StmtNode block(AST.Block b) {
+            slots.beginScope();
+            StmtNode[] body = new StmtNode[b.statements.size()];
+            for (int i = 0; i < body.length; i++) {
+                body[i] = statement(b.statements.get(i));
+            }
+            slots.endScope();
+            return body.length == 1 ? body[0] : new Sequence(body);
+        }
+
+        StmtNode statement(AST.Statement s) {
+            if (s instanceof AST.Block) {
+                return block((AST.Block) s);
+            } else if (s instanceof AST.VarDecl) {
+                AST.VarDecl v = (AST.VarDecl) s;
+                String type = v.type == null ? null : v.type.name;
+                ExprNode init = v.initializer == null ? constant(Values.defaultValue(type)) : expr(v.initializer);
+                int slot = slots.declare(v.name, v.type);
+                return new Evaluate(new UninitializedStore(slot, kindOf(type), type, v.name, init));
+            } else if (s instanceof AST.If) {
+                AST.If v = (AST.If) s;
+                return new If(expr(v.cond), block(v.thenB), v.elseB == null ? null : block(v.elseB),
+                        Interpreter.firstToken(v.cond));
+            } else if (s instanceof AST.While) {
+                AST.While v = (AST.While) s;
+                return new Loop(null, expr(v.cond), null, block(v.body), true, Interpreter.firstToken(v.cond));
+            } else if (s instanceof AST.DoWhile) {
+                AST.DoWhile v = (AST.DoWhile) s;
+                StmtNode body = block(v.body);
+                return new Loop(null, expr(v.cond), null, body, false, Interpreter.firstToken(v.cond));
+            } else if (s instanceof AST.For) {
+                AST.For v = (AST.For) s;
+                slots.beginScope();
+                StmtNode init = v.init == null ? null : statement(v.init);
+                ExprNode cond = v.cond == null ? null : expr(v.cond);
+                ExprNode inc = v.inc == null ? null : expr(v.inc);
+                StmtNode body = block(v.body);
+                slots.endScope();
+                return new Loop(init, cond, inc, body, true, Interpreter.firstToken(v.cond));
+            } else if (s instanceof AST.Switch) {
+                AST.Switch v = (AST.Switch) s;
+                ExprNode value = expr(v.expr);
+                ExprNode[] caseValues = new ExprNode[v.cases.size()];
+                StmtNode[] caseBodies = new StmtNode[v.cases.size()];
+                for (int i = 0; i < caseValues.length; i++) {
+                    caseValues[i] = expr(v.cases.get(i).value);
+                    caseBodies[i] = block(v.cases.get(i).block);
+                }
+                return new Switch(value, caseValues, caseBodies, v.defaultBlock == null ? null : block(v.defaultBlock));
+            } else if (s instanceof AST.Return) {
+                AST.Expr value = ((AST.Return) s).value;
+                return new Return(value == null ? null : expr(value));
+            } else if (s instanceof AST.Print) {
+                return new Print(expr(((AST.Print) s).value));
+            } else if (s instanceof AST.Break) {
+                return new Jump(BREAK);
+            } else if (s instanceof AST.Continue) {
+                return new Jump(CONTINUE);
+            } else if (s instanceof AST.ExprStmt) {
+                return new Evaluate(expr(((AST.ExprStmt) s).expr));
+            }
+            throw new IllegalArgumentException("Statement não suportado: " + s.getClass().getName());
+        }
+
+        ExprNode constant(Object value) {
+            if (value instanceof Integer) {
+                return new IntConstant((Integer) value);
+            }
+            if (value instanceof Double) {
+                return new DoubleConstant((Double) value);
+            }
+            return new ObjectConstant(value instanceof String ? Values.unescape((String) value) : value);
+        }
+
+        ExprNode load(int slot) {
+            switch (kindOf(slots.typeOf(slot))) {
+                case INT:
+                    return new IntLoad(slot);
+                case DOUBLE:
+                    return new DoubleLoad(slot);
+                case BOOL:
+                    return new BoolLoad(slot);
+                default:
+                    return new RefLoad(slot);
+            }
+        }
+
+        ExprNode expr(AST.Expr e) {
+            if (e instanceof AST.Literal) {
+                return constant(((AST.Literal) e).value);
+            } else if (e instanceof AST.Variable) {
+                return load(slots.resolve(((AST.Variable) e).name));
+            } else if (e instanceof AST.Grouping) {
+                return expr(((AST.Grouping) e).expr);
+            } else if (e instanceof AST.Unary) {
+                AST.Unary v = (AST.Unary) e;
+                ExprNode operand = expr(v.right);
+                return v.op.type == TokenType.BANG ? new Not(v.op, operand) : new UninitializedNegate(v.op, operand);
+            } else if (e instanceof AST.Binary) {
+                AST.Binary v = (AST.Binary) e;
+                ExprNode left = expr(v.left);
+                ExprNode right = expr(v.right);
+                if (v.op.type == TokenType.AND_AND || v.op.type == TokenType.OR_OR) {
+                    return new Logical(left, v.op, right);
+                }
+                return new UninitializedBinary(left, v.op, right);
+            } else if (e instanceof AST.Assign) {
+                AST.Assign v = (AST.Assign) e;
+                ExprNode value = expr(v.value);
+                int slot = slots.resolve(v.name);
+                String type = slots.typeOf(slot);
+                return new UninitializedStore(slot, kindOf(type), type, v.name, value);
+            } else if (e instanceof AST.Ternary) {
+                AST.Ternary v = (AST.Ternary) e;
+                return new Conditional(expr(v.cond), expr(v.thenExpr), expr(v.elseExpr),
+                        Interpreter.firstToken(v.cond));
+            } else if (e instanceof AST.Input) {
+                return new Input(Values.unescape(((AST.Input) e).prompt));
+            } else if (e instanceof AST.ArrayLiteral) {
+                List<AST.Expr> elements = ((AST.ArrayLiteral) e).elements;
+                ExprNode[] nodes = new ExprNode[elements.size()];
+                for (int i = 0; i < nodes.length; i++) {
+                    nodes[i] = expr(elements.get(i));
+                }
+                return new NewArray(nodes);
+            } else if (e instanceof AST.ArrayAccess) {
+                AST.ArrayAccess v = (AST.ArrayAccess) e;
+                return new Index(expr(v.array), expr(v.index), Interpreter.firstToken(v.array));
+            } else if (e instanceof AST.InterpolatedString) {
+                List<Object> parts = ((AST.InterpolatedString) e).parts;
+                ExprNode[] nodes = new ExprNode[parts.size()];
+                for (int i = 0; i < nodes.length; i++) {
+                    Object part = parts.get(i);
+                    nodes[i] = part instanceof String ? new ObjectConstant(Values.interpolationText(parts, i))
+                            : expr((AST.Expr) part);
+                }
+                return new Concat(nodes);
+            }
+            throw new IllegalArgumentException("Expressão não suportada: " + e.getClass().getName());
+        }
+    }
+
+    // ------------------ Conferência e desempenho ------------------
+
+    // Laço quente com soma int, acumulação double, comparação e concatenação
+    static final String HOT_LOOP = String.join("\n",
+            "main {",
+            "  var soma: int = 0;",
+            "  var media: double = 0.0;",
+            "  var texto: string = \"-\";",
+            "  var notas: double[] = [7.5, 8.0, 9.25];",
+            "  for (var i: int = 0; i < %d; i += 1) {",
+            "    soma = soma + i %% 7 * 3;",
+            "    media = media + notas[i %% 3] / 3.0;",
+            "    if (i %% 250000 == 0) {",
+            "      texto = \"Nota \" + i + \": \" + media;",
+            "    }",
+            "  }",
+            "  print(soma);",
+            "  print(media);",
+            "  print(texto);",
+            "}");
+
+    public static void main(String[] args) throws Exception {
+        List<String> inputs = new ArrayList<>();
+        int iterations = 2_000_000;
+        for (String arg : args) {
+            if (arg.matches("\\d+")) {
+                iterations = Integer.parseInt(arg);
+            } else {
+                inputs.add(arg);
+            }
+        }
+        if (inputs.isEmpty()) {
+            inputs.add("src");
+        }
+
+        // Conferência: mesma saída (ou mesmo erro) que o Interpreter
+        int same = 0, total = 0;
+        for (Path file : BatchValidator.collect(inputs)) {
+            AST.Program program;
+            try {
+                program = new Parser(new Lexer(Files.readString(file)).scanTokens()).parse();
+            } catch (RuntimeException e) {
+                continue;
+            }
+            total++;
+            String expected = runCapturing(program, false);
+            if (expected.equals(runCapturing(program, true))) {
+                same++;
+            } else {
+                System.out.println("  saída diferente: " + file);
+            }
+        }
+        System.out.printf("Conferência: %d/%d programas com a mesma saída do Interpreter%n", same, total);
+
+        // Desempenho no laço quente
+        AST.Program hot = new Parser(new Lexer(String.format(HOT_LOOP, iterations)).scanTokens()).parse();
+        PrintStream sink = new PrintStream(OutputStream.nullOutputStream());
+        BufferedReader noInput = new BufferedReader(new StringReader(""));
+        Interpreter generic = new Interpreter(sink, noInput);
+        SpecializingInterpreter specializing = new SpecializingInterpreter(sink, noInput);
+        Prepared prepared = null;
+        for (int round = 1; round <= 5; round++) {
+            long t0 = System.nanoTime();
+            generic.run(hot);
+            long tGeneric = System.nanoTime() - t0;
+            prepared = prepare(hot);
+            t0 = System.nanoTime();
+            specializing.run(prepared);
+            long tSpecial = System.nanoTime() - t0;
+            System.out.printf("Rodada %d (%d iterações): genérico %.1f ms, especializado %.1f ms (%.1fx)%n",
+                    round, iterations, tGeneric / 1e6, tSpecial / 1e6, (double) tGeneric / tSpecial);
+        }
+        String expected = runCapturing(hot, false);
+        System.out.println("Mesma saída no laço quente: " + expected.equals(runCapturing(hot, true)));
+        System.out.println("Reescritas do laço quente:");
+        Map<String, Integer> counts = new TreeMap<>();
+        for (String r : prepared.rewrites()) {
+            counts.merge(r.replaceAll(" \\(linha \\d+\\)", ""), 1, Integer::sum);
+        }
+        counts.forEach((r, n) -> System.out.printf("  %3d × %s%n", n, r));
+    }
+
+    private static String runCapturing(AST.Program program, boolean specializing) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        BufferedReader noInput = new BufferedReader(new StringReader(""));
+        try {
+            Object returned = specializing ? new SpecializingInterpreter(out, noInput).run(program)
+                    : new Interpreter(out, noInput).run(program);
+            out.print("return " + Values.toText(returned));
+        } catch (SemanticError | RuntimeError e) {
+            out.print(e.getMessage());
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+}
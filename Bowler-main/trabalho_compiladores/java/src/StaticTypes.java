@@ -0,0 +1,157 @@
+/**
+ * StaticTypes - tipo estático das expressões de Bowler
+ *
+ * Os backends que geram código tipado (BytecodeCompiler, RegisterVM)
+ * escolhem instruções sem boxing a partir destes tipos. Eles vêm só dos
+ * tipos declarados (SlotResolver) e dos literais, com as mesmas regras de
+ * Values:
+ * - int/char com int/char dá int; com algum double dá double;
+ * - '+' com alguma string dá string;
+ * - comparações, &&, || e ! dão bool;
+ * - a[i] com a declarada "T[]" dá T (Values.coerce já converteu os
+ *   elementos); s[i] com s string dá char;
+ * - o resto (variável sem tipo, ?: com ramos de tipos diferentes, erros de
+ *   tipo que só aparecem ao executar) é OBJECT e fica para Values.
+ *
+ * Uso (durante a mesma passada que resolve os slots):
+ * StaticTypes types = new StaticTypes(slots);
+ * byte t = types.typeOf(expr);
+ */
+public final class StaticTypes {
+
+    public static final byte INT = 0, CHAR = 1, BOOL = 2, DOUBLE = 3, STRING = 4, ARRAY = 5, OBJECT = 6;
+
+    private final SlotResolver slots;
+
+    public StaticTypes(SlotResolver slots) {
+        this.slots = slots;
+    }
+
+    public byte slotType(int slot) {
+        return typeOfName(slots.typeOf(slot));
+    }
+
+    /**
+     * Tipo estático da expressão, sem gerar código
+     */
+    public byte typeOf(AST.Expr e) {
+        if (e instanceof AST.Literal) {
+            Object value = ((AST.Literal) e).value;
+            return value instanceof Integer ? INT : value instanceof Double ? DOUBLE
+                    : value instanceof Character ? CHAR : value instanceof Boolean ? BOOL
+                    : value instanceof String ? STRING : OBJECT;
+        } else if (e instanceof AST.Variable) {
+            return slotType(slots.resolve(((AST.Variable) e).name));
+        } else if (e instanceof AST.Grouping) {
+            return typeOf(((AST.Grouping) e).expr);
+        } else if (e instanceof AST.Unary) {
+            AST.Unary v = (AST.Unary) e;
+            if (v.op.type == TokenType.BANG) {
+                return BOOL;
+            }
+            byte t = typeOf(v.right);
+            return t == INT || t == CHAR ? INT : t == DOUBLE ? DOUBLE : OBJECT;
+        } else if (e instanceof AST.Binary) {
+            AST.Binary v = (AST.Binary) e;
+            if (isCondition(v.op.type)) {
+                return BOOL;
+            }
+            byte l = typeOf(v.left), r = typeOf(v.right);
+            if (v.op.type == TokenType.PLUS && (l == STRING || r == STRING)) {
+                return STRING;
+            }
+            if (isNumeric(l) && isNumeric(r)) {
+                return l == DOUBLE || r == DOUBLE ? DOUBLE : INT;
+            }
+            return OBJECT;
+        } else if (e instanceof AST.Assign) {
+            return slotType(slots.resolve(((AST.Assign) e).name));
+        } else if (e instanceof AST.Ternary) {
+            AST.Ternary v = (AST.Ternary) e;
+            byte a = typeOf(v.thenExpr), b = typeOf(v.elseExpr);
+            return a == b ? a : OBJECT;
+        } else if (e instanceof AST.Input || e instanceof AST.InterpolatedString) {
+            return STRING;
+        } else if (e instanceof AST.ArrayLiteral) {
+            return ARRAY;
+        } else if (e instanceof AST.ArrayAccess) {
+            AST.ArrayAccess v = (AST.ArrayAccess) e;
+            if (typeOf(v.index) != INT) {
+                return OBJECT;
+            }
+            byte element = elementType(v.array);
+            return element >= 0 ? element : typeOf(v.array) == STRING ? CHAR : OBJECT;
+        }
+        throw new IllegalArgumentException("Expressão não suportada: " + e.getClass().getName());
+    }
+
+    /**
+     * Tipo dos elementos se a expressão é uma variável "T[]" (Values.coerce
+     * já converteu cada elemento para T); -1 se desconhecido
+     */
+    public byte elementType(AST.Expr array) {
+        while (array instanceof AST.Grouping) {
+            array = ((AST.Grouping) array).expr;
+        }
+        if (!(array instanceof AST.Variable)) {
+            return -1;
+        }
+        String type = slots.typeOf(slots.resolve(((AST.Variable) array).name));
+        if (type == null || !type.endsWith("[]")) {
+            return -1;
+        }
+        byte element = typeOfName(type.substring(0, type.length() - 2));
+        return element == ARRAY || element == OBJECT ? -1 : element;
+    }
+
+    public static byte typeOfName(String type) {
+        if (type == null) {
+            return OBJECT;
+        }
+        if (type.endsWith("[]")) {
+            return ARRAY;
+        }
+        switch (type) {
+            case "int":
+                return INT;
+            case "float":
+            case "double":
+                return DOUBLE;
+            case "char":
+                return CHAR;
+            case "bool":
+                return BOOL;
+            case "string":
+                return STRING;
+            default:
+                return OBJECT;
+        }
+    }
+
+    public static boolean isNumeric(byte t) {
+        return t == INT || t == CHAR || t == DOUBLE;
+    }
+
+    public static boolean isReference(byte t) {
+        return t == STRING || t == ARRAY || t == OBJECT;
+    }
+
+    /**
+     * Operadores que dão bool (comparações, && e ||)
+     */
+    public static boolean isCondition(TokenType op) {
+        switch (op) {
+            case AND_AND:
+            case OR_OR:
+            case EQUAL_EQUAL:
+            case BANG_EQUAL:
+            case LESS:
+            case LESS_EQUAL:
+            case GREATER:
+            case GREATER_EQUAL:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
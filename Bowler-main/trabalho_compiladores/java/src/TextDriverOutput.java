@@ -0,0 +1,204 @@
+import java.io.PrintStream;
+import java.util.*;
+
+/**
+ * TextDriverOutput - Saída em texto do driver Bowler
+ *
+ * Com todas as fases reproduz a saída tradicional do Bowler. Sem fases
+ * (--output=quiet) imprime apenas os veredictos e os erros. Escreve em
+ * System.out, que o driver troca por um stream com buffer: FIRST/FOLLOW,
+ * tabela e trace, impressos pelas próprias classes, passam pelo mesmo buffer.
+ */
+public class TextDriverOutput implements DriverOutput {
+
+    private final Set<Phase> phases;
+    private final boolean verbose;
+
+    public TextDriverOutput(Set<Phase> phases) {
+        this.phases = phases;
+        this.verbose = !phases.isEmpty();
+    }
+
+    @Override
+    public boolean shows(Phase phase) {
+        return phases.contains(phase);
+    }
+
+    private static PrintStream out() {
+        return System.out;
+    }
+
+    @Override
+    public void begin(String sourcePath) {
+        if (sourcePath == null && verbose) {
+            out().println("[Sem arquivo] Usando o exemplo embutido.");
+        }
+    }
+
+    @Override
+    public void tokens(List<Token> tokens) {
+        if (!shows(Phase.TOKENS)) {
+            return;
+        }
+        PrintStream out = out();
+        // Imprimir Tabela de Tokens
+        out.println("=== Tabela de Tokens ===");
+        out.printf("%-15s %-18s %-6s %-6s\n", "Lexema", "Classe", "Linha", "Col");
+        out.println("-------------------------------------------------------------");
+        for (Token t : tokens) {
+            out.printf("%-15s %-18s %-6d %-6d\n",
+                t.lexeme,
+                t.type,
+                t.line,
+                t.column);
+        }
+
+        // Imprimir Cadeia de Tokens
+        out.println("=== Cadeia de Tokens ===");
+        int count = 0;
+        for (Token t : tokens) {
+            out.printf("%-12s ", t.type);
+            count++;
+            if (count % 8 == 0) out.println();
+        }
+        if (count % 8 != 0) out.println();
+    }
+
+    @Override
+    public void regex() {
+        if (!shows(Phase.REGEX)) {
+            return;
+        }
+        PrintStream out = out();
+        // Imprimir Expressões Regulares Utilizadas (Opção A - Conformidade)
+        out.println("\n=== Expressões Regulares Utilizadas (Lexer) ===");
+        out.println("IDENTIFIER: [a-zA-Z_][a-zA-Z0-9_]*");
+        out.println("NUMBER:     [0-9]+ | [0-9]+\\.[0-9]+ | [0-9]+\\.[0-9]+[dD]");
+        out.println("STRING:     \"[^\"]*\"");
+        out.println("CHAR:       '[a-zA-Z0-9]'");
+        out.println("OPERATORS:  +, -, *, /, %, ==, !=, <, >, <=, >=, =, +=, -=, *=, /=, %=");
+        out.println("LOGICAL:    &&, ||, !");
+        out.println("KEYWORDS:   var, int, float, double, char, bool, string, true, false,");
+        out.println("            if, else, while, do, for, switch, case, default, break,");
+        out.println("            continue, print, input, return, main");
+        out.println("DELIMITERS: { } [ ] ( ) , . ; : ?");
+        out.println("COMMENTS:   // ... (linha)  e  /* ... */ (bloco)");
+    }
+
+    @Override
+    public void recursive(AST.Program program, ParseError error) {
+        PrintStream out = out();
+        if (program != null) {
+            out.println((verbose ? "\n" : "") + "✅ Parser Recursivo: Programa reconhecido sem erros.");
+            if (shows(Phase.AST)) {
+                out.println("=== Árvore (impressão simplificada) ===");
+                program.prettyPrint(0);
+                out.println("=== Árvore (detalhada) ===");
+                out.println(program.toDetailedString());
+            }
+        } else {
+            out.flush(); // mantém a ordem em relação a System.err
+            System.err.println("❌ Erro sintático: " + error.getMessage());
+        }
+    }
+
+    @Override
+    public void grammar(LL1GrammarAnalyzer analyzer, CompressedParsingTable table, boolean fromCache) {
+        if (!verbose) {
+            return;
+        }
+        PrintStream out = out();
+        out.println("\n" + "=".repeat(60));
+        out.println("ANÁLISE LL(1) COM PILHA - GRAMÁTICA BOWLER");
+        out.println("=".repeat(60));
+        out.println("\nNota: Células em conflito da tabela LL(1) são decididas por");
+        out.println("predição adaptativa (ALL(*)), olhando mais tokens adiante.");
+        if (fromCache) {
+            out.println("(tabela LL(1) carregada do cache)");
+        }
+        if (shows(Phase.GRAMMAR)) {
+            // Exibir FIRST, FOLLOW e Tabela
+            analyzer.printFirst();
+            analyzer.printFollow();
+            analyzer.printParsingTable();
+            // Tabela comprimida usada pelo parser com pilha
+            table.printReport();
+        }
+    }
+
+    @Override
+    public void stackStart(List<Token> tokens) {
+        if (!verbose) {
+            return;
+        }
+        PrintStream out = out();
+        out.println("\n" + "=".repeat(60));
+        out.println("TESTE COM TOKENS DO LEXER");
+        out.println("=".repeat(60));
+        if (shows(Phase.TOKENS)) {
+            out.println("Entrada (tokens do arquivo lido):");
+            out.println("Tokens: ");
+            for (Token t : tokens) {
+                out.print(t.type + " ");
+            }
+            out.println();
+        }
+    }
+
+    @Override
+    public void stackStats(AdaptivePredictor predictor, String traceNote) {
+        if (traceNote != null) {
+            out().println(traceNote);
+        }
+        if (predictor != null && shows(Phase.STATS)) {
+            predictor.printStats();
+        }
+    }
+
+    @Override
+    public void stackResult(boolean accepted, List<ParseError> errors, AST.Program stackProgram, Boolean sameAst) {
+        PrintStream out = out();
+        String gap = verbose ? "\n" : "";
+        if (accepted) {
+            out.println(gap + "✅ Análise LL(1) com Pilha: ACEITA entrada lida");
+            if (stackProgram != null && shows(Phase.AST)) {
+                out.println("=== Árvore construída pelo parser com pilha (ações semânticas) ===");
+                stackProgram.prettyPrint(0);
+            }
+            if (sameAst != null) {
+                out.println(sameAst
+                        ? "✅ AST idêntica à do Parser Recursivo"
+                        : "❌ AST difere da do Parser Recursivo");
+            }
+        } else {
+            out.println(gap + "❌ Análise LL(1) com Pilha: REJEITA entrada lida ("
+                    + errors.size() + " erro(s))");
+            for (ParseError e : errors) {
+                out.println("  - " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void failure(String message) {
+        out().flush();
+        System.err.println("\n⚠️ Análise LL(1): " + message);
+    }
+
+    @Override
+    public void reconciliation(boolean agree, String message, long recursiveNanos, long stackNanos,
+            long totalNanos) {
+        PrintStream out = out();
+        if (verbose) {
+            out.printf("%nParser Recursivo %.2f ms, LL(1) com Pilha %.2f ms%n", recursiveNanos / 1e6, stackNanos / 1e6);
+            out.printf("Tempo total: %.2f ms (em sequência: %.2f ms)%n", totalNanos / 1e6,
+                    (recursiveNanos + stackNanos) / 1e6);
+        }
+        out.println((agree ? "✅ Veredictos conciliados: " : "⚠️ Divergência: ") + message);
+    }
+
+    @Override
+    public void close() {
+        out().flush();
+    }
+}
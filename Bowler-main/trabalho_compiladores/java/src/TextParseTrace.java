@@ -0,0 +1,164 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * TextParseTrace - Trace em texto do LL1StackParser, com buffer
+ *
+ * Produz o mesmo formato que o parser imprimia diretamente (Passo, Pilha,
+ * Lookahead, MATCH, Produção), mas escreve em um Writer com buffer grande e a
+ * pilha é escrita símbolo a símbolo, sem montar stack.toString().
+ */
+public class TextParseTrace implements ParseTrace {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Level level;
+    private final Writer out;
+    private int errors = 0;
+
+    public TextParseTrace(Level level, Writer out) {
+        this.level = level;
+        this.out = out;
+    }
+
+    /**
+     * Trace em System.out (o buffer é descarregado ao fim de cada análise)
+     */
+    public static TextParseTrace stdout(Level level) {
+        return new TextParseTrace(level, new BufferedWriter(
+                new OutputStreamWriter(System.out, StandardCharsets.UTF_8), BUFFER_SIZE));
+    }
+
+    @Override
+    public Level level() {
+        return level;
+    }
+
+    @Override
+    public void start(String startSymbol, List<String> stack, String lookahead) {
+        write("\n=== Iniciando Análise LL(1) com Pilha ===\n");
+        if (level == Level.STEPS) {
+            write("Passo 0: Pilha = ");
+            writeList(stack);
+            write(", Lookahead = ");
+            write(lookahead);
+            write("\n");
+        }
+    }
+
+    @Override
+    public void step(int step, List<String> stack, String lookahead, Token token) {
+        write("\nPasso ");
+        write(Integer.toString(step));
+        write(":\n  Pilha: ");
+        writeList(stack);
+        write("\n  Lookahead: ");
+        write(lookahead);
+        write(" (");
+        write(token.lexeme);
+        write(")\n");
+    }
+
+    @Override
+    public void match(String terminal) {
+        write("  MATCH: ");
+        write(terminal);
+        write("\n");
+    }
+
+    @Override
+    public void predicted(String nonTerminal, String terminal, List<String> production) {
+        write("  Predição adaptativa: M[");
+        write(nonTerminal);
+        write(", ");
+        write(terminal);
+        write("] → ");
+        writeList(production);
+        write("\n");
+    }
+
+    @Override
+    public void expand(String nonTerminal, List<String> production) {
+        write("  Produção: ");
+        write(nonTerminal);
+        write(" → ");
+        writeList(production);
+        write("\n");
+    }
+
+    @Override
+    public void syntaxError(String message) {
+        errors++;
+        write("  ERRO: ");
+        write(message);
+        write("\n");
+    }
+
+    @Override
+    public void skip(Token token) {
+        write("  Recuperação: token '");
+        write(token.lexeme);
+        write("' descartado\n");
+    }
+
+    @Override
+    public void insert(String terminal) {
+        write("  Recuperação: '");
+        write(terminal);
+        write("' inserido\n");
+    }
+
+    @Override
+    public void pop(String nonTerminal) {
+        write("  Recuperação: ");
+        write(nonTerminal);
+        write(" desempilhado (sincronização por FOLLOW)\n");
+    }
+
+    @Override
+    public void finish(boolean accepted, int steps) {
+        if (accepted) {
+            write("✅ Análise SUCESSO! String aceita.\n");
+        } else if (errors > 0) {
+            write("\n❌ Análise FALHOU! " + errors + " erro(s) sintático(s)\n");
+        } else {
+            write("\n❌ Análise FALHOU! Pilha vazia mas lookahead != $\n");
+        }
+        errors = 0;
+        if (level == Level.SUMMARY) {
+            write("(" + steps + " passos)\n");
+        }
+    }
+
+    @Override
+    public void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Mesmo formato de List.toString(), escrito direto no buffer
+     */
+    private void writeList(List<String> symbols) {
+        write("[");
+        for (int i = 0; i < symbols.size(); i++) {
+            if (i > 0) {
+                write(", ");
+            }
+            write(symbols.get(i));
+        }
+        write("]");
+    }
+
+    private void write(String s) {
+        try {
+            out.write(s);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
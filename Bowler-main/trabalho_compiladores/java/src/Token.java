@@ -4,9 +4,15 @@ public class Token {
     public final Object literal;
     public final int line;
     public final int column;
+    public final int offset; // posição do lexema na fonte (-1 = desconhecida ou token sintético)
 
     public Token(TokenType type, String lexeme, Object literal, int line, int column) {
+        this(type, lexeme, literal, line, column, -1);
+    }
+
+    public Token(TokenType type, String lexeme, Object literal, int line, int column, int offset) {
         this.type = type; this.lexeme = lexeme; this.literal = literal; this.line = line; this.column = column;
+        this.offset = offset;
     }
 
     @Override
@@ -0,0 +1,419 @@
+import java.util.*;
+
+/**
+ * Values - semântica dos valores de Bowler em tempo de execução
+ *
+ * Representação: int → Integer, float/double → Double, char → Character,
+ * bool → Boolean, string → String, arrays → Object[]. Todas as formas de
+ * executar um programa (Interpreter e as que vierem) usam estas regras,
+ * então um programa imprime o mesmo em qualquer uma:
+ * - aritmética: int com int dá int (divisão inteira; divisão ou resto por
+ *   zero é erro), com algum double dá double; char conta como int;
+ * - '+' com alguma string concatena (texto de toText);
+ * - comparações: números entre si, chars entre si, strings em ordem
+ *   lexicográfica; '==' compara números pelo valor (1 == 1.0);
+ * - condições e &&, ||, ! aceitam bool ou número (diferente de zero é
+ *   verdadeiro, como em C: while (x) { ... });
+ * - atribuir a uma variável converte para o tipo declarado (int → double,
+ *   char → int, string de input() → número/char/bool, elementos de array).
+ *
+ * Erros viram RuntimeError com a linha do token responsável.
+ */
+public final class Values {
+
+    private Values() {
+    }
+
+    // ------------------ Aritmética e comparações ------------------
+
+    /**
+     * Operador binário (exceto && e ||, que avaliam em curto-circuito)
+     */
+    public static Object binary(Token op, Object a, Object b) {
+        switch (op.type) {
+            case PLUS:
+                if (a instanceof String || b instanceof String) {
+                    return toText(a) + toText(b);
+                }
+                return arithmetic(op, a, b);
+            case MINUS:
+            case STAR:
+            case SLASH:
+            case PERCENT:
+                return arithmetic(op, a, b);
+            case EQUAL_EQUAL:
+                return equal(a, b);
+            case BANG_EQUAL:
+                return !equal(a, b);
+            case LESS:
+                return compare(op, a, b) < 0;
+            case LESS_EQUAL:
+                return compare(op, a, b) <= 0;
+            case GREATER:
+                return compare(op, a, b) > 0;
+            case GREATER_EQUAL:
+                return compare(op, a, b) >= 0;
+            default:
+                throw error(op, "Operador binário não suportado: '" + op.lexeme + "'.");
+        }
+    }
+
+    public static Object arithmetic(Token op, Object a, Object b) {
+        if (!isNumeric(a) || !isNumeric(b)) {
+            throw error(op, "Operandos de '" + op.lexeme + "' devem ser números: " + describe(a) + " e "
+                    + describe(b) + ".");
+        }
+        if (a instanceof Double || b instanceof Double) {
+            return arithmetic(op, toDouble(a), toDouble(b));
+        }
+        return arithmetic(op, toInt(a), toInt(b));
+    }
+
+    public static int arithmetic(Token op, int x, int y) {
+        switch (op.type) {
+            case PLUS:
+                return x + y;
+            case MINUS:
+                return x - y;
+            case STAR:
+                return x * y;
+            case SLASH:
+                if (y == 0) {
+                    throw error(op, "Divisão por zero.");
+                }
+                return x / y;
+            case PERCENT:
+                if (y == 0) {
+                    throw error(op, "Resto de divisão por zero.");
+                }
+                return x % y;
+            default:
+                throw error(op, "Operador aritmético inválido: '" + op.lexeme + "'.");
+        }
+    }
+
+    public static double arithmetic(Token op, double x, double y) {
+        switch (op.type) {
+            case PLUS:
+                return x + y;
+            case MINUS:
+                return x - y;
+            case STAR:
+                return x * y;
+            case SLASH:
+                return x / y;
+            case PERCENT:
+                return x % y;
+            default:
+                throw error(op, "Operador aritmético inválido: '" + op.lexeme + "'.");
+        }
+    }
+
+    public static boolean equal(Object a, Object b) {
+        if (isNumeric(a) && isNumeric(b) && !(a instanceof Character && b instanceof Character)) {
+            return a instanceof Double || b instanceof Double ? toDouble(a) == toDouble(b) : toInt(a) == toInt(b);
+        }
+        return a instanceof Object[] ? a == b : Objects.equals(a, b);
+    }
+
+    public static int compare(Token op, Object a, Object b) {
+        if (isNumeric(a) && isNumeric(b)) {
+            return a instanceof Double || b instanceof Double ? compareDoubles(op.type, toDouble(a), toDouble(b))
+                    : Integer.compare(toInt(a), toInt(b));
+        }
+        if (a instanceof String && b instanceof String) {
+            return ((String) a).compareTo((String) b);
+        }
+        throw error(op, "Não é possível comparar " + describe(a) + " e " + describe(b) + " com '" + op.lexeme + "'.");
+    }
+
+    /**
+     * Comparação de doubles com a semântica de <, <=, > e >= primitivos,
+     * coerente com equal: -0.0 e 0.0 são iguais e, com NaN, o resultado torna
+     * o operador falso (como dcmpg para < e <=, dcmpl para > e >=)
+     */
+    static int compareDoubles(TokenType op, double x, double y) {
+        if (x < y) {
+            return -1;
+        }
+        if (x > y) {
+            return 1;
+        }
+        if (x == y) {
+            return 0;
+        }
+        return op == TokenType.LESS || op == TokenType.LESS_EQUAL ? 1 : -1;
+    }
+
+    public static Object negate(Token op, Object v) {
+        if (v instanceof Double) {
+            return -(Double) v;
+        }
+        if (isNumeric(v)) {
+            return -toInt(v);
+        }
+        throw error(op, "Operando de '-' deve ser número: " + describe(v) + ".");
+    }
+
+    public static boolean condition(Token where, Object v) {
+        if (v instanceof Boolean) {
+            return (Boolean) v;
+        }
+        if (v instanceof Integer || v instanceof Character) {
+            return toInt(v) != 0;
+        }
+        if (v instanceof Double) {
+            return (Double) v != 0.0;
+        }
+        throw error(where, "Esperado bool ou número na condição, encontrado " + describe(v) + ".");
+    }
+
+    // ------------------ Arrays ------------------
+
+    /**
+     * v[i] para arrays (elemento) e strings (char)
+     */
+    public static Object index(Token where, Object v, Object i) {
+        if (!(i instanceof Integer)) {
+            throw error(where, "Índice deve ser int, encontrado " + describe(i) + ".");
+        }
+        int k = (Integer) i;
+        int size = v instanceof Object[] ? ((Object[]) v).length : v instanceof String ? ((String) v).length() : -1;
+        if (size < 0) {
+            throw error(where, "Indexação exige array ou string, encontrado " + describe(v) + ".");
+        }
+        if (k < 0 || k >= size) {
+            throw error(where, "Índice " + k + " fora dos limites (tamanho " + size + ").");
+        }
+        return v instanceof Object[] ? ((Object[]) v)[k] : (Object) ((String) v).charAt(k);
+    }
+
+    // ------------------ Tipos declarados ------------------
+
+    /**
+     * Valor guardado em uma variável do tipo declarado (null = sem tipo)
+     */
+    public static Object coerce(Token where, Object v, String type) {
+        if (type == null) {
+            return v;
+        }
+        if (type.endsWith("[]")) {
+            if (!(v instanceof Object[])) {
+                throw mismatch(where, v, type);
+            }
+            // Copia só se algum elemento muda (o array original pode estar em outra variável)
+            Object[] array = (Object[]) v;
+            Object[] result = array;
+            String element = type.substring(0, type.length() - 2);
+            for (int i = 0; i < array.length; i++) {
+                Object e = coerce(where, array[i], element);
+                if (e != array[i]) {
+                    if (result == array) {
+                        result = array.clone();
+                    }
+                    result[i] = e;
+                }
+            }
+            return result;
+        }
+        switch (type) {
+            case "int":
+                if (v instanceof Integer) {
+                    return v;
+                }
+                if (v instanceof Character) {
+                    return (int) (Character) v;
+                }
+                if (v instanceof String) {
+                    try {
+                        return Integer.parseInt(((String) v).trim());
+                    } catch (NumberFormatException e) {
+                        throw mismatch(where, v, type);
+                    }
+                }
+                break;
+            case "float":
+            case "double":
+                if (v instanceof Double) {
+                    return v;
+                }
+                if (v instanceof Integer || v instanceof Character) {
+                    return toDouble(v);
+                }
+                if (v instanceof String) {
+                    try {
+                        return Double.parseDouble(((String) v).trim());
+                    } catch (NumberFormatException e) {
+                        throw mismatch(where, v, type);
+                    }
+                }
+                break;
+            case "char":
+                if (v instanceof Character) {
+                    return v;
+                }
+                if (v instanceof String && ((String) v).length() == 1) {
+                    return ((String) v).charAt(0);
+                }
+                break;
+            case "bool":
+                if (v instanceof Boolean) {
+                    return v;
+                }
+                if ("true".equals(v) || "false".equals(v)) {
+                    return Boolean.valueOf((String) v);
+                }
+                break;
+            case "string":
+                if (v instanceof String) {
+                    return v;
+                }
+                break;
+            default:
+                return v;
+        }
+        throw mismatch(where, v, type);
+    }
+
+    /**
+     * Valor de uma variável declarada sem inicializador
+     */
+    public static Object defaultValue(String type) {
+        if (type == null) {
+            return null;
+        }
+        if (type.endsWith("[]")) {
+            return new Object[0];
+        }
+        switch (type) {
+            case "int":
+                return 0;
+            case "float":
+            case "double":
+                return 0.0;
+            case "char":
+                return '\0';
+            case "bool":
+                return false;
+            case "string":
+                return "";
+            default:
+                return null;
+        }
+    }
+
+    // ------------------ Texto ------------------
+
+    /**
+     * Texto de um valor em print e concatenação
+     */
+    public static String toText(Object v) {
+        if (v instanceof Object[]) {
+            StringBuilder sb = new StringBuilder("[");
+            Object[] array = (Object[]) v;
+            for (int i = 0; i < array.length; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(toText(array[i]));
+            }
+            return sb.append(']').toString();
+        }
+        return String.valueOf(v);
+    }
+
+    /**
+     * Resolve os escapes que o Lexer deixa no texto das strings (\n, \t,
+     * \", \\, \{ ...)
+     */
+    public static String unescape(String s) {
+        int slash = s.indexOf('\\');
+        if (slash < 0) {
+            return s;
+        }
+        StringBuilder sb = new StringBuilder(s.length());
+        sb.append(s, 0, slash);
+        for (int i = slash; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c != '\\' || i + 1 == s.length()) {
+                sb.append(c);
+                continue;
+            }
+            char next = s.charAt(++i);
+            switch (next) {
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case '0':
+                    sb.append('\0');
+                    break;
+                default:
+                    sb.append(next); // \" \\ \' \{ \}
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Partes literais de uma string interpolada já com escapes resolvidos;
+     * aceita tanto "{x}" quanto "${x}" (o '$' antes de uma expressão sai)
+     */
+    public static String interpolationText(List<Object> parts, int i) {
+        String text = unescape((String) parts.get(i));
+        if (i + 1 < parts.size() && parts.get(i + 1) instanceof AST.Expr && text.endsWith("$")) {
+            text = text.substring(0, text.length() - 1);
+        }
+        return text;
+    }
+
+    public static String describe(Object v) {
+        if (v == null) {
+            return "nulo";
+        }
+        if (v instanceof Integer) {
+            return "int " + v;
+        }
+        if (v instanceof Double) {
+            return "double " + v;
+        }
+        if (v instanceof Character) {
+            return "char '" + v + "'";
+        }
+        if (v instanceof Boolean) {
+            return "bool " + v;
+        }
+        if (v instanceof String) {
+            return "string \"" + v + "\"";
+        }
+        return "array " + toText(v);
+    }
+
+    // ------------------ Conversões ------------------
+
+    public static boolean isNumeric(Object v) {
+        return v instanceof Integer || v instanceof Double || v instanceof Character;
+    }
+
+    public static int toInt(Object v) {
+        return v instanceof Character ? (Character) v : ((Number) v).intValue();
+    }
+
+    public static double toDouble(Object v) {
+        return v instanceof Character ? (Character) v : ((Number) v).doubleValue();
+    }
+
+    private static RuntimeError mismatch(Token where, Object v, String type) {
+        return error(where, "Tipo incompatível: " + describe(v) + " não pode ser guardado em " + type + ".");
+    }
+
+    public static RuntimeError error(Token where, String message) {
+        return new RuntimeError("[Linha " + (where == null ? "?" : String.valueOf(where.line)) + "] Erro de execução: "
+                + message);
+    }
+}